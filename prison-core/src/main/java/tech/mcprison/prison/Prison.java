@@ -44,6 +44,7 @@ import tech.mcprison.prison.placeholders.PlaceholderManager;
 import tech.mcprison.prison.placeholders.PlaceholdersUtil;
 import tech.mcprison.prison.selection.SelectionManager;
 import tech.mcprison.prison.store.Database;
+import tech.mcprison.prison.tasks.PrisonBlockSetScheduler;
 import tech.mcprison.prison.troubleshoot.TroubleshootManager;
 import tech.mcprison.prison.util.EventExceptionHandler;
 import tech.mcprison.prison.util.PrisonStatsUtil;
@@ -493,6 +494,12 @@ public class Prison
         	
         	display.addText( "&7TPS History: %s", tpsHistory );
         }
+        
+        PrisonBlockSetScheduler blockSetScheduler = PrisonBlockSetScheduler.getInstance();
+        if ( blockSetScheduler.getStatsTicks() > 0 ) {
+        	
+        	display.addText( "&7%s", blockSetScheduler.getStatsMessage() );
+        }
 
     }
     public void getSystemTPS( LinkedHashMap<String, String> fields ) {
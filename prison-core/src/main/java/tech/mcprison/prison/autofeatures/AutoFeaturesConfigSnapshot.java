@@ -0,0 +1,77 @@
+package tech.mcprison.prison.autofeatures;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
+
+/**
+ * <p>This is an immutable copy of all of the AutoFeatures values, which are
+ * resolved from the config once, when it is loaded or changed, instead of 
+ * looking up the keys in the config every time a feature is checked.  The 
+ * block break events check dozens of features for each block, and with 
+ * explosions that can be hundreds of blocks per event.
+ * </p>
+ * 
+ * <p>The values are indexed by the ordinal of the AutoFeatures.  The values 
+ * are resolved exactly as they are by the AutoFeatures getters, so if a value is 
+ * not in the config, or if it is the wrong type, then the default is used.
+ * </p>
+ *
+ */
+public class AutoFeaturesConfigSnapshot {
+
+	private final BitSet booleans;
+	private final String[] messages;
+	private final int[] integers;
+	private final double[] doubles;
+	private final List<List<String>> stringLists;
+	
+	public AutoFeaturesConfigSnapshot( Map<String, ValueNode> conf ) {
+		super();
+		
+		AutoFeatures[] features = AutoFeatures.values();
+		
+		this.booleans = new BitSet( features.length );
+		this.messages = new String[features.length];
+		this.integers = new int[features.length];
+		this.doubles = new double[features.length];
+		this.stringLists = new ArrayList<>( features.length );
+		
+		for ( AutoFeatures feature : features ) {
+			int i = feature.ordinal();
+			
+			booleans.set( i, feature.getBoolean( conf ) );
+			messages[i] = feature.getMessage( conf );
+			integers[i] = feature.getInteger( conf );
+			doubles[i] = feature.getDouble( conf );
+			
+			// Copy the list so it cannot be changed through the config:
+			stringLists.add( Collections.unmodifiableList( 
+							new ArrayList<>( feature.getStringList( conf ) ) ) );
+		}
+	}
+	
+	public boolean getBoolean( AutoFeatures feature ) {
+		return booleans.get( feature.ordinal() );
+	}
+	
+	public String getMessage( AutoFeatures feature ) {
+		return messages[feature.ordinal()];
+	}
+	
+	public int getInteger( AutoFeatures feature ) {
+		return integers[feature.ordinal()];
+	}
+	
+	public double getDouble( AutoFeatures feature ) {
+		return doubles[feature.ordinal()];
+	}
+	
+	public List<String> getStringList( AutoFeatures feature ) {
+		return stringLists.get( feature.ordinal() );
+	}
+}
@@ -21,6 +21,14 @@ public class AutoFeaturesFileConfig {
     
     private Map<String, ValueNode> config;
     
+    /**
+     * <p>The values of the config, resolved once when the config is loaded or 
+     * changed.  A new snapshot is published every time, so the block events, which
+     * may be on other threads, will never see a partially loaded config.
+     * </p>
+     */
+    private volatile AutoFeaturesConfigSnapshot snapshot;
+    
     /**
      * 
      * <p>Pertaining to canceling a block break even, or just canceling the drops, the ability to 
@@ -940,6 +948,8 @@ public class AutoFeaturesFileConfig {
 
 		dne.size();
 		
+		publishSnapshot();
+		
 //		Set<String> keys = getConfig().keySet();
 //		for ( String key : keys ) {
 //			ValueNode value = getConfig().get( key );
@@ -957,16 +967,19 @@ public class AutoFeaturesFileConfig {
 
 
 	public void reloadConfig() {
-    	// First clear the configs:
-    	getConfig().clear();
+    	// Load in to a new config, so the current config and snapshot are still used 
+		// until the new config is fully loaded:
+		Map<String, ValueNode> newConfig = new LinkedHashMap<>();
     	
     	
     	// Load from the config file:
     	YamlFileIO yamlFileIO = Prison.get().getPlatform().getYamlFileIO( getConfigFile() );
-		List<AutoFeatures> dne = yamlFileIO.loadYamlAutoFeatures( getConfig() );
+		List<AutoFeatures> dne = yamlFileIO.loadYamlAutoFeatures( newConfig );
 		
 		dne.size();
 		
+		setConfig( newConfig );
+		
 		// need to reload the auto features event listeners:
 		Prison.get().getPlatform().reloadAutoFeaturesEventListeners();
     }
@@ -1005,6 +1018,8 @@ public class AutoFeaturesFileConfig {
 			TextNode text = TextNode.valueOf( value );
 			
 			getConfig().put( feature.getKey(), text );
+			
+			publishSnapshot();
 		}
 		
 	}
@@ -1037,6 +1052,8 @@ public class AutoFeaturesFileConfig {
 			BooleanNode bool = BooleanNode.valueOf( value  );
 			
 			getConfig().put( feature.getKey(), bool );
+			
+			publishSnapshot();
 		}
 		
 	}
@@ -1050,24 +1067,51 @@ public class AutoFeaturesFileConfig {
 	 * @return
 	 */
 	public boolean isFeatureBoolean( AutoFeatures feature ) {
-		return feature.getBoolean( getConfig() );
+		return getSnapshot().getBoolean( feature );
 	}
 	
 	public String getFeatureMessage( AutoFeatures feature ) {
-		return feature.getMessage( getConfig() );
+		return getSnapshot().getMessage( feature );
 	}
 	
 	public int getInteger( AutoFeatures feature ) {
-		return feature.getInteger( getConfig() );
+		return getSnapshot().getInteger( feature );
 	}
 	
 	public double getDouble( AutoFeatures feature ) {
-		return feature.getDouble( getConfig() );
+		return getSnapshot().getDouble( feature );
 	}
 	
+	/**
+	 * <p>The returned list cannot be modified.
+	 * </p>
+	 * 
+	 * @param feature
+	 * @return
+	 */
 	public List<String> getFeatureStringList( AutoFeatures feature ) {
 		
-		return feature.getStringList( getConfig() );
+		return getSnapshot().getStringList( feature );
+	}
+	
+	/**
+	 * <p>Resolves all of the values in the config, and replaces the snapshot.  This 
+	 * must be called if the config is changed directly.
+	 * </p>
+	 */
+	public void publishSnapshot() {
+		this.snapshot = new AutoFeaturesConfigSnapshot( getConfig() );
+	}
+	
+	public AutoFeaturesConfigSnapshot getSnapshot() {
+		AutoFeaturesConfigSnapshot results = snapshot;
+		
+		if ( results == null ) {
+			publishSnapshot();
+			results = snapshot;
+		}
+		
+		return results;
 	}
 	
 	public boolean saveConf() {
@@ -1111,6 +1155,8 @@ public class AutoFeaturesFileConfig {
 
 	public void setConfig( Map<String, ValueNode> config ) {
 		this.config = config;
+		
+		publishSnapshot();
 	}
 
 
@@ -0,0 +1,195 @@
+package tech.mcprison.prison.autofeatures;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import tech.mcprison.prison.util.Text;
+
+/**
+ * <p>This caches the lore values of the tools that are used to break blocks, so
+ * the lore does not have to be parsed for every block that is broken.  Players 
+ * use the same tool for hours, and an explosion may break hundreds of blocks with 
+ * the same tool.
+ * </p>
+ * 
+ * <p>Bukkit returns a new ItemMeta, and a new lore list, every time it is 
+ * requested, so the identity of the lore cannot be used.  Instead the lore's 
+ * text is the key, which is much faster to compare than stripping the color codes 
+ * with regex and parsing the numbers.
+ * </p>
+ *
+ */
+public class AutoFeaturesLoreCache {
+
+	/**
+	 * <p>When there are more entries than this, then the cache is cleared.  There 
+	 * should only be a few entries for each tool that has lore.
+	 * </p>
+	 */
+	public static final int MAX_ENTRIES = 2000;
+	
+	private static AutoFeaturesLoreCache instance;
+	
+	private final Map<LoreKey, Double> loreValues;
+	
+	private static class LoreKey {
+		private final String loreValue;
+		private final boolean stripColor;
+		private final List<String> lores;
+		private final int hash;
+		
+		private LoreKey( String loreValue, boolean stripColor, List<String> lores ) {
+			this.loreValue = loreValue;
+			this.stripColor = stripColor;
+			this.lores = lores;
+			
+			this.hash = (loreValue.hashCode() * 31 + lores.hashCode()) * 31 + (stripColor ? 1 : 0);
+		}
+		
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+		
+		@Override
+		public boolean equals( Object obj ) {
+			boolean results = this == obj;
+			
+			if ( !results && obj instanceof LoreKey ) {
+				LoreKey key = (LoreKey) obj;
+				
+				results = hash == key.hash &&
+						stripColor == key.stripColor &&
+						loreValue.equals( key.loreValue ) &&
+						lores.equals( key.lores );
+			}
+			
+			return results;
+		}
+	}
+	
+	public AutoFeaturesLoreCache() {
+		super();
+		
+		this.loreValues = new ConcurrentHashMap<>();
+	}
+	
+	public static AutoFeaturesLoreCache getInstance() {
+		if ( instance == null ) {
+			synchronized ( AutoFeaturesLoreCache.class ) {
+				if ( instance == null ) {
+					
+					instance = new AutoFeaturesLoreCache();
+				}
+			}
+		}
+		return instance;
+	}
+	
+	/**
+	 * <p>Returns the percent chance, from 0.0 to 100.0, of the loreValue in the lores.  
+	 * If the lore is found, then the number that follows it is the percent, or 100.0 
+	 * if there is no number.  If the lore is not found, then it returns 0.0.
+	 * </p>
+	 * 
+	 * @param lores The tool's lore.
+	 * @param loreValue The lore to look for.
+	 * @param stripColor If true, then the color codes are removed from the lore and
+	 * 				the loreValue before they are compared.
+	 * @return
+	 */
+	public double getLoreValue( List<String> lores, String loreValue, boolean stripColor ) {
+		double results = 0.0;
+		
+		if ( lores != null && lores.size() > 0 && loreValue != null ) {
+			
+			LoreKey key = new LoreKey( loreValue, stripColor, lores );
+			
+			Double value = loreValues.get( key );
+			
+			if ( value == null ) {
+				
+				value = parseLoreValue( lores, loreValue, stripColor );
+				
+				if ( loreValues.size() >= MAX_ENTRIES ) {
+					loreValues.clear();
+				}
+				
+				// Copy the lores since the caller's list could be changed:
+				loreValues.put( new LoreKey( loreValue, stripColor, new ArrayList<>( lores ) ), value );
+			}
+			
+			results = value;
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * <p>If more than one lore matches the loreValue, then the last one is used.
+	 * </p>
+	 * 
+	 * @param lores
+	 * @param loreValue
+	 * @param stripColor
+	 * @return
+	 */
+	protected double parseLoreValue( List<String> lores, String loreValue, boolean stripColor ) {
+		double results = 0.0;
+		
+		// Clean the loreValue we need to compare everything to.  It must have all color codes removed:
+		String loreValueCleaned = stripColor ? Text.stripColor( loreValue ) : loreValue;
+		
+		for ( String lore : lores ) {
+			
+			// Remove the color codes so it can be cleanly compared with the loreValue:
+			String loreCleaned = stripColor ? Text.stripColor( lore ) : lore;
+			
+			if ( loreCleaned != null && loreCleaned.startsWith( loreValueCleaned ) ) {
+				
+				// Lore detected so set default to 100%:
+				results = 100.0;
+				
+				String value = loreCleaned.replace( loreValueCleaned, "" ).trim();
+				
+				if (value.length() > 0) {
+					
+					// Content has been found after the lore's name. If it is a number, then
+					// use that to set the lore's percentage.  If it fails at parsing then use 100%.
+					
+					try {
+						results = Double.parseDouble( value );
+					}
+					catch (NumberFormatException e) {
+						
+						// Error: Default to 100%
+						// Do not generate log messages since there will be 1000's...
+						results = 100.0;
+					}
+					
+					// Clean up the parsed number.  Less than zero is zero (disabled).
+					if ( results < 0.0 ) {
+						results = 0.0;
+					}
+					
+					// Cannot exceed 100%
+					if ( results > 100.0 ) {
+						results = 100.0;
+					}
+				}
+			}
+		}
+		
+		return results;
+	}
+	
+	public void clear() {
+		loreValues.clear();
+	}
+	
+	public int size() {
+		return loreValues.size();
+	}
+}
@@ -0,0 +1,352 @@
+package tech.mcprison.prison.bombs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import tech.mcprison.prison.bombs.MineBombs.ExplosionOrientation;
+import tech.mcprison.prison.util.Location;
+
+/**
+ * <p>The block offsets, relative to the center of an explosion, for an explosion 
+ * shape and radius.  The offsets are calculated once for each shape and radius, and
+ * are then shared by all explosions, so an explosion does not have to calculate its 
+ * shape, or create a new Location for every block.  The center of the explosion is
+ * added to the offsets as they are used.
+ * </p>
+ * 
+ * <p>The offsets are in the same order that the blocks were calculated in before.
+ * </p>
+ *
+ */
+public class ExplosionShapeOffsets {
+
+	/**
+	 * <p>When there are more shapes than this, then the cache is cleared.  There 
+	 * should only be one or two shapes for each mine bomb.
+	 * </p>
+	 */
+	public static final int MAX_CACHED_SHAPES = 256;
+	
+	private static final Map<String, ExplosionShapeOffsets> shapes = new ConcurrentHashMap<>();
+	
+	/**
+	 * <p>The x, y, and z offsets for each block.
+	 * </p>
+	 */
+	private final int[] offsets;
+	
+	/**
+	 * <p>If true, then the blocks below y = 0 are not included.
+	 * </p>
+	 */
+	private final boolean aboveWorldFloor;
+	
+	public interface BlockOffsetVisitor {
+		public void visit( int x, int y, int z );
+	}
+	
+	private ExplosionShapeOffsets( List<int[]> offsets, boolean aboveWorldFloor ) {
+		super();
+		
+		this.offsets = new int[offsets.size() * 3];
+		
+		int i = 0;
+		for ( int[] offset : offsets ) {
+			this.offsets[i++] = offset[0];
+			this.offsets[i++] = offset[1];
+			this.offsets[i++] = offset[2];
+		}
+		
+		this.aboveWorldFloor = aboveWorldFloor;
+	}
+	
+	private static ExplosionShapeOffsets getShape( String key, ShapeCalculator calculator ) {
+		ExplosionShapeOffsets results = shapes.get( key );
+		
+		if ( results == null ) {
+			
+			if ( shapes.size() >= MAX_CACHED_SHAPES ) {
+				shapes.clear();
+			}
+			
+			results = shapes.computeIfAbsent( key, k -> calculator.calculate() );
+		}
+		
+		return results;
+	}
+	
+	private interface ShapeCalculator {
+		public ExplosionShapeOffsets calculate();
+	}
+	
+	/**
+	 * <p>A sphere, which is limited to one plane if the orientation is an axis.  If 
+	 * hollow, then only the blocks that are at least radiusInner from the center are
+	 * included.  If the radiusInner is zero, then it will be one less than the radius.
+	 * </p>
+	 * 
+	 * @param radius
+	 * @param hollow
+	 * @param radiusInner
+	 * @param explosionOrientation
+	 * @return
+	 */
+	public static ExplosionShapeOffsets getSphere( int radius, boolean hollow, 
+				int radiusInner, ExplosionOrientation explosionOrientation ) {
+		
+		ExplosionOrientation orientation = explosionOrientation == null ? 
+						ExplosionOrientation.full : explosionOrientation;
+		
+		String key = "sphere:" + radius + ":" + hollow + ":" + 
+						(hollow ? radiusInner : 0) + ":" + orientation.name();
+		
+		return getShape( key, () -> calculateSphere( radius, hollow, radiusInner, orientation ) );
+	}
+	
+	private static ExplosionShapeOffsets calculateSphere( int radius, boolean hollow, 
+				int radiusInner, ExplosionOrientation explosionOrientation ) {
+		List<int[]> results = new ArrayList<>();
+		
+		if ( radius > 0 ) {
+			boolean xOri = explosionOrientation == ExplosionOrientation.x_axis;
+			boolean yOri = explosionOrientation == ExplosionOrientation.y_axis;
+			boolean zOri = explosionOrientation == ExplosionOrientation.z_axis;
+			
+			double radiusSqr = radius * radius;
+			
+			// If the radiusInner is not specified (== 0), then subtract one from radius.
+			double radiusHSqr = radiusInner == 0 ?
+									((radius - 1) * (radius - 1)) : 
+										(radiusInner * radiusInner);
+			
+			for ( int x = (xOri ? 0 : -radius) ; x <= (xOri ? 0 : radius) ; x++ ) {
+				double xSqr = x * x;
+				
+				for ( int y = (yOri ? 0 : -radius) ; y <= (yOri ? 0 : radius) ; y++ ) {
+					double ySqr = y * y;
+					
+					for ( int z = (zOri ? 0 : -radius) ; z <= (zOri ? 0 : radius) ; z++ ) {
+						double zSqr = z * z;
+						
+						double distSqr = xSqr + ySqr + zSqr;
+						
+						if ( distSqr <= radiusSqr &&
+								(!hollow || 
+								 hollow && distSqr >= radiusHSqr )) {
+							
+							results.add( new int[] { x, y, z } );
+						}
+					}
+				}
+			}
+		}
+		
+		return new ExplosionShapeOffsets( results, false );
+	}
+	
+	/**
+	 * <p>A cube that extends the radius in the x and z directions, and from one
+	 * block above the center, down twice the radius.  The blocks below y = 0 are 
+	 * not included.
+	 * </p>
+	 * 
+	 * @param radius
+	 * @return
+	 */
+	public static ExplosionShapeOffsets getCube( int radius ) {
+		
+		return getShape( "cube:" + radius, () -> calculateCube( radius ) );
+	}
+	
+	private static ExplosionShapeOffsets calculateCube( int radius ) {
+		List<int[]> results = new ArrayList<>();
+		
+		if ( radius > 0 ) {
+			
+			for ( int x = -radius ; x <= radius ; x++ ) {
+				for ( int y = 1; y >= 1 - (radius * 2) ; y-- ) {
+					for ( int z = -radius ; z <= radius ; z++ ) {
+						
+						results.add( new int[] { x, y, z } );
+					}
+				}
+			}
+		}
+		
+		return new ExplosionShapeOffsets( results, true );
+	}
+	
+	/**
+	 * <p>The outer shell of the cube.  The blocks are included if they are at least
+	 * radiusInner blocks from the center of the cube, along any axis.  If the radiusInner
+	 * is zero, then it will be one less than the radius.  The center of the cube is
+	 * radius - 1 blocks below the center of the explosion, since the cube starts one 
+	 * block above it.
+	 * </p>
+	 * 
+	 * @param radius
+	 * @param radiusInner
+	 * @return
+	 */
+	public static ExplosionShapeOffsets getCubeHollow( int radius, int radiusInner ) {
+		
+		return getShape( "cubeHollow:" + radius + ":" + radiusInner, 
+						() -> calculateCubeHollow( radius, radiusInner ) );
+	}
+	
+	private static ExplosionShapeOffsets calculateCubeHollow( int radius, int radiusInner ) {
+		List<int[]> results = new ArrayList<>();
+		
+		if ( radius > 0 ) {
+			int inner = radiusInner == 0 ? radius - 1 : radiusInner;
+			int cenY = 1 - radius;
+			
+			for ( int x = -radius ; x <= radius ; x++ ) {
+				for ( int y = 1; y >= 1 - (radius * 2) ; y-- ) {
+					for ( int z = -radius ; z <= radius ; z++ ) {
+						
+						int dist = Math.max( Math.abs( x ), Math.max( Math.abs( y - cenY ), Math.abs( z ) ) );
+						
+						if ( dist >= inner ) {
+							results.add( new int[] { x, y, z } );
+						}
+					}
+				}
+			}
+		}
+		
+		return new ExplosionShapeOffsets( results, true );
+	}
+	
+	/**
+	 * <p>A vertical cylinder, which starts one block above the center, like the cube, 
+	 * and goes down for the height.  If the height is zero, then it will be the same 
+	 * height as a cube of the same radius.  If hollow, then only the blocks that are at 
+	 * least radiusInner from the center are included, so it will be a tube.  If the 
+	 * radiusInner is zero, then it will be one less than the radius.  The blocks below 
+	 * y = 0 are not included.
+	 * </p>
+	 * 
+	 * @param radius
+	 * @param hollow
+	 * @param radiusInner
+	 * @param height
+	 * @return
+	 */
+	public static ExplosionShapeOffsets getCylinder( int radius, boolean hollow, 
+				int radiusInner, int height ) {
+		
+		int h = height <= 0 ? 1 + (radius * 2) : height;
+		
+		String key = "cylinder:" + radius + ":" + hollow + ":" + 
+						(hollow ? radiusInner : 0) + ":" + h;
+		
+		return getShape( key, () -> calculateCylinder( radius, hollow, radiusInner, h ) );
+	}
+	
+	private static ExplosionShapeOffsets calculateCylinder( int radius, boolean hollow, 
+				int radiusInner, int height ) {
+		List<int[]> results = new ArrayList<>();
+		
+		if ( radius > 0 ) {
+			
+			double radiusSqr = radius * radius;
+			
+			// If the radiusInner is not specified (== 0), then subtract one from radius.
+			double radiusHSqr = radiusInner == 0 ?
+									((radius - 1) * (radius - 1)) : 
+										(radiusInner * radiusInner);
+			
+			for ( int x = -radius ; x <= radius ; x++ ) {
+				for ( int y = 1; y > 1 - height ; y-- ) {
+					for ( int z = -radius ; z <= radius ; z++ ) {
+						
+						double distSqr = x * x + z * z;
+						
+						if ( distSqr <= radiusSqr &&
+								(!hollow || 
+								 hollow && distSqr >= radiusHSqr )) {
+							
+							results.add( new int[] { x, y, z } );
+						}
+					}
+				}
+			}
+		}
+		
+		return new ExplosionShapeOffsets( results, true );
+	}
+	
+	
+	/**
+	 * <p>Visits each block of the shape, at the given center, without creating any
+	 * objects.
+	 * </p>
+	 * 
+	 * @param center
+	 * @param visitor
+	 */
+	public void forEach( Location center, BlockOffsetVisitor visitor ) {
+		
+		forEach( center, Integer.MIN_VALUE, Integer.MAX_VALUE, visitor );
+	}
+	
+	/**
+	 * <p>Visits each block of the shape, at the given center, that is within the
+	 * world's height.  The blocks below minY, or above maxY, are skipped, since 
+	 * the world cannot have any blocks there.
+	 * </p>
+	 * 
+	 * @param center
+	 * @param minY The lowest y that is included.
+	 * @param maxY The highest y that is included.
+	 * @param visitor
+	 */
+	public void forEach( Location center, int minY, int maxY, BlockOffsetVisitor visitor ) {
+		if ( center != null ) {
+			
+			int cenX = center.getBlockX();
+			int cenY = center.getBlockY();
+			int cenZ = center.getBlockZ();
+			
+			for ( int i = 0; i < offsets.length; i += 3 ) {
+				int y = cenY + offsets[i + 1];
+				
+				if ( y >= minY && y <= maxY && (!aboveWorldFloor || y >= 0) ) {
+					
+					visitor.visit( cenX + offsets[i], y, cenZ + offsets[i + 2] );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * <p>Creates a new Location for each block of the shape at the given center.
+	 * </p>
+	 * 
+	 * @param center
+	 * @return
+	 */
+	public List<Location> toLocations( Location center ) {
+		List<Location> results = new ArrayList<>( size() );
+		
+		if ( center != null ) {
+			forEach( center, 
+					(x, y, z) -> results.add( new Location( center.getWorld(), x, y, z ) ) );
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * <p>The number of blocks in the shape, which may include blocks below y = 0.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public int size() {
+		return offsets.length / 3;
+	}
+}
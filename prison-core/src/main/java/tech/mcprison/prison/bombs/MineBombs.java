@@ -38,6 +38,10 @@ public class MineBombs
 		disk_z,
 		
 		cube,
+		cubeHollow,
+		
+		cylinder,
+		cylinderHollow,
 		
 		sphere,
 		sphereHollow
@@ -463,11 +467,15 @@ public class MineBombs
 	}
 
 	public List<Location> calculateCylinder( Location loc, int radius, boolean hollow ) {
-		List<Location> results = new ArrayList<>();
-		
 		
+		return calculateCylinder( loc, radius, hollow, 0, 0 );
+	}
+	
+	public List<Location> calculateCylinder( Location loc, int radius, boolean hollow, 
+				int radiusInner, int height ) {
 		
-		return results;
+		return ExplosionShapeOffsets.getCylinder( radius, hollow, radiusInner, height )
+						.toLocations( loc );
 	}
 	
 	public List<Location> calculateSphere( Location loc, int radius, boolean hollow ) {
@@ -484,69 +492,93 @@ public class MineBombs
 	
 	public List<Location> calculateSphere( Location loc, int radius, boolean hollow, 
 				int radiusInner, ExplosionOrientation explosionOrientation ) {
-		List<Location> results = new ArrayList<>();
 		
-		if ( loc != null && radius > 0 ) {
-			int cenX = loc.getBlockX();
-			int cenY = loc.getBlockY();
-			int cenZ = loc.getBlockZ();
-			
-			boolean xOri = explosionOrientation == ExplosionOrientation.x_axis;
-			boolean yOri = explosionOrientation == ExplosionOrientation.y_axis;
-			boolean zOri = explosionOrientation == ExplosionOrientation.z_axis;
-
-			double radiusSqr = radius * radius;
-			
-			// If the radiusInner is not specified (== 0), then subtract one from radius.
-			double radiusHSqr = radiusInner == 0 ?
-									((radius - 1) * (radius - 1)) : 
-										(radiusInner * radiusInner);
-			
-			for ( int x = (xOri ? cenX : cenX - radius) ; x <= (xOri ? cenX : cenX + radius) ; x++ ) {
-				double xSqr = (cenX - x) * (cenX - x);
-				
-				for ( int y = (yOri ? cenY : cenY - radius) ; y <= (yOri ? cenY : cenY + radius) ; y++ ) {
-					double ySqr = (cenY - y) * (cenY - y);
-					
-					for ( int z = (zOri ? cenZ : cenZ - radius) ; z <= (zOri ? cenZ : cenZ + radius) ; z++ ) {
-						double zSqr = (cenZ - z) * (cenZ - z);
-						
-						double distSqr = xSqr + ySqr + zSqr;
-						
-						if ( distSqr <= radiusSqr &&
-								(!hollow || 
-								 hollow && distSqr >= radiusHSqr )) {
-							
-							Location l = new Location( loc.getWorld(), x, y, z );
-							results.add( l );
-						}
-					}
-				}
-			}
-		}
-		return results;
+		return ExplosionShapeOffsets.getSphere( radius, hollow, radiusInner, explosionOrientation )
+						.toLocations( loc );
 	}
 	
 	
 	public List<Location> calculateCube( Location loc, int radius ) {
-		List<Location> results = new ArrayList<>();
 		
-		if ( loc != null && radius > 0 ) {
-			int cenX = loc.getBlockX();
-			int cenY = loc.getBlockY();
-			int cenZ = loc.getBlockZ();
-						
-			for ( int x = cenX - radius ; x <= cenX + radius ; x++ ) {
-				for ( int y = cenY + 1; y >= 0 && y >= cenY + 1 - (radius * 2) ; y-- ) {
-					for ( int z = cenZ - radius ; z <= cenZ + radius ; z++ ) {
-						
-						Location l = new Location( loc.getWorld(), x, y, z );
-						results.add( l );
-						
-					}
-				}
-			}
+		return ExplosionShapeOffsets.getCube( radius ).toLocations( loc );
+	}
+	
+	
+	/**
+	 * <p>Gets the block offsets for the bomb's explosion shape and radius.  The 
+	 * offsets are cached, so this does not calculate the shape for each explosion.
+	 * </p>
+	 * 
+	 * @param bomb
+	 * @return
+	 */
+	public ExplosionShapeOffsets getExplosionShapeOffsets( MineBombData bomb ) {
+		ExplosionShapeOffsets results = null;
+		
+		ExplosionShape shape = ExplosionShape.fromString( bomb.getExplosionShape() );
+		
+		switch ( shape )
+		{
+			case cube:
+				results = ExplosionShapeOffsets.getCube( bomb.getRadius() );
+				break;
+				
+			case cubeHollow:
+				results = ExplosionShapeOffsets.getCubeHollow( bomb.getRadius(), bomb.getRadiusInner() );
+				break;
+				
+			case cylinder:
+				results = ExplosionShapeOffsets.getCylinder( bomb.getRadius(), false, 
+								0, bomb.getHeight() );
+				break;
+				
+			case cylinderHollow:
+				results = ExplosionShapeOffsets.getCylinder( bomb.getRadius(), true, 
+								bomb.getRadiusInner(), bomb.getHeight() );
+				break;
+				
+			case ring_x:
+				results = ExplosionShapeOffsets.getSphere( bomb.getRadius(), true, 
+								bomb.getRadiusInner(), ExplosionOrientation.x_axis );
+				break;
+				
+			case ring_y:
+				results = ExplosionShapeOffsets.getSphere( bomb.getRadius(), true, 
+								bomb.getRadiusInner(), ExplosionOrientation.y_axis );
+				break;
+				
+			case ring_z:
+				results = ExplosionShapeOffsets.getSphere( bomb.getRadius(), true, 
+								bomb.getRadiusInner(), ExplosionOrientation.z_axis );
+				break;
+				
+			case disk_x:
+				results = ExplosionShapeOffsets.getSphere( bomb.getRadius(), false, 
+								0, ExplosionOrientation.x_axis );
+				break;
+				
+			case disk_y:
+				results = ExplosionShapeOffsets.getSphere( bomb.getRadius(), false, 
+								0, ExplosionOrientation.y_axis );
+				break;
+				
+			case disk_z:
+				results = ExplosionShapeOffsets.getSphere( bomb.getRadius(), false, 
+								0, ExplosionOrientation.z_axis );
+				break;
+				
+			case sphereHollow:
+				results = ExplosionShapeOffsets.getSphere( bomb.getRadius(), true, 
+								bomb.getRadiusInner(), ExplosionOrientation.full );
+				break;
+				
+			case sphere:
+			default:
+				results = ExplosionShapeOffsets.getSphere( bomb.getRadius(), false, 
+								0, ExplosionOrientation.full );
+				break;
 		}
+		
 		return results;
 	}
 	
@@ -0,0 +1,28 @@
+package tech.mcprison.prison.cache;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * <p>A compact binary format for a cache data object.  The CoreCacheFiles
+ * identifies a binary file by the magic number at the start of the file, so
+ * a file can always be read no matter which format it was saved in.
+ * </p>
+ *
+ */
+public interface CoreCacheBinaryCodec {
+
+	/**
+	 * <p>The first four bytes of every file that is written by this codec.
+	 * </p>
+	 */
+	public int getMagic();
+
+	public CoreCacheData read( DataInputStream in )
+			throws IOException;
+
+	public void write( CoreCacheData cacheData, DataOutputStream out )
+			throws IOException;
+
+}
@@ -1,13 +1,23 @@
 package tech.mcprison.prison.cache;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileFilter;
-import java.io.FileReader;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -21,6 +31,7 @@ import tech.mcprison.prison.output.Output;
 public abstract class CoreCacheFiles {
 
 	public static final String FILE_SUFFIX_JSON = ".json";
+	public static final String FILE_SUFFIX_BINARY = ".bin";
 	public static final String FILE_PREFIX_BACKUP = ".backup_";
 	public static final String FILE_SUFFIX_BACKUP = ".bu";
 	public static final String FILE_SUFFIX_TEMP = ".temp";
@@ -30,7 +41,8 @@ public abstract class CoreCacheFiles {
 	private File cacheDirectory = null;
 	
 	private Gson gson = null;
-	private TreeMap<String, File> playerFiles;
+	private Gson gsonCompact = null;
+	private volatile ConcurrentSkipListMap<String, File> playerFiles;
 
 	
 	public CoreCacheFiles( String cachePath ) {
@@ -42,6 +54,71 @@ public abstract class CoreCacheFiles {
 	public String getCachePath() {
 		return cachePath;
 	}
+	
+	/**
+	 * <p>The format that the cache files are saved in. The files are always read
+	 * based upon their contents, so changing the format will convert each 
+	 * file the next time it is saved, in either direction.
+	 * </p>
+	 * 
+	 * <ul>
+	 *   <li>json: Pretty printed json, which is human readable.</li>
+	 *   <li>compact: json without any pretty printing.</li>
+	 *   <li>binary: A compact binary format, if the cache supports it. 
+	 *   		Otherwise it is saved as compact json.</li>
+	 * </ul>
+	 *
+	 */
+	public enum CacheFileFormat {
+		json,
+		compact,
+		binary;
+		
+		public static CacheFileFormat fromString( String format ) {
+			CacheFileFormat results = json;
+			
+			if ( format != null ) {
+				for ( CacheFileFormat cff : values() ) {
+					if ( cff.name().equalsIgnoreCase( format.trim() ) ) {
+						results = cff;
+						break;
+					}
+				}
+			}
+			
+			return results;
+		}
+	}
+	
+	/**
+	 * <p>The format to save the files in.  By default, the files are saved
+	 * as pretty printed json.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	protected CacheFileFormat getFileFormat() {
+		return CacheFileFormat.json;
+	}
+	
+	/**
+	 * <p>The binary codec for this cache's data, or null if the binary format 
+	 * is not supported.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	protected CoreCacheBinaryCodec getBinaryCodec() {
+		return null;
+	}
+	
+	protected boolean isBinaryFormat() {
+		return getFileFormat() == CacheFileFormat.binary && getBinaryCodec() != null;
+	}
+	
+	protected String getFileSuffix() {
+		return isBinaryFormat() ? FILE_SUFFIX_BINARY : FILE_SUFFIX_JSON;
+	}
 
 	/**
 	 * <p>This constructs the Gson engine using the optional pretty 
@@ -56,15 +133,36 @@ public abstract class CoreCacheFiles {
 		}
 		return gson;
 	}
+	
+	protected Gson getGsonCompact() {
+		if ( gsonCompact == null ) {
+			gsonCompact = new GsonBuilder().create();
+		}
+		return gsonCompact;
+	}
 
-	protected void renamePlayerFileToBU(File playerFile) {
+	/**
+	 * <p>Copies the player's file to a backup file.  The player's file is copied, 
+	 * and not renamed, so it is never missing while the new file is being moved
+	 * in to its place.
+	 * </p>
+	 * 
+	 * @param playerFile
+	 */
+	protected void copyPlayerFileToBU(File playerFile) {
 		String buFileName = FILE_PREFIX_BACKUP + 
 					playerFile.getName().replace( FILE_SUFFIX_TEMP, FILE_SUFFIX_BACKUP );
 		
 		File backupFile = new File( playerFile.getParent(), buFileName );
 		
-		playerFile.renameTo( backupFile );
-		
+		try {
+			Files.copy( playerFile.toPath(), backupFile.toPath(), 
+					StandardCopyOption.REPLACE_EXISTING );
+		}
+		catch ( IOException e ) {
+			Output.get().logWarn( "CoreCacheFiles: Unable to backup " + 
+					playerFile.getAbsolutePath() + ": " + e.getMessage() );
+		}
 	}
 
 	protected File createTempFile(File file) {
@@ -76,6 +174,8 @@ public abstract class CoreCacheFiles {
 
 	/**
 	 * <p>This loads the PlayerCachePlayerData object from a saved json file.
+	 * If the file starts with the binary codec's magic number, then it is 
+	 * read as a binary file instead, no matter what the file's suffix is.
 	 * </p>
 	 * 
 	 * <p>Since this deals with the actual file name, the "knowledge" on how to 
@@ -89,11 +189,20 @@ public abstract class CoreCacheFiles {
 		
 		if ( inputFile.exists() ) {
 			
+			CoreCacheBinaryCodec codec = getBinaryCodec();
+			
 			try (
-					FileReader fr = new FileReader( inputFile );
+					BufferedInputStream bis = new BufferedInputStream( new FileInputStream( inputFile ) );
 					) {
 				
-				results = (CoreCacheData) getGson().fromJson( fr, classOfT );
+				if ( codec != null && isBinaryFile( bis, codec ) ) {
+					
+					results = codec.read( new DataInputStream( bis ) );
+				}
+				else {
+					
+					results = (CoreCacheData) getGson().fromJson( new InputStreamReader( bis ), classOfT );
+				}
 				
 				if ( results != null ) {
 					
@@ -112,6 +221,25 @@ public abstract class CoreCacheFiles {
 		
 		return results;
 	}
+	
+	private boolean isBinaryFile( BufferedInputStream bis, CoreCacheBinaryCodec codec ) 
+			throws IOException {
+		
+		bis.mark( 4 );
+		
+		int magic = 0;
+		int count = 0;
+		int b;
+		
+		while ( count < 4 && (b = bis.read()) != -1 ) {
+			magic = (magic << 8) | b;
+			count++;
+		}
+		
+		bis.reset();
+		
+		return count == 4 && magic == codec.getMagic();
+	}
 
 	
 	
@@ -202,13 +330,20 @@ public abstract class CoreCacheFiles {
 	 * </p>
 	 * 
 	 * <p>This function first saves the new player data to a temp file.  If that 
-	 * was successful, then it deletes the original file, and renames the temp
-	 * file back to the original name.
+	 * was successful, then the temp file replaces the original file in one atomic 
+	 * move.
+	 * </p>
+	 * 
+	 * <p>The data is saved in the cache's file format, which may be binary, even 
+	 * though this function is named toJsonFile.
 	 * </p>
 	 * 
 	 * @param player
+	 * @return true if the player's file was saved.  If false, then the player's
+	 * 			original file was not changed.
 	 */
-	public void toJsonFile(CoreCacheData cacheData) {
+	public boolean toJsonFile(CoreCacheData cacheData) {
+		boolean results = false;
 		
 		if ( cacheData != null ) {
 			
@@ -221,35 +356,53 @@ public abstract class CoreCacheFiles {
 			
 			boolean success = false;
 			
-			try (
-					FileWriter fw = new FileWriter( outTemp );
-					){
-				getGson().toJson( cacheData, fw );
+			if ( isBinaryFormat() ) {
 				
-				success = true;
+				try (
+						DataOutputStream dos = new DataOutputStream( 
+								new BufferedOutputStream( new FileOutputStream( outTemp ) ) );
+						){
+					getBinaryCodec().write( cacheData, dos );
+					
+					success = true;
+				}
+				catch ( IOException e ) {
+					e.printStackTrace();
+				}
 			}
-			catch ( JsonIOException | IOException e ) {
-				e.printStackTrace();
+			else {
+				
+				Gson gsonFormat = getFileFormat() == CacheFileFormat.json ? getGson() : getGsonCompact();
+				
+				try (
+						BufferedWriter bw = new BufferedWriter( new FileWriter( outTemp ) );
+						){
+					gsonFormat.toJson( cacheData, bw );
+					
+					success = true;
+				}
+				catch ( JsonIOException | IOException e ) {
+					e.printStackTrace();
+				}
 			}
 			
 			// If there is a significant change in file size, or the new file is smaller than the
-			// old, then rename it to a backup and keep it.  If it is smaller, then something went wrong
+			// old, then copy it to a backup and keep it.  If it is smaller, then something went wrong
 			// because player cache data should always increase, with the only exception being 
 			// the player cache.
-			if ( playerFile.exists() ) {
+			if ( success && playerFile.exists() ) {
 				long pfSize = playerFile.length();
 				long tmpSize = outTemp.length();
 				
 				if ( tmpSize < pfSize ) {
 					 
-					renamePlayerFileToBU( playerFile );
+					copyPlayerFileToBU( playerFile );
 				}
 			}
 			
-			if ( success && ( !playerFile.exists() || playerFile.delete()) ) {
-				outTemp.renameTo( playerFile );
-			}
-			else {
+			results = success && moveTempFile( outTemp, playerFile );
+			
+			if ( !results ) {
 				
 				boolean removed = false;
 				if ( outTemp.exists() ) {
@@ -263,8 +416,44 @@ public abstract class CoreCacheFiles {
 				Output.get().logWarn( message );
 			}
 		}
+		
+		return results;
 	}
 
+	/**
+	 * <p>Replaces the player's file with the temp file in one atomic rename, so 
+	 * the player's file is never missing or partially written, even if the 
+	 * server is killed while saving.  If the file system does not support an 
+	 * atomic move, then it will just replace the existing file.
+	 * </p>
+	 * 
+	 * @param tempFile
+	 * @param playerFile
+	 * @return true if the temp file was moved.
+	 */
+	protected boolean moveTempFile( File tempFile, File playerFile ) {
+		boolean results = false;
+		
+		try {
+			try {
+				Files.move( tempFile.toPath(), playerFile.toPath(), 
+						StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING );
+			}
+			catch ( AtomicMoveNotSupportedException e ) {
+				Files.move( tempFile.toPath(), playerFile.toPath(), 
+						StandardCopyOption.REPLACE_EXISTING );
+			}
+			
+			results = true;
+		}
+		catch ( IOException e ) {
+			Output.get().logWarn( "CoreCacheFiles: Unable to replace " + 
+						playerFile.getAbsolutePath() + ": " + e.getMessage() );
+		}
+		
+		return results;
+	}
+	
 	/**
 	 * <p>Constructs a File object for a specific player.
 	 * </p>
@@ -276,11 +465,26 @@ public abstract class CoreCacheFiles {
 		return new File( getPlayerFilePath(), playerFileName );
 	}
 
-	protected TreeMap<String, File> getPlayerFiles() {
+	/**
+	 * <p>The player's files may be saved from more than one thread at a time, so
+	 * this is a concurrent map and it is only loaded once.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	protected ConcurrentSkipListMap<String, File> getPlayerFiles() {
 		// load the player's files:
+		if ( playerFiles == null ) {
+			loadPlayerFiles();
+		}
+		
+		return playerFiles;
+	}
+	
+	private synchronized void loadPlayerFiles() {
 		if ( playerFiles == null ) {
 			
-			playerFiles = new TreeMap<>();
+			ConcurrentSkipListMap<String, File> files = new ConcurrentSkipListMap<>();
 	
 			FileFilter fileFilter = (file) -> {
 			
@@ -290,20 +494,20 @@ public abstract class CoreCacheFiles {
 								 fname.endsWith( FILE_SUFFIX_TEMP );
 				
 				return !file.isDirectory() && !isTemp &&
-							fname.endsWith( FILE_SUFFIX_JSON );
+							(fname.endsWith( FILE_SUFFIX_JSON ) || 
+							 fname.endsWith( FILE_SUFFIX_BINARY ));
 			};
 			
 			
-			File[] files = getPlayerFilePath().listFiles( fileFilter );
-			for ( File f : files )
+			File[] dirFiles = getPlayerFilePath().listFiles( fileFilter );
+			for ( File f : dirFiles )
 			{
 				String fileNamePrefix = getFileNamePrefix( f.getName() );
-				getPlayerFiles().put( fileNamePrefix, f );
+				files.put( fileNamePrefix, f );
 			}
 			
+			playerFiles = files;
 		}
-		
-		return playerFiles;
 	}
 
 	
@@ -351,7 +555,7 @@ public abstract class CoreCacheFiles {
 		String UUIDString = player.getUUID().toString();
 		String uuidFragment = getFileNamePrefix( UUIDString );
 		
-		return uuidFragment + "_" + player.getName() + FILE_SUFFIX_JSON;
+		return uuidFragment + "_" + player.getName() + getFileSuffix();
 	}
 	
 	/**
@@ -28,6 +28,8 @@ public class PlayerCache {
 	public static final String PLAYER_CACHE_UPDATE_PLAYER_STATS_CONFIG_NAME = "player-cache.update-player-stats-sec";
 	public static final int PLAYER_CACHE_UPDATE_PLAYER_STATS_SEC = 30; // 30 Sec
 	
+	public static final long PLAYER_CACHE_SHUTDOWN_SAVE_WAIT_MS = 10000; // 10 seconds
+	
 	
 	
 	private static PlayerCache instance;
@@ -45,7 +47,7 @@ public class PlayerCache {
 	
 	private Map<PlayerCacheRunnable, PlayerCachePlayerData> tasks;
 	
-	private PlayerCacheRunnable saveAllTask;
+	private PlayerCacheSaveAllPlayersTask saveAllTask;
 	
 	private PlayerCacheRunnable checkTimersTask;
 	
@@ -123,6 +125,14 @@ public class PlayerCache {
 		
 		// Shutdown the save all task so it won't reload players or try to refresh data:
 		PrisonTaskSubmitter.cancelTask( saveAllTask.getTaskId() );
+		
+		// Wait for the saves that are in progress, so the same player is not saved
+		// by two threads at the same time:
+		if ( !saveAllTask.shutdown( PLAYER_CACHE_SHUTDOWN_SAVE_WAIT_MS ) ) {
+			
+			Output.get().logWarn( "PlayerCache: Timed out waiting for the player " +
+					"saves to finish. The remaining players will be saved now." );
+		}
 
 		// Shutdown the timerTasks
 		PrisonTaskSubmitter.cancelTask( checkTimersTask.getTaskId() );
@@ -140,6 +150,13 @@ public class PlayerCache {
 					// Remove the player from the cache and get the playerData:
 					PlayerCachePlayerData playerData = getPlayers().remove( key );
 					
+					if ( playerData != null && playerData.isLoading() ) {
+						
+						// The async load has not finished, so load it now and merge in
+						// what was buffered in the placeholder:
+						playerData = loadPlayerData( playerData );
+					}
+					
 					if ( playerData != null ) {
 						
 						// Note: Since we are logging online time, then all players that are
@@ -266,15 +283,28 @@ public class PlayerCache {
 	
 	/**
 	 * <p>This returns the cached player object.  If they have not been loaded
-	 * yet, then this will load the player object while waiting for it.
+	 * yet, then this will never read the player's file on the calling thread, 
+	 * which is usually the main thread during a block break.  Instead, a 
+	 * placeholder is added to the cache and is returned, and an async task is 
+	 * submitted to load the player.  
 	 * </p>
 	 * 
-	 * <p>This used to return a null while submitting a loadPlayer task.
+	 * <p>The placeholder starts with all stats at zero, so all blocks, earnings, 
+	 * tokens, and times that are added to it are buffered.  When the player's 
+	 * data is loaded, the buffered values are merged in to it and then it 
+	 * replaces the placeholder in the cache.  Until then, the values that are 
+	 * read from the placeholder will only be what has been buffered.  Use 
+	 * PlayerCachePlayerData.isLoading() to identify a placeholder.
+	 * </p>
+	 * 
+	 * <p>The players are prefetched when they login, so a placeholder should 
+	 * rarely be used for online players.
 	 * </p>
 	 * 
 	 * @param player
-	 * @return The cached player object. If null, then may indicate the player is 
-	 * 				actively being loaded, so try again later.
+	 * @return The cached player object, or a placeholder if the player is still 
+	 * 				being loaded.  Null if the player is not in the cache and
+	 * 				loadIfNotInCache is false.
 	 */
 	private PlayerCachePlayerData getPlayer( Player player, boolean loadIfNotInCache ) {
 		PlayerCachePlayerData playerData = null;
@@ -295,18 +325,16 @@ public class PlayerCache {
 			}
 			else if ( loadIfNotInCache ) {
 				
-				// Load the player's existing balance:
-				playerData = getCacheFiles().fromJson( player );
+				// Do not load the player's file in this thread. Use a placeholder until
+				// the async load is finished:
 				
 				// NOTE: playerData.isOnline() is dynamic and tied back to the Player object.
 				//       So if they are offline, an OfflinePlayer, then it will automatically
 				//       track that.  Also if the PlayerData object does not have a reference
 				///      to Player, then it's automatically considered offline.
 				
-				// Save it to the cache:
-				addPlayerData( playerData );
+				playerData = submitAsyncLoadPlayerPlaceholder( player );
 //			runLoadPlayerNow( player );
-//			submitAsyncLoadPlayer( player );
 			}
 			
 			if ( playerData != null  ) {
@@ -324,16 +352,174 @@ public class PlayerCache {
 	}
 
 
+	/**
+	 * <p>This is called when the player joins. If the player was already
+	 * prefetched, or is being loaded, then only the player object is updated.
+	 * </p>
+	 * 
+	 * @param player
+	 */
 	protected void submitAsyncLoadPlayer( Player player ) {
 	
-		if ( player != null ) {
+		if ( player != null && player.getUUID() != null ) {
+			
+			PlayerCachePlayerData playerData = submitAsyncLoadPlayerPlaceholder( player );
+			
+			if ( playerData != null ) {
+				
+				playerData.setPlayer( player );
+			}
+		}
+	}
+	
+	/**
+	 * <p>If the player is not in the cache, then this adds a placeholder for the 
+	 * player and submits an async task to load the player's data.
+	 * </p>
+	 * 
+	 * @param player
+	 * @return The player's cached data, or the new placeholder.
+	 */
+	private PlayerCachePlayerData submitAsyncLoadPlayerPlaceholder( Player player ) {
+		PlayerCachePlayerData playerData = null;
+		PlayerCachePlayerData placeholder = null;
+		
+		String playerUuid = player.getUUID().toString();
+		
+		synchronized ( getPlayers() ) {
+			
+			playerData = getPlayers().get( playerUuid );
+			
+			if ( playerData == null ) {
+				
+				placeholder = createPlaceholder( player );
+				getPlayers().put( playerUuid, placeholder );
+				
+				playerData = placeholder;
+			}
+		}
+		
+		if ( placeholder != null ) {
+			
+			getStats().incrementPlaceholders();
 			
-			PlayerCacheLoadPlayerTask task = new PlayerCacheLoadPlayerTask( player );
+			PlayerCacheLoadPlayerTask task = new PlayerCacheLoadPlayerTask( placeholder );
 			
 			// Submit task to run right away:
 			int taskId = PrisonTaskSubmitter.runTaskLaterAsync( task, 0 );
 			task.setTaskId( taskId );
 		}
+		
+		return playerData;
+	}
+	
+	/**
+	 * <p>This loads the player's data in the calling thread, if they are not 
+	 * already in the cache.  This is intended to be called from the async pre-login
+	 * event so the player's data is ready by the time they join.  This must 
+	 * never be called from the main thread.
+	 * </p>
+	 * 
+	 * @param player
+	 */
+	public void prefetchPlayer( Player player ) {
+		
+		if ( player != null && player.getUUID() != null ) {
+			
+			String playerUuid = player.getUUID().toString();
+			PlayerCachePlayerData placeholder = null;
+			
+			synchronized ( getPlayers() ) {
+				
+				if ( !getPlayers().containsKey( playerUuid ) ) {
+					
+					placeholder = createPlaceholder( player );
+					getPlayers().put( playerUuid, placeholder );
+				}
+			}
+			
+			if ( placeholder != null ) {
+				
+				getStats().incrementPrefetchPlayers();
+				
+				new PlayerCacheLoadPlayerTask( placeholder ).run();
+			}
+		}
+	}
+	
+	protected PlayerCachePlayerData createPlaceholder( Player player ) {
+		
+		PlayerCachePlayerData placeholder = new PlayerCachePlayerData( player, null );
+		placeholder.setLoading( true );
+		
+		return placeholder;
+	}
+	
+	/**
+	 * <p>Loads the player's data from their file, and then merges in all of the 
+	 * stats that were buffered in the placeholder.  This reads the file so
+	 * it should only be called from an async thread, or on shutdown.
+	 * </p>
+	 * 
+	 * @param placeholder
+	 * @return
+	 */
+	protected PlayerCachePlayerData loadPlayerData( PlayerCachePlayerData placeholder ) {
+		
+		PlayerCachePlayerData playerData = getCacheFiles().fromJson( placeholder.getPlayer() );
+		
+		if ( playerData != null && !playerData.mergeLoadingPlaceholder( placeholder ) ) {
+			
+			// The placeholder was already merged by the async load:
+			playerData = null;
+		}
+		
+		return playerData;
+	}
+	
+	/**
+	 * <p>Replaces the placeholder in the cache with the loaded player data.  The
+	 * placeholder's buffered stats are merged before it is swapped, while holding
+	 * the lock on the players, so nothing that is buffered is lost.  
+	 * </p>
+	 * 
+	 * <p>If the placeholder is no longer in the cache, then the player was unloaded
+	 * before the load finished.  Since the placeholder is never saved, the merged
+	 * player data is saved here instead.
+	 * </p>
+	 * 
+	 * <p>A placeholder can only be merged once, so if it was already merged, such
+	 * as on shutdown, then nothing is changed.
+	 * </p>
+	 * 
+	 * @param placeholder
+	 * @param playerData The player's data that was loaded from their file.
+	 * @return true if the placeholder was replaced.
+	 */
+	protected boolean completeLoadPlayer( PlayerCachePlayerData placeholder, 
+						PlayerCachePlayerData playerData ) {
+		boolean replaced = false;
+		boolean merged = false;
+		
+		synchronized ( getPlayers() ) {
+			
+			merged = playerData.mergeLoadingPlaceholder( placeholder );
+			
+			if ( merged && getPlayers().get( placeholder.getPlayerUuid() ) == placeholder ) {
+				
+				getPlayers().put( playerData.getPlayerUuid(), playerData );
+				replaced = true;
+			}
+		}
+		
+		if ( replaced ) {
+			getStats().incrementLoadPlayers();
+		}
+		else if ( merged ) {
+			getCacheFiles().toJsonFile( playerData );
+		}
+		
+		return replaced;
 	}
 	
 	
@@ -380,7 +566,7 @@ public class PlayerCache {
 	 * Submit task to run only once.  Should be started when this cache initializes.
 	 * 
 	 */
-	public PlayerCacheRunnable submitCacheRefresh() {
+	public PlayerCacheSaveAllPlayersTask submitCacheRefresh() {
 		
 		PlayerCacheSaveAllPlayersTask task = new PlayerCacheSaveAllPlayersTask();
 		
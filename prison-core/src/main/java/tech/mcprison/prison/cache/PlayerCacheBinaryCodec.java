@@ -0,0 +1,316 @@
+package tech.mcprison.prison.cache;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>This is a compact binary format for the PlayerCachePlayerData files.  All
+ * of the strings, which are mostly the mine names and the block names that are
+ * the keys of the player's stats, are written once in a string table at the
+ * start of the file, and then are referenced by their index.  The numbers are
+ * written as variable length values, so small counts only take one or two
+ * bytes.
+ * </p>
+ *
+ * <p>When the strings are read, they are interned within a shared pool, so all
+ * of the players that are in the cache will share the same mine and block
+ * name String objects.
+ * </p>
+ *
+ * <p>Format, version 1:
+ * </p>
+ * <pre>
+ *   int     magic
+ *   byte    version
+ *   varint  string count, then each string as UTF
+ *   strings playerUuid, playerName, lastMine (string table index + 1, 0 is null)
+ *   varlong lastSeenDate, onlineTimeTotal, onlineAFKTimeTotal, onlineMiningTimeTotal,
+ *           blocksTotal, tokens, tokensTotal, tokensTotalAdminAdded,
+ *           tokensTotalAdminRemoved, tokensLastBlocksTotals
+ *   maps    blocksByMine, blocksByType, timeByMine, earningsByMine, tokensByMine
+ *           (varint size, then the key's string index and the value)
+ *   end of the file
+ * </pre>
+ *
+ */
+public class PlayerCacheBinaryCodec
+	implements CoreCacheBinaryCodec
+{
+	/**
+	 * <p>The ascii characters "PCB" followed by 0x01.
+	 * </p>
+	 */
+	public static final int PLAYER_CACHE_BINARY_MAGIC = 0x50434201;
+	public static final int PLAYER_CACHE_BINARY_VERSION = 1;
+
+	public static final int PLAYER_CACHE_STRING_POOL_MAX_SIZE = 10000;
+
+	private static final ConcurrentHashMap<String, String> stringPool = new ConcurrentHashMap<>();
+
+	@Override
+	public int getMagic() {
+		return PLAYER_CACHE_BINARY_MAGIC;
+	}
+
+	@Override
+	public void write( CoreCacheData cacheData, DataOutputStream out )
+			throws IOException {
+
+		// The stats are changed by other threads while this is being saved, so 
+		// encode a copy so the string table and the map sizes match the entries:
+		PlayerCachePlayerData data = ((PlayerCachePlayerData) cacheData).copyForSave();
+
+		Map<String, Integer> strings = new LinkedHashMap<>();
+
+		addString( strings, data.getPlayerUuid() );
+		addString( strings, data.getPlayerName() );
+		addString( strings, data.getLastMine() );
+		addStrings( strings, data.getBlocksByMine() );
+		addStrings( strings, data.getBlocksByType() );
+		addStrings( strings, data.getTimeByMine() );
+		addStrings( strings, data.getEarningsByMine() );
+		addStrings( strings, data.getTokensByMine() );
+
+		out.writeInt( PLAYER_CACHE_BINARY_MAGIC );
+		out.writeByte( PLAYER_CACHE_BINARY_VERSION );
+
+		writeVarLong( out, strings.size() );
+		for ( String string : strings.keySet() ) {
+			out.writeUTF( string );
+		}
+
+		writeString( out, strings, data.getPlayerUuid() );
+		writeString( out, strings, data.getPlayerName() );
+		writeString( out, strings, data.getLastMine() );
+
+		writeVarLong( out, data.getLastSeenDate() );
+		writeVarLong( out, data.getOnlineTimeTotal() );
+		writeVarLong( out, data.getOnlineAFKTimeTotal() );
+		writeVarLong( out, data.getOnlineMiningTimeTotal() );
+		writeVarLong( out, data.getBlocksTotal() );
+		writeVarLong( out, data.getTokens() );
+		writeVarLong( out, data.getTokensTotal() );
+		writeVarLong( out, data.getTokensTotalAdminAdded() );
+		writeVarLong( out, data.getTokensTotalAdminRemoved() );
+		writeVarLong( out, data.getTokensLastBlocksTotals() );
+
+		writeVarLong( out, size( data.getBlocksByMine() ) );
+		if ( data.getBlocksByMine() != null ) {
+			for ( Map.Entry<String, Integer> entry : data.getBlocksByMine().entrySet() ) {
+				writeString( out, strings, entry.getKey() );
+				writeVarLong( out, entry.getValue() );
+			}
+		}
+
+		writeVarLong( out, size( data.getBlocksByType() ) );
+		if ( data.getBlocksByType() != null ) {
+			for ( Map.Entry<String, Integer> entry : data.getBlocksByType().entrySet() ) {
+				writeString( out, strings, entry.getKey() );
+				writeVarLong( out, entry.getValue() );
+			}
+		}
+
+		writeVarLong( out, size( data.getTimeByMine() ) );
+		if ( data.getTimeByMine() != null ) {
+			for ( Map.Entry<String, Long> entry : data.getTimeByMine().entrySet() ) {
+				writeString( out, strings, entry.getKey() );
+				writeVarLong( out, entry.getValue() );
+			}
+		}
+
+		writeVarLong( out, size( data.getEarningsByMine() ) );
+		if ( data.getEarningsByMine() != null ) {
+			for ( Map.Entry<String, Double> entry : data.getEarningsByMine().entrySet() ) {
+				writeString( out, strings, entry.getKey() );
+				out.writeDouble( entry.getValue() );
+			}
+		}
+
+		writeVarLong( out, size( data.getTokensByMine() ) );
+		if ( data.getTokensByMine() != null ) {
+			for ( Map.Entry<String, Long> entry : data.getTokensByMine().entrySet() ) {
+				writeString( out, strings, entry.getKey() );
+				writeVarLong( out, entry.getValue() );
+			}
+		}
+	}
+
+	@Override
+	public CoreCacheData read( DataInputStream in )
+			throws IOException {
+
+		if ( in.readInt() != PLAYER_CACHE_BINARY_MAGIC ) {
+			throw new IOException( "PlayerCacheBinaryCodec: Not a player cache binary file." );
+		}
+
+		int version = in.readUnsignedByte();
+		if ( version != PLAYER_CACHE_BINARY_VERSION ) {
+			throw new IOException( "PlayerCacheBinaryCodec: Unsupported version: " + version );
+		}
+
+		int count = (int) readVarLong( in );
+		List<String> strings = new ArrayList<>( count );
+		for ( int i = 0; i < count; i++ ) {
+			strings.add( intern( in.readUTF() ) );
+		}
+
+		PlayerCachePlayerData data = new PlayerCachePlayerData();
+
+		data.setPlayerUuid( readString( in, strings ) );
+		data.setPlayerName( readString( in, strings ) );
+		data.setLastMine( readString( in, strings ) );
+
+		data.setLastSeenDate( readVarLong( in ) );
+		data.setOnlineTimeTotal( readVarLong( in ) );
+		data.setOnlineAFKTimeTotal( readVarLong( in ) );
+		data.setOnlineMiningTimeTotal( readVarLong( in ) );
+		data.setBlocksTotal( readVarLong( in ) );
+		data.setTokens( readVarLong( in ) );
+		data.setTokensTotal( readVarLong( in ) );
+		data.setTokensTotalAdminAdded( readVarLong( in ) );
+		data.setTokensTotalAdminRemoved( readVarLong( in ) );
+		data.setTokensLastBlocksTotals( readVarLong( in ) );
+
+		TreeMap<String, Integer> blocksByMine = new TreeMap<>();
+		for ( long i = readVarLong( in ); i > 0; i-- ) {
+			blocksByMine.put( readString( in, strings ), (int) readVarLong( in ) );
+		}
+		data.setBlocksByMine( blocksByMine );
+
+		TreeMap<String, Integer> blocksByType = new TreeMap<>();
+		for ( long i = readVarLong( in ); i > 0; i-- ) {
+			blocksByType.put( readString( in, strings ), (int) readVarLong( in ) );
+		}
+		data.setBlocksByType( blocksByType );
+
+		TreeMap<String, Long> timeByMine = new TreeMap<>();
+		for ( long i = readVarLong( in ); i > 0; i-- ) {
+			timeByMine.put( readString( in, strings ), readVarLong( in ) );
+		}
+		data.setTimeByMine( timeByMine );
+
+		TreeMap<String, Double> earningsByMine = new TreeMap<>();
+		for ( long i = readVarLong( in ); i > 0; i-- ) {
+			earningsByMine.put( readString( in, strings ), in.readDouble() );
+		}
+		data.setEarningsByMine( earningsByMine );
+
+		TreeMap<String, Long> tokensByMine = new TreeMap<>();
+		for ( long i = readVarLong( in ); i > 0; i-- ) {
+			tokensByMine.put( readString( in, strings ), readVarLong( in ) );
+		}
+		data.setTokensByMine( tokensByMine );
+
+		// Anything left over means the file does not match the format, so the 
+		// stats above cannot be trusted:
+		if ( in.read() != -1 ) {
+			throw new IOException( "PlayerCacheBinaryCodec: Unexpected data after the end of the player's stats." );
+		}
+
+		return data;
+	}
+
+	/**
+	 * <p>Returns the shared instance of the string.  The pool is bounded so it
+	 * cannot grow without limit if there are a lot of unique player names.
+	 * </p>
+	 *
+	 * @param value
+	 * @return
+	 */
+	public static String intern( String value ) {
+		String results = value;
+
+		if ( value != null ) {
+			String pooled = stringPool.get( value );
+
+			if ( pooled != null ) {
+				results = pooled;
+			}
+			else if ( stringPool.size() < PLAYER_CACHE_STRING_POOL_MAX_SIZE ) {
+				pooled = stringPool.putIfAbsent( value, value );
+
+				results = pooled == null ? value : pooled;
+			}
+		}
+
+		return results;
+	}
+
+	private void addString( Map<String, Integer> strings, String value ) {
+		if ( value != null && !strings.containsKey( value ) ) {
+			strings.put( value, strings.size() );
+		}
+	}
+
+	private void addStrings( Map<String, Integer> strings, Map<String, ?> map ) {
+		if ( map != null ) {
+			for ( String key : map.keySet() ) {
+				addString( strings, key );
+			}
+		}
+	}
+
+	private int size( Map<String, ?> map ) {
+		return map == null ? 0 : map.size();
+	}
+
+	private void writeString( DataOutputStream out, Map<String, Integer> strings, String value )
+			throws IOException {
+		writeVarLong( out, value == null ? 0 : strings.get( value ) + 1 );
+	}
+
+	private String readString( DataInputStream in, List<String> strings )
+			throws IOException {
+		int index = (int) readVarLong( in );
+
+		if ( index < 0 || index > strings.size() ) {
+			throw new IOException( "PlayerCacheBinaryCodec: Invalid string index: " + index );
+		}
+
+		return index == 0 ? null : strings.get( index - 1 );
+	}
+
+	/**
+	 * <p>Writes a zig-zag encoded variable length long, so small negative values
+	 * are also small.
+	 * </p>
+	 */
+	protected static void writeVarLong( DataOutputStream out, long value )
+			throws IOException {
+		long zigZag = (value << 1) ^ (value >> 63);
+
+		while ( (zigZag & ~0x7FL) != 0 ) {
+			out.writeByte( (int) ((zigZag & 0x7F) | 0x80) );
+			zigZag >>>= 7;
+		}
+		out.writeByte( (int) zigZag );
+	}
+
+	protected static long readVarLong( DataInputStream in )
+			throws IOException {
+		long zigZag = 0;
+		int shift = 0;
+		int b;
+
+		do {
+			if ( shift > 63 ) {
+				throw new IOException( "PlayerCacheBinaryCodec: Invalid variable length number." );
+			}
+
+			b = in.readUnsignedByte();
+			zigZag |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		}
+		while ( (b & 0x80) != 0 );
+
+		return (zigZag >>> 1) ^ -(zigZag & 1);
+	}
+}
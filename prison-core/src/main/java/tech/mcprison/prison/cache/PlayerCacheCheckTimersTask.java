@@ -65,7 +65,12 @@ public class PlayerCacheCheckTimersTask
 			
 			try
 			{
-				Set<String> keys = pCache.getPlayers().keySet();
+				// Use a copy of the keys so the players can be added or removed while 
+				// this is running:
+				Set<String> keys = null;
+				synchronized ( pCache.getPlayers() ) {
+					keys = new HashSet<>( pCache.getPlayers().keySet() );
+				}
 				
 				for ( String key : keys )
 				{
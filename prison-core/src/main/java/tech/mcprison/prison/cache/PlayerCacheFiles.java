@@ -1,5 +1,6 @@
 package tech.mcprison.prison.cache;
 
+import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.internal.Player;
 
 /**
@@ -23,10 +24,41 @@ public class PlayerCacheFiles
 {
 	public static final String FILE_PLAYER_CACHE_PATH = "data_storage/playerCache";
 	
+	public static final String PLAYER_CACHE_FILE_FORMAT_CONFIG_NAME = "player-cache.file-format";
+	
+	private CacheFileFormat fileFormat = null;
+	
+	private final PlayerCacheBinaryCodec binaryCodec;
 	
 	public PlayerCacheFiles() {
 		super( FILE_PLAYER_CACHE_PATH );
 		
+		this.binaryCodec = new PlayerCacheBinaryCodec();
+	}
+	
+	/**
+	 * <p>The player cache files can be saved as pretty printed json, compact
+	 * json, or as binary files.  The setting is only read once.
+	 * </p>
+	 */
+	@Override
+	protected CacheFileFormat getFileFormat() {
+		if ( fileFormat == null ) {
+			
+			String format = Prison.get().getPlatform().getConfigString( 
+					PLAYER_CACHE_FILE_FORMAT_CONFIG_NAME, CacheFileFormat.json.name() );
+			
+			fileFormat = CacheFileFormat.fromString( format );
+		}
+		return fileFormat;
+	}
+	public void setFileFormat( CacheFileFormat fileFormat ) {
+		this.fileFormat = fileFormat;
+	}
+	
+	@Override
+	protected CoreCacheBinaryCodec getBinaryCodec() {
+		return binaryCodec;
 	}
 
 	public PlayerCachePlayerData fromJson( Player player ) {
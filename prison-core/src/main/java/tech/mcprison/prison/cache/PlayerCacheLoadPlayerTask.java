@@ -1,33 +1,37 @@
 package tech.mcprison.prison.cache;
 
-import tech.mcprison.prison.internal.Player;
-
+/**
+ * <p>Loads the player's data from their file, then replaces the placeholder
+ * that is in the cache, merging in all of the stats that were buffered in
+ * the placeholder while the load was in progress.
+ * </p>
+ *
+ */
 public class PlayerCacheLoadPlayerTask
 	extends PlayerCacheTask
 {
 
-	private Player player;
-	
-	public PlayerCacheLoadPlayerTask( Player player ) {
-		super( null );
-	
-		this.player = player;
+	public PlayerCacheLoadPlayerTask( PlayerCachePlayerData placeholder ) {
+		super( placeholder );
+
 	}
 
 	public void run() {
-	
+
 		PlayerCache pCache = PlayerCache.getInstance();
-		
-		PlayerCachePlayerData playerData = pCache.getCacheFiles().fromJson( player );
-		
+
+		PlayerCachePlayerData placeholder = getPlayerData();
+
+		PlayerCachePlayerData playerData = pCache.getCacheFiles().fromJson( placeholder.getPlayer() );
+
 		if ( playerData != null ) {
-			
-			synchronized ( pCache.getPlayers() ) {
-				
-				pCache.addPlayerData( playerData );
-			}
+
+			// The placeholder may have a more current Player object:
+			playerData.setPlayer( placeholder.getPlayer() );
+
+			pCache.completeLoadPlayer( placeholder, playerData );
 		}
-		
+
 	}
 
 }
@@ -4,6 +4,7 @@ import java.io.File;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.TreeMap;
+import java.util.function.Consumer;
 
 import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
 import tech.mcprison.prison.autofeatures.AutoFeaturesWrapper;
@@ -41,14 +42,32 @@ public class PlayerCachePlayerData
 	//       always considered dirty since their online time would need to be updated.
 //	private transient boolean dirty = false;
 	
+	// A placeholder is used while the player's data is being loaded asynchronously:
+	private transient boolean loading = false;
+	
 	/**
 	 *  This Object lock is used to synchronized the public side of this class
 	 *  and the protected side of this class which is the database transaction
 	 *  side of things.
 	 */
-	@SuppressWarnings( "unused" )
 	private transient final Object lock = new Object();
 	
+	/**
+	 * <p>When a placeholder has been merged, this is the loaded player data that
+	 * it was merged in to.  Any stats that are added to the placeholder after it
+	 * has been merged, by threads that still have a reference to it, are 
+	 * forwarded to the loaded player data.
+	 * </p>
+	 */
+	private transient volatile PlayerCachePlayerData mergedInto = null;
+	
+	/**
+	 * <p>If the tokens were set on a placeholder, then the player's real balance
+	 * is not known yet, so the new balance is applied when it is merged.
+	 * </p>
+	 */
+	private transient Long placeholderTokensBalance = null;
+	
 	private transient PlayerCacheRunnable task = null;
 	
 	
@@ -178,6 +197,9 @@ public class PlayerCachePlayerData
 	}
 	
 	public void checkTimers() {
+		updateStats( pData -> pData.checkTimersStats() );
+	}
+	private void checkTimersStats() {
 
 		if ( isOnline() ) {
 			
@@ -348,7 +370,10 @@ public class PlayerCachePlayerData
 	 * @param blockName
 	 * @param quantity
 	 */
-	public void addBlock( String mine, String blockName, int quantity )
+	public void addBlock( String mine, String blockName, int quantity ) {
+		updateStats( pData -> pData.addBlockStats( mine, blockName, quantity ) );
+	}
+	private void addBlockStats( String mine, String blockName, int quantity )
 	{
 		if ( quantity > 0 && blockName != null && 
 				!PrisonBlock.AIR.getBlockName().equalsIgnoreCase( blockName )
@@ -434,6 +459,9 @@ public class PlayerCachePlayerData
 	 * @param earnings
 	 */
 	public void addEarnings( double earnings, String mineName ) {
+		updateStats( pData -> pData.addEarningsStats( earnings, mineName ) );
+	}
+	private void addEarningsStats( double earnings, String mineName ) {
 		SimpleDateFormat dateFmt = new SimpleDateFormat("yyyy-MM-dd_hh:mm");
 		String key = dateFmt.format( new Date() );
 		
@@ -548,6 +576,9 @@ public class PlayerCachePlayerData
 	 * @param newTokens
 	 */
 	public void addTokens( long newTokens, String mineName ) {
+		updateStats( pData -> pData.addTokensStats( newTokens, mineName ) );
+	}
+	private void addTokensStats( long newTokens, String mineName ) {
 		
 		addTokens( newTokens );
 		
@@ -596,6 +627,9 @@ public class PlayerCachePlayerData
 	 * @param newTokens
 	 */
 	public void addTokensAdmin( long newTokens ) {
+		updateStats( pData -> pData.addTokensAdminStats( newTokens ) );
+	}
+	private void addTokensAdminStats( long newTokens ) {
 		
 		this.tokens += newTokens;
 		this.tokensTotalAdminAdded += newTokens;
@@ -603,6 +637,9 @@ public class PlayerCachePlayerData
 		dirty = true;
 	}
 	public void addTokens( long newTokens ) {
+		updateStats( pData -> pData.addTokensStats( newTokens ) );
+	}
+	private void addTokensStats( long newTokens ) {
 		
 		this.tokens += newTokens;
 		this.tokensTotal += newTokens;
@@ -624,6 +661,9 @@ public class PlayerCachePlayerData
 	 * @param newTokens
 	 */
 	public void removeTokensAdmin( long removeTokens ) {
+		updateStats( pData -> pData.removeTokensAdminStats( removeTokens ) );
+	}
+	private void removeTokensAdminStats( long removeTokens ) {
 		
 		this.tokens -= removeTokens;
 		this.tokensTotalAdminRemoved += removeTokens;
@@ -631,6 +671,9 @@ public class PlayerCachePlayerData
 		dirty = true;
 	}
 	public void removeTokens( long removeTokens ) {
+		updateStats( pData -> pData.removeTokensStats( removeTokens ) );
+	}
+	private void removeTokensStats( long removeTokens ) {
 		
 		this.tokens -= removeTokens;
 		
@@ -638,8 +681,19 @@ public class PlayerCachePlayerData
 	}
 	
 	public void setTokensAdmin( long newBalance ) {
+		updateStats( pData -> pData.setTokensAdminStats( newBalance ) );
+	}
+	private void setTokensAdminStats( long newBalance ) {
 		
-		if ( this.tokens > newBalance ) {
+		if ( isLoading() ) {
+			
+			// The player's balance is not known yet, so it will be set when this 
+			// placeholder is merged.  Any tokens that were buffered before this are 
+			// replaced by the new balance:
+			placeholderTokensBalance = newBalance;
+			this.tokens = 0;
+		}
+		else if ( this.tokens > newBalance ) {
 
 			long delta = this.tokens - newBalance;
 			
@@ -657,6 +711,184 @@ public class PlayerCachePlayerData
 				
 	}
 	
+	/**
+	 * <p>All of the stats are updated while holding this object's lock, so they 
+	 * cannot be changed while a placeholder is being merged.  If this is a 
+	 * placeholder that has already been merged, then the update is applied to the
+	 * loaded player data instead.
+	 * </p>
+	 * 
+	 * @param update
+	 */
+	/**
+	 * <p>Returns a copy of the fields that are saved, which is taken while holding
+	 * the lock, so the stats cannot be changed while they are being copied.  The 
+	 * copy can then be encoded on another thread, while the stats keep changing.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	protected PlayerCachePlayerData copyForSave() {
+		PlayerCachePlayerData results = new PlayerCachePlayerData();
+		
+		synchronized ( lock ) {
+			
+			results.setPlayerUuid( getPlayerUuid() );
+			results.setPlayerName( getPlayerName() );
+			results.setLastMine( getLastMine() );
+			
+			results.setLastSeenDate( getLastSeenDate() );
+			results.setOnlineTimeTotal( getOnlineTimeTotal() );
+			results.setOnlineAFKTimeTotal( getOnlineAFKTimeTotal() );
+			results.setOnlineMiningTimeTotal( getOnlineMiningTimeTotal() );
+			results.setBlocksTotal( getBlocksTotal() );
+			results.setTokens( getTokens() );
+			results.setTokensTotal( getTokensTotal() );
+			results.setTokensTotalAdminAdded( getTokensTotalAdminAdded() );
+			results.setTokensTotalAdminRemoved( getTokensTotalAdminRemoved() );
+			results.setTokensLastBlocksTotals( getTokensLastBlocksTotals() );
+			
+			if ( getBlocksByMine() != null ) {
+				results.setBlocksByMine( new TreeMap<>( getBlocksByMine() ) );
+			}
+			if ( getBlocksByType() != null ) {
+				results.setBlocksByType( new TreeMap<>( getBlocksByType() ) );
+			}
+			if ( getTimeByMine() != null ) {
+				results.setTimeByMine( new TreeMap<>( getTimeByMine() ) );
+			}
+			if ( getEarningsByMine() != null ) {
+				results.setEarningsByMine( new TreeMap<>( getEarningsByMine() ) );
+			}
+			if ( getTokensByMine() != null ) {
+				results.setTokensByMine( new TreeMap<>( getTokensByMine() ) );
+			}
+		}
+		
+		return results;
+	}
+	
+	private void updateStats( Consumer<PlayerCachePlayerData> update ) {
+		PlayerCachePlayerData target = this;
+		
+		while ( target != null ) {
+			PlayerCachePlayerData next = null;
+			
+			synchronized ( target.lock ) {
+				
+				next = target.mergedInto;
+				
+				if ( next == null ) {
+					update.accept( target );
+				}
+			}
+			
+			target = next;
+		}
+	}
+	
+	/**
+	 * <p>This merges all of the stats that were buffered in a placeholder, while
+	 * this player's data was being loaded, in to this object.  Since the placeholder
+	 * starts with all of its stats at zero, everything in it is an increment.
+	 * The session timing is taken from the placeholder since it is the most 
+	 * current.
+	 * </p>
+	 * 
+	 * <p>A placeholder can only be merged once.  The merge is done while holding
+	 * the placeholder's lock, which is the same lock that its stat updates use, so
+	 * no updates are lost.  After it has been merged, all updates to the 
+	 * placeholder are forwarded to this object.
+	 * </p>
+	 * 
+	 * <p>The tokens that were removed from the placeholder are negative, so they are
+	 * removed from the player's balance.  If the tokens were set on the placeholder,
+	 * then that balance is applied to the player's balance before the tokens that
+	 * were added or removed after it was set.
+	 * </p>
+	 * 
+	 * @param placeholder
+	 * @return true if the placeholder was merged, or false if it was already merged.
+	 */
+	public boolean mergeLoadingPlaceholder( PlayerCachePlayerData placeholder ) {
+		
+		synchronized ( placeholder.lock ) {
+			
+			if ( !placeholder.isLoading() ) {
+				return false;
+			}
+			
+			synchronized ( lock ) {
+				
+				mergePlaceholderStats( placeholder );
+			}
+			
+			placeholder.setLoading( false );
+			placeholder.mergedInto = this;
+		}
+		
+		return true;
+	}
+	
+	private void mergePlaceholderStats( PlayerCachePlayerData placeholder ) {
+		
+		this.onlineTimeTotal += placeholder.getOnlineTimeTotal();
+		this.onlineAFKTimeTotal += placeholder.getOnlineAFKTimeTotal();
+		this.onlineMiningTimeTotal += placeholder.getOnlineMiningTimeTotal();
+		
+		this.blocksTotal += placeholder.getBlocksTotal();
+		
+		for ( String key : placeholder.getBlocksByMine().keySet() ) {
+			getBlocksByMine().merge( key, placeholder.getBlocksByMine().get( key ), Integer::sum );
+		}
+		for ( String key : placeholder.getBlocksByType().keySet() ) {
+			getBlocksByType().merge( key, placeholder.getBlocksByType().get( key ), Integer::sum );
+		}
+		for ( String key : placeholder.getTimeByMine().keySet() ) {
+			getTimeByMine().merge( key, placeholder.getTimeByMine().get( key ), Long::sum );
+		}
+		for ( String key : placeholder.getEarningsByMine().keySet() ) {
+			getEarningsByMine().merge( key, placeholder.getEarningsByMine().get( key ), Double::sum );
+		}
+		
+		synchronized ( placeholder.getEarningsPerMinute() ) {
+			for ( String key : placeholder.getEarningsPerMinute().keySet() ) {
+				getEarningsPerMinute().merge( key, placeholder.getEarningsPerMinute().get( key ), Double::sum );
+			}
+		}
+		
+		if ( placeholder.placeholderTokensBalance != null ) {
+			setTokensAdminStats( placeholder.placeholderTokensBalance );
+		}
+		
+		this.tokens += placeholder.getTokens();
+		this.tokensTotal += placeholder.getTokensTotal();
+		this.tokensTotalAdminAdded += placeholder.getTokensTotalAdminAdded();
+		this.tokensTotalAdminRemoved += placeholder.getTokensTotalAdminRemoved();
+		this.tokensLastBlocksTotals += placeholder.getTokensLastBlocksTotals();
+		
+		for ( String key : placeholder.getTokensByMine().keySet() ) {
+			getTokensByMine().merge( key, placeholder.getTokensByMine().get( key ), Long::sum );
+		}
+		for ( String key : placeholder.getTokensPerMinute().keySet() ) {
+			getTokensPerMinute().merge( key, placeholder.getTokensPerMinute().get( key ), Long::sum );
+		}
+		
+		if ( placeholder.getLastMine() != null ) {
+			setLastMine( placeholder.getLastMine() );
+		}
+		this.sessionType = placeholder.sessionType;
+		this.sessionTimingLastCheck = placeholder.sessionTimingLastCheck;
+		
+		if ( placeholder.getLastSeenDate() > getLastSeenDate() ) {
+			setLastSeenDate( placeholder.getLastSeenDate() );
+		}
+		
+		if ( placeholder.isDirty() ) {
+			this.dirty = true;
+		}
+	}
+	
 	/**
 	 * This returns the average tokens earned per minute for the
 	 * last 5 minutes.
@@ -922,4 +1154,19 @@ public class PlayerCachePlayerData
 		this.dirty = dirty;
 	}
 
+	/**
+	 * <p>If true, then this is a placeholder that is buffering the player's stats
+	 * while their data is being loaded.  The values within a placeholder are only
+	 * what has been added since the load started.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public boolean isLoading() {
+		return loading;
+	}
+	public void setLoading( boolean loading ) {
+		this.loading = loading;
+	}
+
 }
@@ -5,6 +5,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.output.Output;
@@ -42,6 +50,16 @@ import tech.mcprison.prison.output.Output;
  * <p>This class only saves the data. It does not recalculate anything.
  * </p>
  * 
+ * <p>The dirty players are saved in parallel on a small, bounded, pool of
+ * threads.  Each player's file is written to a temp file and then it is renamed
+ * to replace the player's file.  If the pool's queue is full, then the
+ * save is ran in this task's thread, which slows down the submission of more
+ * saves.  A player can only have one save in progress at a time, so if they
+ * become dirty again while they are being saved, they stay dirty and will be
+ * saved on the next pass.  If a pass is still running when the next one 
+ * starts, then the next one is skipped so the passes never overlap.
+ * </p>
+ * 
  * @author RoyalBlueRanger
  *
  */
@@ -49,14 +67,55 @@ public class PlayerCacheSaveAllPlayersTask
 		extends PlayerCacheRunnable
 {
 //	public static long LAST_SEEN_INTERVAL_30_MINUTES = 30 * 60 * 1000;
+	
+	public static final String PLAYER_CACHE_SAVE_THREADS_CONFIG_NAME = "player-cache.save-threads";
+	public static final int PLAYER_CACHE_SAVE_THREADS_VALUE = 4;
+	
+	public static final int PLAYER_CACHE_SAVE_QUEUE_SIZE = 64;
+	
+	private ThreadPoolExecutor executor = null;
+	
+	private final Set<String> saving;
+	private final AtomicBoolean running;
+	
+	private final AtomicInteger passesSkipped;
+	private final AtomicInteger savesCoalesced;
+	
+	
+	public PlayerCacheSaveAllPlayersTask() {
+		super();
+		
+		this.saving = ConcurrentHashMap.newKeySet();
+		this.running = new AtomicBoolean( false );
+		
+		this.passesSkipped = new AtomicInteger();
+		this.savesCoalesced = new AtomicInteger();
+	}
 
 	@Override
 	public void run()
 	{
+		
+		// Do not let the passes overlap:
+		if ( !running.compareAndSet( false, true ) ) {
+			passesSkipped.incrementAndGet();
+			return;
+		}
+		
+		try {
+			savePlayers();
+		}
+		finally {
+			running.set( false );
+		}
+	}
+	
+	private void savePlayers() {
 	
 		PlayerCache pCache = PlayerCache.getInstance();
 		
 		List<PlayerCachePlayerData> purge = new ArrayList<>();
+		List<Future<?>> saves = new ArrayList<>();
 		
 		
 		long lastSeenInterval = Prison.get().getPlatform().getConfigInt( 
@@ -66,7 +125,10 @@ public class PlayerCacheSaveAllPlayersTask
 		
 		Map<String, PlayerCachePlayerData> syncMap = pCache.getPlayers();
 		
-		Set<String> keys = new TreeSet<>( syncMap.keySet() );
+		Set<String> keys = null;
+		synchronized ( syncMap ) {
+			keys = new TreeSet<>( syncMap.keySet() );
+		}
 		
 		for ( String key : keys )
 		{
@@ -78,6 +140,12 @@ public class PlayerCacheSaveAllPlayersTask
 				}
 			}
 			
+			// Placeholders are never saved or purged.  They are replaced when 
+			// the player's data has been loaded:
+			if ( playerData != null && playerData.isLoading() ) {
+				continue;
+			}
+			
 			if ( playerData != null ) {
 				
 				// If the player is online plus.. if dirty, or never last seen, or
@@ -95,18 +163,14 @@ public class PlayerCacheSaveAllPlayersTask
 				
 				if ( playerData.isDirty() ) {
 					
-					try
-					{
+					if ( saving.add( key ) ) {
+						
 						playerData.setDirty( false );
-						pCache.getCacheFiles().toJsonFile( playerData );
+						saves.add( submitSave( pCache, key, playerData ) );
 					}
-					catch ( Exception e )
-					{
-						String message = String.format( 
-								"PlayerCache: Error trying to save a player's " +
-										"cache data. Will try again later. " +
-										"%s", e.getMessage() );
-						Output.get().logError( message, e );
+					else {
+						// Already being saved. It stays dirty for the next pass:
+						savesCoalesced.incrementAndGet();
 					}
 				}
 			}
@@ -115,7 +179,8 @@ public class PlayerCacheSaveAllPlayersTask
 			// If a cached item is found with the player being offline, then 
 			// purge them from the cache.  They were usually added only because
 			// some process had to inspect their stats, so they are safe to remove.
-			if (  playerData != null && !playerData.isOnline() ) {
+			// If they are being saved, then they will be purged on the next pass.
+			if (  playerData != null && !playerData.isOnline() && !saving.contains( key ) ) {
 				purge.add( playerData );
 			}
 		}
@@ -124,7 +189,8 @@ public class PlayerCacheSaveAllPlayersTask
 			
 			for ( PlayerCachePlayerData playerData : purge ) {
 				try {
-					if ( !playerData.isDirty() ) {
+					if ( !playerData.isDirty() && 
+							syncMap.get( playerData.getPlayerUuid() ) == playerData ) {
 						
 						pCache.getPlayers().remove( playerData.getPlayerUuid() );
 					}
@@ -136,5 +202,151 @@ public class PlayerCacheSaveAllPlayersTask
 			}
 		}
 		
+		// Wait for this pass's saves so the next pass cannot overlap with them:
+		for ( Future<?> save : saves ) {
+			try {
+				save.get();
+			}
+			catch ( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			catch ( ExecutionException e ) {
+				// The errors are logged within the save.
+			}
+		}
+		
+	}
+	
+	private Future<?> submitSave( PlayerCache pCache, String key, PlayerCachePlayerData playerData ) {
+		
+		return getExecutor().submit( () -> {
+			
+			try
+			{
+				if ( !pCache.getCacheFiles().toJsonFile( playerData ) ) {
+					
+					// It was not saved, so try again on the next pass:
+					playerData.setDirty( true );
+					
+					Output.get().logWarn( "PlayerCache: Unable to save a player's " +
+							"cache data. Will try again later. " + key );
+				}
+			}
+			catch ( Exception e )
+			{
+				// It was not saved, so try again on the next pass:
+				playerData.setDirty( true );
+				
+				String message = String.format( 
+						"PlayerCache: Error trying to save a player's " +
+								"cache data. Will try again later. " +
+								"%s", e.getMessage() );
+				Output.get().logError( message, e );
+			}
+			finally {
+				synchronized ( saving ) {
+					saving.remove( key );
+					saving.notifyAll();
+				}
+			}
+		});
+	}
+	
+	/**
+	 * <p>The pool has a bounded queue.  When the queue is full, or when the pool
+	 * has been shutdown, the save is ran in the submitting thread.  That provides
+	 * the back pressure, and it ensures a save is never dropped.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	private synchronized ThreadPoolExecutor getExecutor() {
+		
+		if ( executor == null ) {
+			
+			int threads = Math.max( 1, Prison.get().getPlatform().getConfigInt( 
+					PLAYER_CACHE_SAVE_THREADS_CONFIG_NAME, PLAYER_CACHE_SAVE_THREADS_VALUE ) );
+			
+			AtomicInteger threadId = new AtomicInteger();
+			
+			executor = new ThreadPoolExecutor( threads, threads, 
+					60, TimeUnit.SECONDS, 
+					new ArrayBlockingQueue<>( PLAYER_CACHE_SAVE_QUEUE_SIZE ),
+					runnable -> {
+						Thread thread = new Thread( runnable, 
+								"Prison-PlayerCacheSave-" + threadId.incrementAndGet() );
+						thread.setDaemon( true );
+						return thread;
+					},
+					(runnable, pool) -> runnable.run() );
+			
+			executor.allowCoreThreadTimeOut( true );
+		}
+		
+		return executor;
+	}
+	
+	/**
+	 * <p>Stops accepting new saves and waits for all of the saves that are in
+	 * progress to finish.  This is called on shutdown before the remaining 
+	 * players are saved, so a player is never saved by two threads at the 
+	 * same time.
+	 * </p>
+	 * 
+	 * <p>The saves that are ran in the submitting thread, because the queue was
+	 * full or the pool was shutdown, are not part of the pool, so this also waits
+	 * until there are no more players being saved.
+	 * </p>
+	 * 
+	 * @param timeoutMs
+	 * @return true if all saves finished.
+	 */
+	public boolean shutdown( long timeoutMs ) {
+		boolean results = true;
+		
+		long deadline = System.currentTimeMillis() + timeoutMs;
+		
+		ThreadPoolExecutor pool = null;
+		synchronized ( this ) {
+			pool = executor;
+		}
+		
+		try {
+			if ( pool != null ) {
+				pool.shutdown();
+				
+				results = pool.awaitTermination( timeoutMs, TimeUnit.MILLISECONDS );
+			}
+			
+			synchronized ( saving ) {
+				long remaining = deadline - System.currentTimeMillis();
+				
+				while ( !saving.isEmpty() && remaining > 0 ) {
+					saving.wait( remaining );
+					remaining = deadline - System.currentTimeMillis();
+				}
+				
+				results = results && saving.isEmpty();
+			}
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			results = false;
+		}
+		
+		return results;
+	}
+	
+	public int getPassesSkipped() {
+		return passesSkipped.get();
+	}
+	
+	public int getSavesCoalesced() {
+		return savesCoalesced.get();
+	}
+	
+	public int getSavesInProgress() {
+		return saving.size();
 	}
 }
@@ -10,6 +10,8 @@ public class PlayerCacheStats {
 	private int unloadPlayer = 0;
 	private int removePlayer = 0;
 	private int getPlayer = 0;
+	private int placeholders = 0;
+	private int prefetchPlayer = 0;
 
 	private int submitDatabaseUpdate = 0;
 	private int synchronizePlayers = 0;
@@ -20,8 +22,8 @@ public class PlayerCacheStats {
 	private Object lock3 = new Object();
 	private Object lock4 = new Object();
 	private Object lock5 = new Object();
-//	private Object lock6 = new Object();
-//	private Object lock7 = new Object();
+	private Object lock6 = new Object();
+	private Object lock7 = new Object();
 //	private Object lock8 = new Object();
 //	private Object lock9 = new Object();
 //	private Object lockA = new Object();
@@ -58,6 +60,8 @@ public class PlayerCacheStats {
 			.append( " unloadPlayer=" ).append( getUnloadPlayer() )
 			.append( " removePlayer=" ).append( getRemovePlayer() )
 			.append( " getPlayer=" ).append( getGetPlayer() )
+			.append( " placeholders=" ).append( getPlaceholders() )
+			.append( " prefetchPlayer=" ).append( getPrefetchPlayer() )
 			
 			.append( " submitDatabaseUpdate=" ).append( getSubmitDatabaseUpdate() )
 			.append( " synchronizeDatabase=" ).append( getSynchronizePlayers() )
@@ -75,6 +79,8 @@ public class PlayerCacheStats {
 		setUnloadPlayer( 0 );
 		setRemovePlayer( 0 );
 		setGetPlayer( 0 );
+		setPlaceholders( 0 );
+		setPrefetchPlayer( 0 );
 		
 		setSubmitDatabaseUpdate( 0 );
 		setSynchronizePlayers( 0 );
@@ -89,6 +95,20 @@ public class PlayerCacheStats {
 			}
 		}
 	}
+	public void incrementPlaceholders() {
+		if ( enabled ) {
+			synchronized ( lock6 ) {
+				placeholders++;
+			}
+		}
+	}
+	public void incrementPrefetchPlayers() {
+		if ( enabled ) {
+			synchronized ( lock7 ) {
+				prefetchPlayer++;
+			}
+		}
+	}
 	public void incrementRemovePlayers() {
 		if ( enabled ) {
 			synchronized ( lock2 ) {
@@ -142,6 +162,20 @@ public class PlayerCacheStats {
 		this.getPlayer = getPlayer;
 	}
 	
+	public int getPlaceholders() {
+		return placeholders;
+	}
+	public void setPlaceholders( int placeholders ) {
+		this.placeholders = placeholders;
+	}
+	
+	public int getPrefetchPlayer() {
+		return prefetchPlayer;
+	}
+	public void setPrefetchPlayer( int prefetchPlayer ) {
+		this.prefetchPlayer = prefetchPlayer;
+	}
+	
 	public int getRemovePlayer() {
 		return removePlayer;
 	}
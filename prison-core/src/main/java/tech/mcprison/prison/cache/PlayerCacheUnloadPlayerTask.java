@@ -21,7 +21,9 @@ public class PlayerCacheUnloadPlayerTask
 			removed = pCache.removePlayerData( getPlayerData() );
 		}
 		
-		if ( removed != null ) {
+		// A placeholder is never saved.  If it is still loading, then the load 
+		// task will save the player's data once it has been merged:
+		if ( removed != null && !removed.isLoading() ) {
 			
 			pCache.getCacheFiles().toJsonFile( removed );
 		}
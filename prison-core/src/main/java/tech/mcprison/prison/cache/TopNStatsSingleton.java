@@ -1,30 +1,46 @@
 package tech.mcprison.prison.cache;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 
+import tech.mcprison.prison.util.RankedTreeMap;
+
+/**
+ * <p>This keeps the TopNStatsData for all players ranked by their blocks,
+ * tokens, balances, and ranks.  Each ranking is a RankedTreeMap that is
+ * keyed on the player's uuid, and is ordered by its comparator, so when a
+ * player's stats change, that player is just moved to their new positions,
+ * and nothing needs to be resorted.
+ * </p>
+ *
+ * <p>The comparators sort in ascending order, so for the blocks, tokens, and
+ * balances, the top player is the last entry.  The getTop functions use a
+ * position of 0 for the top player.
+ * </p>
+ *
+ */
 public class TopNStatsSingleton
 {
 
 	private static TopNStatsSingleton instance;
-	
-	List<TopNStatsData> mainList;
-
-	List<TopNStatsData> topBlocksList;
-	List<TopNStatsData> topTokensList;
-	List<TopNStatsData> topBalancesList;
-	
-	List<TopNStatsData> topRanksList;
-	
-	
-	
+
+	private final RankedTreeMap<String, TopNStatsData> topBlocks;
+	private final RankedTreeMap<String, TopNStatsData> topTokens;
+	private final RankedTreeMap<String, TopNStatsData> topBalances;
+
+	private final RankedTreeMap<String, TopNStatsData> topRanks;
+
+
+
 	private TopNStatsSingleton() {
 		super();
-	
-		this.mainList = new ArrayList<>();
+
+		this.topBlocks = new RankedTreeMap<>( new TopNBlocksComparator() );
+		this.topTokens = new RankedTreeMap<>( new TopNTokensComparator() );
+		this.topBalances = new RankedTreeMap<>( new TopNBalancesComparator() );
+
+		this.topRanks = new RankedTreeMap<>( new TopNRanksComparator() );
 	}
-	
+
 	public static TopNStatsSingleton getInstance() {
 		if ( instance == null ) {
 			synchronized ( TopNStatsSingleton.class )
@@ -37,19 +53,77 @@ public class TopNStatsSingleton
 		}
 		return instance;
 	}
-	
-	
-	protected void sortAllLists() {
-		
-		Collections.sort( topBlocksList, new TopNBlocksComparator() );
-		
-		Collections.sort( topTokensList, new TopNTokensComparator() );
-		
-		Collections.sort( topBalancesList, new TopNBalancesComparator() );
-
-		Collections.sort( topRanksList, new TopNRanksComparator() );
-		
-	}
-	
-	
+
+
+	/**
+	 * <p>Adds the player's stats, or if they already exist, then moves the
+	 * player to their new positions within all of the rankings.  The stats
+	 * may have already been changed before this is called, since the old
+	 * entries are found by the player's uuid.
+	 * </p>
+	 *
+	 * @param stats
+	 */
+	public synchronized void updatePlayer( TopNStatsData stats ) {
+		String key = stats.getPlayerUuid();
+
+		topBlocks.put( key, stats );
+		topTokens.put( key, stats );
+		topBalances.put( key, stats );
+
+		topRanks.put( key, stats );
+	}
+
+	public synchronized void removePlayer( String playerUuid ) {
+
+		topBlocks.remove( playerUuid );
+		topTokens.remove( playerUuid );
+		topBalances.remove( playerUuid );
+
+		topRanks.remove( playerUuid );
+	}
+
+	public synchronized int size() {
+		return topBlocks.size();
+	}
+
+
+	public synchronized TopNStatsData getTopBlocks( int position ) {
+		return getTop( topBlocks, position );
+	}
+	public synchronized TopNStatsData getTopTokens( int position ) {
+		return getTop( topTokens, position );
+	}
+	public synchronized TopNStatsData getTopBalances( int position ) {
+		return getTop( topBalances, position );
+	}
+
+	public synchronized int getTopBlocksPosition( String playerUuid ) {
+		return getTopPosition( topBlocks, playerUuid );
+	}
+	public synchronized int getTopTokensPosition( String playerUuid ) {
+		return getTopPosition( topTokens, playerUuid );
+	}
+	public synchronized int getTopBalancesPosition( String playerUuid ) {
+		return getTopPosition( topBalances, playerUuid );
+	}
+
+	/**
+	 * <p>Returns a snapshot of the players sorted by the TopNRanksComparator.
+	 * </p>
+	 */
+	public synchronized ArrayList<TopNStatsData> getTopRanksList() {
+		return topRanks.values();
+	}
+
+	private TopNStatsData getTop( RankedTreeMap<String, TopNStatsData> ranked, int position ) {
+		return ranked.getByRank( ranked.size() - 1 - position );
+	}
+
+	private int getTopPosition( RankedTreeMap<String, TopNStatsData> ranked, String playerUuid ) {
+		int rank = ranked.getRank( playerUuid );
+
+		return rank == -1 ? -1 : ranked.size() - 1 - rank;
+	}
+
 }
@@ -24,6 +24,7 @@ import tech.mcprison.prison.internal.block.Block;
 import tech.mcprison.prison.internal.block.MineResetType;
 import tech.mcprison.prison.internal.block.MineTargetPrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.tasks.PrisonBlockSetOwner;
 import tech.mcprison.prison.util.Location;
 
 /**
@@ -68,9 +69,22 @@ public interface World {
      */
 	public void setBlockAsync( PrisonBlock prisonBlock, Location location );
 
+	/**
+	 * <p>Queues the blocks to be set within the server's main thread.  The
+	 * blocks are set by the PrisonBlockSetScheduler, within the tick budget
+	 * that is shared by all mines.  If the owner is null, then a default 
+	 * owner will be used.
+	 * </p>
+	 * 
+	 * @param tBlocks
+	 * @param resetType
+	 * @param nanos
+	 * @param owner
+	 */
 	public void setBlocksSynchronously( List<MineTargetPrisonBlock> tBlocks, 
 						MineResetType resetType, 
-								PrisonStatsElapsedTimeNanos nanos );
+								PrisonStatsElapsedTimeNanos nanos,
+								PrisonBlockSetOwner owner );
 
 
 }
@@ -0,0 +1,420 @@
+package tech.mcprison.prison.internal.block;
+
+import java.util.AbstractList;
+import java.util.IdentityHashMap;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import tech.mcprison.prison.internal.World;
+import tech.mcprison.prison.util.Location;
+
+/**
+ * <p>This is a packed, array backed, store of all of the target blocks within
+ * a mine.  Each block within the mine's bounds is addressed by a linear offset,
+ * and all of the state for that block is stored in a single int: the lower
+ * 16 bits are an index in to the block palette, and the upper bits hold the
+ * status flags (mined, counted, exploded, edge, corner, airBroke, etc...).
+ * </p>
+ *
+ * <p>The linear offset follows the same order in which the mine is generated
+ * and reset: starting with the top layer and working down, then x, then z.
+ * This is important since the block constraints track the range of positions
+ * in which a block can be placed, and since the paged resets process the
+ * blocks in this order.
+ * </p>
+ *
+ * <p>This class is also a read only List of MineTargetPrisonBlocks so it can be
+ * used where ever the old list was used.  The MineTargetPrisonBlock objects
+ * are light weight views in to this store and are created on demand, so a
+ * mine with millions of blocks does not have millions of objects on the heap.
+ * Entries that have not been set yet will be returned as null.
+ * </p>
+ *
+ */
+public class MineTargetBlockStore
+	extends AbstractList<MineTargetPrisonBlock>
+	implements RandomAccess
+{
+	public static final int BLOCK_INDEX_MASK = 0xFFFF;
+
+	public static final int STATUS_PLACED = 1 << 16;
+	public static final int STATUS_AIR_BROKE = 1 << 17;
+	public static final int STATUS_EDGE = 1 << 18;
+	public static final int STATUS_CORNER = 1 << 19;
+	public static final int STATUS_EXPLODED = 1 << 20;
+	public static final int STATUS_MINED = 1 << 21;
+	public static final int STATUS_COUNTED = 1 << 22;
+	public static final int STATUS_IGNORE_ALL_BLOCK_EVENTS = 1 << 23;
+	public static final int STATUS_CHECK_AIR = 1 << 24;
+	public static final int STATUS_CHECK_SAME = 1 << 25;
+
+	private final World world;
+
+	private final int xMin;
+	private final int yMin;
+	private final int zMin;
+
+	private final int xMax;
+	private final int yMax;
+	private final int zMax;
+
+	private final int xSize;
+	private final int zSize;
+
+	private final AtomicIntegerArray cells;
+
+	/**
+	 * <p>The palette is copy-on-write so it can be read without locking.
+	 * Position 0 is always the null block.
+	 * </p>
+	 */
+	private volatile PrisonBlockStatusData[] palette;
+	private volatile IdentityHashMap<PrisonBlockStatusData, Integer> paletteIndex;
+
+	private final AtomicInteger size;
+
+	/**
+	 * <p>The mined block is only set while a block break event is being processed,
+	 * so it is kept out of the packed cells.
+	 * </p>
+	 */
+	private final ConcurrentHashMap<Integer, Block> minedBlocks;
+
+	public MineTargetBlockStore( World world,
+				int xMin, int xMax, int yMin, int yMax, int zMin, int zMax ) {
+		super();
+
+		this.world = world;
+
+		this.xMin = xMin;
+		this.yMin = yMin;
+		this.zMin = zMin;
+
+		this.xMax = xMax;
+		this.yMax = yMax;
+		this.zMax = zMax;
+
+		this.xSize = Math.max( 0, xMax - xMin + 1 );
+		this.zSize = Math.max( 0, zMax - zMin + 1 );
+		int ySize = Math.max( 0, yMax - yMin + 1 );
+
+		this.cells = new AtomicIntegerArray( xSize * ySize * zSize );
+		this.size = new AtomicInteger();
+
+		this.palette = new PrisonBlockStatusData[] { null };
+		this.paletteIndex = new IdentityHashMap<>();
+
+		this.minedBlocks = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * <p>Creates an empty store that has no capacity.  This is used when the
+	 * mine does not have valid bounds.
+	 * </p>
+	 *
+	 * @param world
+	 */
+	public MineTargetBlockStore( World world ) {
+		this( world, 0, -1, 0, -1, 0, -1 );
+	}
+
+	public World getWorld() {
+		return world;
+	}
+
+	public int getCapacity() {
+		return cells.length();
+	}
+
+	/**
+	 * <p>The size is the highest position that has been set, plus one.  Since the
+	 * blocks are generated in the same order as the linear offset, the size is
+	 * also the current position while generating a mine.
+	 * </p>
+	 */
+	@Override
+	public int size() {
+		return size.get();
+	}
+
+	@Override
+	public MineTargetPrisonBlock get( int index ) {
+		if ( index < 0 || index >= size() ) {
+			throw new IndexOutOfBoundsException( "Index: " + index + ", Size: " + size() );
+		}
+
+		return isPlaced( index ) ? new MineTargetPrisonBlock( this, index ) : null;
+	}
+
+	/**
+	 * <p>Converts the block coordinates to the linear offset within this store.
+	 * </p>
+	 *
+	 * @return the index, or -1 if the coordinates are not within the store's bounds.
+	 */
+	public int indexOf( int x, int y, int z ) {
+		int index = -1;
+
+		if ( x >= xMin && x <= xMax &&
+				y >= yMin && y <= yMax &&
+				z >= zMin && z <= zMax ) {
+
+			index = ((yMax - y) * xSize + (x - xMin)) * zSize + (z - zMin);
+		}
+
+		return index;
+	}
+
+	public int getX( int index ) {
+		return xMin + (index / zSize) % xSize;
+	}
+
+	public int getY( int index ) {
+		return yMax - index / (xSize * zSize);
+	}
+
+	public int getZ( int index ) {
+		return zMin + index % zSize;
+	}
+
+	/**
+	 * <p>Sets the block at the given coordinates, and resets all of its status
+	 * flags.  The edge and corner flags are calculated from the store's bounds.
+	 * If the block is null or AIR, then it will be marked as airBroke so it will
+	 * never be counted.
+	 * </p>
+	 *
+	 * @return the index of the block, or -1 if it is outside of the store.
+	 */
+	public int add( PrisonBlockStatusData block, int x, int y, int z ) {
+
+		int index = indexOf( x, y, z );
+
+		if ( index != -1 ) {
+
+			boolean xEdge = x == xMin || x == xMax;
+			boolean yEdge = y == yMin || y == yMax;
+			boolean zEdge = z == zMin || z == zMax;
+
+			boolean isEdge = xEdge && yEdge || xEdge && zEdge ||
+					yEdge && zEdge;
+
+			boolean isCorner = xEdge && yEdge && zEdge;
+
+			int cell = getPaletteIndex( block ) | STATUS_PLACED;
+
+			if ( isEdge ) {
+				cell |= STATUS_EDGE;
+			}
+			if ( isCorner ) {
+				cell |= STATUS_CORNER;
+			}
+			if ( block == null || block.isAir() ) {
+				cell |= STATUS_AIR_BROKE;
+			}
+
+			cells.set( index, cell );
+			
+			// Only a few blocks ever have a mined block, so do not box the index and
+			// search the map for every block that is set when there are none:
+			if ( !minedBlocks.isEmpty() ) {
+				minedBlocks.remove( index );
+			}
+
+			updateSize( index + 1 );
+		}
+
+		return index;
+	}
+
+	/**
+	 * <p>Slabs of the mine may be set from more than one thread, so the size
+	 * is only ever increased.
+	 * </p>
+	 */
+	private void updateSize( int newSize ) {
+		int current = size.get();
+		
+		while ( newSize > current && !size.compareAndSet( current, newSize ) ) {
+			current = size.get();
+		}
+	}
+
+	public MineTargetPrisonBlock getTargetBlock( int x, int y, int z ) {
+		MineTargetPrisonBlock results = null;
+
+		int index = indexOf( x, y, z );
+
+		if ( index != -1 && index < size() && isPlaced( index ) ) {
+			results = new MineTargetPrisonBlock( this, index );
+		}
+
+		return results;
+	}
+
+	public MineTargetPrisonBlock getTargetBlock( Location location ) {
+		MineTargetPrisonBlock results = null;
+
+		if ( location != null && isSameWorld( location.getWorld() ) ) {
+
+			results = getTargetBlock(
+					location.getBlockX(), location.getBlockY(), location.getBlockZ() );
+		}
+
+		return results;
+	}
+
+	private boolean isSameWorld( World target ) {
+		return target == world ||
+				target != null && world != null &&
+				target.getName().equals( world.getName() );
+	}
+
+	/**
+	 * <p>Returns true if the block at the coordinates is a target block that has
+	 * already been mined.  This allows the blocks of an explosion to be skipped 
+	 * without having to get them from the world first.
+	 * </p>
+	 *
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return
+	 */
+	public boolean isMined( int x, int y, int z ) {
+		int index = indexOf( x, y, z );
+
+		return index != -1 && index < size() && isPlaced( index ) &&
+				hasStatus( index, STATUS_MINED );
+	}
+
+	public boolean isPlaced( int index ) {
+		return (cells.get( index ) & STATUS_PLACED) != 0;
+	}
+
+	public PrisonBlockStatusData getPrisonBlock( int index ) {
+		return palette[ cells.get( index ) & BLOCK_INDEX_MASK ];
+	}
+
+	public void setPrisonBlock( int index, PrisonBlockStatusData block ) {
+		int blockIndex = getPaletteIndex( block );
+
+		int cell;
+		do {
+			cell = cells.get( index );
+		}
+		while ( !cells.compareAndSet( index, cell, (cell & ~BLOCK_INDEX_MASK) | blockIndex ) );
+	}
+
+	public boolean hasStatus( int index, int status ) {
+		return (cells.get( index ) & status) != 0;
+	}
+
+	public void setStatus( int index, int status, boolean value ) {
+		int cell;
+		int update;
+		do {
+			cell = cells.get( index );
+			update = value ? cell | status : cell & ~status;
+		}
+		while ( cell != update && !cells.compareAndSet( index, cell, update ) );
+	}
+
+	/**
+	 * <p>Atomically claims the block so it can be counted.  Only one caller will
+	 * ever succeed for a given block, even if a block break event and an
+	 * explosion are processing the same block at the same time.  When the claim
+	 * succeeds, the counted, airBroke, and mined flags are all set within the
+	 * same compare-and-set.
+	 * </p>
+	 *
+	 * @param index
+	 * @return true if this caller claimed the block, false if it was already counted.
+	 */
+	public boolean claimCounted( int index ) {
+		int claimed = STATUS_COUNTED | STATUS_AIR_BROKE | STATUS_MINED;
+
+		int cell;
+		do {
+			cell = cells.get( index );
+
+			if ( (cell & STATUS_COUNTED) != 0 ) {
+				return false;
+			}
+		}
+		while ( !cells.compareAndSet( index, cell, cell | claimed ) );
+
+		return true;
+	}
+
+	public Block getMinedBlock( int index ) {
+		return minedBlocks.get( index );
+	}
+	public void setMinedBlock( int index, Block minedBlock ) {
+		if ( minedBlock == null ) {
+			if ( !minedBlocks.isEmpty() ) {
+				minedBlocks.remove( index );
+			}
+		}
+		else {
+			minedBlocks.put( index, minedBlock );
+		}
+	}
+
+	/**
+	 * <p>Finds the block in the palette, or adds it if it does not exist yet.
+	 * Blocks are matched on identity since the MineTargetPrisonBlock must return
+	 * the same block object that was used to set it.
+	 * </p>
+	 *
+	 * @param block
+	 * @return
+	 */
+	private int getPaletteIndex( PrisonBlockStatusData block ) {
+		if ( block == null ) {
+			return 0;
+		}
+
+		Integer index = paletteIndex.get( block );
+
+		if ( index == null ) {
+			index = addToPalette( block );
+		}
+
+		return index;
+	}
+
+	private synchronized int addToPalette( PrisonBlockStatusData block ) {
+
+		Integer index = paletteIndex.get( block );
+
+		if ( index == null ) {
+
+			PrisonBlockStatusData[] current = palette;
+
+			if ( current.length > BLOCK_INDEX_MASK ) {
+				throw new IllegalStateException( "MineTargetBlockStore: The block palette " +
+						"is full. Cannot add " + block.getBlockName() );
+			}
+
+			index = current.length;
+
+			PrisonBlockStatusData[] updated = new PrisonBlockStatusData[ index + 1 ];
+			System.arraycopy( current, 0, updated, 0, current.length );
+			updated[ index ] = block;
+
+			IdentityHashMap<PrisonBlockStatusData, Integer> updatedIndex =
+					new IdentityHashMap<>( paletteIndex );
+			updatedIndex.put( block, index );
+
+			// Publish the palette before the index so a reader never finds an
+			// index that is not in the palette:
+			palette = updated;
+			paletteIndex = updatedIndex;
+		}
+
+		return index;
+	}
+}
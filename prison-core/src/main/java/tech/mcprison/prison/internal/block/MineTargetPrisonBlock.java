@@ -1,62 +1,27 @@
 package tech.mcprison.prison.internal.block;
 
-import tech.mcprison.prison.internal.World;
 import tech.mcprison.prison.util.Location;
 
+/**
+ * <p>This is a light weight view of a single block within a MineTargetBlockStore.
+ * All of the state is held within the store, so these objects can be created
+ * on demand and thrown away.  Two instances that refer to the same position
+ * within the same store are equal.
+ * </p>
+ *
+ */
 public class MineTargetPrisonBlock
 	implements Comparable<MineTargetPrisonBlock>
 {
-	private MineTargetBlockKey blockKey;
+	private final MineTargetBlockStore store;
+	private final int index;
 	
-	private PrisonBlockStatusData prisonBlock;
 	
-	private boolean airBroke;
-	private boolean isEdge;
-	private boolean isCorner;
-	private boolean exploded;
-	
-	private boolean mined = false;
-	private Block minedBlock;
-	
-//	private boolean blockEvent = false;
-	private boolean counted = false;
-	
-	private boolean ignoreAllBlockEvents = false;
-	
-	
-	private transient boolean checkAir;
-	private transient boolean checkSame;
-	
-	
-	public MineTargetPrisonBlock( 
-				PrisonBlockStatusData prisonBlock, 
-				World world, 
-						int x, int y, int z, 
-						boolean isEdge,
-						boolean isCorner ) {
-		this.blockKey = new MineTargetBlockKey( world, x, y, z );
-		
-		this.prisonBlock = prisonBlock;
-		
-		if ( prisonBlock == null || prisonBlock.isAir() ) {
-			this.airBroke = true;
-		}
+	public MineTargetPrisonBlock( MineTargetBlockStore store, int index ) {
+		super();
 		
-		this.isEdge = isEdge;
-		this.isCorner = isCorner;
-	}
-
-	public MineTargetPrisonBlock( 
-			PrisonBlockStatusData prisonBlock, 
-			Location targetLocation ) {
-		this( prisonBlock, targetLocation.getWorld(),
-				targetLocation.getBlockX(), 
-				targetLocation.getBlockY(), 
-				targetLocation.getBlockZ(),
-				targetLocation.isEdge(),
-				targetLocation.isCorner()
-				);
-
+		this.store = store;
+		this.index = index;
 	}
 	
 	@Override
@@ -108,15 +73,35 @@ public class MineTargetPrisonBlock
 	}
 	
 	public PrisonBlockStatusData getPrisonBlock() {
-		return prisonBlock;
+		return store.getPrisonBlock( index );
 	}
 	public void setPrisonBlock( PrisonBlockStatusData prisonBlock ) {
-		this.prisonBlock = prisonBlock;
+		store.setPrisonBlock( index, prisonBlock );
 	}
 
 	
+	public MineTargetBlockStore getStore() {
+		return store;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public int getX() {
+		return store.getX( index );
+	}
+
+	public int getY() {
+		return store.getY( index );
+	}
+
+	public int getZ() {
+		return store.getZ( index );
+	}
+
 	public MineTargetBlockKey getBlockKey() {
-		return blockKey;
+		return new MineTargetBlockKey( store.getWorld(), getX(), getY(), getZ() );
 	}
 
 	public String getBlockCoordinates() {
@@ -146,38 +131,38 @@ public class MineTargetPrisonBlock
 	 * @return
 	 */
 	public boolean isAirBroke() {
-		return airBroke;
+		return store.hasStatus( index, MineTargetBlockStore.STATUS_AIR_BROKE );
 	}
 	public void setAirBroke( boolean airBroke ) {
-		this.airBroke = airBroke;
+		store.setStatus( index, MineTargetBlockStore.STATUS_AIR_BROKE, airBroke );
 	}
 	
 	public boolean isEdge() {
-		return isEdge;
+		return store.hasStatus( index, MineTargetBlockStore.STATUS_EDGE );
 	}
 	public void setEdge( boolean isEdge ) {
-		this.isEdge = isEdge;
+		store.setStatus( index, MineTargetBlockStore.STATUS_EDGE, isEdge );
 	}
 
 	public boolean isCorner() {
-		return isCorner;
+		return store.hasStatus( index, MineTargetBlockStore.STATUS_CORNER );
 	}
 	public void setCorner(boolean isCorner) {
-		this.isCorner = isCorner;
+		store.setStatus( index, MineTargetBlockStore.STATUS_CORNER, isCorner );
 	}
 
 	public boolean isExploded() {
-		return exploded;
+		return store.hasStatus( index, MineTargetBlockStore.STATUS_EXPLODED );
 	}
 	public void setExploded( boolean exploded ) {
-		this.exploded = exploded;
+		store.setStatus( index, MineTargetBlockStore.STATUS_EXPLODED, exploded );
 	}
 
 	public boolean isMined() {
-		return mined;
+		return store.hasStatus( index, MineTargetBlockStore.STATUS_MINED );
 	}
 	public void setMined( boolean mined ) {
-		this.mined = mined;
+		store.setStatus( index, MineTargetBlockStore.STATUS_MINED, mined );
 	}
 
 //	public boolean isBlockEvent() {
@@ -188,47 +173,73 @@ public class MineTargetPrisonBlock
 //	}
 
 	public boolean isCounted() {
-		return counted;
+		return store.hasStatus( index, MineTargetBlockStore.STATUS_COUNTED );
 	}
 	public void setCounted( boolean counted ) {
-		this.counted = counted;
+		store.setStatus( index, MineTargetBlockStore.STATUS_COUNTED, counted );
+	}
+
+	/**
+	 * <p>Atomically sets counted, airBroke, and mined if the block has not been
+	 * counted yet.  Returns true only for the one caller that claimed the block.
+	 * </p>
+	 */
+	public boolean claimCounted() {
+		return store.claimCounted( index );
 	}
 
 	public Block getMinedBlock() {
-		return minedBlock;
+		return store.getMinedBlock( index );
 	}
 	public void setMinedBlock( Block minedBlock ) {
-		this.minedBlock = minedBlock;
+		store.setMinedBlock( index, minedBlock );
 	}
 
 	public boolean isIgnoreAllBlockEvents() {
-		return ignoreAllBlockEvents;
+		return store.hasStatus( index, MineTargetBlockStore.STATUS_IGNORE_ALL_BLOCK_EVENTS );
 	}
 	public void setIgnoreAllBlockEvents( boolean ignoreAllBlockEvents ) {
-		this.ignoreAllBlockEvents = ignoreAllBlockEvents;
+		store.setStatus( index, MineTargetBlockStore.STATUS_IGNORE_ALL_BLOCK_EVENTS, ignoreAllBlockEvents );
 	}
 
 	public boolean isCheckAir() {
-		return checkAir;
+		return store.hasStatus( index, MineTargetBlockStore.STATUS_CHECK_AIR );
 	}
 	public void setCheckAir(boolean checkAir) {
-		this.checkAir = checkAir;
+		store.setStatus( index, MineTargetBlockStore.STATUS_CHECK_AIR, checkAir );
 	}
 
 	public boolean isCheckSame() {
-		return checkSame;
+		return store.hasStatus( index, MineTargetBlockStore.STATUS_CHECK_SAME );
 	}
 	public void setCheckSame(boolean checkSame) {
-		this.checkSame = checkSame;
+		store.setStatus( index, MineTargetBlockStore.STATUS_CHECK_SAME, checkSame );
 	}
 
 	@Override 
 	public int compareTo( MineTargetPrisonBlock block ) {
-		return block.getBlockKey().compareTo( block.getBlockKey() );
+		return getBlockKey().compareTo( block.getBlockKey() );
+	}
+	
+	@Override
+	public boolean equals( Object obj ) {
+		boolean results = false;
+		
+		if ( obj != null && obj instanceof MineTargetPrisonBlock ) {
+			MineTargetPrisonBlock mtpb = (MineTargetPrisonBlock) obj;
+			
+			results = store == mtpb.store && index == mtpb.index;
+		}
+		return results;
+	}
+	
+	@Override
+	public int hashCode() {
+		return System.identityHashCode( store ) * 31 + index;
 	}
 
 	public Location getLocation()
 	{
-		return getBlockKey().getLocation();
+		return new Location( store.getWorld(), getX(), getY(), getZ() );
 	}
 }
@@ -3,6 +3,8 @@ package tech.mcprison.prison.internal.block;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
@@ -27,9 +29,11 @@ public abstract class PrisonBlockStatusData {
 	
 	private int blockPlacedCount;
 	
-	private long blockCountTotal;
-	private long blockCountSession;
-	private long blockCountUnsaved;
+	// The block counts are incremented from the block break events and explosions,
+	// which may run on more than one thread at a time:
+	private final AtomicLong blockCountTotal;
+	private final AtomicLong blockCountSession;
+	private final AtomicLong blockCountUnsaved;
 	
 	// The rangeBlockCounts identifies the valid range in which this block may
 	// appear within the target blocks list:
@@ -78,9 +82,9 @@ public abstract class PrisonBlockStatusData {
 		
 		this.blockPlacedCount = 0;
 		
-		this.blockCountTotal = blockCountTotal;
-		this.blockCountSession = 0;
-		this.blockCountUnsaved = 0;
+		this.blockCountTotal = new AtomicLong( blockCountTotal );
+		this.blockCountSession = new AtomicLong();
+		this.blockCountUnsaved = new AtomicLong();
 		
 		this.rangeBlockCountLow = -1;
 		this.rangeBlockCountHigh = -1;
@@ -126,7 +130,7 @@ public abstract class PrisonBlockStatusData {
 
 
 	public void resetAfterSave() {
-		blockCountUnsaved = 0;
+		blockCountUnsaved.set( 0 );
 	}
 
 	public void incrementResetBlockCount() {
@@ -138,9 +142,9 @@ public abstract class PrisonBlockStatusData {
 	}
 	
 	public void incrementMiningBlockCount() {
-		blockCountTotal++;
-		blockCountSession++;
-		blockCountUnsaved++;
+		blockCountTotal.incrementAndGet();
+		blockCountSession.incrementAndGet();
+		blockCountUnsaved.incrementAndGet();
 	}
 	
 	public String toSaveFileFormat() {
@@ -355,9 +359,9 @@ public abstract class PrisonBlockStatusData {
 	public void addStats( PrisonBlockStatusData block ) {
 		
 		setBlockPlacedCount( getBlockPlacedCount() + block.getBlockPlacedCount() );
-		setBlockCountSession( getBlockCountSession() + block.getBlockCountSession() );
-		setBlockCountTotal( getBlockCountTotal() + block.getBlockCountTotal() );
-		setBlockCountUnsaved( getBlockCountUnsaved() + block.getBlockCountUnsaved() );
+		blockCountSession.addAndGet( block.getBlockCountSession() );
+		blockCountTotal.addAndGet( block.getBlockCountTotal() );
+		blockCountUnsaved.addAndGet( block.getBlockCountUnsaved() );
 		
 	}
 	
@@ -471,24 +475,24 @@ public abstract class PrisonBlockStatusData {
 	}
 
 	public long getBlockCountTotal() {
-		return blockCountTotal;
+		return blockCountTotal.get();
 	}
 	public void setBlockCountTotal( long blockCountTotal ) {
-		this.blockCountTotal = blockCountTotal;
+		this.blockCountTotal.set( blockCountTotal );
 	}
 
 	public long getBlockCountSession() {
-		return blockCountSession;
+		return blockCountSession.get();
 	}
 	public void setBlockCountSession( long blockCountSession ) {
-		this.blockCountSession = blockCountSession;
+		this.blockCountSession.set( blockCountSession );
 	}
 
 	public long getBlockCountUnsaved() {
-		return blockCountUnsaved;
+		return blockCountUnsaved.get();
 	}
 	public void setBlockCountUnsaved( long blockCountUnsaved ) {
-		this.blockCountUnsaved = blockCountUnsaved;
+		this.blockCountUnsaved.set( blockCountUnsaved );
 	}
 
 	public int getConstraintMin() {
@@ -578,12 +582,26 @@ public abstract class PrisonBlockStatusData {
 	 */
 	public int getRandomBlockPositionInRangeUnmatched(
 			List<MineTargetPrisonBlock> targetBlocks) {
-		return getRandomBlockPositionInRange( targetBlocks, false );
+		return getRandomBlockPositionInRange( targetBlocks, false, null );
 	}
 
 	public int getRandomBlockPositionInRangeMatched(
 			List<MineTargetPrisonBlock> targetBlocks) {
-		return getRandomBlockPositionInRange( targetBlocks, true );
+		return getRandomBlockPositionInRange( targetBlocks, true, null );
+	}
+	
+	/**
+	 * <p>Same as getRandomBlockPositionInRangeUnmatched, but uses the provided
+	 * random number generator so the results can be reproduced.
+	 * </p>
+	 * 
+	 * @param targetBlocks
+	 * @param random
+	 * @return
+	 */
+	public int getRandomBlockPositionInRangeUnmatched(
+			List<MineTargetPrisonBlock> targetBlocks, SplittableRandom random) {
+		return getRandomBlockPositionInRange( targetBlocks, false, random );
 	}
 	
 	/**
@@ -596,11 +614,12 @@ public abstract class PrisonBlockStatusData {
 	 * 
 	 * @param targetBlocks
 	 * @param matched
+	 * @param random If null, then Math.random() will be used.
 	 * @return
 	 */
 	private int getRandomBlockPositionInRange(
 						List<MineTargetPrisonBlock> targetBlocks,
-						boolean matched) {
+						boolean matched, SplittableRandom random) {
 		int position = -1;
 		
 		int rangeLow = getRangeBlockCountLowLimit();
@@ -617,7 +636,9 @@ public abstract class PrisonBlockStatusData {
 		}
 		
 		if ( choices.size() > 0 ) {
-			int p = (int) (Math.random() * choices.size());
+			int p = random == null ? 
+					(int) (Math.random() * choices.size()) :
+					random.nextInt( choices.size() );
 			
 			position = choices.get( p );
 		}
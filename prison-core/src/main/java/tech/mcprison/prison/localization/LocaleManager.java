@@ -57,6 +57,7 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -128,6 +129,7 @@ public class LocaleManager {
 
     private final PluginEntity module;
     private HashMap<String, Properties> configs = new HashMap<>();
+    private final Map<String, LocaleMessageTemplate> messageTemplates = new ConcurrentHashMap<>();
     private String defaultLocale = DEFAULT_LOCALE;
     private String internalPath;
     
@@ -161,6 +163,7 @@ public class LocaleManager {
     	
     	// Reset configs:
     	configs.clear();
+    	messageTemplates.clear();
     	
     	
         // Always get the config's default-language settings to ensure we are always
@@ -182,6 +185,31 @@ public class LocaleManager {
         // Then any custom locales will override and replace the internal locales:
         loadCustomLocales(); // custom locales will override
 
+        
+        // Compile all of the messages so their arguments can be inserted without regex:
+        compileMessageTemplates();
+    }
+    
+    private void compileMessageTemplates() {
+    	for ( Properties props : configs.values() ) {
+    		for ( Object message : props.values() ) {
+    			if ( message instanceof String ) {
+    				getMessageTemplate( (String) message );
+    			}
+    		}
+    	}
+    }
+    
+    /**
+     * <p>Gets the compiled template for the message.  The templates are keyed on the
+     * message text, so if a message is changed, then it will get a new template.
+     * </p>
+     * 
+     * @param message
+     * @return
+     */
+    LocaleMessageTemplate getMessageTemplate( String message ) {
+    	return messageTemplates.computeIfAbsent( message, LocaleMessageTemplate::new );
     }
     
     
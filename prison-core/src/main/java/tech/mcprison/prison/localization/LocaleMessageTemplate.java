@@ -0,0 +1,105 @@
+package tech.mcprison.prison.localization;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>A locale message that has been split in to its literal text and its argument
+ * slots, %1 through %9, so the arguments can be inserted with one pass of a 
+ * StringBuilder, instead of a regex replaceAll for each argument.
+ * </p>
+ * 
+ * <p>A slot is a % followed by a single digit, which is how the messages were
+ * replaced before, since %1 would have been replaced before %10 could be.  If there
+ * is no argument for a slot, then the slot is left in the message as is.  The 
+ * arguments are not searched for slots, so an argument that contains %2 will not 
+ * have the second argument inserted in to it.
+ * </p>
+ *
+ */
+public class LocaleMessageTemplate {
+
+    private final String message;
+    
+    /**
+     * <p>The literal text before each slot, plus the text after the last slot.
+     * </p>
+     */
+    private final String[] literals;
+    
+    /**
+     * <p>The argument index, starting with zero, of each slot.
+     * </p>
+     */
+    private final int[] slots;
+    
+    public LocaleMessageTemplate( String message ) {
+        super();
+        
+        this.message = message;
+        
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        
+        int start = 0;
+        int length = message == null ? 0 : message.length();
+        
+        for ( int i = 0; i < length - 1; i++ ) {
+            char c = message.charAt( i + 1 );
+            
+            if ( message.charAt( i ) == '%' && c >= '1' && c <= '9' ) {
+                
+                literals.add( message.substring( start, i ) );
+                slots.add( c - '1' );
+                
+                start = i + 2;
+                i++;
+            }
+        }
+        literals.add( length == 0 ? "" : message.substring( start ) );
+        
+        this.literals = literals.toArray( new String[literals.size()] );
+        this.slots = new int[slots.size()];
+        for ( int i = 0; i < this.slots.length; i++ ) {
+            this.slots[i] = slots.get( i );
+        }
+    }
+    
+    /**
+     * <p>Inserts the arguments in to their slots.
+     * </p>
+     * 
+     * @param args
+     * @return
+     */
+    public String format( String... args ) {
+        if ( slots.length == 0 || args == null || args.length == 0 ) {
+            return message;
+        }
+        
+        StringBuilder sb = new StringBuilder( message.length() + 16 * slots.length );
+        
+        for ( int i = 0; i < slots.length; i++ ) {
+            sb.append( literals[i] );
+            
+            int slot = slots[i];
+            if ( slot < args.length ) {
+                sb.append( args[slot] );
+            }
+            else {
+                sb.append( '%' ).append( slot + 1 );
+            }
+        }
+        sb.append( literals[slots.length] );
+        
+        return sb.toString();
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public int getSlotCount() {
+        return slots.length;
+    }
+}
@@ -32,7 +32,6 @@ package tech.mcprison.prison.localization;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
-import java.util.regex.Matcher;
 
 import com.google.common.collect.Lists;
 
@@ -256,18 +255,18 @@ public class Localizable {
                 	return "";
                 }
                 
+                // The message has been compiled so the replacements are inserted in one pass:
+                LocaleMessageTemplate template = getParent().getMessageTemplate(message);
+                
                 if (replacements != null) {
-                    for (int i = 0; i < replacements.length; i++) { // replace placeholder sequences
-                        message = message
-                            .replaceAll("%" + (i + 1), Matcher.quoteReplacement(replacements[i]));
-                    }
+                    message = template.format(replacements); // replace placeholder sequences
                 } else if (locReplacements != null) {
+                    String[] strRepls = new String[locReplacements.length];
                     for (int i = 0;
                          i < locReplacements.length; i++) { // replace placeholder sequences
-                        String strRepl = locReplacements[i].localizeIn(locale, false);
-                        message =
-                            message.replaceAll("%" + (i + 1), Matcher.quoteReplacement(strRepl));
+                        strRepls[i] = locReplacements[i].localizeIn(locale, false);
                     }
+                    message = template.format(strRepls);
                 }
                 return prefix + message + suffix;
             }
@@ -72,9 +72,52 @@ public class PlaceholderIdentifier {
 		this.text = null;
 		
 		intialize();
-		
+
 	}
-	
+
+	/**
+	 * <p>This is private so <code>new PlaceholderIdentifier( null )</code> is not
+	 * ambiguous.  Use copy() instead.
+	 * </p>
+	 *
+	 * @param parsed
+	 */
+	private PlaceholderIdentifier( PlaceholderIdentifier parsed ) {
+		super();
+
+		this.identifierRaw = parsed.getIdentifierRaw();
+		this.identifier = parsed.getIdentifier();
+
+		this.attributes = new ArrayList<>( parsed.getAttributes() );
+
+		this.hasSequence = parsed.hasSequence();
+		this.sequence = parsed.getSequence();
+		this.sequencePattern = parsed.getSequencePattern();
+
+		this.escapeLeft = parsed.getEscapeLeft();
+		this.escapeRight = parsed.getEscapeRight();
+
+		this.player = null;
+
+		this.foundAMatch = false;
+		this.missingPrisonPrefix = parsed.isMissingPrisonPrefix();
+
+		this.placeholderKey = parsed.getPlaceholderKey();
+		this.text = null;
+	}
+
+	/**
+	 * <p>This creates a new identifier from this one, which has already been parsed, so the
+	 * identifier, attributes, and sequence do not have to be parsed again.  The player,
+	 * and the results are not copied.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public PlaceholderIdentifier copy() {
+		return new PlaceholderIdentifier( this );
+	}
+
 	private void intialize() {
 		
 		if ( identifierRaw == null ) {
@@ -0,0 +1,144 @@
+package tech.mcprison.prison.placeholders;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>This is an index of all of the translated PlaceHolderKeys from the mines,
+ * players, and ranks, so an identifier can be matched to its PlaceHolderKey with
+ * a single hash lookup, instead of searching all of the keys.  The translated keys
+ * include every mine name, rank name, and ladder name, so with a lot of mines and
+ * ranks, there can be thousands of them.
+ * </p>
+ *
+ * <p>The index is built from the lists that are returned by the managers'
+ * getTranslatedPlaceHolderKeys().  Those lists are regenerated when the mines or
+ * ranks are added, renamed, or removed, so if any of the lists is not the same list
+ * that the index was built from, then the index needs to be rebuilt.
+ * </p>
+ *
+ * <p>This also keeps the parsed PlaceholderIdentifiers, so the placeholder
+ * attributes and sequences of the same placeholder text do not have to be parsed
+ * again.  New identifiers are copied from the parsed identifiers.
+ * </p>
+ *
+ */
+public class PlaceholderKeyIndex {
+
+	/**
+	 * <p>When there are more parsed identifiers than this, they will be cleared,
+	 * since the placeholders could include any text in their attributes.
+	 * </p>
+	 */
+	public static final int MAX_PARSED_IDENTIFIERS = 10000;
+
+	private final List<List<PlaceHolderKey>> sources;
+
+	private final Map<String, PlaceHolderKey> keys;
+
+	private final Map<String, PlaceholderIdentifier> parsedIdentifiers;
+
+	/**
+	 * <p>The sources are in the order that they should be searched, so if a key
+	 * is in more than one of the sources, then the first one is used.  A source
+	 * may be null if that module is not enabled.
+	 * </p>
+	 *
+	 * @param sources
+	 */
+	@SafeVarargs
+	public PlaceholderKeyIndex( List<PlaceHolderKey>... sources ) {
+		super();
+
+		this.sources = new ArrayList<>( Arrays.asList( sources ) );
+
+		this.keys = new HashMap<>();
+		this.parsedIdentifiers = new ConcurrentHashMap<>();
+
+		for ( List<PlaceHolderKey> source : sources ) {
+			if ( source != null ) {
+				for ( PlaceHolderKey placeHolderKey : source ) {
+
+					keys.putIfAbsent( placeHolderKey.getKey().toLowerCase(), placeHolderKey );
+				}
+			}
+		}
+	}
+
+	/**
+	 * <p>Returns true if the index was built from the same lists.
+	 * </p>
+	 *
+	 * @param sources
+	 * @return
+	 */
+	@SafeVarargs
+	public final boolean isCurrent( List<PlaceHolderKey>... sources ) {
+		boolean results = sources.length == this.sources.size();
+
+		for ( int i = 0; results && i < sources.length; i++ ) {
+			results = sources[i] == this.sources.get( i );
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Finds the PlaceHolderKey for the identifier, and if found, it is also
+	 * set on the identifier.
+	 * </p>
+	 *
+	 * @param identifier
+	 * @return The PlaceHolderKey, or null if the identifier is not a valid placeholder.
+	 */
+	public PlaceHolderKey find( PlaceholderIdentifier identifier ) {
+
+		// If the placeholder was missing the Prison prefix ( prison_ ) then add it:
+		String key = (identifier.isMissingPrisonPrefix() ?
+					PlaceholderManager.PRISON_PLACEHOLDER_PREFIX_EXTENDED : "") +
+						identifier.getIdentifier();
+
+		PlaceHolderKey results = keys.get( key.toLowerCase() );
+
+		if ( results != null ) {
+			identifier.setPlaceholderKey( results );
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Returns a new PlaceholderIdentifier for the placeholder text.  The text
+	 * is only parsed the first time it is used.
+	 * </p>
+	 *
+	 * @param placeholderText
+	 * @return
+	 */
+	public PlaceholderIdentifier createIdentifier( String placeholderText ) {
+		if ( placeholderText == null ) {
+			return new PlaceholderIdentifier( placeholderText );
+		}
+
+		PlaceholderIdentifier parsed = parsedIdentifiers.get( placeholderText );
+
+		if ( parsed == null ) {
+			parsed = new PlaceholderIdentifier( placeholderText );
+
+			if ( parsedIdentifiers.size() >= MAX_PARSED_IDENTIFIERS ) {
+				parsedIdentifiers.clear();
+			}
+			parsedIdentifiers.put( placeholderText, parsed );
+		}
+
+		return parsed.copy();
+	}
+
+	public int size() {
+		return keys.size();
+	}
+}
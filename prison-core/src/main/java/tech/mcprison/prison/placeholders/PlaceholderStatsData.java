@@ -1,33 +1,51 @@
 package tech.mcprison.prison.placeholders;
 
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>The counters are LongAdders since the placeholders can be requested from
+ * many async threads at the same time, and they are striped so the threads do
+ * not have to wait on each other to record a hit.
+ * </p>
+ *
+ */
 public class PlaceholderStatsData {
 	
 	private String placeholderId;
 	
-	private PlaceHolderKey placeholderKey;
+	private volatile PlaceHolderKey placeholderKey;
 //	private PrisonPlaceHolders placeholder;
 	
-	private int hits = 0;
-	private int failHits = 0;
+	private final LongAdder hits;
+	private final LongAdder failHits;
 	
-	private long totalDurationNanos = 0L;
+	private final LongAdder totalDurationNanos;
 	
 	/**
 	 * A failedMatch will be identified if a placeholder key cannot be located for
 	 * the placeholder pattern.
 	 */
-	private boolean failedMatch;
+	private volatile boolean failedMatch;
 	
-	private transient final Object lock;
+	/**
+	 * <p>The last time this placeholder was used, in milliseconds.  This is used to 
+	 * find the cold entries when the PlaceholdersStats needs to evict entries.
+	 * </p>
+	 */
+	private volatile long lastUsed;
 	
 	public PlaceholderStatsData( String placeholderId ) {
 		super();
 		
-		this.lock = new Object();
+		this.hits = new LongAdder();
+		this.failHits = new LongAdder();
+		this.totalDurationNanos = new LongAdder();
 		
 		this.placeholderId = placeholderId;
 		
 		this.failedMatch = false;
+		
+		this.lastUsed = System.currentTimeMillis();
 	}
 
 	public String toString() {
@@ -93,10 +111,8 @@ public class PlaceholderStatsData {
 	private void logHit( long nanoStart, long nanoEnd ) {
 		long durationNano = nanoEnd - nanoStart;
 		
-		synchronized ( lock ) {
-			hits++;
-			totalDurationNanos += durationNano;
-		}
+		hits.increment();
+		totalDurationNanos.add( durationNano );
 	}
 	
 	/**
@@ -115,19 +131,17 @@ public class PlaceholderStatsData {
 	private void logFailedHit( long nanoStart, long nanoEnd ) {
 		long durationNano = nanoEnd - nanoStart;
 		
-		synchronized ( lock ) {
-			failHits++;
-			totalDurationNanos += durationNano;
+		failHits.increment();
+		totalDurationNanos.add( durationNano );
 
-			if ( placeholderKey == null && !failedMatch ) {
-				failedMatch = true;
-			}
+		if ( placeholderKey == null && !failedMatch ) {
+			failedMatch = true;
 		}
 	}
 	
 	
 	public double getAverageDurationMs() {
-		double avgMs = totalDurationNanos / hits / 1000000.0d;
+		double avgMs = getTotalDurationNanos() / getHits() / 1000000.0d;
 		
 		return avgMs;
 	}
@@ -147,24 +161,25 @@ public class PlaceholderStatsData {
 	}
 
 	public int getHits() {
-		return hits;
+		return hits.intValue();
 	}
 //	private void setHits(int hits) {
 //		this.hits = hits;
 //	}
 
 	public int getFailHits() {
-		return failHits;
+		return failHits.intValue();
 	}
 //	private void setFailHits(int failHits) {
 //		this.failHits = failHits;
 //	}
 
 	public long getTotalDurationNanos() {
-		return totalDurationNanos;
+		return totalDurationNanos.sum();
 	}
 	public void setTotalDurationNanos(long totalDurationNanos) {
-		this.totalDurationNanos = totalDurationNanos;
+		this.totalDurationNanos.reset();
+		this.totalDurationNanos.add( totalDurationNanos );
 	}
 
 
@@ -175,5 +190,12 @@ public class PlaceholderStatsData {
 //		this.failedMatch = failedMatch;
 //	}
 
+	public long getLastUsed() {
+		return lastUsed;
+	}
+	public void setLastUsed(long lastUsed) {
+		this.lastUsed = lastUsed;
+	}
+
 
 }
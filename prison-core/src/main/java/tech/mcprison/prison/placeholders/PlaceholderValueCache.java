@@ -0,0 +1,329 @@
+package tech.mcprison.prison.placeholders;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.placeholders.PlaceholderManager.PlaceholderFlags;
+import tech.mcprison.prison.placeholders.PlaceholderManager.PrisonPlaceHolders;
+
+/**
+ * <p>This caches the translated text of the placeholders for a short period
+ * of time.  Scoreboards and tab plugins will request the same placeholders
+ * for every player many times a second, and every request would recalculate
+ * the rank costs, format the numbers, and lookup the topN stats.
+ * </p>
+ *
+ * <p>Each placeholder belongs to a PlaceholderCacheFamily, and each family
+ * has its own time to live (TTL), which can be set in the config.yml with
+ * <b>placeholder.cache-ttl-ms.&lt;family&gt;</b>.  A TTL of zero disables
+ * the caching of that family.
+ * </p>
+ *
+ * <p>The placeholders that do not depend upon a player, such as the mines and the
+ * topN stats, are shared between all players.  All other placeholders are cached
+ * for each player.  The raw identifier is used as part of the key, so the
+ * placeholder attributes are included.
+ * </p>
+ *
+ * <p>A placeholder can only be cached after its PlaceHolderKey has been identified,
+ * which is saved by the PlaceholdersStats after the first time it is used.
+ * </p>
+ *
+ */
+public class PlaceholderValueCache {
+
+	public static final String CONFIG_TTL_PREFIX = "placeholder.cache-ttl-ms.";
+
+	/**
+	 * <p>When there are more entries than this, the expired entries will be
+	 * removed the next time something is added.
+	 * </p>
+	 */
+	public static final int PURGE_SIZE_THRESHOLD = 5000;
+
+	private static PlaceholderValueCache instance;
+
+	private static final Map<PrisonPlaceHolders, PlaceholderCacheFamily> placeholderFamilies =
+							mapPlaceholderFamilies();
+
+	private static final Set<PrisonPlaceHolders> playerDependentPlaceholders = 
+							EnumSet.of( PrisonPlaceHolders.prison_rank__cost_multiplier_rankname,
+										PrisonPlaceHolders.prison_r_cm_rankname );
+
+	private final Map<String, CacheEntry> cache;
+
+	private final Map<PlaceholderCacheFamily, Long> ttls;
+
+
+	public enum PlaceholderCacheFamily {
+		leaderboard( 30000 ),
+		balance( 1000 ),
+		mines( 50 ),
+		player( 50 ),
+		other( 1000 );
+
+		private final long defaultTtlMs;
+
+		private PlaceholderCacheFamily( long defaultTtlMs ) {
+			this.defaultTtlMs = defaultTtlMs;
+		}
+
+		public long getDefaultTtlMs() {
+			return defaultTtlMs;
+		}
+
+		public String getConfigKey() {
+			return CONFIG_TTL_PREFIX + name();
+		}
+	}
+
+	private static class CacheEntry {
+		private final String text;
+		private final long expires;
+
+		private CacheEntry( String text, long expires ) {
+			this.text = text;
+			this.expires = expires;
+		}
+	}
+
+
+	public PlaceholderValueCache() {
+		super();
+
+		this.cache = new ConcurrentHashMap<>();
+
+		this.ttls = new EnumMap<>( PlaceholderCacheFamily.class );
+		for ( PlaceholderCacheFamily family : PlaceholderCacheFamily.values() ) {
+			ttls.put( family, family.getDefaultTtlMs() );
+		}
+	}
+
+	public static PlaceholderValueCache getInstance() {
+		if ( instance == null ) {
+			synchronized ( PlaceholderValueCache.class ) {
+				if ( instance == null ) {
+
+					PlaceholderValueCache valueCache = new PlaceholderValueCache();
+					valueCache.loadConfigTtls();
+
+					instance = valueCache;
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * <p>Reads the TTLs from the config.yml file, and clears the cache.  This should
+	 * be called when the placeholders are reloaded.
+	 * </p>
+	 */
+	public void loadConfigTtls() {
+
+		for ( PlaceholderCacheFamily family : PlaceholderCacheFamily.values() ) {
+			long ttl = Prison.get().getPlatform().getConfigLong(
+								family.getConfigKey(), family.getDefaultTtlMs() );
+
+			setTtl( family, ttl );
+		}
+
+		clear();
+	}
+
+
+	/**
+	 * <p>Identifies the family of each placeholder.  The aliases are placed in the
+	 * same family as the placeholder that they are an alias for.
+	 * </p>
+	 *
+	 * @return
+	 */
+	private static Map<PrisonPlaceHolders, PlaceholderCacheFamily> mapPlaceholderFamilies() {
+		Map<PrisonPlaceHolders, PlaceholderCacheFamily> results = new EnumMap<>( PrisonPlaceHolders.class );
+
+		for ( PrisonPlaceHolders ph : PrisonPlaceHolders.values() ) {
+
+			if ( !results.containsKey( ph ) ) {
+				PlaceholderCacheFamily family = getFamily( ph );
+
+				results.put( ph, family );
+
+				if ( ph.hasAlias() ) {
+					results.put( ph.getAlias(), family );
+				}
+			}
+		}
+
+		return results;
+	}
+
+	private static PlaceholderCacheFamily getFamily( PrisonPlaceHolders ph ) {
+		PlaceholderCacheFamily results = PlaceholderCacheFamily.other;
+
+		String name = ph.name();
+
+		if ( ph.hasFlag( PlaceholderFlags.STATSPLAYERS ) ||
+				ph.hasFlag( PlaceholderFlags.STATSRANKS ) ||
+				ph.hasFlag( PlaceholderFlags.STATSMINES ) ) {
+
+			results = PlaceholderCacheFamily.leaderboard;
+		}
+		else if ( name.contains( "balance" ) || name.contains( "cost" ) ||
+					name.contains( "multiplier" ) ) {
+
+			results = PlaceholderCacheFamily.balance;
+		}
+		else if ( ph.hasFlag( PlaceholderFlags.MINES ) ||
+					ph.hasFlag( PlaceholderFlags.MINEPLAYERS ) ||
+					ph.hasFlag( PlaceholderFlags.PLAYERBLOCKS ) ) {
+
+			results = PlaceholderCacheFamily.mines;
+		}
+		else if ( name.startsWith( "prison_player_" ) ) {
+
+			// The player's health, food, xp, and tool:
+			results = PlaceholderCacheFamily.player;
+		}
+
+		return results;
+	}
+
+	public static PlaceholderCacheFamily getPlaceholderFamily( PrisonPlaceHolders ph ) {
+		PlaceholderCacheFamily results = placeholderFamilies.get( ph );
+		return results == null ? PlaceholderCacheFamily.other : results;
+	}
+
+	/**
+	 * <p>The placeholders that will be the same for all players.  The rank cost 
+	 * multiplier placeholders are RANKS placeholders, but they are calculated for
+	 * the player, so they cannot be shared.
+	 * </p>
+	 *
+	 * @param ph
+	 * @return
+	 */
+	private boolean isSharedPlaceholder( PrisonPlaceHolders ph ) {
+		return !playerDependentPlaceholders.contains( ph ) && 
+				( ph.hasFlag( PlaceholderFlags.MINES ) ||
+				  ph.hasFlag( PlaceholderFlags.STATSMINES ) ||
+				  ph.hasFlag( PlaceholderFlags.RANKS ) ||
+				  ph.hasFlag( PlaceholderFlags.STATSRANKS ) ||
+				  ph.hasFlag( PlaceholderFlags.STATSPLAYERS ) );
+	}
+
+
+	/**
+	 * <p>Returns the cached text for the identifier, or null if it is not
+	 * cached or if it has expired.
+	 * </p>
+	 *
+	 * @param identifier
+	 * @return
+	 */
+	public String getCachedText( PlaceholderIdentifier identifier ) {
+		return getCachedText( identifier, System.currentTimeMillis() );
+	}
+
+	public String getCachedText( PlaceholderIdentifier identifier, long now ) {
+		String results = null;
+
+		String key = getCacheKey( identifier );
+		if ( key != null ) {
+
+			CacheEntry entry = cache.get( key );
+			if ( entry != null ) {
+
+				if ( entry.expires > now ) {
+					results = entry.text;
+				}
+				else {
+					cache.remove( key, entry );
+				}
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Adds the translated text for the identifier to the cache.  It will not be
+	 * cached if the identifier did not match a placeholder, or if the TTL for the
+	 * placeholder's family is zero.
+	 * </p>
+	 *
+	 * @param identifier
+	 * @param text
+	 */
+	public void putCachedText( PlaceholderIdentifier identifier, String text ) {
+		putCachedText( identifier, text, System.currentTimeMillis() );
+	}
+
+	public void putCachedText( PlaceholderIdentifier identifier, String text, long now ) {
+
+		String key = getCacheKey( identifier );
+		if ( key != null && text != null && identifier.isFoundAMatch() ) {
+
+			long ttl = getTtl( getPlaceholderFamily( identifier.getPlaceholderKey().getPlaceholder() ) );
+
+			if ( cache.size() > PURGE_SIZE_THRESHOLD ) {
+				purgeExpired( now );
+			}
+
+			cache.put( key, new CacheEntry( text, now + ttl ) );
+		}
+	}
+
+	/**
+	 * <p>The key is the player's uuid, unless the placeholder is shared, and the
+	 * raw identifier so it includes the placeholder's attributes.
+	 * </p>
+	 *
+	 * @param identifier
+	 * @return The key, or null if the identifier cannot be cached.
+	 */
+	private String getCacheKey( PlaceholderIdentifier identifier ) {
+		String results = null;
+
+		PlaceHolderKey placeHolderKey = identifier.getPlaceholderKey();
+
+		if ( placeHolderKey != null && placeHolderKey.getPlaceholder() != null ) {
+
+			PrisonPlaceHolders ph = placeHolderKey.getPlaceholder();
+
+			if ( getTtl( getPlaceholderFamily( ph ) ) > 0 ) {
+
+				String playerKey = isSharedPlaceholder( ph ) || identifier.getPlayer() == null ?
+						"" : identifier.getPlayer().getUUID().toString();
+
+				results = playerKey + ":" + identifier.getIdentifierRaw();
+			}
+		}
+
+		return results;
+	}
+
+	public void purgeExpired( long now ) {
+		cache.values().removeIf( entry -> entry.expires <= now );
+	}
+
+	public void clear() {
+		cache.clear();
+	}
+
+	public int size() {
+		return cache.size();
+	}
+
+	public long getTtl( PlaceholderCacheFamily family ) {
+		Long ttl = ttls.get( family );
+		return ttl == null ? 0 : ttl;
+	}
+	public void setTtl( PlaceholderCacheFamily family, long ttlMs ) {
+		ttls.put( family, Math.max( 0, ttlMs ) );
+	}
+}
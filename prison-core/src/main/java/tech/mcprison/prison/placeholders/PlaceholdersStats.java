@@ -3,26 +3,62 @@ package tech.mcprison.prison.placeholders;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.TreeMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.output.Output;
 
+/**
+ * <p>The placeholder plugins will request placeholders from async threads, so the
+ * placeholders are kept in a ConcurrentHashMap.  Since any text can be sent as a
+ * placeholder, such as when players type unknown placeholders in chat, the number
+ * of placeholders is limited.  When there are more than the max, then the cold 
+ * entries are evicted, starting with the failed matches that have not been used for
+ * the longest time.
+ * </p>
+ *
+ */
 public class PlaceholdersStats {
 
+	/**
+	 * <p>The max number of placeholders that will be tracked.  Each valid placeholder 
+	 * is only one entry, but each mine, rank, and player attribute creates another
+	 * entry, so this has to be larger than the number of placeholders.
+	 * </p>
+	 */
+	public static final int DEFAULT_MAX_PLACEHOLDERS = 5000;
+	
 	private static PlaceholdersStats stats; 
 	
-	private TreeMap<String, PlaceholderStatsData> placeholders;
+	private Map<String, PlaceholderStatsData> placeholders;
+	
+	private final AtomicInteger invalidWorldCount;
+	
+	private int maxPlaceholders;
+	
+	private final LongAdder evictedCount;
 	
-	private int invalidWorldCount = 0;
+	private final AtomicBoolean evicting;
 	
 	
 	private PlaceholdersStats() {
 		super();
 		
 		
-		this.placeholders = new TreeMap<>();
+		this.placeholders = new ConcurrentHashMap<>();
+		
+		this.invalidWorldCount = new AtomicInteger();
+		
+		this.maxPlaceholders = DEFAULT_MAX_PLACEHOLDERS;
+		
+		this.evictedCount = new LongAdder();
+		this.evicting = new AtomicBoolean( false );
 	}
 	
 	public static PlaceholdersStats getInstance() {
@@ -60,25 +96,29 @@ public class PlaceholdersStats {
 			String key = pId.getIdentifier();
 			
 			// If there is a placeholder cache entry, then get it from the cache:
-			if ( getPlaceholders().containsKey(key) ) {
-				results = getPlaceholders().get( key );
+			results = getPlaceholders().get( key );
+			
+			if ( results != null ) {
+				
+				results.setLastUsed( System.currentTimeMillis() );
 
 				// NOTE: the results may have a placeholderKey assigned, if it does, then 
 				//       assign to the pId:
-				if ( results != null && results.getPlaceholderKey() != null ) {
+				if ( results.getPlaceholderKey() != null ) {
 					pId.setPlaceholderKey( results.getPlaceholderKey() );
 				}
 			}
 			else {
 				// Else create a new cache entry:
 				
-				results = new PlaceholderStatsData( key );
-//				getPlaceholders().put( key, results );
-				
 				// Store this new stats object in the cache.  If there is a placeholder fail, then
 				// this will help prevent going through all of the calculations for future
-				// hits.
-				getPlaceholders().put( key, results );
+				// hits.  If another thread added it first, then use that one.
+				results = getPlaceholders().computeIfAbsent( key, PlaceholderStatsData::new );
+				
+				if ( getPlaceholders().size() > getMaxPlaceholders() ) {
+					evictColdEntries();
+				}
 			}
 			
 			
@@ -118,6 +158,65 @@ public class PlaceholdersStats {
 	}
 	
 	
+	/**
+	 * <p>This removes the cold entries so there will be only 90% of the max 
+	 * placeholders.  The failed matches are removed first, since they are 
+	 * most likely to be text that players have typed, and then the least recently used
+	 * valid placeholders if there are still too many.  Only one thread will evict the 
+	 * entries at a time.  If another thread is already evicting, then this will return
+	 * without waiting.
+	 * </p>
+	 * 
+	 * @return The number of entries that were removed.
+	 */
+	public int evictColdEntries() {
+		int results = 0;
+		
+		if ( evicting.compareAndSet( false, true ) ) {
+			try {
+				int target = getMaxPlaceholders() * 9 / 10;
+				
+				results += evictEntries( target, true );
+				results += evictEntries( target, false );
+				
+				evictedCount.add( results );
+			}
+			finally {
+				evicting.set( false );
+			}
+		}
+		
+		return results;
+	}
+	
+	private int evictEntries( int target, boolean failuresOnly ) {
+		int results = 0;
+		
+		int excess = getPlaceholders().size() - target;
+		if ( excess > 0 ) {
+			
+			List<PlaceholderStatsData> entries = new ArrayList<>();
+			for ( PlaceholderStatsData stats : getPlaceholders().values() ) {
+				if ( !failuresOnly || stats.getPlaceholderKey() == null ) {
+					entries.add( stats );
+				}
+			}
+			
+			entries.sort( Comparator.comparingLong( PlaceholderStatsData::getLastUsed ) );
+			
+			for ( int i = 0; i < entries.size() && results < excess; i++ ) {
+				PlaceholderStatsData stats = entries.get( i );
+				
+				if ( getPlaceholders().remove( stats.getPlaceholderId(), stats ) ) {
+					results++;
+				}
+			}
+		}
+		
+		return results;
+	}
+	
+	
 	public ArrayList<String> generatePlaceholderReport() {
 		ArrayList<String> results = new ArrayList<>();
 		
@@ -132,6 +231,11 @@ public class PlaceholdersStats {
 		for (String key : keys) {
 			PlaceholderStatsData stats = getPlaceholders().get(key);
 			
+			if ( stats == null ) {
+				// It was evicted after the keys were copied:
+				continue;
+			}
+			
 			int hits = stats.getHits();
 			int fails = stats.getFailHits();
 			long totalDurationNano = stats.getTotalDurationNanos();
@@ -162,6 +266,12 @@ public class PlaceholdersStats {
 				String.format( "&7Invalid World Usage Total: &3%10s  &b(Placeholders replaced with banks)", 
 						iFmt.format( getInvalidWorldCount() ) ));
 		
+		results.add( 
+				String.format( "&7Placeholders: &3%s  &7Max: &3%s  &7Evicted: &3%s", 
+						iFmt.format( getPlaceholders().size() ),
+						iFmt.format( getMaxPlaceholders() ),
+						iFmt.format( getEvictedCount() ) ));
+		
 
 		
 		return results;
@@ -175,6 +285,10 @@ public class PlaceholdersStats {
 		for (String key : keys) {
 			PlaceholderStatsData stats = getPlaceholders().get(key);
 			
+			if ( stats == null ) {
+				continue;
+			}
+			
 			if ( resetCache || removeErrors && stats.isFailedMatch() ) {
 				removeKeys.add( key );
 			}
@@ -195,21 +309,32 @@ public class PlaceholdersStats {
 	}
 	
 
-	public TreeMap<String, PlaceholderStatsData> getPlaceholders() {
+	public Map<String, PlaceholderStatsData> getPlaceholders() {
 		return placeholders;
 	}
-	public void setPlaceholders(TreeMap<String, PlaceholderStatsData> placeholders) {
+	public void setPlaceholders(Map<String, PlaceholderStatsData> placeholders) {
 		this.placeholders = placeholders;
 	}
 
 	public int incrementInvalidWorldCount() {
-		return invalidWorldCount++;
+		return invalidWorldCount.getAndIncrement();
 	}
 	public int getInvalidWorldCount() {
-		return invalidWorldCount;
+		return invalidWorldCount.get();
 	}
 	public void setInvalidWorldCount(int invalidWorldCount) {
-		this.invalidWorldCount = invalidWorldCount;
+		this.invalidWorldCount.set( invalidWorldCount );
+	}
+
+	public int getMaxPlaceholders() {
+		return maxPlaceholders;
+	}
+	public void setMaxPlaceholders(int maxPlaceholders) {
+		this.maxPlaceholders = maxPlaceholders;
+	}
+
+	public long getEvictedCount() {
+		return evictedCount.sum();
 	}
 	
 }
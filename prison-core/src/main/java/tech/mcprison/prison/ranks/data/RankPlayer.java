@@ -72,6 +72,10 @@ public class RankPlayer
     private transient boolean enableDirty = false;
     private transient boolean dirty = false;
     
+    // This is incremented every time a rank is added or removed, so caches 
+    // that depend upon the player's ranks can tell when they are out of date.
+    private transient volatile int rankChangeCount = 0;
+    
     
     private TreeMap<RankLadder, PlayerRank> ladderRanks;
     
@@ -279,6 +283,10 @@ public class RankPlayer
 		this.dirty = dirty;
 	}
 
+	public int getRankChangeCount() {
+		return rankChangeCount;
+	}
+
 	/**
      * If the player has any names in the getNames() collection, of which they may not,
      * then getDisaplyName() will return the last one set, otherwise it will return
@@ -449,6 +457,8 @@ public class RankPlayer
         
         // Calculate and apply the rank multipliers:
         recalculateRankMultipliers();
+        
+        rankChangeCount++;
     }
     
     /**
@@ -580,6 +590,8 @@ public class RankPlayer
     		ladderRanks.remove( rank.getLadder() );
     		
     		ranksRefs.remove( rank.getLadder().getName() );
+    		
+    		rankChangeCount++;
     	}
         
 //        // When we loop through, we have to store our ladder name outside the loop to
@@ -37,6 +37,36 @@ public class CoordinateKey
 		
 		return results;
 	}
+	
+	@Override
+	public boolean equals( Object obj ) {
+		boolean results = false;
+		
+		if ( this == obj ) {
+			results = true;
+		}
+		else if ( obj instanceof CoordinateKey ) {
+			CoordinateKey skey = (CoordinateKey) obj;
+			
+			results = x == skey.getX() && y == skey.getY() && z == skey.getZ();
+		}
+		
+		return results;
+	}
+	
+	@Override
+	public int hashCode() {
+		int results = x;
+		results = 31 * results + z;
+		results = 31 * results + y;
+		
+		return results;
+	}
+	
+	@Override
+	public String toString() {
+		return "(" + x + ", " + y + ", " + z + ")";
+	}
 
 	public int getX() {
 		return x;
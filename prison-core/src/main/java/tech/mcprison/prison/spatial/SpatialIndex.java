@@ -1,13 +1,183 @@
 package tech.mcprison.prison.spatial;
 
-import java.util.NavigableMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
-public class SpatialIndex
+import tech.mcprison.prison.internal.World;
+import tech.mcprison.prison.util.Bounds;
+import tech.mcprison.prison.util.Location;
+
+/**
+ * <p>This is a per-world grid index over the Bounds of items, such as mines,
+ * so a location can be mapped to an item without checking every item.
+ * Each world is divided in to columns of SPATIAL_INDEX_GRANULARITY by
+ * SPATIAL_INDEX_GRANULARITY blocks, and each item is added to all of the
+ * columns that its bounds overlaps.  A lookup only needs to check the few
+ * items within the location's column.
+ * </p>
+ *
+ * <p>Lookups are far more common than changes, so the grid is rebuilt on the
+ * first lookup after a change, and is then shared, read only, by all
+ * threads without any locking.  If more than one item contains the location,
+ * then the first item that was added is returned, which is the same as 
+ * checking the items in order.
+ * </p>
+ *
+ */
+public class SpatialIndex<T>
 {
-	public static final int SPATIAL_INDEX_GRANULARIT = 25;
-	
-	private NavigableMap<Integer, String> idxX;
-	private NavigableMap<Integer, String> idxY;
-	private NavigableMap<Integer, String> idxZ;
+	public static final int SPATIAL_INDEX_GRANULARITY = 25;
+
+	private final LinkedHashMap<T, SpatialIndexData<T>> entries;
+
+	private volatile Map<String, Map<CoordinateKey, List<SpatialIndexData<T>>>> grid;
+
+	public SpatialIndex() {
+		super();
+
+		this.entries = new LinkedHashMap<>();
+		this.grid = null;
+	}
+
+	/**
+	 * <p>Adds the item to the index, or updates it if it already exists.
+	 * If the bounds or the bounds' world is null, then the item will be removed
+	 * since it cannot be found by location.
+	 * </p>
+	 *
+	 * @param item
+	 * @param bounds
+	 */
+	public synchronized void put( T item, Bounds bounds ) {
+
+		World world = bounds == null || bounds.getCenter() == null ? null :
+								bounds.getCenter().getWorld();
+
+		if ( world == null || world.getName() == null ) {
+			remove( item );
+		}
+		else {
+			entries.put( item,
+					new SpatialIndexData<T>( item, world.getName().toLowerCase(), bounds ) );
+			grid = null;
+		}
+	}
+
+	public synchronized void remove( T item ) {
+		if ( entries.remove( item ) != null ) {
+			grid = null;
+		}
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		grid = null;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public T find( Location location ) {
+		return find( location, false, false );
+	}
+
+	/**
+	 * <p>Finds the item that contains the location, using the same rules as
+	 * Bounds.within().
+	 * </p>
+	 *
+	 * @param location
+	 * @param includeTopOfMine
+	 * @param includeOneBelowMine
+	 * @return the item, or null if the location is not within any item
+	 */
+	public T find( Location location, boolean includeTopOfMine, boolean includeOneBelowMine ) {
+		T results = null;
+
+		if ( location != null && location.getWorld() != null &&
+				location.getWorld().getName() != null ) {
+
+			Map<CoordinateKey, List<SpatialIndexData<T>>> worldGrid =
+					getGrid().get( location.getWorld().getName().toLowerCase() );
+
+			if ( worldGrid != null ) {
+
+				double x = Math.floor( location.getX() );
+				double y = Math.floor( location.getY() );
+				double z = Math.floor( location.getZ() );
+
+				List<SpatialIndexData<T>> cell = worldGrid.get( getCellKey( x, z ) );
+
+				if ( cell != null ) {
+					for ( SpatialIndexData<T> data : cell ) {
+						if ( data.contains( x, y, z, includeTopOfMine, includeOneBelowMine ) ) {
+							results = data.getItem();
+							break;
+						}
+					}
+				}
+			}
+		}
+
+		return results;
+	}
+
+	private CoordinateKey getCellKey( double x, double z ) {
+		return new CoordinateKey(
+				Math.floorDiv( (int) x, SPATIAL_INDEX_GRANULARITY ), 0,
+				Math.floorDiv( (int) z, SPATIAL_INDEX_GRANULARITY ) );
+	}
+
+	private Map<String, Map<CoordinateKey, List<SpatialIndexData<T>>>> getGrid() {
+		Map<String, Map<CoordinateKey, List<SpatialIndexData<T>>>> results = grid;
+
+		if ( results == null ) {
+			results = buildGrid();
+		}
+
+		return results;
+	}
+
+	private synchronized Map<String, Map<CoordinateKey, List<SpatialIndexData<T>>>> buildGrid() {
+
+		if ( grid == null ) {
+
+			Map<String, Map<CoordinateKey, List<SpatialIndexData<T>>>> newGrid = new HashMap<>();
+
+			// The entries are in the order they were added, so each cell will be too:
+			for ( SpatialIndexData<T> data : entries.values() ) {
+
+				Map<CoordinateKey, List<SpatialIndexData<T>>> worldGrid =
+						newGrid.computeIfAbsent( data.getWorldName(), k -> new HashMap<>() );
+
+				int cellXMin = Math.floorDiv( (int) Math.floor( data.getxMin() ), SPATIAL_INDEX_GRANULARITY );
+				int cellXMax = Math.floorDiv( (int) Math.floor( data.getxMax() ), SPATIAL_INDEX_GRANULARITY );
+				int cellZMin = Math.floorDiv( (int) Math.floor( data.getzMin() ), SPATIAL_INDEX_GRANULARITY );
+				int cellZMax = Math.floorDiv( (int) Math.floor( data.getzMax() ), SPATIAL_INDEX_GRANULARITY );
+
+				for ( int cellX = cellXMin; cellX <= cellXMax; cellX++ ) {
+					for ( int cellZ = cellZMin; cellZ <= cellZMax; cellZ++ ) {
+
+						worldGrid.computeIfAbsent( new CoordinateKey( cellX, 0, cellZ ),
+									k -> new ArrayList<>() ).add( data );
+					}
+				}
+			}
+
+			// Make the cells read only since they will be shared by all threads:
+			for ( Map<CoordinateKey, List<SpatialIndexData<T>>> worldGrid : newGrid.values() ) {
+				worldGrid.replaceAll( (k, v) -> Collections.unmodifiableList( v ) );
+			}
+
+			grid = newGrid;
+		}
+
+		return grid;
+	}
 
 }
@@ -1,11 +1,91 @@
 package tech.mcprison.prison.spatial;
 
-public class SpatialIndexData
+import tech.mcprison.prison.util.Bounds;
+
+/**
+ * <p>A single entry within the SpatialIndex.  The bounds are copied when
+ * the entry is created, so if the item's bounds change, then the item must
+ * be added to the index again.
+ * </p>
+ *
+ */
+public class SpatialIndexData<T>
 {
+	private final T item;
+
+	private final String worldName;
+
+	private final double xMin;
+	private final double yMin;
+	private final double zMin;
+
+	private final double xMax;
+	private final double yMax;
+	private final double zMax;
+
+	public SpatialIndexData( T item, String worldName, Bounds bounds ) {
+		super();
+
+		this.item = item;
+		this.worldName = worldName;
+
+		this.xMin = bounds.getxMin();
+		this.yMin = bounds.getyMin();
+		this.zMin = bounds.getzMin();
+
+		this.xMax = bounds.getxMax();
+		this.yMax = bounds.getyMax();
+		this.zMax = bounds.getzMax();
+	}
+
+	/**
+	 * <p>This uses the same rules as Bounds.within() so the results are
+	 * identical to checking the bounds directly.  The coordinates must already
+	 * be converted to block coordinates with Math.floor().
+	 * </p>
+	 *
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @param includeTopOfMine
+	 * @param includeOneBelowMine
+	 * @return
+	 */
+	public boolean contains( double x, double y, double z,
+					boolean includeTopOfMine, boolean includeOneBelowMine ) {
+
+		return x >= xMin && x <= xMax &&
+				y >= (yMin - (includeOneBelowMine ? 1 : 0)) &&
+				y <= (yMax + (includeTopOfMine ? 1 : 0)) &&
+				z >= zMin && z <= zMax;
+	}
+
+	public T getItem() {
+		return item;
+	}
+
+	public String getWorldName() {
+		return worldName;
+	}
+
+	public double getxMin() {
+		return xMin;
+	}
+	public double getyMin() {
+		return yMin;
+	}
+	public double getzMin() {
+		return zMin;
+	}
+
+	public double getxMax() {
+		return xMax;
+	}
+	public double getyMax() {
+		return yMax;
+	}
+	public double getzMax() {
+		return zMax;
+	}
 
-	private int x;
-	private int y;
-	private int z;
-	
-	
 }
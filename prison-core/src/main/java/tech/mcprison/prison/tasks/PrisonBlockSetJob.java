@@ -0,0 +1,33 @@
+package tech.mcprison.prison.tasks;
+
+/**
+ * <p>A block set job is a small amount of synchronous work, such as setting
+ * a slice of blocks for a mine reset, that is ran by the
+ * PrisonBlockSetScheduler within the tick budget.
+ * </p>
+ *
+ * <p>A job may be ran over many ticks.  Each time it is ran, it must
+ * process at least one block, even if the deadline has already passed,
+ * so it will always make progress.
+ * </p>
+ *
+ */
+public interface PrisonBlockSetJob
+{
+
+	/**
+	 * <p>Runs the job until it is finished, or until System.nanoTime()
+	 * reaches the deadline.  This is always ran on the server's main thread.
+	 * </p>
+	 *
+	 * @param deadlineNanos
+	 * @return true if the job has finished
+	 */
+	public boolean runJob( long deadlineNanos );
+
+	/**
+	 * @return the number of blocks that have not been processed yet
+	 */
+	public int getRemainingBlocks();
+
+}
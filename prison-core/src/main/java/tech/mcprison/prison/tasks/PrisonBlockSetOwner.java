@@ -0,0 +1,140 @@
+package tech.mcprison.prison.tasks;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>The owner of a queue of block set jobs, which is usually a mine.  The
+ * jobs for an owner are always ran in the order in which they were submitted.
+ * </p>
+ *
+ * <p>An owner with priority, such as a mine that has players in it, will be
+ * given a larger share of each tick's budget, and will be ran before the
+ * owners without priority.
+ * </p>
+ *
+ */
+public class PrisonBlockSetOwner
+{
+	private final String name;
+
+	private final ConcurrentLinkedQueue<PrisonBlockSetJob> jobs;
+
+	private final AtomicInteger pendingJobs;
+
+	private volatile boolean priority = false;
+
+	/**
+	 * <p>The number of tasks, such as a mine reset, that are holding on to this
+	 * owner.  The owner is not removed from the scheduler while it is held.
+	 * This is only changed by the scheduler while it is updating its owners.
+	 * </p>
+	 */
+	private int holders = 0;
+
+	private final LongSupplier clock;
+
+	// Stats, which are only updated on the main thread:
+	private volatile long statsNanos = 0;
+	private volatile long statsJobsCompleted = 0;
+
+	public PrisonBlockSetOwner( String name ) {
+		this( name, System::nanoTime );
+	}
+
+	protected PrisonBlockSetOwner( String name, LongSupplier clock ) {
+		super();
+
+		this.name = name;
+		this.clock = clock;
+
+		this.jobs = new ConcurrentLinkedQueue<>();
+		this.pendingJobs = new AtomicInteger();
+	}
+
+	protected void addJob( PrisonBlockSetJob job ) {
+		pendingJobs.incrementAndGet();
+		jobs.add( job );
+	}
+
+	/**
+	 * <p>Runs the jobs, in order, until they are all finished or the deadline
+	 * has been reached.  At least one block will be processed.
+	 * </p>
+	 *
+	 * @param deadlineNanos
+	 */
+	protected void runJobs( long deadlineNanos ) {
+		long start = clock.getAsLong();
+
+		PrisonBlockSetJob job = jobs.peek();
+
+		while ( job != null ) {
+
+			if ( job.runJob( deadlineNanos ) ) {
+				jobs.poll();
+				pendingJobs.decrementAndGet();
+				statsJobsCompleted++;
+
+				job = clock.getAsLong() < deadlineNanos ? jobs.peek() : null;
+			}
+			else {
+				job = null;
+			}
+		}
+
+		statsNanos += clock.getAsLong() - start;
+	}
+
+	protected void addHolder() {
+		holders++;
+	}
+
+	protected void removeHolder() {
+		if ( holders > 0 ) {
+			holders--;
+		}
+	}
+
+	protected boolean hasHolders() {
+		return holders > 0;
+	}
+
+	public boolean hasPendingJobs() {
+		return pendingJobs.get() > 0;
+	}
+
+	public int getPendingJobs() {
+		return pendingJobs.get();
+	}
+
+	public int getPendingBlocks() {
+		int blocks = 0;
+
+		for ( PrisonBlockSetJob job : jobs ) {
+			blocks += job.getRemainingBlocks();
+		}
+
+		return blocks;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public boolean isPriority() {
+		return priority;
+	}
+	public void setPriority( boolean priority ) {
+		this.priority = priority;
+	}
+
+	public long getStatsNanos() {
+		return statsNanos;
+	}
+
+	public long getStatsJobsCompleted() {
+		return statsJobsCompleted;
+	}
+}
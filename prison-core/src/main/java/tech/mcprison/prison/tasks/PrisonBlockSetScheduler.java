@@ -0,0 +1,516 @@
+package tech.mcprison.prison.tasks;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.util.PrisonTPS;
+
+/**
+ * <p>This is the server wide coordinator for all synchronous block updates
+ * from the mine resets.  Instead of each mine submitting its own sync tasks,
+ * which could stack dozens of slices in to the same tick when many mines
+ * reset at the same time, all of the work is queued here, and this task
+ * runs once per tick with a fixed budget of time.
+ * </p>
+ *
+ * <p>The budget is scaled down when the server's TPS drops, but it will
+ * never be less than the min budget so the resets will always finish.
+ * Within each tick, the owners with priority (mines with players in them)
+ * are ran first, and each owner is given a share of the remaining time.
+ * The order of the owners is rotated every tick so all owners are treated
+ * fairly.
+ * </p>
+ *
+ * <p>The task is only scheduled while there is work to do, and it will
+ * cancel itself after it has been idle for a short while.
+ * </p>
+ *
+ */
+public class PrisonBlockSetScheduler
+	implements PrisonRunnable
+{
+	public static final double DEFAULT_TICK_BUDGET_MS = 15.0d;
+	public static final double DEFAULT_TICK_MIN_BUDGET_MS = 2.0d;
+	public static final double DEFAULT_TPS_LOW = 15.0d;
+
+	/**
+	 * <p>Owners with priority get this many shares of the budget for each
+	 * share that an owner without priority gets.
+	 * </p>
+	 */
+	public static final int PRIORITY_WEIGHT = 3;
+
+	public static final int IDLE_TICKS_BEFORE_CANCEL = 100;
+
+	private static PrisonBlockSetScheduler instance;
+
+	private final ConcurrentHashMap<String, PrisonBlockSetOwner> owners;
+	private final Set<PrisonBlockSetOwner> activeOwners;
+
+	private final LongSupplier clock;
+
+	private final Object taskLock = new Object();
+	private int taskId = -1;
+	private int idleTicks = 0;
+
+	private int rotation = 0;
+
+	// Config Settings:
+	private volatile long configTickBudgetNanos = -1;
+	private volatile long configTickMinBudgetNanos = -1;
+	private volatile double configTpsLow = -1;
+
+	// Stats, which are only updated on the main thread:
+	private volatile long statsTicks = 0;
+	private volatile long statsNanosUsed = 0;
+	private volatile long statsNanosBudget = 0;
+	private volatile long statsLastTickNanos = 0;
+	private volatile long statsLastTickBudgetNanos = 0;
+	private volatile long statsMaxTickNanos = 0;
+
+	protected PrisonBlockSetScheduler() {
+		this( System::nanoTime );
+	}
+
+	/**
+	 * <p>The clock is only replaced by the tests, so the budget does not depend
+	 * on how fast the jobs run.
+	 * </p>
+	 *
+	 * @param clock
+	 */
+	protected PrisonBlockSetScheduler( LongSupplier clock ) {
+		super();
+
+		this.clock = clock;
+
+		this.owners = new ConcurrentHashMap<>();
+		this.activeOwners = ConcurrentHashMap.newKeySet();
+	}
+
+	public static PrisonBlockSetScheduler getInstance() {
+		if ( instance == null ) {
+			synchronized ( PrisonBlockSetScheduler.class ) {
+				if ( instance == null ) {
+					instance = new PrisonBlockSetScheduler();
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * <p>Gets the owner for the given name, such as a mine name. The
+	 * same owner will be returned for the same name, until the owner has 
+	 * finished all of its jobs and is not held by any task.
+	 * </p>
+	 *
+	 * @param name
+	 * @return
+	 */
+	public PrisonBlockSetOwner getOwner( String name ) {
+		return owners.computeIfAbsent( name, n -> new PrisonBlockSetOwner( n, clock ) );
+	}
+
+	/**
+	 * <p>Gets the owner for the given name, and holds on to it so it will not be
+	 * removed when its jobs are finished.  This is used by tasks that submit jobs
+	 * over a long time, such as a mine reset, so that everything that is submitted
+	 * for the mine shares one owner.  The owner must be released with 
+	 * releaseOwner() when the task is done.
+	 * </p>
+	 *
+	 * @param name
+	 * @return
+	 */
+	public PrisonBlockSetOwner acquireOwner( String name ) {
+		return owners.compute( name, (n, owner) -> {
+			PrisonBlockSetOwner results = owner == null ? new PrisonBlockSetOwner( n, clock ) : owner;
+			results.addHolder();
+			return results;
+		} );
+	}
+
+	/**
+	 * <p>Releases an owner that was returned by acquireOwner().  If nothing else is
+	 * holding it, and it has finished all of its jobs, then it is removed.
+	 * </p>
+	 *
+	 * @param owner
+	 */
+	public void releaseOwner( PrisonBlockSetOwner owner ) {
+		if ( owner != null ) {
+			owners.computeIfPresent( owner.getName(), (n, o) -> {
+				if ( o == owner ) {
+					o.removeHolder();
+				}
+				return isFinished( o ) ? null : o;
+			} );
+		}
+	}
+
+	private boolean isFinished( PrisonBlockSetOwner owner ) {
+		return !owner.hasHolders() && !owner.hasPendingJobs();
+	}
+
+	/**
+	 * <p>Removes the owner for the given name, such as when a mine is deleted.
+	 * Any jobs that have already been queued for the owner will still be ran,
+	 * even if a task is still holding it.
+	 * </p>
+	 *
+	 * @param name
+	 */
+	public void removeOwner( String name ) {
+		if ( name != null ) {
+			owners.remove( name );
+		}
+	}
+
+	/**
+	 * <p>Queues the job for the owner.  This can be called from any thread.
+	 * If the owner is null, then a default owner will be used.
+	 * </p>
+	 *
+	 * @param owner
+	 * @param job
+	 */
+	public void submit( PrisonBlockSetOwner owner, PrisonBlockSetJob job ) {
+
+		addJob( owner, job );
+
+		submitTask();
+	}
+
+	/**
+	 * <p>Queues the callback for the owner, which will be ran on the main thread
+	 * after all of the owner's jobs that were queued before it have been ran.
+	 * This can be used to wait for the blocks to be set without polling.
+	 * </p>
+	 *
+	 * @param owner
+	 * @param callback
+	 */
+	public void submitCallback( PrisonBlockSetOwner owner, Runnable callback ) {
+
+		addCallback( owner, callback );
+
+		submitTask();
+	}
+
+	protected void addCallback( PrisonBlockSetOwner owner, Runnable callback ) {
+
+		addJob( owner, new PrisonBlockSetJob() {
+			@Override
+			public boolean runJob( long deadlineNanos ) {
+				callback.run();
+				return true;
+			}
+
+			@Override
+			public int getRemainingBlocks() {
+				return 0;
+			}
+		} );
+	}
+
+	protected void addJob( PrisonBlockSetOwner owner, PrisonBlockSetJob job ) {
+		if ( owner == null ) {
+			owner = getOwner( "-default-" );
+		}
+
+		owner.addJob( job );
+		activeOwners.add( owner );
+	}
+
+	private void submitTask() {
+		synchronized ( taskLock ) {
+			if ( taskId == -1 ) {
+				idleTicks = 0;
+				taskId = PrisonTaskSubmitter.runTaskTimer( this, 0, 1 );
+			}
+		}
+	}
+
+	/**
+	 * <p>Cancels the task and drops all pending work.  This should be used
+	 * when the plugin is disabled.
+	 * </p>
+	 */
+	public void shutdown() {
+		synchronized ( taskLock ) {
+			if ( taskId != -1 ) {
+				PrisonTaskSubmitter.cancelTask( taskId );
+				taskId = -1;
+			}
+		}
+
+		activeOwners.clear();
+		owners.clear();
+	}
+
+	@Override
+	public void run() {
+
+		long usedNanos = runTick( getTickBudgetNanos() );
+
+		if ( usedNanos == 0 && ++idleTicks > IDLE_TICKS_BEFORE_CANCEL ) {
+
+			synchronized ( taskLock ) {
+				// A job could have been submitted since the tick was ran:
+				if ( activeOwners.isEmpty() && taskId != -1 ) {
+					PrisonTaskSubmitter.cancelTask( taskId );
+					taskId = -1;
+				}
+			}
+		}
+	}
+
+	/**
+	 * <p>Runs the queued jobs for up to the given budget.
+	 * </p>
+	 *
+	 * @param budgetNanos
+	 * @return the number of nanos that were used, or zero if there was no work.
+	 */
+	protected long runTick( long budgetNanos ) {
+
+		List<PrisonBlockSetOwner> tickOwners = getTickOwners();
+
+		if ( tickOwners.isEmpty() ) {
+			return 0;
+		}
+
+		idleTicks = 0;
+
+		long start = clock.getAsLong();
+		long deadline = start + budgetNanos;
+		long now = start;
+
+		while ( !tickOwners.isEmpty() && now < deadline ) {
+
+			int weights = 0;
+			for ( PrisonBlockSetOwner owner : tickOwners ) {
+				weights += getWeight( owner );
+			}
+
+			Iterator<PrisonBlockSetOwner> itOwners = tickOwners.iterator();
+			while ( itOwners.hasNext() && (now = clock.getAsLong()) < deadline ) {
+				PrisonBlockSetOwner owner = itOwners.next();
+
+				int weight = getWeight( owner );
+
+				// The owner's share of the remaining time:
+				long share = (deadline - now) * weight / weights;
+				weights -= weight;
+
+				owner.runJobs( Math.min( deadline, now + share ) );
+
+				if ( !owner.hasPendingJobs() ) {
+					itOwners.remove();
+					removeActiveOwner( owner );
+				}
+			}
+		}
+
+		long used = clock.getAsLong() - start;
+
+		statsTicks++;
+		statsNanosUsed += used;
+		statsNanosBudget += budgetNanos;
+		statsLastTickNanos = used;
+		statsLastTickBudgetNanos = budgetNanos;
+		if ( used > statsMaxTickNanos ) {
+			statsMaxTickNanos = used;
+		}
+
+		return used;
+	}
+
+	/**
+	 * <p>The owners with priority are first, then all others.  The order
+	 * within each group is rotated every tick so the owner at the end of the
+	 * list does not always get the least amount of time.
+	 * </p>
+	 */
+	private List<PrisonBlockSetOwner> getTickOwners() {
+		List<PrisonBlockSetOwner> priority = new ArrayList<>();
+		List<PrisonBlockSetOwner> others = new ArrayList<>();
+
+		for ( PrisonBlockSetOwner owner : activeOwners ) {
+			if ( !owner.hasPendingJobs() ) {
+				removeActiveOwner( owner );
+			}
+			else if ( owner.isPriority() ) {
+				priority.add( owner );
+			}
+			else {
+				others.add( owner );
+			}
+		}
+
+		// Set iteration order is not stable, so sort by name before rotating:
+		Collections.sort( priority, (o1, o2) -> o1.getName().compareTo( o2.getName() ) );
+		Collections.sort( others, (o1, o2) -> o1.getName().compareTo( o2.getName() ) );
+
+		rotation++;
+		if ( priority.size() > 1 ) {
+			Collections.rotate( priority, rotation % priority.size() );
+		}
+		if ( others.size() > 1 ) {
+			Collections.rotate( others, rotation % others.size() );
+		}
+
+		priority.addAll( others );
+
+		return priority;
+	}
+
+	private void removeActiveOwner( PrisonBlockSetOwner owner ) {
+		activeOwners.remove( owner );
+
+		// A job could have been submitted after the check, so add it back:
+		if ( owner.hasPendingJobs() ) {
+			activeOwners.add( owner );
+		}
+		else {
+			// The owner is finished, so do not keep it around, unless a task is
+			// still holding it:
+			owners.computeIfPresent( owner.getName(), 
+					(n, o) -> o == owner && isFinished( o ) ? null : o );
+		}
+	}
+
+	private int getWeight( PrisonBlockSetOwner owner ) {
+		return owner.isPriority() ? PRIORITY_WEIGHT : 1;
+	}
+
+	/**
+	 * <p>The tick budget is scaled down linearly as the TPS drops from 20
+	 * to the tps-low setting, where it will then use the min budget.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public long getTickBudgetNanos() {
+		long budget = getConfigTickBudgetNanos();
+		long minBudget = Math.min( budget, getConfigTickMinBudgetNanos() );
+
+		double tps = Prison.get().getPrisonTPS().getAverageTPS();
+		double tpsLow = getConfigTpsLow();
+
+		if ( tps < PrisonTPS.TICKS_PER_SECOND && tpsLow < PrisonTPS.TICKS_PER_SECOND ) {
+
+			double scale = (tps - tpsLow) / (PrisonTPS.TICKS_PER_SECOND - tpsLow);
+			scale = Math.max( 0d, Math.min( 1d, scale ) );
+
+			budget = Math.max( minBudget, (long) (budget * scale) );
+		}
+
+		return budget;
+	}
+
+	public int getPendingBlocks() {
+		int blocks = 0;
+
+		for ( PrisonBlockSetOwner owner : activeOwners ) {
+			blocks += owner.getPendingBlocks();
+		}
+
+		return blocks;
+	}
+
+	/**
+	 * <p>The utilization is the percentage of the budget that was used,
+	 * for all ticks that had work to do.
+	 * </p>
+	 *
+	 * @return
+	 */
+	public double getUtilization() {
+		return statsNanosBudget == 0 ? 0d : statsNanosUsed * 100d / statsNanosBudget;
+	}
+
+	public double getLastTickUtilization() {
+		return statsLastTickBudgetNanos == 0 ? 0d :
+				statsLastTickNanos * 100d / statsLastTickBudgetNanos;
+	}
+
+	public String getStatsMessage() {
+		DecimalFormat dFmt = Prison.get().getDecimalFormat( "#,##0.00" );
+		DecimalFormat iFmt = Prison.get().getDecimalFormatInt();
+
+		return String.format( "Reset Tick Budget: Utilization: %s%%  " +
+				"Last Tick: %s of %s ms (%s%%)  Max Tick: %s ms  " +
+				"Ticks: %s  Pending Mines: %s  Pending Blocks: %s",
+				dFmt.format( getUtilization() ),
+				dFmt.format( statsLastTickNanos / 1000000d ),
+				dFmt.format( statsLastTickBudgetNanos / 1000000d ),
+				dFmt.format( getLastTickUtilization() ),
+				dFmt.format( statsMaxTickNanos / 1000000d ),
+				iFmt.format( statsTicks ),
+				iFmt.format( activeOwners.size() ),
+				iFmt.format( getPendingBlocks() ) );
+	}
+
+	public long getStatsTicks() {
+		return statsTicks;
+	}
+
+	public long getStatsNanosUsed() {
+		return statsNanosUsed;
+	}
+
+	public long getStatsNanosBudget() {
+		return statsNanosBudget;
+	}
+
+	public long getStatsMaxTickNanos() {
+		return statsMaxTickNanos;
+	}
+
+	/**
+	 * <p>Clears the config settings so they will be reloaded the next time
+	 * they are used.  This should be called when the config is reloaded.
+	 * </p>
+	 */
+	public void reloadConfig() {
+		this.configTickBudgetNanos = -1;
+		this.configTickMinBudgetNanos = -1;
+		this.configTpsLow = -1;
+	}
+
+	public long getConfigTickBudgetNanos() {
+		if ( configTickBudgetNanos == -1 ) {
+			this.configTickBudgetNanos = (long) (Prison.get().getPlatform()
+					.getConfigDouble( "prison-mines.reset-tick-budget.budget-ms",
+							DEFAULT_TICK_BUDGET_MS ) * PrisonTPS.NANOS_PER_MS);
+		}
+		return configTickBudgetNanos;
+	}
+
+	public long getConfigTickMinBudgetNanos() {
+		if ( configTickMinBudgetNanos == -1 ) {
+			this.configTickMinBudgetNanos = (long) (Prison.get().getPlatform()
+					.getConfigDouble( "prison-mines.reset-tick-budget.min-budget-ms",
+							DEFAULT_TICK_MIN_BUDGET_MS ) * PrisonTPS.NANOS_PER_MS);
+		}
+		return configTickMinBudgetNanos;
+	}
+
+	public double getConfigTpsLow() {
+		if ( configTpsLow == -1 ) {
+			this.configTpsLow = Prison.get().getPlatform()
+					.getConfigDouble( "prison-mines.reset-tick-budget.tps-low",
+							DEFAULT_TPS_LOW );
+		}
+		return configTpsLow;
+	}
+}
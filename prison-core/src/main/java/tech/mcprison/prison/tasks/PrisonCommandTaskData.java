@@ -4,6 +4,7 @@ import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.PrisonAPI;
@@ -29,6 +30,8 @@ public class PrisonCommandTaskData {
 
 	private List<PrisonCommandTaskPlaceholderData> customPlaceholders;
 	
+	private PrisonCommandTemplate template;
+	
 	
 	private List<String> tasks;
 	private List<Long> elapsedTimes; 
@@ -269,30 +272,13 @@ public class PrisonCommandTaskData {
 		this.customPlaceholders = new ArrayList<>();
 		this.elapsedTimes = new ArrayList<>();
 		
-		TaskMode taskMode = TaskMode.sync;
-		
-		if ( command.contains( "{inline}" ) ) {
-			taskMode = TaskMode.inline;
-			command = command.replace( "{inline}", "" );
-		}
-		
-		if ( command.contains( "{inlinePlayer}" ) ) {
-			taskMode = TaskMode.inlinePlayer;
-			command = command.replace( "{inlinePlayer}", "" );
-		}
+		// The command is only parsed the first time it is used, which also removes 
+		// the task mode placeholders, such as {inline} and {syncPlayer}:
+		PrisonCommandTemplate template = PrisonCommandTemplate.getTemplate( command );
 		
-		if ( command.contains( "{sync}" ) ) {
-			taskMode = TaskMode.sync;
-			command = command.replace( "{sync}", "" );
-		}
-		
-		if ( command.contains( "{syncPlayer}" ) ) {
-			taskMode = TaskMode.syncPlayer;
-			command = command.replace( "{syncPlayer}", "" );
-		}
-		
-		this.cmd = command;
-		this.taskMode = taskMode;
+		this.template = template;
+		this.cmd = template.getCommand();
+		this.taskMode = template.getTaskMode();
 		
 	}
 	
@@ -434,10 +420,13 @@ public class PrisonCommandTaskData {
 				task = task == null ? "" : task.trim();
 				
 				
-				// Apply the custom placeholders:
-				for ( PrisonCommandTaskPlaceholderData cPlaceholder : getCustomPlaceholders() ) {
-					if ( cPlaceholder.contains( task ) ) {
-						task = cPlaceholder.replace( task );
+				// Apply the custom placeholders, which translateCommand has already done, so 
+				// this is only needed if there are any placeholders left:
+				if ( task.indexOf( '{' ) >= 0 ) {
+					for ( PrisonCommandTaskPlaceholderData cPlaceholder : getCustomPlaceholders() ) {
+						if ( cPlaceholder.contains( task ) ) {
+							task = cPlaceholder.replace( task );
+						}
 					}
 				}
 				
@@ -481,29 +470,12 @@ public class PrisonCommandTaskData {
 	
 	private String translateCommand( Player player, String command ) {
 		
-		String formatted = command
-				.replace( "{broadcast}", "prison utils broadcast " );
-		
-		if ( player != null ) {
-			formatted = formatted
-					.replace( "{msg}", "prison utils msg {player} " )
-					.replace( "{actionBar}", "prison utils titles actionBar {player} " )
-					.replace( "{title}", "prison utils titles title {player} " )
-					.replace( "{player}", player.getName())
-					.replace( "{player_uid}", player.getUUID().toString())
-					.replace( "{utilsDecay}", "prison utils decay" );
+		// If the command was changed, then use the template for the new command:
+		if ( template == null || !template.getCommand().equals( command ) ) {
+			template = PrisonCommandTemplate.getTemplate( command );
 		}
 		
-		if ( getCustomPlaceholders() != null && getCustomPlaceholders().size() > 0 ) {
-			for ( PrisonCommandTaskPlaceholderData cph : getCustomPlaceholders() ) {
-				String placeholder = "{" + cph.getPlaceholder() + "}";
-				if ( formatted.contains( placeholder ) ) {
-					formatted = formatted.replace( placeholder, cph.getValue() );
-				}
-			}
-		}
-		
-		return formatted;
+		return template.translate( player, getCustomPlaceholders() );
 	}
 
 	/**
@@ -519,6 +491,20 @@ public class PrisonCommandTaskData {
 		getCustomPlaceholders().add( cph );
 	}
 	
+	/**
+	 * <p>Add a custom placeholder where the value is only formatted if the command
+	 * uses the placeholder.  Any values that may change before the command runs 
+	 * should be read before they are passed to the supplier.
+	 * </p>
+	 * 
+	 * @param placeholder
+	 * @param valueSupplier
+	 */
+	public void addCustomPlaceholder( CustomPlaceholders placeholder, Supplier<String> valueSupplier ) {
+		PrisonCommandTaskPlaceholderData cph = new PrisonCommandTaskPlaceholderData( placeholder, valueSupplier );
+		getCustomPlaceholders().add( cph );
+	}
+	
 	public RankLadder getLadder() {
 		return ladder;
 	}
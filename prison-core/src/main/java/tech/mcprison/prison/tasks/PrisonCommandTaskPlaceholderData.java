@@ -1,5 +1,7 @@
 package tech.mcprison.prison.tasks;
 
+import java.util.function.Supplier;
+
 import tech.mcprison.prison.tasks.PrisonCommandTaskData.CustomPlaceholders;
 
 public class PrisonCommandTaskPlaceholderData {
@@ -7,6 +9,14 @@ public class PrisonCommandTaskPlaceholderData {
 	private CustomPlaceholders placeholder;
 	private String value;
 	
+	/**
+	 * <p>If the value is expensive to format, then it can be provided by a supplier
+	 * so it is only formatted if a command uses the placeholder.  It is only called 
+	 * once, and then the value is kept.
+	 * </p>
+	 */
+	private Supplier<String> valueSupplier;
+	
 	public PrisonCommandTaskPlaceholderData( CustomPlaceholders placeholder, String value ) {
 		super();
 		
@@ -14,6 +24,13 @@ public class PrisonCommandTaskPlaceholderData {
 		this.value = value;
 	}
 	
+	public PrisonCommandTaskPlaceholderData( CustomPlaceholders placeholder, Supplier<String> valueSupplier ) {
+		super();
+		
+		this.placeholder = placeholder;
+		this.valueSupplier = valueSupplier;
+	}
+	
 	public boolean contains( String text ) {
 		return text != null && text.contains( placeholder.getPlaceholder() );
 	}
@@ -35,10 +52,15 @@ public class PrisonCommandTaskPlaceholderData {
 	}
 
 	public String getValue() {
+		if ( value == null && valueSupplier != null ) {
+			value = valueSupplier.get();
+			valueSupplier = null;
+		}
 		return value;
 	}
 	public void setValue( String value ) {
 		this.value = value;
+		this.valueSupplier = null;
 	}
 	
 }
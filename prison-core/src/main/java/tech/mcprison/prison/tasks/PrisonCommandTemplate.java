@@ -0,0 +1,271 @@
+package tech.mcprison.prison.tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import tech.mcprison.prison.internal.Player;
+import tech.mcprison.prison.tasks.PrisonCommandTaskData.TaskMode;
+
+/**
+ * <p>A command that has been parsed in to its literal text and its placeholders,
+ * so it can be translated with a single pass of a StringBuilder, instead of a
+ * String.replace for each placeholder every time the command runs.  The task mode
+ * placeholders, such as {inline} and {syncPlayer}, are removed from the command
+ * when it is parsed, and the task mode is saved.
+ * </p>
+ * 
+ * <p>The commands are cached by the raw command text, since the same rank commands,
+ * block event commands, and mine commands are ran many times.
+ * </p>
+ * 
+ * <p>The placeholders are translated the same as the String.replace calls did: 
+ * {broadcast} is always translated, and {msg}, {actionBar}, {title}, {player}, 
+ * {player_uid}, and {utilsDecay} are only translated if there is a player.  Then 
+ * the custom placeholders are used, with the first one of each name being used.
+ * Anything else in braces is left as is.  The values that are inserted are not
+ * searched for more placeholders.
+ * </p>
+ *
+ */
+public class PrisonCommandTemplate {
+
+	/**
+	 * <p>When there are more templates than this, then the cache is cleared.  The 
+	 * commands are from the configs, so this should never be reached.
+	 * </p>
+	 */
+	public static final int MAX_TEMPLATES = 2000;
+	
+	private static final Map<String, PrisonCommandTemplate> templates = new ConcurrentHashMap<>();
+	
+	private final String rawCommand;
+	private final String command;
+	private final TaskMode taskMode;
+	
+	/**
+	 * <p>The literal text before each placeholder, plus the text after the 
+	 * last placeholder.
+	 * </p>
+	 */
+	private final String[] literals;
+	
+	/**
+	 * <p>The names of the placeholders, without the braces.
+	 * </p>
+	 */
+	private final String[] placeholders;
+	
+	
+	private PrisonCommandTemplate( String rawCommand ) {
+		super();
+		
+		this.rawCommand = rawCommand;
+		
+		TaskMode taskMode = TaskMode.sync;
+		String command = rawCommand;
+		
+		if ( command.contains( "{inline}" ) ) {
+			taskMode = TaskMode.inline;
+			command = command.replace( "{inline}", "" );
+		}
+		
+		if ( command.contains( "{inlinePlayer}" ) ) {
+			taskMode = TaskMode.inlinePlayer;
+			command = command.replace( "{inlinePlayer}", "" );
+		}
+		
+		if ( command.contains( "{sync}" ) ) {
+			taskMode = TaskMode.sync;
+			command = command.replace( "{sync}", "" );
+		}
+		
+		if ( command.contains( "{syncPlayer}" ) ) {
+			taskMode = TaskMode.syncPlayer;
+			command = command.replace( "{syncPlayer}", "" );
+		}
+		
+		this.command = command;
+		this.taskMode = taskMode;
+		
+		
+		List<String> literals = new ArrayList<>();
+		List<String> placeholders = new ArrayList<>();
+		
+		int start = 0;
+		int open = command.indexOf( '{' );
+		
+		while ( open >= 0 ) {
+			int close = command.indexOf( '}', open + 1 );
+			if ( close < 0 ) {
+				break;
+			}
+			
+			int nextOpen = command.indexOf( '{', open + 1 );
+			if ( nextOpen >= 0 && nextOpen < close ) {
+				// Not a placeholder, such as "{{player}", so try the next one:
+				open = nextOpen;
+				continue;
+			}
+			
+			literals.add( command.substring( start, open ) );
+			placeholders.add( command.substring( open + 1, close ) );
+			
+			start = close + 1;
+			open = command.indexOf( '{', start );
+		}
+		literals.add( command.substring( start ) );
+		
+		this.literals = literals.toArray( new String[literals.size()] );
+		this.placeholders = placeholders.toArray( new String[placeholders.size()] );
+	}
+	
+	/**
+	 * <p>Gets the parsed command from the cache, or parses it if it has not been used 
+	 * before.
+	 * </p>
+	 * 
+	 * @param rawCommand
+	 * @return
+	 */
+	public static PrisonCommandTemplate getTemplate( String rawCommand ) {
+		String key = rawCommand == null ? "" : rawCommand;
+		
+		PrisonCommandTemplate results = templates.get( key );
+		
+		if ( results == null ) {
+			
+			if ( templates.size() >= MAX_TEMPLATES ) {
+				templates.clear();
+			}
+			
+			results = templates.computeIfAbsent( key, PrisonCommandTemplate::new );
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * <p>Translates all of the placeholders in the command.
+	 * </p>
+	 * 
+	 * @param player The player, which may be null.
+	 * @param customPlaceholders The custom placeholders, which may be null.
+	 * @return
+	 */
+	public String translate( Player player, List<PrisonCommandTaskPlaceholderData> customPlaceholders ) {
+		
+		if ( placeholders.length == 0 ) {
+			return command;
+		}
+		
+		StringBuilder sb = new StringBuilder( command.length() + 32 );
+		
+		for ( int i = 0; i < placeholders.length; i++ ) {
+			sb.append( literals[i] );
+			
+			String placeholder = placeholders[i];
+			String value = getPlayerValue( placeholder, player );
+			
+			if ( value == null ) {
+				value = getCustomValue( placeholder, customPlaceholders );
+			}
+			
+			if ( value == null ) {
+				// Not a placeholder, so keep it as is:
+				sb.append( '{' ).append( placeholder ).append( '}' );
+			}
+			else {
+				sb.append( value );
+			}
+		}
+		sb.append( literals[placeholders.length] );
+		
+		return sb.toString();
+	}
+	
+	private String getPlayerValue( String placeholder, Player player ) {
+		String results = null;
+		
+		if ( "broadcast".equals( placeholder ) ) {
+			results = "prison utils broadcast ";
+		}
+		else if ( player != null ) {
+			
+			switch ( placeholder ) {
+				case "msg":
+					results = "prison utils msg " + player.getName() + " ";
+					break;
+					
+				case "actionBar":
+					results = "prison utils titles actionBar " + player.getName() + " ";
+					break;
+					
+				case "title":
+					results = "prison utils titles title " + player.getName() + " ";
+					break;
+					
+				case "player":
+					results = player.getName();
+					break;
+					
+				case "player_uid":
+					results = player.getUUID().toString();
+					break;
+					
+				case "utilsDecay":
+					results = "prison utils decay";
+					break;
+					
+				default:
+					break;
+			}
+		}
+		
+		return results;
+	}
+	
+	private String getCustomValue( String placeholder, 
+						List<PrisonCommandTaskPlaceholderData> customPlaceholders ) {
+		String results = null;
+		
+		if ( customPlaceholders != null ) {
+			
+			for ( PrisonCommandTaskPlaceholderData cph : customPlaceholders ) {
+				if ( cph.getPlaceholder().name().equals( placeholder ) ) {
+					
+					results = cph.getValue();
+					if ( results == null ) {
+						results = "";
+					}
+					break;
+				}
+			}
+		}
+		
+		return results;
+	}
+	
+	public String getRawCommand() {
+		return rawCommand;
+	}
+	
+	/**
+	 * <p>The command without the task mode placeholders.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public String getCommand() {
+		return command;
+	}
+	
+	public TaskMode getTaskMode() {
+		return taskMode;
+	}
+	
+	public boolean hasPlaceholders() {
+		return placeholders.length > 0;
+	}
+}
@@ -0,0 +1,332 @@
+package tech.mcprison.prison.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <p>This is an order-statistic tree that keeps its values sorted by a
+ * Comparator, and where every value is also identified by a key.  It is
+ * used for the topN rankings, where a player's score changes, and then the
+ * player needs to be moved to their new position without having to resort
+ * the whole collection.
+ * </p>
+ *
+ * <p>All of these operations are O(log n): put, remove, get a value by
+ * its rank position, and get the rank position of a key.  Getting a value by
+ * its key is O(1).
+ * </p>
+ *
+ * <p>It is a treap where each node tracks the size of its subtree, and also
+ * the node's parent.  Since the nodes are found by their key, and not by
+ * searching with the comparator, a value can be removed even if its sort
+ * values have already been changed.  So the normal pattern to update a
+ * value is to change it, then just <b>put</b> it again with the same key.
+ * But the values that are in the tree that are not being put, must not have
+ * their sort values changed, or the tree will be out of order.
+ * </p>
+ *
+ * <p>This is not thread safe. The callers must synchronize their access.
+ * </p>
+ *
+ * @param <K> The key that identifies the value, such as the player's file name.
+ * @param <V> The value that is ranked.
+ */
+public class RankedTreeMap<K, V>
+{
+	private final Comparator<? super V> comparator;
+
+	private final HashMap<K, Node<K, V>> nodes;
+
+	private Node<K, V> root;
+
+	private static class Node<K, V> {
+		private final K key;
+		private final V value;
+		private final int priority;
+
+		private int size = 1;
+
+		private Node<K, V> parent;
+		private Node<K, V> left;
+		private Node<K, V> right;
+
+		private Node( K key, V value ) {
+			this.key = key;
+			this.value = value;
+			this.priority = ThreadLocalRandom.current().nextInt();
+		}
+	}
+
+	public RankedTreeMap( Comparator<? super V> comparator ) {
+		super();
+
+		this.comparator = comparator;
+		this.nodes = new HashMap<>();
+	}
+
+	public int size() {
+		return nodes.size();
+	}
+
+	public boolean isEmpty() {
+		return nodes.isEmpty();
+	}
+
+	public boolean containsKey( K key ) {
+		return nodes.containsKey( key );
+	}
+
+	public V get( K key ) {
+		Node<K, V> node = nodes.get( key );
+		return node == null ? null : node.value;
+	}
+
+	public void clear() {
+		nodes.clear();
+		root = null;
+	}
+
+	/**
+	 * <p>Adds the value, or if the key already exists, it will replace the
+	 * old value and place the new value in its sorted position.  It is
+	 * fine for the new value to be the same object as the old value.
+	 * </p>
+	 *
+	 * @param key
+	 * @param value
+	 * @return The value that was replaced, or null if the key is new.
+	 */
+	public V put( K key, V value ) {
+		V results = remove( key );
+
+		Node<K, V> node = new Node<>( key, value );
+		nodes.put( key, node );
+
+		if ( root == null ) {
+			root = node;
+		}
+		else {
+
+			// Equal values are placed after the existing values:
+			Node<K, V> current = root;
+			while ( true ) {
+				current.size++;
+
+				if ( comparator.compare( value, current.value ) < 0 ) {
+					if ( current.left == null ) {
+						current.left = node;
+						break;
+					}
+					current = current.left;
+				}
+				else {
+					if ( current.right == null ) {
+						current.right = node;
+						break;
+					}
+					current = current.right;
+				}
+			}
+			node.parent = current;
+
+			while ( node.parent != null && node.priority > node.parent.priority ) {
+				rotateUp( node );
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Removes the value that has the given key.  The comparator is not used,
+	 * so the sort values of the removed value may have already been changed.
+	 * </p>
+	 *
+	 * @param key
+	 * @return The value that was removed, or null if the key was not found.
+	 */
+	public V remove( K key ) {
+		Node<K, V> node = nodes.remove( key );
+
+		if ( node == null ) {
+			return null;
+		}
+
+		// Rotate the node down until it is a leaf:
+		while ( node.left != null || node.right != null ) {
+
+			Node<K, V> child =
+					node.left == null ? node.right :
+					node.right == null ? node.left :
+					node.left.priority > node.right.priority ? node.left : node.right;
+
+			rotateUp( child );
+		}
+
+		Node<K, V> parent = node.parent;
+		if ( parent == null ) {
+			root = null;
+		}
+		else {
+			if ( parent.left == node ) {
+				parent.left = null;
+			}
+			else {
+				parent.right = null;
+			}
+
+			for ( Node<K, V> n = parent; n != null; n = n.parent ) {
+				n.size--;
+			}
+		}
+		node.parent = null;
+
+		return node.value;
+	}
+
+	/**
+	 * <p>Returns the value at the given rank position, where 0 is the first value.
+	 * </p>
+	 *
+	 * @param index
+	 * @return The value, or null if the index is out of range.
+	 */
+	public V getByRank( int index ) {
+		if ( index < 0 || index >= size() ) {
+			return null;
+		}
+
+		Node<K, V> current = root;
+		while ( current != null ) {
+			int leftSize = size( current.left );
+
+			if ( index < leftSize ) {
+				current = current.left;
+			}
+			else if ( index == leftSize ) {
+				break;
+			}
+			else {
+				index -= leftSize + 1;
+				current = current.right;
+			}
+		}
+
+		return current == null ? null : current.value;
+	}
+
+	/**
+	 * <p>Returns the rank position of the key, where 0 is the first value.
+	 * </p>
+	 *
+	 * @param key
+	 * @return The rank position, or -1 if the key is not in this tree.
+	 */
+	public int getRank( K key ) {
+		Node<K, V> node = nodes.get( key );
+
+		if ( node == null ) {
+			return -1;
+		}
+
+		int rank = size( node.left );
+
+		for ( Node<K, V> n = node; n.parent != null; n = n.parent ) {
+			if ( n.parent.right == n ) {
+				rank += size( n.parent.left ) + 1;
+			}
+		}
+
+		return rank;
+	}
+
+	/**
+	 * <p>Returns all of the values in their sorted order.
+	 * </p>
+	 */
+	public ArrayList<V> values() {
+		return values( 0, size() );
+	}
+
+	/**
+	 * <p>Returns up to <b>count</b> values in their sorted order, starting with
+	 * the value at the rank position <b>fromIndex</b>.
+	 * </p>
+	 *
+	 * @param fromIndex
+	 * @param count
+	 * @return
+	 */
+	public ArrayList<V> values( int fromIndex, int count ) {
+		ArrayList<V> results = new ArrayList<>( Math.max( 0, Math.min( count, size() - fromIndex ) ) );
+
+		collect( root, Math.max( 0, fromIndex ), count, results );
+
+		return results;
+	}
+
+	private void collect( Node<K, V> node, int fromIndex, int count, List<V> results ) {
+		if ( node == null || results.size() >= count ) {
+			return;
+		}
+
+		int leftSize = size( node.left );
+
+		if ( fromIndex < leftSize ) {
+			collect( node.left, fromIndex, count, results );
+		}
+
+		if ( fromIndex <= leftSize && results.size() < count ) {
+			results.add( node.value );
+		}
+
+		collect( node.right, Math.max( 0, fromIndex - leftSize - 1 ), count, results );
+	}
+
+	/**
+	 * <p>Rotates the node above its parent, and updates the sizes of both.
+	 * </p>
+	 */
+	private void rotateUp( Node<K, V> node ) {
+		Node<K, V> parent = node.parent;
+		Node<K, V> grandParent = parent.parent;
+
+		if ( parent.left == node ) {
+			parent.left = node.right;
+			if ( node.right != null ) {
+				node.right.parent = parent;
+			}
+			node.right = parent;
+		}
+		else {
+			parent.right = node.left;
+			if ( node.left != null ) {
+				node.left.parent = parent;
+			}
+			node.left = parent;
+		}
+
+		parent.parent = node;
+		node.parent = grandParent;
+
+		if ( grandParent == null ) {
+			root = node;
+		}
+		else if ( grandParent.left == parent ) {
+			grandParent.left = node;
+		}
+		else {
+			grandParent.right = node;
+		}
+
+		parent.size = 1 + size( parent.left ) + size( parent.right );
+		node.size = 1 + size( node.left ) + size( node.right );
+	}
+
+	private int size( Node<K, V> node ) {
+		return node == null ? 0 : node.size;
+	}
+}
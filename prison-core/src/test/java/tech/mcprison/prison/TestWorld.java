@@ -27,6 +27,7 @@ import tech.mcprison.prison.internal.block.Block;
 import tech.mcprison.prison.internal.block.MineResetType;
 import tech.mcprison.prison.internal.block.MineTargetPrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.tasks.PrisonBlockSetOwner;
 import tech.mcprison.prison.util.Location;
 
 /**
@@ -72,7 +73,8 @@ public class TestWorld implements World {
 	@Override
 	public void setBlocksSynchronously( List<MineTargetPrisonBlock> tBlocks, 
 							MineResetType resetType,
-							PrisonStatsElapsedTimeNanos nanos ) {
+							PrisonStatsElapsedTimeNanos nanos,
+							PrisonBlockSetOwner owner ) {
 		
 	}
 
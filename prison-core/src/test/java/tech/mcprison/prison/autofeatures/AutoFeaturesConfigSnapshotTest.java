@@ -0,0 +1,66 @@
+package tech.mcprison.prison.autofeatures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
+
+public class AutoFeaturesConfigSnapshotTest
+{
+
+	@Test
+	public void testDefaults() {
+
+		AutoFeaturesConfigSnapshot snapshot = new AutoFeaturesConfigSnapshot( new LinkedHashMap<>() );
+
+		for ( AutoFeatures af : AutoFeatures.values() ) {
+
+			if ( af.isBoolean() ) {
+				assertEquals( af.getValue().booleanValue(), snapshot.getBoolean( af ) );
+			}
+			if ( af.isInteger() ) {
+				assertEquals( af.getIntValue().intValue(), snapshot.getInteger( af ) );
+			}
+		}
+
+		assertEquals( Arrays.asList( "coal_block", "iron_ore" ),
+				snapshot.getStringList( AutoFeatures.pickupBlockNameList ) );
+	}
+
+	@Test
+	public void testConfigValues() {
+
+		Map<String, ValueNode> conf = new LinkedHashMap<>();
+		conf.put( AutoFeatures.isAutoFeaturesEnabled.getKey(), BooleanNode.valueOf( false ) );
+		conf.put( AutoFeatures.tokensBlocksPerToken.getKey(), IntegerNode.valueOf( 25 ) );
+
+		List<String> blocks = new ArrayList<>( Arrays.asList( "gold_block" ) );
+		conf.put( AutoFeatures.pickupBlockNameList.getKey(), StringListNode.valueOf( blocks ) );
+
+		// The wrong type uses the default:
+		conf.put( AutoFeatures.pickupLimitToMines.getKey(), IntegerNode.valueOf( 0 ) );
+
+		AutoFeaturesConfigSnapshot snapshot = new AutoFeaturesConfigSnapshot( conf );
+
+		assertFalse( snapshot.getBoolean( AutoFeatures.isAutoFeaturesEnabled ) );
+		assertEquals( 25, snapshot.getInteger( AutoFeatures.tokensBlocksPerToken ) );
+		assertTrue( snapshot.getBoolean( AutoFeatures.pickupLimitToMines ) );
+
+		// Changes to the config are not seen until a new snapshot is created:
+		blocks.add( "iron_block" );
+		conf.put( AutoFeatures.isAutoFeaturesEnabled.getKey(), BooleanNode.valueOf( true ) );
+
+		assertEquals( Arrays.asList( "gold_block" ),
+				snapshot.getStringList( AutoFeatures.pickupBlockNameList ) );
+		assertFalse( snapshot.getBoolean( AutoFeatures.isAutoFeaturesEnabled ) );
+	}
+}
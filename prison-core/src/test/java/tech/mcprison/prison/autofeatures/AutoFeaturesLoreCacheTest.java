@@ -0,0 +1,52 @@
+package tech.mcprison.prison.autofeatures;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class AutoFeaturesLoreCacheTest
+{
+
+	@Test
+	public void testLoreValues() {
+
+		AutoFeaturesLoreCache loreCache = new AutoFeaturesLoreCache();
+
+		List<String> lores = Arrays.asList( "&7Efficiency", "&aPrison Auto Pickup: &b45.5", "&aPrison Auto Smelt" );
+
+		assertEquals( 45.5, loreCache.getLoreValue( lores, "&aPrison Auto Pickup:", true ), 0.0001 );
+		assertEquals( 100.0, loreCache.getLoreValue( lores, "&aPrison Auto Smelt", true ), 0.0001 );
+		assertEquals( 0.0, loreCache.getLoreValue( lores, "&aPrison Auto Block", true ), 0.0001 );
+
+		// Without stripping the colors, the &b is not a number so it is 100%:
+		assertEquals( 100.0, loreCache.getLoreValue( lores, "&aPrison Auto Pickup:", false ), 0.0001 );
+
+		assertEquals( 4, loreCache.size() );
+
+		// Same lore, in a new list, uses the same entry:
+		assertEquals( 45.5, loreCache.getLoreValue( new ArrayList<>( lores ), "&aPrison Auto Pickup:", true ), 0.0001 );
+		assertEquals( 4, loreCache.size() );
+
+		// Limited to 0 through 100:
+		assertEquals( 100.0, loreCache.getLoreValue( Arrays.asList( "Pickup 250" ), "Pickup", true ), 0.0001 );
+		assertEquals( 0.0, loreCache.getLoreValue( Arrays.asList( "Pickup -5" ), "Pickup", true ), 0.0001 );
+	}
+
+	@Test
+	public void testChangedLore() {
+
+		AutoFeaturesLoreCache loreCache = new AutoFeaturesLoreCache();
+
+		List<String> lores = new ArrayList<>( Arrays.asList( "Pickup 10" ) );
+		assertEquals( 10.0, loreCache.getLoreValue( lores, "Pickup", true ), 0.0001 );
+
+		// The cache has its own copy, so changing the list does not change the cached value:
+		lores.set( 0, "Pickup 20" );
+		assertEquals( 20.0, loreCache.getLoreValue( lores, "Pickup", true ), 0.0001 );
+		assertEquals( 10.0, loreCache.getLoreValue( Arrays.asList( "Pickup 10" ), "Pickup", true ), 0.0001 );
+	}
+}
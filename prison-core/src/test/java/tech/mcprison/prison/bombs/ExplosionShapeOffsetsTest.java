@@ -0,0 +1,154 @@
+package tech.mcprison.prison.bombs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.bombs.MineBombs.ExplosionOrientation;
+import tech.mcprison.prison.internal.World;
+import tech.mcprison.prison.util.Location;
+
+public class ExplosionShapeOffsetsTest
+{
+
+	private List<String> toStrings( ExplosionShapeOffsets shape, Location center ) {
+		List<String> results = new ArrayList<>();
+
+		shape.forEach( center, (x, y, z) -> results.add( x + "," + y + "," + z ) );
+
+		return results;
+	}
+
+	@Test
+	public void testSphere() {
+
+		Location center = new Location( (World) null, 100, 64, -20 );
+
+		ExplosionShapeOffsets sphere = ExplosionShapeOffsets.getSphere( 3, false, 0, ExplosionOrientation.full );
+		assertSame( sphere, ExplosionShapeOffsets.getSphere( 3, false, 5, null ) );
+
+		// Compare to the blocks within the radius:
+		List<String> expected = new ArrayList<>();
+		for ( int x = 97; x <= 103; x++ ) {
+			for ( int y = 61; y <= 67; y++ ) {
+				for ( int z = -23; z <= -17; z++ ) {
+					int distSqr = (x - 100) * (x - 100) + (y - 64) * (y - 64) + (z + 20) * (z + 20);
+					if ( distSqr <= 9 ) {
+						expected.add( x + "," + y + "," + z );
+					}
+				}
+			}
+		}
+		assertEquals( expected, toStrings( sphere, center ) );
+
+		List<Location> locations = sphere.toLocations( center );
+		assertEquals( expected.size(), locations.size() );
+		assertEquals( 97, locations.get( 0 ).getBlockX() );
+
+		// A hollow ring on the y axis only has one y:
+		ExplosionShapeOffsets ring = ExplosionShapeOffsets.getSphere( 3, true, 2, ExplosionOrientation.y_axis );
+		for ( String block : toStrings( ring, center ) ) {
+			String[] xyz = block.split( "," );
+			int dx = Integer.parseInt( xyz[0] ) - 100;
+			int dz = Integer.parseInt( xyz[2] ) + 20;
+
+			assertEquals( "64", xyz[1] );
+			assertTrue( dx * dx + dz * dz >= 4 && dx * dx + dz * dz <= 9 );
+		}
+	}
+
+	@Test
+	public void testCube() {
+
+		ExplosionShapeOffsets cube = ExplosionShapeOffsets.getCube( 1 );
+		assertEquals( 27, cube.size() );
+		assertEquals( 27, toStrings( cube, new Location( (World) null, 0, 10, 0 ) ).size() );
+
+		// The blocks below y = 0 are not included:
+		List<String> blocks = toStrings( cube, new Location( (World) null, 0, 0, 0 ) );
+		assertEquals( 18, blocks.size() );
+		assertEquals( "-1,1,-1", blocks.get( 0 ) );
+
+		assertEquals( 0, ExplosionShapeOffsets.getCube( 0 ).size() );
+	}
+
+	@Test
+	public void testCubeHollow() {
+
+		// The 3 x 3 x 3 center is untouched:
+		ExplosionShapeOffsets cube = ExplosionShapeOffsets.getCubeHollow( 2, 2 );
+		assertEquals( 125 - 27, cube.size() );
+
+		List<String> blocks = toStrings( cube, new Location( (World) null, 0, 10, 0 ) );
+		assertFalse( blocks.contains( "0,10,0" ) );
+		assertFalse( blocks.contains( "1,9,1" ) );
+		assertTrue( blocks.contains( "2,9,0" ) );
+		assertTrue( blocks.contains( "0,11,0" ) );
+
+		assertSame( cube, ExplosionShapeOffsets.getCubeHollow( 2, 2 ) );
+	}
+
+	@Test
+	public void testCylinder() {
+
+		// The height defaults to the same as the cube:
+		ExplosionShapeOffsets cylinder = ExplosionShapeOffsets.getCylinder( 1, false, 0, 0 );
+		assertEquals( 5 * 3, cylinder.size() );
+
+		ExplosionShapeOffsets shaft = ExplosionShapeOffsets.getCylinder( 2, false, 0, 20 );
+		assertEquals( 13 * 20, shaft.size() );
+
+		List<String> blocks = toStrings( shaft, new Location( (World) null, 0, 30, 0 ) );
+		assertTrue( blocks.contains( "0,31,0" ) );
+		assertTrue( blocks.contains( "0,12,2" ) );
+		assertFalse( blocks.contains( "0,11,0" ) );
+		assertFalse( blocks.contains( "2,20,2" ) );
+
+		// The hollow cylinder is a tube:
+		ExplosionShapeOffsets tube = ExplosionShapeOffsets.getCylinder( 2, true, 0, 20 );
+		assertEquals( 12 * 20, tube.size() );
+		assertFalse( toStrings( tube, new Location( (World) null, 0, 30, 0 ) ).contains( "0,20,0" ) );
+
+		// The radiusInner is ignored if it's not hollow:
+		assertSame( shaft, ExplosionShapeOffsets.getCylinder( 2, false, 1, 20 ) );
+		assertNotSame( shaft, tube );
+	}
+
+	@Test
+	public void testWorldHeight() {
+
+		ExplosionShapeOffsets sphere = ExplosionShapeOffsets.getSphere( 3, false, 0, ExplosionOrientation.full );
+
+		// An explosion next to the world floor only includes the blocks within the world:
+		List<String> blocks = new ArrayList<>();
+		sphere.forEach( new Location( (World) null, 0, -63, 0 ), -64, 319, 
+				(x, y, z) -> blocks.add( x + "," + y + "," + z ) );
+
+		assertTrue( blocks.size() > 0 );
+		assertTrue( blocks.size() < sphere.size() );
+		assertTrue( blocks.contains( "0,-64,0" ) );
+		assertFalse( blocks.contains( "0,-65,0" ) );
+		for ( String block : blocks ) {
+			assertTrue( Integer.parseInt( block.split( "," )[1] ) >= -64 );
+		}
+
+		// The same for the top of the world:
+		blocks.clear();
+		sphere.forEach( new Location( (World) null, 0, 255, 0 ), 0, 255, 
+				(x, y, z) -> blocks.add( x + "," + y + "," + z ) );
+
+		assertTrue( blocks.contains( "0,255,0" ) );
+		assertFalse( blocks.contains( "0,256,0" ) );
+		assertTrue( blocks.contains( "0,252,0" ) );
+
+		// Without the world's height, all of the blocks are included:
+		assertEquals( sphere.size(), toStrings( sphere, new Location( (World) null, 0, -63, 0 ) ).size() );
+	}
+}
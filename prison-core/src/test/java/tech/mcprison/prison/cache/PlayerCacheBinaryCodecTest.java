@@ -0,0 +1,189 @@
+package tech.mcprison.prison.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import tech.mcprison.prison.cache.CoreCacheFiles.CacheFileFormat;
+
+public class PlayerCacheBinaryCodecTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private PlayerCachePlayerData createPlayerData() {
+
+		PlayerCachePlayerData data = new PlayerCachePlayerData();
+		data.setPlayerUuid( "d8d3a4c1-6f1f-4bfb-9c52-5b8c06c0d0b7" );
+		data.setPlayerName( "player1" );
+		data.setLastSeenDate( 1660000000000L );
+		data.setOnlineTimeTotal( 123456789L );
+		data.setBlocksTotal( 4000000L );
+		data.setTokens( -15 );
+		data.setTokensTotal( 2000 );
+
+		for ( int i = 0; i < 50; i++ ) {
+			data.getBlocksByMine().put( "mine" + i, i * 1000 );
+			data.getBlocksByType().put( "block" + i, i );
+			data.getTimeByMine().put( "mine" + i, i * 60000L );
+			data.getEarningsByMine().put( "mine" + i, i * 1.5d );
+			data.getTokensByMine().put( "mine" + i, (long) i );
+		}
+
+		return data;
+	}
+
+	private void assertSameData( PlayerCachePlayerData expected, PlayerCachePlayerData actual ) {
+
+		assertEquals( expected.getPlayerUuid(), actual.getPlayerUuid() );
+		assertEquals( expected.getPlayerName(), actual.getPlayerName() );
+		assertEquals( expected.getLastMine(), actual.getLastMine() );
+		assertEquals( expected.getLastSeenDate(), actual.getLastSeenDate() );
+		assertEquals( expected.getOnlineTimeTotal(), actual.getOnlineTimeTotal() );
+		assertEquals( expected.getBlocksTotal(), actual.getBlocksTotal() );
+		assertEquals( expected.getTokens(), actual.getTokens() );
+		assertEquals( expected.getTokensTotal(), actual.getTokensTotal() );
+		assertEquals( expected.getBlocksByMine(), actual.getBlocksByMine() );
+		assertEquals( expected.getBlocksByType(), actual.getBlocksByType() );
+		assertEquals( expected.getTimeByMine(), actual.getTimeByMine() );
+		assertEquals( expected.getEarningsByMine(), actual.getEarningsByMine() );
+		assertEquals( expected.getTokensByMine(), actual.getTokensByMine() );
+	}
+
+	private PlayerCachePlayerData roundTrip( PlayerCachePlayerData data )
+			throws IOException {
+
+		PlayerCacheBinaryCodec codec = new PlayerCacheBinaryCodec();
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		codec.write( data, new DataOutputStream( baos ) );
+
+		return (PlayerCachePlayerData) codec.read(
+				new DataInputStream( new ByteArrayInputStream( baos.toByteArray() ) ) );
+	}
+
+	@Test
+	public void testRoundTrip()
+			throws IOException {
+
+		PlayerCachePlayerData data = createPlayerData();
+
+		PlayerCachePlayerData results = roundTrip( data );
+		assertSameData( data, results );
+		assertNull( results.getLastMine() );
+
+		// The mine and block names are interned:
+		PlayerCachePlayerData results2 = roundTrip( data );
+		assertSame( results.getBlocksByMine().firstKey(), results2.getBlocksByMine().firstKey() );
+		assertSame( results.getTimeByMine().firstKey(), results2.getTokensByMine().firstKey() );
+	}
+
+	@Test
+	public void testFileFormatMigration()
+			throws IOException {
+
+		File directory = folder.getRoot();
+
+		PlayerCacheFiles cacheFiles = new PlayerCacheFiles() {
+			@Override
+			public File getPlayerFilePath() {
+				return directory;
+			}
+		};
+
+		PlayerCachePlayerData data = createPlayerData();
+		File playerFile = new File( directory, "d8d3a4c1-6f1f-_player1.json" );
+		data.setPlayerFile( playerFile );
+
+		cacheFiles.setFileFormat( CacheFileFormat.json );
+		assertTrue( cacheFiles.toJsonFile( data ) );
+		long jsonSize = playerFile.length();
+
+		PlayerCachePlayerData results = (PlayerCachePlayerData)
+				cacheFiles.fromJsonFile( playerFile, PlayerCachePlayerData.class );
+		assertSameData( data, results );
+
+		// Json to binary:
+		cacheFiles.setFileFormat( CacheFileFormat.binary );
+		assertTrue( cacheFiles.toJsonFile( results ) );
+
+		// The smaller file keeps a backup of the original, but the original is
+		// replaced in place, and not renamed:
+		File backupFile = new File( directory,
+				CoreCacheFiles.FILE_PREFIX_BACKUP + playerFile.getName() );
+		assertEquals( jsonSize, backupFile.length() );
+		assertTrue( playerFile.exists() );
+
+		byte[] bytes = Files.readAllBytes( playerFile.toPath() );
+		assertEquals( 'P', bytes[0] );
+		assertEquals( 'C', bytes[1] );
+		assertEquals( 'B', bytes[2] );
+		assertTrue( bytes.length * 2 < jsonSize );
+
+		results = (PlayerCachePlayerData)
+				cacheFiles.fromJsonFile( playerFile, PlayerCachePlayerData.class );
+		assertSameData( data, results );
+
+		// Binary back to compact json:
+		cacheFiles.setFileFormat( CacheFileFormat.compact );
+		cacheFiles.toJsonFile( results );
+
+		assertEquals( '{', Files.readAllBytes( playerFile.toPath() )[0] );
+
+		results = (PlayerCachePlayerData)
+				cacheFiles.fromJsonFile( playerFile, PlayerCachePlayerData.class );
+		assertSameData( data, results );
+	}
+
+	@Test
+	public void testTrailingData()
+			throws IOException {
+
+		PlayerCacheBinaryCodec codec = new PlayerCacheBinaryCodec();
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream( baos );
+		codec.write( createPlayerData(), out );
+
+		// A file with more data than its stats, such as a map size that does not
+		// match its entries, is rejected instead of being loaded out of alignment:
+		out.writeByte( 0 );
+
+		try {
+			codec.read( new DataInputStream( new ByteArrayInputStream( baos.toByteArray() ) ) );
+			fail( "The trailing data was not detected." );
+		}
+		catch ( IOException e ) {
+			assertTrue( e.getMessage().contains( "Unexpected data" ) );
+		}
+	}
+
+	@Test
+	public void testCopyForSave() {
+
+		PlayerCachePlayerData data = createPlayerData();
+		PlayerCachePlayerData copy = data.copyForSave();
+
+		assertSameData( data, copy );
+
+		// Changes after the copy was taken do not change what is being saved:
+		data.getBlocksByMine().put( "newMine", 1 );
+		assertEquals( 50, copy.getBlocksByMine().size() );
+		assertNotSame( data.getTokensByMine(), copy.getTokensByMine() );
+	}
+}
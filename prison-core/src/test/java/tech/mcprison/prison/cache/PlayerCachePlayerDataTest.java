@@ -0,0 +1,109 @@
+package tech.mcprison.prison.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class PlayerCachePlayerDataTest
+{
+
+	@Test
+	public void testMergeLoadingPlaceholder() {
+
+		PlayerCachePlayerData loaded = new PlayerCachePlayerData();
+		loaded.setBlocksTotal( 1000 );
+		loaded.getBlocksByMine().put( "a", 1000 );
+		loaded.addTokens( 50, "a" );
+
+		PlayerCachePlayerData placeholder = new PlayerCachePlayerData();
+		placeholder.setLoading( true );
+
+		// These would be buffered while the player's data is being loaded:
+		placeholder.setBlocksTotal( 25 );
+		placeholder.getBlocksByMine().put( "a", 20 );
+		placeholder.getBlocksByMine().put( "b", 5 );
+		placeholder.addTokens( 7, "b" );
+		placeholder.addTokensAdmin( 3 );
+		placeholder.removeTokensAdmin( 1 );
+
+		assertTrue( loaded.mergeLoadingPlaceholder( placeholder ) );
+		assertFalse( placeholder.isLoading() );
+
+		assertEquals( 1025, loaded.getBlocksTotal() );
+		assertEquals( 1020, (int) loaded.getBlocksByMine().get( "a" ) );
+		assertEquals( 5, (int) loaded.getBlocksByMine().get( "b" ) );
+
+		assertEquals( 50 + 7 + 3 - 1, loaded.getTokens() );
+		assertEquals( 57, loaded.getTokensTotal() );
+		assertEquals( 3, loaded.getTokensTotalAdminAdded() );
+		assertEquals( 1, loaded.getTokensTotalAdminRemoved() );
+		assertEquals( 7, (long) loaded.getTokensByMine().get( "b" ) );
+		assertTrue( loaded.isDirty() );
+
+		// A placeholder can only be merged once:
+		assertFalse( new PlayerCachePlayerData().mergeLoadingPlaceholder( placeholder ) );
+		assertFalse( loaded.mergeLoadingPlaceholder( placeholder ) );
+		assertEquals( 1025, loaded.getBlocksTotal() );
+	}
+
+	@Test
+	public void testUpdatesAfterMerge() {
+
+		PlayerCachePlayerData loaded = new PlayerCachePlayerData();
+		loaded.addTokens( 100 );
+
+		PlayerCachePlayerData placeholder = new PlayerCachePlayerData();
+		placeholder.setLoading( true );
+
+		// The balance is not known yet, so it is set when merged:
+		placeholder.removeTokens( 10 );
+		placeholder.setTokensAdmin( 40 );
+		placeholder.addTokens( 2 );
+
+		assertTrue( loaded.mergeLoadingPlaceholder( placeholder ) );
+		assertEquals( 42, loaded.getTokens() );
+		assertEquals( 60, loaded.getTokensTotalAdminRemoved() );
+
+		// Threads that still hold the placeholder are forwarded to the loaded data:
+		placeholder.addTokens( 5, "a" );
+		placeholder.removeTokens( 1 );
+
+		assertEquals( 46, loaded.getTokens() );
+		assertEquals( 5, (long) loaded.getTokensByMine().get( "a" ) );
+
+		// The placeholder only has what was buffered before the merge:
+		assertEquals( 2, placeholder.getTokens() );
+	}
+
+	@Test
+	public void testConcurrentMerge()
+			throws InterruptedException {
+
+		PlayerCachePlayerData loaded = new PlayerCachePlayerData();
+
+		PlayerCachePlayerData placeholder = new PlayerCachePlayerData();
+		placeholder.setLoading( true );
+
+		Thread[] threads = new Thread[4];
+		for ( int t = 0; t < threads.length; t++ ) {
+			threads[t] = new Thread( () -> {
+				for ( int i = 0; i < 10000; i++ ) {
+					placeholder.addTokens( 1 );
+				}
+			});
+			threads[t].start();
+		}
+
+		loaded.mergeLoadingPlaceholder( placeholder );
+
+		for ( Thread thread : threads ) {
+			thread.join();
+		}
+
+		// No updates are lost, no matter when the merge happened:
+		assertEquals( 40000, loaded.getTokens() );
+		assertEquals( 40000, loaded.getTokensTotal() );
+	}
+}
@@ -0,0 +1,124 @@
+package tech.mcprison.prison.internal.block;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.TestWorld;
+import tech.mcprison.prison.util.Location;
+
+public class MineTargetBlockStoreTest
+{
+
+	@Test
+	public void testIndexOrder() {
+
+		TestWorld world = new TestWorld( "test" );
+
+		MineTargetBlockStore store = new MineTargetBlockStore( world, 10, 12, 50, 53, -2, 1 );
+
+		assertEquals( 3 * 4 * 4, store.getCapacity() );
+
+		// Must follow the same order as the mine reset: top layer first, then x, then z:
+		int expected = 0;
+		for ( int y = 53; y >= 50; y-- ) {
+			for ( int x = 10; x <= 12; x++ ) {
+				for ( int z = -2; z <= 1; z++ ) {
+
+					int index = store.indexOf( x, y, z );
+					assertEquals( expected++, index );
+
+					assertEquals( x, store.getX( index ) );
+					assertEquals( y, store.getY( index ) );
+					assertEquals( z, store.getZ( index ) );
+				}
+			}
+		}
+
+		assertEquals( -1, store.indexOf( 9, 50, 0 ) );
+		assertEquals( -1, store.indexOf( 10, 54, 0 ) );
+		assertEquals( -1, store.indexOf( 10, 50, 2 ) );
+	}
+
+	@Test
+	public void testAddAndStatus() {
+
+		TestWorld world = new TestWorld( "test" );
+
+		MineTargetBlockStore store = new MineTargetBlockStore( world, 0, 2, 0, 2, 0, 2 );
+
+		PrisonBlock stone = new PrisonBlock( "stone" );
+		PrisonBlock air = PrisonBlock.AIR.clone();
+
+		assertEquals( 0, store.size() );
+
+		store.add( stone, 0, 2, 0 );
+		store.add( air, 0, 2, 1 );
+		store.add( stone, 1, 1, 1 );
+
+		assertEquals( store.indexOf( 1, 1, 1 ) + 1, store.size() );
+
+		MineTargetPrisonBlock corner = store.getTargetBlock( 0, 2, 0 );
+		assertSame( stone, corner.getPrisonBlock() );
+		assertTrue( corner.isEdge() );
+		assertTrue( corner.isCorner() );
+		assertFalse( corner.isAirBroke() );
+
+		MineTargetPrisonBlock edge = store.getTargetBlock( 0, 2, 1 );
+		assertSame( air, edge.getPrisonBlock() );
+		assertTrue( edge.isEdge() );
+		assertFalse( edge.isCorner() );
+		assertTrue( edge.isAirBroke() );
+
+		MineTargetPrisonBlock center = store.getTargetBlock( 1, 1, 1 );
+		assertFalse( center.isEdge() );
+		assertFalse( center.isCorner() );
+
+		// Not set yet, so it is not within the store:
+		assertNull( store.getTargetBlock( 0, 2, 2 ) );
+		assertNull( store.get( store.indexOf( 0, 2, 2 ) ) );
+
+		// Outside of the store:
+		assertNull( store.getTargetBlock( 5, 5, 5 ) );
+
+		center.setMined( true );
+		center.setCounted( true );
+
+		MineTargetPrisonBlock centerAgain = store.getTargetBlock(
+							new Location( world, 1, 1, 1 ) );
+		assertEquals( center, centerAgain );
+		assertTrue( centerAgain.isMined() );
+		assertTrue( centerAgain.isCounted() );
+		assertTrue( store.isMined( 1, 1, 1 ) );
+		assertFalse( store.isMined( 0, 2, 0 ) );
+		assertFalse( store.isMined( 0, 2, 2 ) );
+		assertFalse( store.isMined( 5, 5, 5 ) );
+		assertFalse( centerAgain.isExploded() );
+		assertFalse( centerAgain.isIgnoreAllBlockEvents() );
+
+		centerAgain.setPrisonBlock( air );
+		assertSame( air, center.getPrisonBlock() );
+		assertTrue( center.isMined() );
+
+		// Setting a block again resets all of the status flags:
+		store.add( stone, 1, 1, 1 );
+		assertFalse( center.isMined() );
+		assertFalse( store.isMined( 1, 1, 1 ) );
+		assertFalse( center.isCounted() );
+		assertSame( stone, center.getPrisonBlock() );
+	}
+
+	@Test
+	public void testOtherWorld() {
+
+		MineTargetBlockStore store = new MineTargetBlockStore( new TestWorld( "test" ), 0, 2, 0, 2, 0, 2 );
+		store.add( new PrisonBlock( "stone" ), 1, 1, 1 );
+
+		assertTrue( store.getTargetBlock( new Location( new TestWorld( "test" ), 1, 1, 1 ) ) != null );
+		assertNull( store.getTargetBlock( new Location( new TestWorld( "other" ), 1, 1, 1 ) ) );
+	}
+}
@@ -0,0 +1,44 @@
+package tech.mcprison.prison.localization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class LocaleMessageTemplateTest
+{
+
+	@Test
+	public void testFormat() {
+
+		LocaleMessageTemplate template = new LocaleMessageTemplate( "&7Mine %1 was reset by %2 in %3 seconds." );
+
+		assertEquals( 3, template.getSlotCount() );
+		assertEquals( "&7Mine a was reset by Steve in 1.5 seconds.",
+				template.format( "a", "Steve", "1.5" ) );
+
+		// Replacement text is not treated as a regex replacement:
+		assertEquals( "&7Mine $1 was reset by \\ in %3 seconds.",
+				template.format( "$1", "\\" ) );
+
+		// The arguments are not searched for slots:
+		assertEquals( "&7Mine %2 was reset by b in %3 seconds.",
+				template.format( "%2", "b" ) );
+	}
+
+	@Test
+	public void testSlots() {
+
+		String message = "100% of %10 %0 %";
+		LocaleMessageTemplate template = new LocaleMessageTemplate( message );
+
+		// Only %1 is a slot, since it would have been replaced before %10:
+		assertEquals( 1, template.getSlotCount() );
+		assertEquals( "100% of x0 %0 %", template.format( "x" ) );
+
+		assertSame( message, template.format() );
+		assertEquals( "", new LocaleMessageTemplate( "" ).format( "a" ) );
+		assertEquals( "%1%1", new LocaleMessageTemplate( "%1%1" ).format() );
+		assertEquals( "aa", new LocaleMessageTemplate( "%1%1" ).format( "a" ) );
+	}
+}
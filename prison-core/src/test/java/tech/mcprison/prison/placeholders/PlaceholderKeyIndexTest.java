@@ -0,0 +1,83 @@
+package tech.mcprison.prison.placeholders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.placeholders.PlaceholderManager.PrisonPlaceHolders;
+
+public class PlaceholderKeyIndexTest
+{
+
+	private List<PlaceHolderKey> createMineKeys( String... mineNames ) {
+		List<PlaceHolderKey> results = new ArrayList<>();
+
+		for ( String mineName : mineNames ) {
+			PrisonPlaceHolders ph = PrisonPlaceHolders.prison_mines_timeleft_minename;
+
+			String key = ph.name().replace(
+					PlaceholderManager.PRISON_PLACEHOLDER_MINENAME_SUFFIX, "_" + mineName ).toLowerCase();
+
+			results.add( new PlaceHolderKey( key, ph, mineName ) );
+		}
+
+		return results;
+	}
+
+	@Test
+	public void testFind() {
+
+		List<PlaceHolderKey> mineKeys = createMineKeys( "a", "b", "Big" );
+
+		List<PlaceHolderKey> playerKeys = new ArrayList<>();
+		playerKeys.add( new PlaceHolderKey( PrisonPlaceHolders.prison_player_balance.name(),
+						PrisonPlaceHolders.prison_player_balance ) );
+
+		PlaceholderKeyIndex index = new PlaceholderKeyIndex( mineKeys, playerKeys, null );
+
+		assertEquals( 4, index.size() );
+
+		PlaceholderIdentifier identifier = index.createIdentifier( "{prison_mines_timeleft_big}" );
+		assertSame( mineKeys.get( 2 ), index.find( identifier ) );
+		assertSame( mineKeys.get( 2 ), identifier.getPlaceholderKey() );
+
+		// Without the prison_ prefix, and with an attribute:
+		identifier = index.createIdentifier( "player_balance::nFormat:#,##0" );
+		assertSame( playerKeys.get( 0 ), index.find( identifier ) );
+		assertEquals( 1, identifier.getAttributes().size() );
+
+		identifier = index.createIdentifier( "prison_mines_timeleft_c" );
+		assertNull( index.find( identifier ) );
+		assertNull( identifier.getPlaceholderKey() );
+
+		assertTrue( index.isCurrent( mineKeys, playerKeys, null ) );
+		assertFalse( index.isCurrent( createMineKeys( "a" ), playerKeys, null ) );
+	}
+
+	@Test
+	public void testParsedIdentifiers() {
+
+		PlaceholderKeyIndex index = new PlaceholderKeyIndex();
+
+		PlaceholderIdentifier identifier = index.createIdentifier( "%prison_top_player_name_05_tp%" );
+		identifier.setText( "player1" );
+		identifier.setFoundAMatch( true );
+
+		PlaceholderIdentifier identifier2 = index.createIdentifier( "%prison_top_player_name_05_tp%" );
+
+		assertEquals( "prison_top_player_name_nnn_tp", identifier2.getIdentifier() );
+		assertEquals( 5, identifier2.getSequence() );
+		assertEquals( "%", identifier2.getEscapeLeft() );
+
+		// The results are not shared:
+		assertNull( identifier2.getText() );
+		assertFalse( identifier2.isFoundAMatch() );
+	}
+}
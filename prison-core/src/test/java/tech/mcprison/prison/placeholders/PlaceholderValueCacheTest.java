@@ -0,0 +1,135 @@
+package tech.mcprison.prison.placeholders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.UUID;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.TestPlayer;
+import tech.mcprison.prison.placeholders.PlaceholderManager.PrisonPlaceHolders;
+import tech.mcprison.prison.placeholders.PlaceholderValueCache.PlaceholderCacheFamily;
+
+public class PlaceholderValueCacheTest
+{
+
+	private PlaceholderIdentifier createIdentifier( String raw, PrisonPlaceHolders ph ) {
+
+		PlaceholderIdentifier identifier = new PlaceholderIdentifier( raw );
+		identifier.checkPlaceholderKey( new PlaceHolderKey( ph.name(), ph ) );
+		identifier.setFoundAMatch( true );
+
+		return identifier;
+	}
+
+	@Test
+	public void testFamilies() {
+
+		assertEquals( PlaceholderCacheFamily.balance,
+				PlaceholderValueCache.getPlaceholderFamily( PrisonPlaceHolders.prison_player_balance ) );
+
+		// The alias is in the same family:
+		assertEquals( PlaceholderCacheFamily.balance,
+				PlaceholderValueCache.getPlaceholderFamily( PrisonPlaceHolders.prison_pb ) );
+
+		assertEquals( PlaceholderCacheFamily.leaderboard,
+				PlaceholderValueCache.getPlaceholderFamily( PrisonPlaceHolders.prison_top_player_name_nnn_tp ) );
+
+		assertEquals( PlaceholderCacheFamily.mines,
+				PlaceholderValueCache.getPlaceholderFamily( PrisonPlaceHolders.prison_mines_timeleft_minename ) );
+
+		assertEquals( PlaceholderCacheFamily.player,
+				PlaceholderValueCache.getPlaceholderFamily( PrisonPlaceHolders.prison_player_health ) );
+
+		assertEquals( PlaceholderCacheFamily.other,
+				PlaceholderValueCache.getPlaceholderFamily( PrisonPlaceHolders.prison_rank ) );
+	}
+
+	@Test
+	public void testExpires() {
+
+		PlaceholderValueCache valueCache = new PlaceholderValueCache();
+
+		PlaceholderIdentifier identifier = createIdentifier(
+				"prison_player_balance", PrisonPlaceHolders.prison_player_balance );
+
+		valueCache.putCachedText( identifier, "1,000", 10000 );
+
+		// A new identifier for the same placeholder:
+		PlaceholderIdentifier identifier2 = createIdentifier(
+				"prison_player_balance", PrisonPlaceHolders.prison_player_balance );
+
+		assertEquals( "1,000", valueCache.getCachedText( identifier2, 10999 ) );
+		assertNull( valueCache.getCachedText( identifier2, 11000 ) );
+		assertEquals( 0, valueCache.size() );
+
+		// The attributes are part of the key:
+		valueCache.putCachedText( identifier, "1,000", 10000 );
+		PlaceholderIdentifier identifier3 = createIdentifier(
+				"prison_player_balance::nFormat:#,##0.00", PrisonPlaceHolders.prison_player_balance );
+
+		assertNull( valueCache.getCachedText( identifier3, 10001 ) );
+	}
+
+	@Test
+	public void testDisabledAndUnmatched() {
+
+		PlaceholderValueCache valueCache = new PlaceholderValueCache();
+		valueCache.setTtl( PlaceholderCacheFamily.player, 0 );
+
+		PlaceholderIdentifier identifier = createIdentifier(
+				"prison_player_health", PrisonPlaceHolders.prison_player_health );
+
+		valueCache.putCachedText( identifier, "20", 10000 );
+		assertNull( valueCache.getCachedText( identifier, 10000 ) );
+
+		// Without a placeholderKey it cannot be cached:
+		PlaceholderIdentifier identifier2 = new PlaceholderIdentifier( "prison_rank" );
+		identifier2.setFoundAMatch( true );
+
+		valueCache.putCachedText( identifier2, "A", 10000 );
+		assertEquals( 0, valueCache.size() );
+	}
+
+	private TestPlayer createPlayer( UUID uuid ) {
+		return new TestPlayer() {
+			@Override public UUID getUUID() {
+				return uuid;
+			}
+		};
+	}
+
+	@Test
+	public void testPlayerRankMultipliers() {
+
+		PlaceholderValueCache valueCache = new PlaceholderValueCache();
+
+		// The rank cost multiplier is a RANKS placeholder, but it is different for each player:
+		PlaceholderIdentifier identifier = createIdentifier(
+				"prison_rank__cost_multiplier_rankname", PrisonPlaceHolders.prison_rank__cost_multiplier_rankname );
+		identifier.setPlayer( createPlayer( UUID.randomUUID() ) );
+
+		PlaceholderIdentifier identifier2 = createIdentifier(
+				"prison_rank__cost_multiplier_rankname", PrisonPlaceHolders.prison_rank__cost_multiplier_rankname );
+		identifier2.setPlayer( createPlayer( UUID.randomUUID() ) );
+
+		valueCache.putCachedText( identifier, "1.5", 10000 );
+		assertNull( valueCache.getCachedText( identifier2, 10001 ) );
+
+		valueCache.putCachedText( identifier2, "2.25", 10000 );
+		assertEquals( "1.5", valueCache.getCachedText( identifier, 10001 ) );
+		assertEquals( "2.25", valueCache.getCachedText( identifier2, 10001 ) );
+
+		// The other rank placeholders are still shared:
+		PlaceholderIdentifier identifier3 = createIdentifier(
+				"prison_rank__cost_rankname", PrisonPlaceHolders.prison_rank__cost_rankname );
+		identifier3.setPlayer( createPlayer( UUID.randomUUID() ) );
+		PlaceholderIdentifier identifier4 = createIdentifier(
+				"prison_rank__cost_rankname", PrisonPlaceHolders.prison_rank__cost_rankname );
+		identifier4.setPlayer( createPlayer( UUID.randomUUID() ) );
+
+		valueCache.putCachedText( identifier3, "1,000", 10000 );
+		assertEquals( "1,000", valueCache.getCachedText( identifier4, 10001 ) );
+	}
+}
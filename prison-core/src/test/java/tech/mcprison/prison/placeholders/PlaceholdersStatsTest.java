@@ -0,0 +1,76 @@
+package tech.mcprison.prison.placeholders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.placeholders.PlaceholderManager.PrisonPlaceHolders;
+
+public class PlaceholdersStatsTest
+{
+
+	@Test
+	public void testEvictsFailuresFirst() {
+
+		PlaceholdersStats pStats = PlaceholdersStats.getInstance();
+		pStats.getPlaceholders().clear();
+		pStats.setMaxPlaceholders( 10 );
+
+		try {
+			PlaceholderIdentifier valid = new PlaceholderIdentifier( "prison_player_balance" );
+			PlaceholderStatsData validStats = pStats.getStats( valid );
+			validStats.setPlaceholderKey( new PlaceHolderKey( PrisonPlaceHolders.prison_player_balance.name(),
+									PrisonPlaceHolders.prison_player_balance ) );
+
+			// The valid placeholder is the coldest entry, but it is not a failure:
+			validStats.setLastUsed( 0 );
+
+			for ( int i = 0; i < 20; i++ ) {
+				PlaceholderIdentifier unknown = new PlaceholderIdentifier( "prison_unknown_" + i );
+				PlaceholderStatsData stats = pStats.getStats( unknown );
+				stats.setLastUsed( 1000 + i );
+
+				pStats.setStats( unknown, stats, 0, 10 );
+				assertTrue( stats.isFailedMatch() );
+			}
+
+			assertTrue( pStats.getPlaceholders().size() <= 10 );
+			assertSame( validStats, pStats.getPlaceholders().get( "prison_player_balance" ) );
+
+			// The newest failure is kept, and the oldest are removed:
+			assertNotNull( pStats.getPlaceholders().get( "prison_unknown_19" ) );
+			assertNull( pStats.getPlaceholders().get( "prison_unknown_0" ) );
+
+			// The placeholderKey is assigned from the stats:
+			PlaceholderIdentifier valid2 = new PlaceholderIdentifier( "prison_player_balance" );
+			pStats.getStats( valid2 );
+			assertSame( validStats.getPlaceholderKey(), valid2.getPlaceholderKey() );
+		}
+		finally {
+			pStats.getPlaceholders().clear();
+			pStats.setMaxPlaceholders( PlaceholdersStats.DEFAULT_MAX_PLACEHOLDERS );
+		}
+	}
+
+	@Test
+	public void testCounters() {
+
+		PlaceholderStatsData stats = new PlaceholderStatsData( "prison_rank" );
+		PlaceholderIdentifier pId = new PlaceholderIdentifier( "prison_rank" );
+		pId.setFoundAMatch( true );
+
+		stats.updateStats( pId, 100, 150 );
+		stats.updateStats( pId, 200, 250 );
+
+		pId.setFoundAMatch( false );
+		stats.updateStats( pId, 300, 310 );
+
+		assertEquals( 2, stats.getHits() );
+		assertEquals( 1, stats.getFailHits() );
+		assertEquals( 110, stats.getTotalDurationNanos() );
+	}
+}
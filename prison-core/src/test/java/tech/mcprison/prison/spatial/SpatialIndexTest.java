@@ -0,0 +1,86 @@
+package tech.mcprison.prison.spatial;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.TestWorld;
+import tech.mcprison.prison.util.Bounds;
+import tech.mcprison.prison.util.Location;
+
+public class SpatialIndexTest
+{
+
+	private Bounds bounds( TestWorld world, int x1, int y1, int z1, int x2, int y2, int z2 ) {
+		return new Bounds( new Location( world, x1, y1, z1 ), new Location( world, x2, y2, z2 ) );
+	}
+
+	@Test
+	public void testFind() {
+
+		TestWorld world = new TestWorld( "world" );
+		TestWorld other = new TestWorld( "other" );
+
+		SpatialIndex<String> index = new SpatialIndex<>();
+
+		// Spans many grid cells, including negative coordinates:
+		index.put( "a", bounds( world, -60, 10, -60, 60, 50, 60 ) );
+		index.put( "b", bounds( world, 100, 10, 100, 110, 20, 110 ) );
+		index.put( "c", bounds( other, 0, 10, 0, 10, 20, 10 ) );
+
+		assertEquals( 3, index.size() );
+
+		assertEquals( "a", index.find( new Location( world, -60, 10, -60 ) ) );
+		assertEquals( "a", index.find( new Location( world, 60.9, 50.9, 60.9 ) ) );
+		assertEquals( "a", index.find( new Location( world, 0.5, 30, -0.5 ) ) );
+		assertNull( index.find( new Location( world, -60.1, 10, 0 ) ) );
+		assertNull( index.find( new Location( world, 0, 51, 0 ) ) );
+
+		assertEquals( "b", index.find( new Location( world, 105, 15, 105 ) ) );
+		assertNull( index.find( new Location( world, 105, 15, 111 ) ) );
+
+		// The world names are not case sensitive, just like the Bounds:
+		assertEquals( "c", index.find( new Location( new TestWorld( "OTHER" ), 5, 15, 5 ) ) );
+		assertNull( index.find( new Location( other, 105, 15, 105 ) ) );
+
+		// Same as Bounds.withinIncludeTopBottomOfMine():
+		assertNull( index.find( new Location( world, 105, 21, 105 ) ) );
+		assertEquals( "b", index.find( new Location( world, 105, 21, 105 ), true, true ) );
+		assertEquals( "b", index.find( new Location( world, 105, 9, 105 ), true, true ) );
+		assertNull( index.find( new Location( world, 105, 8, 105 ), true, true ) );
+
+		assertNull( index.find( null ) );
+		assertNull( index.find( new Location( null, 0.0, 0.0, 0.0 ) ) );
+	}
+
+	@Test
+	public void testMoveAndRemove() {
+
+		TestWorld world = new TestWorld( "world" );
+
+		SpatialIndex<String> index = new SpatialIndex<>();
+
+		index.put( "a", bounds( world, 0, 10, 0, 10, 20, 10 ) );
+		assertEquals( "a", index.find( new Location( world, 5, 15, 5 ) ) );
+
+		// Moved:
+		index.put( "a", bounds( world, 500, 10, 500, 510, 20, 510 ) );
+		assertNull( index.find( new Location( world, 5, 15, 5 ) ) );
+		assertEquals( "a", index.find( new Location( world, 505, 15, 505 ) ) );
+		assertEquals( 1, index.size() );
+
+		// Overlapping entries return the first one that was added:
+		index.put( "b", bounds( world, 490, 10, 490, 520, 20, 520 ) );
+		assertEquals( "a", index.find( new Location( world, 505, 15, 505 ) ) );
+		assertEquals( "b", index.find( new Location( world, 495, 15, 495 ) ) );
+
+		index.remove( "a" );
+		assertEquals( "b", index.find( new Location( world, 505, 15, 505 ) ) );
+
+		// A null bounds removes it, like a virtual mine:
+		index.put( "b", null );
+		assertNull( index.find( new Location( world, 505, 15, 505 ) ) );
+		assertEquals( 0, index.size() );
+	}
+}
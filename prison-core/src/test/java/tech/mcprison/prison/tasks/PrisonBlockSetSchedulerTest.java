@@ -0,0 +1,220 @@
+package tech.mcprison.prison.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class PrisonBlockSetSchedulerTest
+{
+
+	/**
+	 * <p>The time only moves when a block is set, so the number of blocks that
+	 * fit in a budget does not depend on how fast the machine is.
+	 * </p>
+	 */
+	private long now = 0;
+
+	private PrisonBlockSetScheduler createScheduler() {
+		return new PrisonBlockSetScheduler( () -> now );
+	}
+
+	/**
+	 * <p>A job that takes a fixed amount of time per block, and records
+	 * the order in which the blocks were set.
+	 * </p>
+	 */
+	private class TestJob
+		implements PrisonBlockSetJob
+	{
+		private final String name;
+		private final List<String> log;
+		private final long nanosPerBlock;
+
+		private int remaining;
+
+		public TestJob( String name, int blocks, long nanosPerBlock, List<String> log ) {
+			this.name = name;
+			this.remaining = blocks;
+			this.nanosPerBlock = nanosPerBlock;
+			this.log = log;
+		}
+
+		@Override
+		public boolean runJob( long deadlineNanos ) {
+			do {
+				now += nanosPerBlock;
+
+				remaining--;
+				log.add( name );
+			}
+			while ( remaining > 0 && now < deadlineNanos );
+
+			return remaining == 0;
+		}
+
+		@Override
+		public int getRemainingBlocks() {
+			return remaining;
+		}
+	}
+
+	private int count( List<String> log, String name ) {
+		int results = 0;
+		for ( String entry : log ) {
+			if ( name.equals( entry ) ) {
+				results++;
+			}
+		}
+		return results;
+	}
+
+	@Test
+	public void testBudgetAndCompletion() {
+
+		PrisonBlockSetScheduler scheduler = createScheduler();
+		List<String> log = new ArrayList<>();
+
+		PrisonBlockSetOwner owner = scheduler.getOwner( "a" );
+
+		// 200 blocks at 50 micro seconds is 10 ms of work:
+		scheduler.addJob( owner, new TestJob( "a", 100, 50000, log ) );
+		scheduler.addJob( owner, new TestJob( "a", 100, 50000, log ) );
+
+		assertEquals( 200, owner.getPendingBlocks() );
+
+		// A 2 ms budget only has time for 40 blocks:
+		scheduler.runTick( 2000000 );
+
+		assertTrue( owner.hasPendingJobs() );
+		assertEquals( 40, log.size() );
+		assertEquals( 160, owner.getPendingBlocks() );
+
+		int ticks = 1;
+		while ( owner.hasPendingJobs() && ticks < 1000 ) {
+			scheduler.runTick( 2000000 );
+			ticks++;
+		}
+
+		// The second job is started in the same tick that the first one finished:
+		assertFalse( owner.hasPendingJobs() );
+		assertEquals( 200, log.size() );
+		assertEquals( 2, owner.getStatsJobsCompleted() );
+		assertEquals( 5, ticks );
+
+		assertEquals( ticks, scheduler.getStatsTicks() );
+		assertEquals( 100.0d, scheduler.getUtilization(), 0.001d );
+
+		// No more work:
+		assertEquals( 0, scheduler.runTick( 2000000 ) );
+		assertEquals( ticks, scheduler.getStatsTicks() );
+	}
+
+	@Test
+	public void testPriorityAndFairness() {
+
+		PrisonBlockSetScheduler scheduler = createScheduler();
+		List<String> log = new ArrayList<>();
+
+		PrisonBlockSetOwner ownerA = scheduler.getOwner( "a" );
+		PrisonBlockSetOwner ownerB = scheduler.getOwner( "b" );
+		PrisonBlockSetOwner ownerC = scheduler.getOwner( "c" );
+
+		ownerC.setPriority( true );
+
+		scheduler.addJob( ownerA, new TestJob( "a", 1000, 20000, log ) );
+		scheduler.addJob( ownerB, new TestJob( "b", 1000, 20000, log ) );
+		scheduler.addJob( ownerC, new TestJob( "c", 1000, 20000, log ) );
+
+		// A 5 ms budget is 250 blocks.  The priority owner has 3 of the 5 shares:
+		scheduler.runTick( 5000000 );
+
+		// The owner with priority is always ran first:
+		assertEquals( "c", log.get( 0 ) );
+		assertEquals( 150, count( log, "c" ) );
+		assertEquals( 50, count( log, "a" ) );
+		assertEquals( 50, count( log, "b" ) );
+
+		// The order of the owners without priority is rotated, but they always
+		// get the same share:
+		String secondOwner = log.get( 150 );
+		scheduler.runTick( 5000000 );
+
+		assertEquals( 300, count( log, "c" ) );
+		assertEquals( 100, count( log, "a" ) );
+		assertEquals( 100, count( log, "b" ) );
+		assertFalse( secondOwner.equals( log.get( 400 ) ) );
+	}
+
+	@Test
+	public void testCallbackAfterJobs() {
+
+		PrisonBlockSetScheduler scheduler = createScheduler();
+		List<String> log = new ArrayList<>();
+
+		PrisonBlockSetOwner owner = scheduler.getOwner( "a" );
+
+		scheduler.addJob( owner, new TestJob( "a", 100, 50000, log ) );
+		scheduler.addCallback( owner, () -> log.add( "callback" ) );
+		scheduler.addJob( owner, new TestJob( "a", 100, 50000, log ) );
+
+		int ticks = 0;
+		while ( owner.hasPendingJobs() && ticks < 1000 ) {
+			scheduler.runTick( 2000000 );
+			ticks++;
+		}
+
+		// The callback is ran after the blocks before it, and before the blocks after it:
+		assertEquals( 201, log.size() );
+		assertEquals( "callback", log.get( 100 ) );
+		assertEquals( 0, owner.getPendingBlocks() );
+	}
+
+	@Test
+	public void testOwnersRemoved() {
+
+		PrisonBlockSetScheduler scheduler = createScheduler();
+		List<String> log = new ArrayList<>();
+
+		// An owner that is not held is removed once it is finished:
+		PrisonBlockSetOwner ownerA = scheduler.getOwner( "a" );
+		assertSame( ownerA, scheduler.getOwner( "a" ) );
+
+		scheduler.addJob( ownerA, new TestJob( "a", 10, 1000, log ) );
+		scheduler.runTick( 100000000 );
+
+		assertFalse( ownerA.hasPendingJobs() );
+		assertNotSame( ownerA, scheduler.getOwner( "a" ) );
+
+		// An owner that is held by a reset is kept between pages, so everything
+		// that is submitted for the mine shares the same owner:
+		PrisonBlockSetOwner ownerB = scheduler.acquireOwner( "b" );
+		assertSame( ownerB, scheduler.getOwner( "b" ) );
+
+		scheduler.addJob( ownerB, new TestJob( "b", 10, 1000, log ) );
+		scheduler.runTick( 100000000 );
+
+		assertFalse( ownerB.hasPendingJobs() );
+		assertSame( ownerB, scheduler.getOwner( "b" ) );
+
+		// Released with pending jobs, it is kept until they are finished:
+		scheduler.addJob( ownerB, new TestJob( "b", 10, 1000, log ) );
+		scheduler.releaseOwner( ownerB );
+		assertSame( ownerB, scheduler.getOwner( "b" ) );
+
+		scheduler.runTick( 100000000 );
+		assertEquals( 30, log.size() );
+		assertNotSame( ownerB, scheduler.getOwner( "b" ) );
+
+		// Owners of deleted mines are removed, even if they are held:
+		PrisonBlockSetOwner ownerC = scheduler.acquireOwner( "c" );
+		scheduler.removeOwner( "c" );
+		assertNotSame( ownerC, scheduler.getOwner( "c" ) );
+	}
+}
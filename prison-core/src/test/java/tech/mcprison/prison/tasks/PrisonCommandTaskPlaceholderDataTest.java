@@ -0,0 +1,37 @@
+package tech.mcprison.prison.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.tasks.PrisonCommandTaskData.CustomPlaceholders;
+
+public class PrisonCommandTaskPlaceholderDataTest
+{
+
+	@Test
+	public void testLazyValue() {
+
+		AtomicInteger calls = new AtomicInteger();
+
+		PrisonCommandTaskPlaceholderData cph = new PrisonCommandTaskPlaceholderData(
+				CustomPlaceholders.player, () -> "value" + calls.incrementAndGet() );
+
+		String task = "give {actionBar} diamond";
+
+		// The value is not needed, so it is never formatted:
+		assertFalse( cph.contains( task ) );
+		assertEquals( 0, calls.get() );
+
+		task = "give {player} diamond {player}";
+		assertEquals( "give value1 diamond value1", cph.replace( task ) );
+		assertEquals( "value1", cph.getValue() );
+		assertEquals( 1, calls.get() );
+
+		cph.setValue( "other" );
+		assertEquals( "other", cph.getValue() );
+	}
+}
@@ -0,0 +1,56 @@
+package tech.mcprison.prison.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.TestPlayer;
+import tech.mcprison.prison.tasks.PrisonCommandTaskData.CustomPlaceholders;
+import tech.mcprison.prison.tasks.PrisonCommandTaskData.TaskMode;
+
+public class PrisonCommandTemplateTest
+{
+
+	@Test
+	public void testTaskModes() {
+
+		PrisonCommandTemplate template = PrisonCommandTemplate.getTemplate( "{inline}give {player} diamond 1" );
+
+		assertEquals( TaskMode.inline, template.getTaskMode() );
+		assertEquals( "give {player} diamond 1", template.getCommand() );
+		assertSame( template, PrisonCommandTemplate.getTemplate( "{inline}give {player} diamond 1" ) );
+
+		template = PrisonCommandTemplate.getTemplate( "{syncPlayer}{inlinePlayer}spawn" );
+		assertEquals( TaskMode.syncPlayer, template.getTaskMode() );
+		assertEquals( "spawn", template.getCommand() );
+
+		assertEquals( TaskMode.sync, PrisonCommandTemplate.getTemplate( "spawn" ).getTaskMode() );
+	}
+
+	@Test
+	public void testTranslate() {
+
+		List<PrisonCommandTaskPlaceholderData> customPlaceholders = new ArrayList<>();
+		customPlaceholders.add( new PrisonCommandTaskPlaceholderData( CustomPlaceholders.mineName, "a" ) );
+		customPlaceholders.add( new PrisonCommandTaskPlaceholderData( CustomPlaceholders.mineName, "b" ) );
+		customPlaceholders.add( new PrisonCommandTaskPlaceholderData( CustomPlaceholders.blockName, "$1\\" ) );
+
+		PrisonCommandTemplate template = PrisonCommandTemplate.getTemplate(
+				"{msg}Mined {blockName} in {mineName};{broadcast}{player} {unknown} {{player}" );
+
+		TestPlayer player = new TestPlayer();
+
+		assertEquals( "prison utils msg Testing Mined $1\\ in a;prison utils broadcast Testing {unknown} {Testing",
+				template.translate( player, customPlaceholders ) );
+
+		// Without a player, the player placeholders are not translated:
+		assertEquals( "{msg}Mined $1\\ in a;prison utils broadcast {player} {unknown} {{player}",
+				template.translate( null, customPlaceholders ) );
+
+		assertEquals( "no placeholders", PrisonCommandTemplate.getTemplate( "no placeholders" ).translate( player, null ) );
+	}
+}
@@ -0,0 +1,106 @@
+package tech.mcprison.prison.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RankedTreeMapTest
+{
+
+	private static class Score {
+		private final String name;
+		private long score;
+
+		private Score( String name, long score ) {
+			this.name = name;
+			this.score = score;
+		}
+	}
+
+	private static final Comparator<Score> COMPARATOR = new Comparator<Score>() {
+		@Override
+		public int compare( Score o1, Score o2 ) {
+			int results = Long.compare( o2.score, o1.score );
+			return results != 0 ? results : o1.name.compareTo( o2.name );
+		}
+	};
+
+	@Test
+	public void testRankPositions() {
+
+		RankedTreeMap<String, Score> ranked = new RankedTreeMap<>( COMPARATOR );
+
+		ranked.put( "a", new Score( "a", 10 ) );
+		ranked.put( "b", new Score( "b", 30 ) );
+		ranked.put( "c", new Score( "c", 20 ) );
+
+		assertEquals( 3, ranked.size() );
+		assertEquals( "b", ranked.getByRank( 0 ).name );
+		assertEquals( "c", ranked.getByRank( 1 ).name );
+		assertEquals( "a", ranked.getByRank( 2 ).name );
+		assertNull( ranked.getByRank( 3 ) );
+		assertNull( ranked.getByRank( -1 ) );
+
+		// The score is changed before it is put again:
+		Score a = ranked.get( "a" );
+		a.score = 40;
+		ranked.put( "a", a );
+
+		assertEquals( 3, ranked.size() );
+		assertEquals( 0, ranked.getRank( "a" ) );
+		assertEquals( 1, ranked.getRank( "b" ) );
+		assertEquals( 2, ranked.getRank( "c" ) );
+		assertEquals( -1, ranked.getRank( "d" ) );
+
+		assertEquals( "b", ranked.remove( "b" ).name );
+		assertEquals( 1, ranked.getRank( "c" ) );
+		assertEquals( 2, ranked.values().size() );
+	}
+
+	@Test
+	public void testRandomUpdates() {
+
+		Random random = new Random( 42 );
+
+		RankedTreeMap<String, Score> ranked = new RankedTreeMap<>( COMPARATOR );
+		HashMap<String, Score> scores = new HashMap<>();
+
+		for ( int i = 0; i < 5000; i++ ) {
+			String key = "player" + random.nextInt( 500 );
+
+			if ( random.nextInt( 10 ) == 0 ) {
+				ranked.remove( key );
+				scores.remove( key );
+			}
+			else {
+				Score score = scores.get( key );
+				if ( score == null ) {
+					score = new Score( key, 0 );
+					scores.put( key, score );
+				}
+				score.score = random.nextInt( 100 );
+				ranked.put( key, score );
+			}
+		}
+
+		List<Score> expected = new ArrayList<>( scores.values() );
+		expected.sort( COMPARATOR );
+
+		assertEquals( expected.size(), ranked.size() );
+		assertEquals( expected, ranked.values() );
+
+		for ( int i = 0; i < expected.size(); i++ ) {
+			assertEquals( expected.get( i ), ranked.getByRank( i ) );
+			assertEquals( i, ranked.getRank( expected.get( i ).name ) );
+		}
+
+		assertEquals( expected.subList( 10, 30 ), ranked.values( 10, 20 ) );
+	}
+}
@@ -4,9 +4,12 @@ import com.google.common.eventbus.Subscribe;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.internal.Player;
+import tech.mcprison.prison.internal.events.player.PlayerKickEvent;
+import tech.mcprison.prison.internal.events.player.PlayerQuitEvent;
 import tech.mcprison.prison.internal.events.player.PlayerSuffocationEvent;
 import tech.mcprison.prison.internal.events.world.PrisonWorldLoadEvent;
 import tech.mcprison.prison.mines.data.Mine;
+import tech.mcprison.prison.mines.managers.PlayerMineCache;
 import tech.mcprison.prison.mines.tasks.MineTeleportWarmUpTask;
 import tech.mcprison.prison.selection.SelectionCompletedEvent;
 import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
@@ -35,6 +38,19 @@ public class MinesListener {
     }
     
     
+    @Subscribe
+    public void onPlayerQuit( PlayerQuitEvent e ) {
+    	
+    	PlayerMineCache.getInstance().invalidate( e.getPlayer().getUUID() );
+    }
+    
+    @Subscribe
+    public void onPlayerKicked( PlayerKickEvent e ) {
+    	
+    	PlayerMineCache.getInstance().invalidate( e.getPlayer().getUUID() );
+    }
+    
+    
     /**
      * <p>If a player is suffocating, and if they are within a mine, then based upon the config
      * settings, the play may not experience suffocation, and they may be teleported to
@@ -22,6 +22,7 @@ import java.io.File;
 import java.util.List;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.UUID;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.PrisonAPI;
@@ -37,6 +38,7 @@ import tech.mcprison.prison.mines.data.MinesConfig;
 import tech.mcprison.prison.mines.data.PrisonSortableResults;
 import tech.mcprison.prison.mines.managers.MineManager;
 import tech.mcprison.prison.mines.managers.MineManager.MineSortOrder;
+import tech.mcprison.prison.mines.managers.PlayerMineCache;
 import tech.mcprison.prison.modules.Module;
 import tech.mcprison.prison.modules.ModuleManager;
 import tech.mcprison.prison.output.Output;
@@ -69,23 +71,8 @@ public class PrisonMines extends Module {
     private MinesCommands minesCommands;
 
 
-    /**
-     * <p>playerCache tries to provide a faster way to identify which mine a player is
-     * in. The theory is that there is a very high chance it will be the last mine 
-     * they were in.  So this records the last mine they were in, and if that is not
-     * where they are, then, and only then, do we check all mines to see if it may
-     * be something else.
-     * </p>
-     * 
-     */
-	private final TreeMap<Long, Mine> playerCache;
-
-	
-    
     public PrisonMines(String version) {
         super(MODULE_NAME, version, 3);
-
-    	this.playerCache = new TreeMap<>();
     }
 
     public static PrisonMines getInstance() {
@@ -96,6 +83,18 @@ public class PrisonMines extends Module {
     	}
         return i;
     }
+    
+    /**
+     * <p>Unlike getInstance(), this will not create a temporary instance if the 
+     * mine module has not been loaded yet, so it is safe to use from within
+     * the mines themselves.
+     * </p>
+     * 
+     * @return the MineManager, or null if the mine module has not been loaded
+     */
+    public static MineManager getMineManagerIfLoaded() {
+    	return i == null ? null : i.getMineManager();
+    }
 
     @Override
     public String getBaseCommands() {
@@ -205,57 +204,63 @@ public class PrisonMines extends Module {
      * of the mines. If not, then return a null.
      * </p>
      * 
+     * <p>This uses the MineManager's spatial index, so the cost does not
+     * depend upon the number of mines.
+     * </p>
+     * 
      * @param block
      * @return
      */
 	public Mine findMineLocationExact( Location locationToCheck ) {
-		Mine mine = null;
-		for ( Mine m : getMines() ) {
-			if ( m.isInMineExact( locationToCheck ) ) {
-				mine = m;
-				break;
-			}
-		}
-		return mine;
+		return getMineManager().getMineSpatialIndex().find( locationToCheck );
 	}
 	public Mine findMineLocationIncludeTopBottomOfMine( Location locationToCheck ) {
-		Mine mine = null;
-		for ( Mine m : getMines() ) {
-			if ( m.isInMineIncludeTopBottomOfMine( locationToCheck ) ) {
-				mine = m;
-				break;
-			}
-		}
-		return mine;
+		return getMineManager().getMineSpatialIndex().find( locationToCheck, true, true );
 	}
 
+	/**
+	 * <p>The player's last mines are now cached in the thread safe 
+	 * PlayerMineCache, which is keyed on the player's full UUID.  This returns
+	 * a copy of that cache in the old format, which is keyed on the UUID's 
+	 * least significant bits, so any changes to it will not be used.
+	 * </p>
+	 * 
+	 * @deprecated Use {@link #getPlayerMineCache()} instead.
+	 * @return
+	 */
+	@Deprecated
 	public TreeMap<Long, Mine> getPlayerCache() {
-		return playerCache;
+		TreeMap<Long, Mine> results = new TreeMap<>();
+		
+		getPlayerMineCache().forEach( 
+				(playerUUID, mine) -> results.put( playerUUID.getLeastSignificantBits(), mine ) );
+		
+		return results;
+	}
+	
+	public PlayerMineCache getPlayerMineCache() {
+		return PlayerMineCache.getInstance();
 	}
 	
 	public Mine findMineLocation( Player player ) {
 		Mine results = null;
 		
-		Long playerUUIDLSB = Long.valueOf( player.getUUID().getLeastSignificantBits() );
+		UUID playerUUID = player.getUUID();
+		Location location = player.getLocation();
 		
 		// Get the cached mine, if it exists:
-		Mine mine = getPlayerCache().get( playerUUIDLSB );
+		Mine mine = getPlayerMineCache().get( playerUUID, location );
 		
-		if ( mine != null && mine.isInMineIncludeTopBottomOfMine( player.getLocation() )) {
+		if ( mine != null && mine.isInMineIncludeTopBottomOfMine( location )) {
 			results = mine;
 		}
-		else if ( player.getLocation() != null ) {
+		else if ( location != null ) {
 			// Look for the correct mine to use. 
 			// Set mine to null so if cannot find the right one it will return a null:
-			results = findMineLocationIncludeTopBottomOfMine( player.getLocation() );
+			results = findMineLocationIncludeTopBottomOfMine( location );
 			
-			// Store the mine in the player cache if not null:
-			if ( results != null ) {
-				getPlayerCache().put( playerUUIDLSB, results );
-			}
-			else {
-				getPlayerCache().remove( playerUUIDLSB );
-			}
+			// Store the mine in the player cache, or remove it if null:
+			getPlayerMineCache().put( playerUUID, results );
 		}
 
 		return results;
@@ -0,0 +1,257 @@
+package tech.mcprison.prison.mines.data;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import tech.mcprison.prison.internal.block.MineTargetBlockStore;
+import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.internal.block.PrisonBlockStatusData;
+
+/**
+ * <p>A slab is a range of levels within a mine that can be generated
+ * independently of all other levels.  Each slab has its own random number
+ * generator that is split from the reset's seed, so the same seed will
+ * always generate the same blocks, no matter how many threads are used or
+ * in which order the slabs are generated.
+ * </p>
+ *
+ * <p>The slabs can only be generated in parallel if none of the blocks have
+ * a max constraint, since the max constraint depends upon the number of
+ * blocks that have been placed in all of the prior levels.  When generated
+ * in parallel, the block placed counts and the air count are kept within the
+ * slab and are then merged back in to the mine with mergeCounts().
+ * </p>
+ *
+ */
+public class MineBlockListSlab
+	implements Callable<MineBlockListSlab>
+{
+	/**
+	 * <p>The minimum number of blocks within a slab.  The slabs must be
+	 * based upon the mine's size only, and not the number of threads,
+	 * otherwise the same seed would not generate the same blocks.
+	 * </p>
+	 */
+	public static final int MINE_RESET__BLOCK_GEN_SLAB_MIN_BLOCKS = 32768;
+
+	private static ExecutorService executor = null;
+	private static int executorThreads = 0;
+
+	private final Mine mine;
+
+	private final int firstLevel;
+	private final int lastLevel;
+	private final int maxLevels;
+
+	private final SplittableRandom random;
+
+	private final boolean deferCounts;
+
+	private int airCount = 0;
+	private final IdentityHashMap<PrisonBlock, int[]> placedCounts;
+
+
+	public MineBlockListSlab( Mine mine, int firstLevel, int lastLevel, int maxLevels,
+					SplittableRandom random, boolean deferCounts ) {
+		super();
+
+		this.mine = mine;
+
+		this.firstLevel = firstLevel;
+		this.lastLevel = lastLevel;
+		this.maxLevels = maxLevels;
+
+		this.random = random;
+
+		this.deferCounts = deferCounts;
+
+		this.placedCounts = new IdentityHashMap<>();
+	}
+
+	/**
+	 * <p>The number of levels in each slab, which is based only upon the
+	 * size of each level.
+	 * </p>
+	 *
+	 * @param blocksPerLevel
+	 * @return
+	 */
+	public static int getLevelsPerSlab( int blocksPerLevel ) {
+		return Math.max( 1,
+				(MINE_RESET__BLOCK_GEN_SLAB_MIN_BLOCKS + blocksPerLevel - 1) /
+						Math.max( 1, blocksPerLevel ) );
+	}
+
+	@Override
+	public MineBlockListSlab call() {
+
+		MineTargetBlockStore targetBlocks = mine.getMineTargetPrisonBlocks();
+
+		int yMax = mine.getBounds().getyBlockMax();
+
+		int xMin = mine.getBounds().getxBlockMin();
+		int xMax = mine.getBounds().getxBlockMax();
+
+		int zMin = mine.getBounds().getzBlockMin();
+		int zMax = mine.getBounds().getzBlockMax();
+
+		int blocksPerLevel = (xMax - xMin + 1) * (zMax - zMin + 1);
+
+		// Only one AIR block is needed if a block could not be selected:
+		PrisonBlock airBlock = PrisonBlock.AIR.clone();
+
+		for ( int currentLevel = firstLevel; currentLevel <= lastLevel; currentLevel++ ) {
+
+			// One based: First layer is currentLevel == 1, which is yMax:
+			int y = yMax - currentLevel + 1;
+
+			int position = (currentLevel - 1) * blocksPerLevel;
+
+			// This is used to select the correct block list for the given mine level:
+			MineLevelBlockListData mineLevelBlockList =
+					new MineLevelBlockListData( currentLevel, maxLevels, mine, random, position );
+
+			for (int x = xMin; x <= xMax; x++) {
+				for (int z = zMin; z <= zMax; z++) {
+
+					// updates selected block's exclude from bottom layer max value settings:
+					mineLevelBlockList.checkSelectedBlockExcludeFromBottomLayers( position++ );
+
+					PrisonBlock prisonBlock = mineLevelBlockList.randomlySelectPrisonBlock();
+
+					if ( prisonBlock == null ) {
+						prisonBlock = airBlock;
+					}
+
+					// Increment the mine's block count. This block is one of the control blocks:
+					if ( deferCounts ) {
+						int[] count = placedCounts.get( prisonBlock );
+						if ( count == null ) {
+							count = new int[1];
+							placedCounts.put( prisonBlock, count );
+						}
+						count[0]++;
+					}
+					else {
+						mine.incrementResetBlockCount( prisonBlock );
+					}
+
+					// NOTE: The edges and corners are calculated within the
+					//       MineTargetBlockStore so no Location is needed.
+					targetBlocks.add( prisonBlock, x, y, z );
+
+					if ( prisonBlock.equals( PrisonBlock.AIR ) ) {
+						airCount++;
+					}
+				}
+			}
+
+			// The selected blocks need their placement range updated for this level:
+			mineLevelBlockList.applyRangeBlockCountHighLimits();
+		}
+
+		return this;
+	}
+
+	/**
+	 * <p>If the block counts were deferred, then this must be called after
+	 * the slab is generated, but only from one thread at a time.
+	 * </p>
+	 */
+	public void mergeCounts() {
+
+		for ( Entry<PrisonBlock, int[]> entry : placedCounts.entrySet() ) {
+
+			PrisonBlockStatusData sBlock = mine.getBlockStats( entry.getKey() );
+
+			if ( sBlock != null ) {
+				sBlock.setBlockPlacedCount( sBlock.getBlockPlacedCount() + entry.getValue()[0] );
+			}
+		}
+
+		placedCounts.clear();
+	}
+
+	/**
+	 * <p>Generates all of the slabs.  If maxThreads is greater than one, then
+	 * the slabs will be submitted to a shared, bounded, worker pool and this
+	 * will wait until they are all finished.
+	 * </p>
+	 *
+	 * @param slabs
+	 * @param maxThreads
+	 */
+	public static void generate( List<MineBlockListSlab> slabs, int maxThreads ) {
+
+		if ( maxThreads <= 1 || slabs.size() <= 1 ) {
+			for ( MineBlockListSlab slab : slabs ) {
+				slab.call();
+			}
+		}
+		else {
+
+			List<Future<MineBlockListSlab>> results = new ArrayList<>();
+
+			try {
+				results.addAll( getExecutor( maxThreads ).invokeAll( slabs ) );
+
+				for ( Future<MineBlockListSlab> future : results ) {
+					future.get();
+				}
+			}
+			catch ( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+
+				throw new IllegalStateException( "MineBlockListSlab: Block generation " +
+						"was interrupted.", e );
+			}
+			catch ( ExecutionException e ) {
+				throw new IllegalStateException( "MineBlockListSlab: Block generation " +
+						"failed: " + e.getCause(), e.getCause() );
+			}
+		}
+	}
+
+	private static synchronized ExecutorService getExecutor( int maxThreads ) {
+
+		if ( executor == null || executorThreads != maxThreads ) {
+
+			if ( executor != null ) {
+				executor.shutdown();
+			}
+
+			AtomicInteger threadId = new AtomicInteger();
+
+			executorThreads = maxThreads;
+			executor = Executors.newFixedThreadPool( maxThreads, runnable -> {
+				Thread thread = new Thread( runnable,
+						"Prison-MineBlockGen-" + threadId.incrementAndGet() );
+				thread.setDaemon( true );
+				return thread;
+			});
+		}
+
+		return executor;
+	}
+
+	public int getFirstLevel() {
+		return firstLevel;
+	}
+
+	public int getLastLevel() {
+		return lastLevel;
+	}
+
+	public int getAirCount() {
+		return airCount;
+	}
+}
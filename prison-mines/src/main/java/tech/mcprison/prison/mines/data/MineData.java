@@ -6,6 +6,8 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.internal.Player;
@@ -14,9 +16,11 @@ import tech.mcprison.prison.internal.block.MineTargetPrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
 import tech.mcprison.prison.internal.block.PrisonBlockStatusData;
+import tech.mcprison.prison.mines.PrisonMines;
 import tech.mcprison.prison.mines.data.Mine.MineType;
 import tech.mcprison.prison.mines.features.MineBlockEvent;
 import tech.mcprison.prison.mines.features.MineLinerData;
+import tech.mcprison.prison.mines.managers.MineManager;
 import tech.mcprison.prison.modules.ModuleElement;
 import tech.mcprison.prison.modules.ModuleElementType;
 import tech.mcprison.prison.output.Output;
@@ -124,8 +128,10 @@ public abstract class MineData
     private transient PrisonBlock tempGravityBlock = null;
     
     
-	private int blockBreakCount = 0;
-    private long totalBlocksMined = 0;
+	// The block break events and explosions may update these counts from more 
+	// than one thread at a time:
+	private final AtomicInteger blockBreakCount = new AtomicInteger();
+    private final AtomicLong totalBlocksMined = new AtomicLong();
     private double zeroBlockResetDelaySec;
 
     private double resetThresholdPercent = 0;
@@ -229,7 +235,7 @@ public abstract class MineData
     	this.targetResetTime = 0;
     	this.resetCount = 0;
     	this.lastResetTimeLong = 0;
-    	this.totalBlocksMined = 0;
+    	this.totalBlocksMined.set( 0 );
     	this.zeroBlockResetDelaySec = 0;
     	this.resetThresholdPercent = 0;
     
@@ -400,6 +406,8 @@ public abstract class MineData
 		}
 
     	setEnabled( world != null );
+    	
+    	updateSpatialIndex();
 	}
 
     public Bounds getBounds() {
@@ -477,6 +485,21 @@ public abstract class MineData
     	// in the document loader under Mine.loadFromDocument as the first field
     	// that is set when restoring from the file.
     	//this.worldName = bounds.getMin().getWorld().getName();
+    	
+    	updateSpatialIndex();
+    }
+    
+    /**
+     * <p>Moving or resizing a mine must update the mine manager's spatial index, 
+     * otherwise the mine will not be found at its new location.
+     * </p>
+     */
+    protected void updateSpatialIndex() {
+    	MineManager mineManager = PrisonMines.getMineManagerIfLoaded();
+    	
+    	if ( mineManager != null && this instanceof Mine ) {
+    		mineManager.updateSpatialIndex( (Mine) this );
+    	}
     }
 
     
@@ -700,6 +723,12 @@ public abstract class MineData
      * the same block from being counted twice.
      * </p>
      * 
+     * <p>The block is claimed with a single compare-and-set on the target block's 
+     * status, which sets counted, airBroke, and mined at the same time. So if a
+     * block break event and an explosion both try to count the same block, only
+     * one of them will succeed, and the block is counted exactly once.
+     * </p>
+     * 
      * @param targetPrisonBlock
      */
     public boolean incrementBlockMiningCount( MineTargetPrisonBlock targetPrisonBlock ) {
@@ -710,22 +739,15 @@ public abstract class MineData
     	
     	// NOTE: setAirBroke() and setMined() will be set to true if the mine reset
     	//       places an air block. That will prevent the air from being processed.
-    	if ( targetPrisonBlock != null && !targetPrisonBlock.isCounted() ) {
-    		
-    		targetPrisonBlock.setAirBroke( true );
-    		targetPrisonBlock.setCounted( true );
+    	
+    	// The field isMined() is used to "reserve" a block to indicate that it is in 
+    	// the stages of being processed, since much later in the processing will the
+    	// block be set to setAirBreak() or even setCounted().  This prevents 
+    	// high-speed or concurrent operations from multiple players from trying to 
+    	// process the same block. The claim sets it too, if it has not already 
+    	// been set.
+    	if ( targetPrisonBlock != null && targetPrisonBlock.claimCounted() ) {
     		
-    		// The field isMined() is used to "reserve" a block to indicate that it is in 
-    		// the stages of being processed, since much later in the processing will the
-    		// block be set to setAirBreak() or even setCounted().  This prevents 
-    		// high-speed or concurrent operations from multiple players from trying to 
-    		// process the same block. So set it to true here, if it has not already 
-    		// been set.
-    		if ( !targetPrisonBlock.isMined() ) {
-    			
-    			targetPrisonBlock.setMined( true );
-    		}
-
     		incrementBlockBreakCount();
     		incrementTotalBlocksMined();
     		
@@ -1184,36 +1206,36 @@ public abstract class MineData
 
 	
 	public int addBlockBreakCount( int blockCount ) {
-		return blockBreakCount += blockCount;
+		return blockBreakCount.addAndGet( blockCount );
 	}
 	public int incrementBlockBreakCount() {
-		return ++blockBreakCount;
+		return blockBreakCount.incrementAndGet();
 	}
 	public int getBlockBreakCount() {
-		return blockBreakCount;
+		return blockBreakCount.get();
 	}
 	public void setBlockBreakCount( int blockBreakCount ) {
-		this.blockBreakCount = blockBreakCount;
+		this.blockBreakCount.set( blockBreakCount );
 	}
 	
 	/**
-	 * May not be 100% thread safe, but odds of collisions will be minimal and
-	 * if its off by a few blocks its not a big deal since the value resets
-	 * when the server resets.
+	 * <p>The total blocks mined is atomic so it will not lose any counts 
+	 * when blocks are broken from more than one thread.
+	 * </p>
 	 * 
 	 * @return
 	 */
 	public long addTotalBlocksMined( int blockCount ) {
-		return totalBlocksMined += blockCount;
+		return totalBlocksMined.addAndGet( blockCount );
 	}
 	public long incrementTotalBlocksMined() {
-		return ++totalBlocksMined;
+		return totalBlocksMined.incrementAndGet();
 	}
 	public long getTotalBlocksMined() {
-		return totalBlocksMined;
+		return totalBlocksMined.get();
 	}
 	public void setTotalBlocksMined( long totalBlocksMined ) {
-		this.totalBlocksMined = totalBlocksMined;
+		this.totalBlocksMined.set( totalBlocksMined );
 	}
 
 	public boolean isZeroBlockResetDisabled() {
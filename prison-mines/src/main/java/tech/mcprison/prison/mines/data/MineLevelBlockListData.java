@@ -2,7 +2,7 @@ package tech.mcprison.prison.mines.data;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.output.Output;
@@ -16,7 +16,13 @@ public class MineLevelBlockListData
 	
 	private Mine mine;
 	
-	private Random random;
+	private SplittableRandom random;
+	
+	/**
+	 * <p>The target block position of the first block on this level.
+	 * </p>
+	 */
+	private int levelStartPosition;
 	
 	private List<PrisonBlock> selectedBlocks;
 	
@@ -30,8 +36,28 @@ public class MineLevelBlockListData
 	
 	private boolean errorMessageSent = false;
 	
+	/**
+	 * <p>The alias table is used to select a block in constant time, no matter 
+	 * how many blocks are in the mine.  The table is built from the selectedBlocks
+	 * and must be rebuilt whenever a block is removed from the selectedBlocks.
+	 * </p>
+	 */
+	private PrisonBlock[] aliasBlocks;
+	private double[] aliasProbability;
+	private int[] aliasIndex;
+	private boolean aliasTableDirty = true;
+	
+	/**
+	 * <p>The last target block position that was recorded for the 
+	 * rangeBlockCountHighLimit.  It is only applied to the blocks when they 
+	 * are removed from the selectedBlocks, or when the level is finished.
+	 * </p>
+	 */
+	private int pendingRangeBlockCountHighLimit = -1;
+	
 
-	public MineLevelBlockListData( int currentMineLevel, int maxMineLevel, Mine mine, Random random ) {
+	public MineLevelBlockListData( int currentMineLevel, int maxMineLevel, Mine mine, 
+					SplittableRandom random, int levelStartPosition ) {
 		super();
 		
 		this.currentMineLevel = currentMineLevel;
@@ -41,6 +67,8 @@ public class MineLevelBlockListData
 		
 		this.random = random;
 		
+		this.levelStartPosition = levelStartPosition;
+		
 		this.selectedBlocks = new ArrayList<>();
 		
 		initialize();
@@ -109,20 +137,14 @@ public class MineLevelBlockListData
 				}
 				
 				
-				// Only set the rangeBlockCountLowLimit on the first pass through here.
+				// Only set the rangeBlockCountLowLimit on the lowest level position.
 				// The initial value for getRangeBlockCountLowLimit is -1.
-				if ( pBlock.getRangeBlockCountLowLimit() == -1 ) {
-					
-					int targetBlockPosition = mine.getMineTargetPrisonBlocks().size();
-					pBlock.setRangeBlockCountLowLimit( targetBlockPosition );
-				}
-				
-				
 				// Always set getConstraintExcludeBottomLayers value:
 				// If exclude top layers, then do not record for the bottom layers until 
 				// the top layers is cleared.
-				int targetBlockPosition = mine.getMineTargetPrisonBlocks().size();
-				pBlock.setRangeBlockCountHighLimit( targetBlockPosition );
+				// Levels may be generated out of order, so the low limit is the 
+				// lowest position, and the high limit is the highest position.
+				updateRangeBlockCountLimits( pBlock, levelStartPosition );
 
 			}
 			
@@ -153,91 +175,155 @@ public class MineLevelBlockListData
 	 * this block can be placed while honoring the constraints exclude from 
 	 * top and exclude from bottom.
 	 * </p>
+	 * 
+	 * <p>All of the selectedBlocks are included on this level, so this only 
+	 * records the current position.  The position is applied to the blocks
+	 * when they are removed from the selectedBlocks, or when 
+	 * applyRangeBlockCountHighLimits() is called at the end of the level.
+	 * </p>
 	 */
-	public void checkSelectedBlockExcludeFromBottomLayers() {
+	public void checkSelectedBlockExcludeFromBottomLayers( int targetBlockPosition ) {
 		
-		for ( PrisonBlock pBlock : selectedBlocks )
-		{
-			int cExcludeTop = pBlock.getConstraintExcludeTopLayers();
-			int cExcludeBottom = pBlock.getConstraintExcludeBottomLayers();
+		pendingRangeBlockCountHighLimit = targetBlockPosition;
+	}
+	
+	/**
+	 * <p>This must be called after the last block on this level has been 
+	 * selected so the selectedBlocks will have the correct 
+	 * rangeBlockCountHighLimit.
+	 * </p>
+	 */
+	public void applyRangeBlockCountHighLimits() {
+		
+		for ( PrisonBlock pBlock : selectedBlocks ) {
+			applyRangeBlockCountHighLimit( pBlock );
+		}
+	}
+	
+	private void applyRangeBlockCountHighLimit( PrisonBlock pBlock ) {
+		
+		if ( pendingRangeBlockCountHighLimit != -1 ) {
+			updateRangeBlockCountLimits( pBlock, pendingRangeBlockCountHighLimit );
+		}
+	}
+	
+	/**
+	 * <p>The blocks are shared between all levels, and the levels may be 
+	 * generated in parallel, so the limits are updated while holding the 
+	 * lock on the block.
+	 * </p>
+	 * 
+	 * @param pBlock
+	 * @param targetBlockPosition
+	 */
+	private void updateRangeBlockCountLimits( PrisonBlock pBlock, int targetBlockPosition ) {
+		
+		synchronized ( pBlock ) {
 			
-//			int cMin = pBlock.getConstraintMin();
-//			int cMax = pBlock.getConstraintMax();
+			if ( pBlock.getRangeBlockCountLowLimit() == -1 || 
+					targetBlockPosition < pBlock.getRangeBlockCountLowLimit() ) {
+				pBlock.setRangeBlockCountLowLimit( targetBlockPosition );
+			}
 			
-//			boolean hasConstraints = cExcludeTop != 0 || cExcludeBottom != 0 ||
-//					cMin != 0 || cMax != 0;
+			if ( targetBlockPosition > pBlock.getRangeBlockCountHighLimit() ) {
+				pBlock.setRangeBlockCountHighLimit( targetBlockPosition );
+			}
+		}
+	}
+	
+	/**
+	 * <p>Builds a Walker/Vose alias table from the selectedBlocks, using each block's
+	 * chance as its weight.  Once built, a block can be selected with one random
+	 * int and one random double, no matter how many blocks are in the list.
+	 * </p>
+	 */
+	private void buildAliasTable() {
+		
+		int size = selectedBlocks.size();
+		
+		aliasBlocks = selectedBlocks.toArray( new PrisonBlock[ size ] );
+		aliasProbability = new double[ size ];
+		aliasIndex = new int[ size ];
+		
+		double totalWeight = 0d;
+		for ( PrisonBlock block : aliasBlocks ) {
+			totalWeight += Math.max( 0d, block.getChance() );
+		}
+		
+		if ( size > 0 && totalWeight > 0d ) {
 			
-			boolean includeOnThisLevel = 
-					cExcludeTop == 0 && cExcludeBottom == 0 ||
-					
-					(cExcludeTop == 0 || cExcludeTop != 0 && currentMineLevel > cExcludeTop) &&
-					(cExcludeBottom == 0 || cExcludeBottom != 0 && currentMineLevel < cExcludeBottom );
-					
+			double[] scaled = new double[ size ];
+			int[] small = new int[ size ];
+			int[] large = new int[ size ];
+			int smallCount = 0;
+			int largeCount = 0;
 			
+			for ( int i = 0; i < size; i++ ) {
+				scaled[i] = Math.max( 0d, aliasBlocks[i].getChance() ) * size / totalWeight;
+				
+				if ( scaled[i] < 1d ) {
+					small[ smallCount++ ] = i;
+				}
+				else {
+					large[ largeCount++ ] = i;
+				}
+			}
 			
-			// If the block has no constraints, or if the block is within the 
-			// mine constraints of top and bottom, then add it to our list.  
-			// If block has exceed max constraint, let it pass through this 
-			// code so it can get the update on the rangeBlockCountHigh.
-			// Check to ensure that the max placement has not been exceeded and if
-			// it has, exclude from this level. Note that past levels may have 
-			// placed more than max.
-			if ( includeOnThisLevel ) {
+			while ( smallCount > 0 && largeCount > 0 ) {
+				int less = small[ --smallCount ];
+				int more = large[ --largeCount ];
 				
-				int targetBlockPosition = mine.getMineTargetPrisonBlocks().size();
-				pBlock.setRangeBlockCountHighLimit( targetBlockPosition );
-
+				aliasProbability[ less ] = scaled[ less ];
+				aliasIndex[ less ] = more;
+				
+				scaled[ more ] = (scaled[ more ] + scaled[ less ]) - 1d;
+				
+				if ( scaled[ more ] < 1d ) {
+					small[ smallCount++ ] = more;
+				}
+				else {
+					large[ largeCount++ ] = more;
+				}
 			}
 			
-//			// If exclude bottom layer is enabled, then we need to track every number
-//			// until the currentLevel exceeds the getConstraintExcludeBottomLayers value.
-//			// If exclude top layers, then do not record for the bottom layers until 
-//			// the top layers is cleared.
-//			if ( (pBlock.getConstraintExcludeTopLayers() > 0 && 
-//					currentMineLevel > pBlock.getConstraintExcludeTopLayers() ||
-//					pBlock.getConstraintExcludeTopLayers() == 0) &&
-//					
-//					(pBlock.getConstraintExcludeBottomLayers() == 0 ||
-//					pBlock.getConstraintExcludeBottomLayers() > 0 && 
-//					pBlock.getConstraintExcludeBottomLayers() < currentMineLevel)
-//					) { 
-//				
-//				
-//			}
-
+			// Whatever is left is due to rounding errors, so they are always selected:
+			while ( largeCount > 0 ) {
+				int more = large[ --largeCount ];
+				aliasProbability[ more ] = 1d;
+				aliasIndex[ more ] = more;
+			}
+			while ( smallCount > 0 ) {
+				int less = small[ --smallCount ];
+				aliasProbability[ less ] = 1d;
+				aliasIndex[ less ] = less;
+			}
+		}
+		else if ( size > 0 ) {
+			
+			// All chances are zero so always select the first block, which is
+			// what a linear scan of the chances would have selected. Every 
+			// column has a probability of zero and an alias of the first block:
+			aliasProbability[ 0 ] = 1d;
 		}
+		
+		aliasTableDirty = false;
 	}
-
+	
 	public PrisonBlock randomlySelectPrisonBlock()
 	{
 		PrisonBlock selected = null;
-
-		// Will have a value of 100% if no blocks are excluded due to block constraints:
-		double totalSelectedChance = selectedChance + airChance;
 		
-		double chance = random.nextDouble() * totalSelectedChance;
+		if ( aliasTableDirty ) {
+			buildAliasTable();
+		}
 		
-		for ( PrisonBlock block : selectedBlocks ) {
+		if ( aliasBlocks.length > 0 ) {
 			
-			// NOTE: do not have use this field anymore:
-//			block.isIncludeInLayerCalculations();
+			int column = random.nextInt( aliasBlocks.length );
 			
-			// If chance falls on this block, then select it as long as it has not
-			// exceed the max count for this block if the max constraint is enabled.
-			// If the block's constraint max is reached, then isIncludedInLayerCalculation will 
-			// prevent more of them from being added to the mine.
-			if ( chance <= block.getChance() ) {
-				
-				// If this block is chosen and it was not skipped, then use this block and exit.
-				// Otherwise the chance will be recalculated and tried again to find a valid block,
-				// since the odds have been thrown off...
-				selected = block;
-				
-				break;
-			} 
-			else {
-				chance -= block.getChance();
-			}
+			selected = random.nextDouble() < aliasProbability[ column ] ?
+							aliasBlocks[ column ] : 
+							aliasBlocks[ aliasIndex[ column ] ];
 		}
 		
 		// If block reaches it's max amount, remove it from the block list so it will not 
@@ -249,19 +335,23 @@ public class MineLevelBlockListData
 			
 //			selected.setIncludeInLayerCalculations( false );
 			
+			applyRangeBlockCountHighLimit( selected );
+			
 			selectedBlocks.remove(selected);
 			
 			selectedChance -= selected.getChance();
+			
+			aliasTableDirty = true;
 		}
 		
-		// if selected == null, then the block feel through the cracks because
-		// if the mine did not have a full 100% chance of all blocks combined, 
-		// then an AIR block was added to the selectedBlocks collection when 
-		// starting to process this level.  So if selected is null, then something
-		// went wrong... assign it the filler block.
+		// if selected == null, then the block list for this level is empty, since 
+		// the alias table will always select a block if there is at least one.  
+		// The list is empty when all of the blocks were excluded from this level
+		// by their layer constraints, or have reached their max constraint.  So 
+		// assign it the filler block.
 		// If all blocks have constraints, the the filler block will be null so
 		// then assign it an AIR block.
-		if ( chance == 0d && selected == null ) {
+		if ( selected == null ) {
 			if ( fillerBlock != null ) {
 				selected = fillerBlock;
 			}
@@ -272,14 +362,12 @@ public class MineLevelBlockListData
 					
 					String msg = String.format( 
 							"Error: generateBlockListAsync() selectBlock: "
-							+ "Mine: %s  Layer: %d : All blocks "
-							+ "have constraints so could not backfill a void with a block "
-							+ "so using AIR. Add a non-constrained block to the mine to "
-							+ "prevent air blocks from spawning in this mine when a valid "
-							+ "block cannot be choosen.  This is not a bug, but it's an "
-							+ "issue with base-2 being coverted to base-10 and the "
-							+ "resulting random "
-							+ "generated number not falling on any valid blocks. ",
+							+ "Mine: %s  Layer: %d : There are no blocks that can be "
+							+ "placed on this layer, so using AIR. All of the mine's blocks "
+							+ "have constraints, and they are either excluded from this "
+							+ "layer, or have reached their max constraint.  Add a "
+							+ "non-constrained block to the mine to prevent air blocks "
+							+ "from spawning in this mine. ",
 							getMine().getName(), getCurrentMineLevel()
 							);
 					Output.get().logError( msg );
@@ -312,18 +400,26 @@ public class MineLevelBlockListData
 		this.mine = mine;
 	}
 
-	public Random getRandom() {
+	public SplittableRandom getRandom() {
 		return random;
 	}
-	public void setRandom(Random random) {
+	public void setRandom(SplittableRandom random) {
 		this.random = random;
 	}
 
+	public int getLevelStartPosition() {
+		return levelStartPosition;
+	}
+	public void setLevelStartPosition(int levelStartPosition) {
+		this.levelStartPosition = levelStartPosition;
+	}
+
 	public List<PrisonBlock> getSelectedBlocks() {
 		return selectedBlocks;
 	}
 	public void setSelectedBlocks(List<PrisonBlock> selectedBlocks) {
 		this.selectedBlocks = selectedBlocks;
+		this.aliasTableDirty = true;
 	}
 
 	public PrisonBlock getFillerBlock() {
@@ -4,8 +4,7 @@ import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
-import java.util.TreeMap;
+import java.util.SplittableRandom;
 import java.util.TreeSet;
 
 import tech.mcprison.prison.Prison;
@@ -13,7 +12,7 @@ import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.internal.World;
 import tech.mcprison.prison.internal.block.Block;
 import tech.mcprison.prison.internal.block.MineResetType;
-import tech.mcprison.prison.internal.block.MineTargetBlockKey;
+import tech.mcprison.prison.internal.block.MineTargetBlockStore;
 import tech.mcprison.prison.internal.block.MineTargetPrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
@@ -94,8 +93,7 @@ public abstract class MineReset
 	public static final long MINE_RESET__AIR_COUNT_BASE_DELAY = 30000L; // 30 seconds
 	
 
-	private List<MineTargetPrisonBlock> mineTargetPrisonBlocks = null;
-	private TreeMap<MineTargetBlockKey, MineTargetPrisonBlock> mineTargetPrisonBlocksMap = null;
+	private volatile MineTargetBlockStore mineTargetPrisonBlocks = null;
 	
 	private MineJob currentJob;
 	
@@ -115,6 +113,7 @@ public abstract class MineReset
 	
 	private long statsResetTimeMS = 0;
 	private long statsBlockGenTimeMS = 0;
+	private long statsBlockGenSeed = 0;
 	private long statsBlockUpdateTimeMS = 0;
 	private long statsBlockUpdateTimeNanos = 0;
 	
@@ -351,6 +350,9 @@ public abstract class MineReset
     	sb.append( "&3 BlockGenTime: &7" );
     	sb.append( dFmt.format(getStatsBlockGenTimeMS() / 1000.0d )).append( " s " );
     	
+    	sb.append( "&3 BlockGenSeed: &7" );
+    	sb.append( Long.toHexString( getStatsBlockGenSeed() ) ).append( " " );
+    	
 
     	sb.append( "&3 BlockUpdateTime: &7" );
     	sb.append( dFmt.format(getStatsBlockUpdateTimeMS() / 1000.0d )).append( " s " );
@@ -512,8 +514,8 @@ public abstract class MineReset
      * <p>This generation of a new block list for the mines is designed to run asynchronously. 
      * It not only generates what each block should be, it also records what the block location 
      * is.  This allows actual block updates to be performed linearly using the mineTargetBlock
-     * List, or to randomly access each block using the mineTargetBlockMap; two keys in to the 
-     * same collection of target blocks.
+     * store as a List, or to randomly access each block by its coordinates within the same
+     * store.
      * </p>
      * 
      * <p>The major use of the mineTargetBlock List is to allow paging of the updates: where a mine
@@ -544,109 +546,11 @@ public abstract class MineReset
 		
     	long start = System.currentTimeMillis();
 		
-		// Reset stats:
-		resetStats();
-		
-		Random random = new Random();
-		
-		// Clear the mineTargetBlocks List and Map:
-		clearMineTargetPrisonBlocks();
-
-		
-		// Reset the resetCounts on all blocks within the mine:
-		resetResetBlockCounts();
-		
-		
-//		// setup the monitoring of the blocks that have constraints:
-//		List<PrisonBlockStatusData> constrainedBlocks = null;
-		
-		Optional<World> worldOptional = getWorld();
-		World world = worldOptional.get();
-		
-		int airCount = 0;
-		
-		
-		int yMin = getBounds().getyBlockMin();
-		int yMax = getBounds().getyBlockMax();
-		
-		int xMin = getBounds().getxBlockMin();
-		int xMax = getBounds().getxBlockMax();
-		
-		int zMin = getBounds().getzBlockMin();
-		int zMax = getBounds().getzBlockMax();
-
-		
-		int currentLevel = 0;
-		int maxLevels = yMax - yMin + 1;
-		
-		
-		// The reset takes place first with the top-most layer since most mines may have
-		// the player enter from the top, and the reset will appear to be more "instant".
-		for (int y = yMax; y >= yMin; y--) {
-			currentLevel++; // One based: First layer is currentLevel == 1
-			
-			
-			// This is used to select the correct block list for the given mine level:
-			MineLevelBlockListData mineLevelBlockList = 
-							new MineLevelBlockListData( currentLevel, maxLevels, (Mine) this, random );
-			
-			
-			for (int x = xMin; x <= xMax; x++) {
-				for (int z = zMin; z <= zMax; z++) {
-					
-					// updates selected block's exclude from bottom layer max value settings:
-					mineLevelBlockList.checkSelectedBlockExcludeFromBottomLayers();
-					
-					boolean xEdge = x == xMin || x == xMax;
-					boolean yEdge = y == yMin || y == yMax;
-					boolean zEdge = z == zMin || z == zMax;
-					
-					boolean isEdge = xEdge && yEdge || xEdge && zEdge ||
-									 yEdge && zEdge;
-					
-					boolean isCorner = xEdge && yEdge && zEdge;
-					
-					Location targetLocation = new Location(world, x, y, z);
-					targetLocation.setEdge( isEdge );
-					targetLocation.setCorner( isCorner );
-					
-//					MineTargetBlock mtb = null;
-					
-					// track the constraints: (obsolete)
-					//trackConstraints( currentLevel, constrainedBlocks );
-					
-					PrisonBlock prisonBlock = mineLevelBlockList.randomlySelectPrisonBlock();
-					
-					if ( prisonBlock == null ) {
-						prisonBlock = PrisonBlock.AIR.clone();
-					}
-					
-//						PrisonBlock prisonBlock = randomlySelectPrisonBlock( random, currentLevel );
-					
-					// Increment the mine's block count. This block is one of the control blocks:
-					incrementResetBlockCount( prisonBlock );
-					
-					// TODO AIR block fix - allow AIR to be part of the regular block list?
-					addMineTargetPrisonBlock( prisonBlock, targetLocation );
-//						mtb = new MineTargetPrisonBlock( prisonBlock, x, y, z);
-					
-					if ( prisonBlock.equals( PrisonBlock.AIR ) ) {
-//						mAirBlocks[i++] = true;
-						airCount++;
-					}
-					
-				}
-			}
-		}
-		
-
-		
-		setAirCountOriginal( airCount );
-		setAirCount( airCount );
-
-		
-		// Apply the constraints
-		constraintsApplyMin();
+    	// A new seed for every reset. The seed is kept with the stats so a 
+    	// layout can be reproduced:
+    	long seed = new SplittableRandom().nextLong();
+    	
+    	generateBlockList( seed, getConfigBlockGenerationMaxThreads() );
 		
 		
 		if ( Output.get().isDebug() && Output.get().isSelectiveTarget( DebugTarget.blockConstraints ) ) {
@@ -690,6 +594,108 @@ public abstract class MineReset
 		
     }
     
+    /**
+     * <p>Generates the block list for the mine using the given seed.  The same 
+     * seed, with the same mine size and blocks, will always generate the same 
+     * blocks, no matter how many threads are used.
+     * </p>
+     * 
+     * <p>The mine is split in to slabs of levels, where each slab has its own 
+     * random number generator that is split from the seed.  If none of the 
+     * blocks have a max constraint, then the slabs are generated in parallel 
+     * on a bounded worker pool.  Otherwise the slabs are generated in order 
+     * so the max constraints can be honored exactly.  The min constraints are 
+     * always applied after all of the slabs are generated.
+     * </p>
+     * 
+     * @param seed
+     * @param maxThreads
+     */
+    protected void generateBlockList( long seed, int maxThreads ) {
+    	
+		// Reset stats:
+		resetStats();
+		
+		setStatsBlockGenSeed( seed );
+		
+		// Clear the mineTargetBlocks:
+		clearMineTargetPrisonBlocks();
+		
+		
+		// Reset the resetCounts on all blocks within the mine:
+		resetResetBlockCounts();
+		
+		// Create the new target block store before any slabs are generated:
+		getMineTargetPrisonBlocks();
+		
+		SplittableRandom random = new SplittableRandom( seed );
+		
+		
+		int yMin = getBounds().getyBlockMin();
+		int yMax = getBounds().getyBlockMax();
+		
+		int blocksPerLevel = getBounds().getBlockCountPerLayer();
+		
+		int maxLevels = yMax - yMin + 1;
+		int levelsPerSlab = MineBlockListSlab.getLevelsPerSlab( blocksPerLevel );
+		
+		boolean parallel = maxThreads > 1 && !hasConstraintMax();
+		
+		
+		// The reset takes place first with the top-most layer since most mines may have
+		// the player enter from the top, and the reset will appear to be more "instant".
+		List<MineBlockListSlab> slabs = new ArrayList<>();
+		for ( int firstLevel = 1; firstLevel <= maxLevels; firstLevel += levelsPerSlab ) {
+			
+			int lastLevel = Math.min( maxLevels, firstLevel + levelsPerSlab - 1 );
+			
+			slabs.add( new MineBlockListSlab( (Mine) this, firstLevel, lastLevel, maxLevels, 
+							random.split(), parallel ) );
+		}
+		
+		MineBlockListSlab.generate( slabs, parallel ? maxThreads : 1 );
+		
+		
+		int airCount = 0;
+		
+		for ( MineBlockListSlab slab : slabs ) {
+			
+			slab.mergeCounts();
+			
+			airCount += slab.getAirCount();
+		}
+		
+		setAirCountOriginal( airCount );
+		setAirCount( airCount );
+		
+		
+		// Apply the constraints
+		constraintsApplyMin( random.split() );
+		
+    }
+    
+    protected boolean hasConstraintMax() {
+    	boolean results = false;
+    	
+    	for ( PrisonBlock block : getPrisonBlocks() ) {
+			if ( block.getConstraintMax() > 0 ) {
+				results = true;
+				break;
+			}
+		}
+    	
+    	return results;
+    }
+    
+    public int getConfigBlockGenerationMaxThreads() {
+    	int maxThreads = Prison.get().getPlatform()
+    			.getConfigInt( "prison-mines.reset-block-generation.max-threads", 4 );
+    	
+    	// Never use more threads than there are processors:
+    	return Math.max( 1, 
+    			Math.min( maxThreads, Runtime.getRuntime().availableProcessors() ) );
+    }
+    
 //    private void trackConstraints( int currentLevel, List<PrisonBlockStatusData> constrainedBlocks )
 //	{
 //    	
@@ -987,14 +993,16 @@ public abstract class MineReset
     	int layer = 0;
     	int blockCount = 0;
     	
-    	for ( int i = 0; i < getMineTargetPrisonBlocks().size(); i++ ) {
+    	MineTargetBlockStore targetBlocks = getMineTargetPrisonBlocks();
+    	
+    	for ( int i = 0; i < targetBlocks.size(); i++ ) {
     		
-    		MineTargetPrisonBlock tBlock = getMineTargetPrisonBlocks().get(i);
-    		int y = getMineTargetPrisonBlocks().get(i).getLocation().getBlockY();
+    		MineTargetPrisonBlock tBlock = targetBlocks.get(i);
+    		int y = targetBlocks.getY( i );
     		blockCount++;
     		
     		
-    		{
+    		if ( tBlock != null ) {
     			PrisonBlockStatusData statsBlock = null;
     			
     			// the getPrisonblock() should not return a null value:
@@ -1060,8 +1068,8 @@ public abstract class MineReset
 //    		}
     		
     		
-    		if ( (i + 1) >= getMineTargetPrisonBlocks().size() ||
-    				getMineTargetPrisonBlocks().get(i + 1).getLocation().getBlockY() != y ) {
+    		if ( (i + 1) >= targetBlocks.size() ||
+    				targetBlocks.getY( i + 1 ) != y ) {
     			
     			StringBuilder sb = new StringBuilder();
     			
@@ -1731,7 +1739,8 @@ public abstract class MineReset
 			
 				
 			// Increment the mine's block count. This block is one of the control blocks:
-			addMineTargetPrisonBlock( incrementResetBlockCount( pBlock ), targetLocation );
+			addMineTargetPrisonBlock( incrementResetBlockCount( pBlock ), 
+					targetLocation.getBlockX(), targetLocation.getBlockY(), targetLocation.getBlockZ() );
 			
 			
 			if ( pBlock.isAir() ) {
@@ -1882,8 +1891,8 @@ public abstract class MineReset
 				if ( targetBlock != null && !targetBlock.isAirBroke() &&
 						!targetBlock.isCounted()) {
 					
-					MineTargetBlockKey key = targetBlock.getBlockKey();
-					Location blockLocation = new Location( world, key.getX(), key.getY(), key.getZ() );
+					Location blockLocation = new Location( world, 
+							targetBlock.getX(), targetBlock.getY(), targetBlock.getZ() );
 					
 					Block block = world.getBlockAt( blockLocation );
 					if ( block.isEmpty() ) {
@@ -2161,10 +2170,10 @@ public abstract class MineReset
 //	}
     
 	
-	private void constraintsApplyMin() {
+	private void constraintsApplyMin( SplittableRandom random ) {
 		
 		for ( PrisonBlockStatusData block : getPrisonBlocks() ) {
-			constraintsApplyMin( block );
+			constraintsApplyMin( block, random );
 		}
 	}
     
@@ -2182,9 +2191,9 @@ public abstract class MineReset
      * </p>
      * 
      * @param block
-     * @param useNewBlockModel
+     * @param random
      */
-    private void constraintsApplyMin( PrisonBlockStatusData block )
+    private void constraintsApplyMin( PrisonBlockStatusData block, SplittableRandom random )
 	{
     	
     	if ( block.getConstraintMin() > 0 && block.getBlockPlacedCount() < block.getConstraintMin() ) {
@@ -2198,7 +2207,8 @@ public abstract class MineReset
     			
     			
     			// Get an unmatched block in the block's range (not the same block):
-    			int blockPos = block.getRandomBlockPositionInRangeUnmatched( getMineTargetPrisonBlocks() );
+    			int blockPos = block.getRandomBlockPositionInRangeUnmatched( 
+    												getMineTargetPrisonBlocks(), random );
     			
     			
 //    			int rangeLow = block.getRangeBlockCountLowLimit();
@@ -2343,15 +2353,9 @@ public abstract class MineReset
 	
 	
 	
-	private void addMineTargetPrisonBlock( PrisonBlockStatusData block, Location targetLocation ) {
-		
-		MineTargetPrisonBlock mtpb = new MineTargetPrisonBlock( block, targetLocation );
+	private void addMineTargetPrisonBlock( PrisonBlockStatusData block, int x, int y, int z ) {
 		
-		synchronized ( getMineStateMutex() ) {
-			
-			getMineTargetPrisonBlocks().add( mtpb );
-			getMineTargetPrisonBlocksMap().put( mtpb.getBlockKey(), mtpb );
-		}
+		getMineTargetPrisonBlocks().add( block, x, y, z );
 	}
     
 //    private void addMineTargetPrisonBlock( PrisonBlockStatusData block, int x, int y, int z, boolean isEdge ) {
@@ -2371,7 +2375,6 @@ public abstract class MineReset
     	synchronized ( getMineStateMutex() ) {
     		
     		mineTargetPrisonBlocks = null;
-    		mineTargetPrisonBlocksMap = null;
     	}
     	
 //    	getMineTargetPrisonBlocks().clear();
@@ -2379,31 +2382,65 @@ public abstract class MineReset
     }
     
     
-	public List<MineTargetPrisonBlock> getMineTargetPrisonBlocks()
+	/**
+	 * <p>The target blocks are held in a packed store that is sized to the mine's
+	 * bounds at the time it is created.  If the store has been cleared, then a 
+	 * new empty store will be created.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public MineTargetBlockStore getMineTargetPrisonBlocks()
 	{
-		if ( mineTargetPrisonBlocks == null ) {
-			mineTargetPrisonBlocks = new ArrayList<>();
+		MineTargetBlockStore results = mineTargetPrisonBlocks;
+		
+		if ( results == null ) {
+			
+			synchronized ( getMineStateMutex() ) {
+				
+				if ( mineTargetPrisonBlocks == null ) {
+					mineTargetPrisonBlocks = createMineTargetBlockStore();
+				}
+				results = mineTargetPrisonBlocks;
+			}
 		}
-		return mineTargetPrisonBlocks;
+		return results;
 	}
-
-	public TreeMap<MineTargetBlockKey, MineTargetPrisonBlock> getMineTargetPrisonBlocksMap()
-	{
-		if ( mineTargetPrisonBlocksMap == null ) {
-			mineTargetPrisonBlocksMap = new TreeMap<>();
+	
+	private MineTargetBlockStore createMineTargetBlockStore() {
+		MineTargetBlockStore results = null;
+		
+		Bounds bounds = getBounds();
+		
+		if ( bounds == null ) {
+			results = new MineTargetBlockStore( null );
+		}
+		else {
+			World world = getWorld().orElse( null );
+			
+			results = new MineTargetBlockStore( world,
+					bounds.getxBlockMin(), bounds.getxBlockMax(),
+					bounds.getyBlockMin(), bounds.getyBlockMax(),
+					bounds.getzBlockMin(), bounds.getzBlockMax() );
 		}
-		return mineTargetPrisonBlocksMap;
+		
+		return results;
 	}
 	
+	/**
+	 * <p>This is an O(1) lookup of the target block within the mine's packed
+	 * store of target blocks.
+	 * </p>
+	 * 
+	 * @param block
+	 * @return
+	 */
 	public MineTargetPrisonBlock getTargetPrisonBlock( PrisonBlock block ) {
 		MineTargetPrisonBlock results = null;
 		
 		if ( block != null && block.getLocation() != null ) {
 			
-			Location loc = block.getLocation();
-			MineTargetBlockKey key = new MineTargetBlockKey( loc );
-			
-			results = getMineTargetPrisonBlocksMap().get( key );
+			results = getMineTargetPrisonBlocks().getTargetBlock( block.getLocation() );
 		}
 		
 		return results;
@@ -2543,6 +2580,15 @@ public abstract class MineReset
 		this.statsBlockGenTimeMS = statsBlockGenTimeMS;
 	}
 
+	public long getStatsBlockGenSeed()
+	{
+		return statsBlockGenSeed;
+	}
+	public void setStatsBlockGenSeed( long statsBlockGenSeed )
+	{
+		this.statsBlockGenSeed = statsBlockGenSeed;
+	}
+
 	public long getStatsBlockUpdateTimeMS()
 	{
 		return statsBlockUpdateTimeMS;
@@ -1,12 +1,12 @@
 package tech.mcprison.prison.mines.data;
 
-import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Stack;
+import java.util.concurrent.ThreadLocalRandom;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.internal.Player;
@@ -565,7 +565,9 @@ public abstract class MineScheduler
 			
 			List<PrisonCommandTaskData> cmdTasks = new ArrayList<>();
 			
-			Random random = new Random();
+			// This is called for every block of an explosion, so the thread's random 
+			// number generator is used instead of creating a new one for each block:
+			Random random = ThreadLocalRandom.current();
 			
 			int row = 0;
 			for ( MineBlockEvent blockEvent : getBlockEvents() ) {
@@ -630,14 +632,15 @@ public abstract class MineScheduler
 					perms.trim().length() == 0
 					) {
 				
-				DecimalFormat dFmt = Prison.get().getDecimalFormat( "#,##0.0000" );
-				
 				PrisonBlockStatusData originalBlock = targetBlock.getPrisonBlock();
 				
 				String debugInfo = "BlockEvent: " + getName();
 				PrisonCommandTaskData cmdTask = new PrisonCommandTaskData( debugInfo, blockEvent.getCommand(), row );
 				cmdTask.setTaskMode( blockEvent.getTaskMode() );
 				
+				// Most commands only use one or two of the placeholders, so the values are
+				// only formatted if they are used.  The counts are read now, since they 
+				// will change before the commands are ran.
 				
 				cmdTask.addCustomPlaceholder( CustomPlaceholders.blockName, originalBlock.getBlockName() );
 				cmdTask.addCustomPlaceholder( CustomPlaceholders.mineName, getName() );
@@ -645,40 +648,51 @@ public abstract class MineScheduler
 				if ( targetBlock.getLocation() != null ) {
 					Location location = targetBlock.getLocation();
 					
-					cmdTask.addCustomPlaceholder( CustomPlaceholders.locationWorld, location.getWorld().getName() );
-					cmdTask.addCustomPlaceholder( CustomPlaceholders.locationX, Integer.toString( location.getBlockX() ));
-					cmdTask.addCustomPlaceholder( CustomPlaceholders.locationY, Integer.toString( location.getBlockY() ));
-					cmdTask.addCustomPlaceholder( CustomPlaceholders.locationZ, Integer.toString( location.getBlockZ() ));
+					cmdTask.addCustomPlaceholder( CustomPlaceholders.locationWorld, () -> location.getWorld().getName() );
+					cmdTask.addCustomPlaceholder( CustomPlaceholders.locationX, () -> Integer.toString( location.getBlockX() ));
+					cmdTask.addCustomPlaceholder( CustomPlaceholders.locationY, () -> Integer.toString( location.getBlockY() ));
+					cmdTask.addCustomPlaceholder( CustomPlaceholders.locationZ, () -> Integer.toString( location.getBlockZ() ));
 					
-					cmdTask.addCustomPlaceholder( CustomPlaceholders.coordinates, location.toCoordinates() );
-					cmdTask.addCustomPlaceholder( CustomPlaceholders.worldCoordinates, location.toWorldCoordinates() );
+					cmdTask.addCustomPlaceholder( CustomPlaceholders.coordinates, location::toCoordinates );
+					cmdTask.addCustomPlaceholder( CustomPlaceholders.worldCoordinates, location::toWorldCoordinates );
 					
-					cmdTask.addCustomPlaceholder( CustomPlaceholders.blockCoordinates, targetBlock.getBlockCoordinates() );
+					cmdTask.addCustomPlaceholder( CustomPlaceholders.blockCoordinates, targetBlock::getBlockCoordinates );
 					
 				}
 //				cmdTask.addCustomPlaceholder( CustomPlaceholders.blockCoordinates, prisonBlock.getBlockCoordinates() );
 
 
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.blockChance, dFmt.format( originalBlock.getChance() ) );
+				double blockChance = originalBlock.getChance();
+				cmdTask.addCustomPlaceholder( CustomPlaceholders.blockChance, 
+						() -> Prison.get().getDecimalFormat( "#,##0.0000" ).format( blockChance ) );
+				
+				int blocksPlaced = originalBlock.getBlockPlacedCount();
+				long blockRemaining = originalBlock.getBlockCountUnsaved();
+				long blocksMinedTotal = originalBlock.getBlockCountSession();
+				
+				cmdTask.addCustomPlaceholder( CustomPlaceholders.blocksPlaced, () -> Integer.toString( blocksPlaced ));
+				cmdTask.addCustomPlaceholder( CustomPlaceholders.blockRemaining, () -> Long.toString( blockRemaining ));
 				
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.blocksPlaced, Integer.toString( originalBlock.getBlockPlacedCount() ));
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.blockRemaining, Long.toString( originalBlock.getBlockCountUnsaved() ));
+				cmdTask.addCustomPlaceholder( CustomPlaceholders.blocksMinedTotal, () -> Long.toString( blocksMinedTotal ) );
 				
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.blocksMinedTotal, Long.toString( originalBlock.getBlockCountSession() ) );
+				int mineBlocksRemaining = getRemainingBlockCount();
+				double mineBlocksRemainingPercent = getPercentRemainingBlockCount();
+				long mineBlocksTotalMined = getTotalBlocksMined();
 				
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.mineBlocksRemaining, Integer.toString( getRemainingBlockCount() ));
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.mineBlocksRemainingPercent, Double.toString( getPercentRemainingBlockCount() ) );
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.mineBlocksTotalMined, Long.toString( getTotalBlocksMined() ));
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.mineBlocksSize, Integer.toString( getBounds().getTotalBlockCount() ));
+				cmdTask.addCustomPlaceholder( CustomPlaceholders.mineBlocksRemaining, () -> Integer.toString( mineBlocksRemaining ));
+				cmdTask.addCustomPlaceholder( CustomPlaceholders.mineBlocksRemainingPercent, () -> Double.toString( mineBlocksRemainingPercent ) );
+				cmdTask.addCustomPlaceholder( CustomPlaceholders.mineBlocksTotalMined, () -> Long.toString( mineBlocksTotalMined ));
+				cmdTask.addCustomPlaceholder( CustomPlaceholders.mineBlocksSize, () -> Integer.toString( getBounds().getTotalBlockCount() ));
 
 				
-				cmdTask.addCustomPlaceholder( CustomPlaceholders.blockIsAir, Boolean.toString( targetBlock.getPrisonBlock().isAir() ));
+				boolean blockIsAir = targetBlock.getPrisonBlock().isAir();
+				cmdTask.addCustomPlaceholder( CustomPlaceholders.blockIsAir, () -> Boolean.toString( blockIsAir ));
 				
 				if ( prisonBlock != null ) {
 					
 					cmdTask.addCustomPlaceholder( CustomPlaceholders.blockMinedName, prisonBlock.getBlockName() );
-					cmdTask.addCustomPlaceholder( CustomPlaceholders.blockMinedNameFormal, prisonBlock.getBlockNameFormal() );
-					cmdTask.addCustomPlaceholder( CustomPlaceholders.blockMinedBlockType, prisonBlock.getBlockType().name() );
+					cmdTask.addCustomPlaceholder( CustomPlaceholders.blockMinedNameFormal, prisonBlock::getBlockNameFormal );
+					cmdTask.addCustomPlaceholder( CustomPlaceholders.blockMinedBlockType, () -> prisonBlock.getBlockType().name() );
 				}
 				
 				cmdTask.addCustomPlaceholder( CustomPlaceholders.eventType, eventType.name() );
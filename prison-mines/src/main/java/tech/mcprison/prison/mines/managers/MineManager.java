@@ -52,8 +52,10 @@ import tech.mcprison.prison.placeholders.PlaceholderManager.PlaceholderFlags;
 import tech.mcprison.prison.placeholders.PlaceholderManager.PrisonPlaceHolders;
 import tech.mcprison.prison.placeholders.PlaceholderManagerUtils;
 import tech.mcprison.prison.placeholders.PlaceholdersUtil;
+import tech.mcprison.prison.spatial.SpatialIndex;
 import tech.mcprison.prison.store.Collection;
 import tech.mcprison.prison.store.Document;
+import tech.mcprison.prison.tasks.PrisonBlockSetScheduler;
 import tech.mcprison.prison.tasks.PrisonDispatchCommandTask;
 import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
 
@@ -69,6 +71,8 @@ public class MineManager
     private List<Mine> mines;
     private TreeMap<String, Mine> minesByName;
     
+    private SpatialIndex<Mine> mineSpatialIndex;
+    
     private TreeMap<String, List<Mine>> unavailableWorlds;
 
     private Collection coll;
@@ -215,6 +219,8 @@ public class MineManager
     	this.mines = new ArrayList<>();
     	this.minesByName = new TreeMap<>();
     	
+    	this.mineSpatialIndex = new SpatialIndex<>();
+    	
     	this.unavailableWorlds = new TreeMap<>();
     	
     	this.mineResetCommands = new ArrayList<>();
@@ -315,6 +321,7 @@ public class MineManager
         	
             results = getMines().add(mine);
             getMinesByName().put( mine.getName().toLowerCase(), mine );
+            updateSpatialIndex( mine );
             
             // Start its scheduling:
             mine.submit( offsetTimingMs / 1000d );
@@ -340,10 +347,32 @@ public class MineManager
     	if ( mine != null ) {
     		coll.delete( mine.getName() );
     		getMinesByName().remove(mine.getName().toLowerCase());
+    		getMineSpatialIndex().remove( mine );
+    		PlayerMineCache.getInstance().invalidateMine( mine );
+    		PrisonBlockSetScheduler.getInstance().removeOwner( mine.getName() );
     		success = getMines().remove(mine);
     	}
 	    return success;
     }
+    
+    /**
+     * <p>This must be called whenever a mine's bounds or world changes, so the
+     * mine can be found by location.  Mines that have not been added to this
+     * manager are ignored.
+     * </p>
+     * 
+     * @param mine
+     */
+    public void updateSpatialIndex( Mine mine ) {
+    	if ( mine != null && mine.getName() != null && 
+    			getMinesByName().get( mine.getName().toLowerCase() ) == mine ) {
+    		
+    		// Virtual mines can never be found by location:
+    		getMineSpatialIndex().put( mine, mine.isVirtual() ? null : mine.getBounds() );
+    		
+    		PlayerMineCache.getInstance().invalidateMine( mine );
+    	}
+    }
 
 
 
@@ -483,6 +512,10 @@ public class MineManager
     
     
 
+	public SpatialIndex<Mine> getMineSpatialIndex() {
+		return mineSpatialIndex;
+	}
+
 	public TreeMap<String, Mine> getMinesByName() {
 		return minesByName;
 	}
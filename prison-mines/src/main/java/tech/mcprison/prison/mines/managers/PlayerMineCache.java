@@ -0,0 +1,228 @@
+package tech.mcprison.prison.mines.managers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import tech.mcprison.prison.mines.data.Mine;
+import tech.mcprison.prison.util.Bounds;
+import tech.mcprison.prison.util.Location;
+
+/**
+ * <p>The PlayerMineCache tries to provide a faster way to identify which mine a 
+ * player is in. The theory is that there is a very high chance it will be the 
+ * last mine they were in.  So this records the last mine they were in, and if 
+ * that is not where they are, then, and only then, does the spatial index need 
+ * to be used to find the mine.
+ * </p>
+ * 
+ * <p>Block events can be fired from async threads by some of the enchantment
+ * plugins, so this cache must be thread safe.  It is keyed on the player's full
+ * UUID, and it is bounded so it can never grow without limit.
+ * </p>
+ * 
+ * <p>An entry is dropped when the player quits, or changes worlds, or when the 
+ * mine's bounds are changed or the mine is removed.  An entry also remembers 
+ * the bounds that the mine had when it was cached, so if the bounds are 
+ * replaced, the stale entry will never be returned.
+ * </p>
+ *
+ */
+public class PlayerMineCache
+{
+	public static final int PLAYER_MINE_CACHE_MAX_SIZE = 2000;
+	
+	private static PlayerMineCache instance;
+	
+	private final ConcurrentHashMap<UUID, PlayerMineCacheEntry> cache;
+	
+	private final int maxSize;
+	
+	/**
+	 * <p>Incremented every time an entry is used, so the entries that have not 
+	 * been used for the longest time can be evicted first.
+	 * </p>
+	 */
+	private final AtomicLong accessCounter = new AtomicLong();
+	
+	private static class PlayerMineCacheEntry {
+		private final Mine mine;
+		private final Bounds bounds;
+		
+		private volatile long lastAccess;
+		
+		public PlayerMineCacheEntry( Mine mine, long lastAccess ) {
+			super();
+			
+			this.mine = mine;
+			this.bounds = mine.getBounds();
+			this.lastAccess = lastAccess;
+		}
+		
+		public boolean isValid() {
+			return !mine.isVirtual() && mine.getBounds() == bounds;
+		}
+	}
+	
+	protected PlayerMineCache( int maxSize ) {
+		super();
+		
+		this.cache = new ConcurrentHashMap<>();
+		this.maxSize = maxSize;
+	}
+	
+	public static PlayerMineCache getInstance() {
+		if ( instance == null ) {
+			synchronized ( PlayerMineCache.class ) {
+				if ( instance == null ) {
+					instance = new PlayerMineCache( PLAYER_MINE_CACHE_MAX_SIZE );
+				}
+			}
+		}
+		return instance;
+	}
+	
+	/**
+	 * <p>Gets the last mine that the player was in, if it is still valid.
+	 * The caller must still confirm the player, or block, is within the mine.
+	 * </p>
+	 * 
+	 * @param playerUUID
+	 * @return
+	 */
+	public Mine get( UUID playerUUID ) {
+		Mine results = null;
+		
+		if ( playerUUID != null ) {
+			
+			PlayerMineCacheEntry entry = cache.get( playerUUID );
+			
+			if ( entry != null ) {
+				if ( entry.isValid() ) {
+					results = entry.mine;
+					entry.lastAccess = accessCounter.incrementAndGet();
+				}
+				else {
+					cache.remove( playerUUID, entry );
+				}
+			}
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * <p>Gets the last mine that the player was in, but only if the location
+	 * is in the same world as the mine.  If the player has changed worlds, then
+	 * the entry is dropped.
+	 * </p>
+	 * 
+	 * @param playerUUID
+	 * @param location
+	 * @return
+	 */
+	public Mine get( UUID playerUUID, Location location ) {
+		Mine results = get( playerUUID );
+		Bounds bounds = results == null ? null : results.getBounds();
+		
+		if ( bounds != null && location != null && 
+				!bounds.withinSameWorld( location ) ) {
+			
+			invalidate( playerUUID );
+			results = null;
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * <p>Records the mine the player is in.  If the mine is null, then the
+	 * player's entry is removed.
+	 * </p>
+	 * 
+	 * @param playerUUID
+	 * @param mine
+	 */
+	public void put( UUID playerUUID, Mine mine ) {
+		if ( playerUUID != null ) {
+			
+			if ( mine == null || mine.getBounds() == null ) {
+				cache.remove( playerUUID );
+			}
+			else {
+				
+				if ( cache.size() >= maxSize && !cache.containsKey( playerUUID ) ) {
+					evict();
+				}
+				
+				cache.put( playerUUID, 
+						new PlayerMineCacheEntry( mine, accessCounter.incrementAndGet() ) );
+			}
+		}
+	}
+	
+	/**
+	 * <p>The cache is only full if there are more players than the max size, 
+	 * so dropping some of the entries will only cause a few extra lookups.
+	 * The entries that have not been used for the longest time are dropped, 
+	 * so the players that are mining right now are kept.  Since the entries 
+	 * of the players that quit are removed, this is rarely needed.
+	 * </p>
+	 */
+	private void evict() {
+		int remove = Math.max( 1, maxSize / 10 );
+		
+		List<Map.Entry<UUID, PlayerMineCacheEntry>> entries = new ArrayList<>( cache.entrySet() );
+		entries.sort( (e1, e2) -> Long.compare( e1.getValue().lastAccess, e2.getValue().lastAccess ) );
+		
+		for ( int i = 0; i < remove && i < entries.size(); i++ ) {
+			Map.Entry<UUID, PlayerMineCacheEntry> entry = entries.get( i );
+			cache.remove( entry.getKey(), entry.getValue() );
+		}
+	}
+	
+	public void invalidate( UUID playerUUID ) {
+		if ( playerUUID != null ) {
+			cache.remove( playerUUID );
+		}
+	}
+	
+	/**
+	 * <p>Removes all players that are cached for this mine.  This is used when
+	 * the mine's bounds are changed, or the mine is deleted.
+	 * </p>
+	 * 
+	 * @param mine
+	 */
+	public void invalidateMine( Mine mine ) {
+		if ( mine != null ) {
+			cache.values().removeIf( entry -> entry.mine == mine );
+		}
+	}
+	
+	/**
+	 * <p>Visits each player that has a valid mine cached.
+	 * </p>
+	 * 
+	 * @param visitor
+	 */
+	public void forEach( BiConsumer<UUID, Mine> visitor ) {
+		for ( Map.Entry<UUID, PlayerMineCacheEntry> entry : cache.entrySet() ) {
+			if ( entry.getValue().isValid() ) {
+				visitor.accept( entry.getKey(), entry.getValue().mine );
+			}
+		}
+	}
+	
+	public void clear() {
+		cache.clear();
+	}
+	
+	public int size() {
+		return cache.size();
+	}
+}
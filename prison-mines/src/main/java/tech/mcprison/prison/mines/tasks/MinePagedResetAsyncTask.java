@@ -12,6 +12,8 @@ import tech.mcprison.prison.mines.data.Mine;
 import tech.mcprison.prison.mines.data.MineScheduler.MineResetActions;
 import tech.mcprison.prison.mines.data.MineScheduler.MineResetScheduleType;
 import tech.mcprison.prison.output.Output;
+import tech.mcprison.prison.tasks.PrisonBlockSetOwner;
+import tech.mcprison.prison.tasks.PrisonBlockSetScheduler;
 import tech.mcprison.prison.tasks.PrisonRunnable;
 import tech.mcprison.prison.tasks.PrisonTaskSubmitter;
 
@@ -23,6 +25,7 @@ public class MinePagedResetAsyncTask
 	private final MineResetScheduleType resetScheduleType;
 	
 	private int position = 0;
+	private boolean setupComplete = false;
 	
 	private int page = 0;
 	
@@ -36,6 +39,15 @@ public class MinePagedResetAsyncTask
 	
 	private PrisonStatsElapsedTimeNanos nanos;
 	
+	/**
+	 * <p>All of the sync block updates are queued with the PrisonBlockSetScheduler
+	 * under this owner, so the updates from all mines share one tick budget.
+	 * The owner is held from the start of the reset until it is finished, so 
+	 * every page of the reset uses the same owner.
+	 * </p>
+	 */
+	private PrisonBlockSetOwner blockSetOwner;
+	
 	
 	// Config Settings:
 	private int configAsyncResetPageSize = -1;
@@ -108,19 +120,27 @@ public class MinePagedResetAsyncTask
 		submitTaskAsyncInternalNextPage();
 	}
 
+	/**
+	 * <p>This may be called from the main thread when the previous page's blocks
+	 * have been set, so it must only submit the task.
+	 * </p>
+	 */
 	private void submitTaskAsyncInternalNextPage() {
 		
-		if ( position > 0 && page++ % pagesPerReport == 0 ) {
-			
-			if ( PrisonMines.getInstance().getMineManager().isMineStats() ) {
-				
-				logStats();
-			}
-		}
-		
 		long delay = 0;
 		PrisonTaskSubmitter.runTaskLaterAsync( this, delay );
 	}
+	
+	/**
+	 * <p>Runs the callback after all of the blocks that have been queued so far
+	 * have been set by the PrisonBlockSetScheduler.  The callback is ran on the
+	 * main thread, so it must only submit the async work.
+	 * </p>
+	 */
+	private void submitWhenBlocksSet( Runnable callback ) {
+		
+		PrisonBlockSetScheduler.getInstance().submitCallback( blockSetOwner, callback );
+	}
 
 
 	private void logStats()
@@ -169,18 +189,45 @@ public class MinePagedResetAsyncTask
 	}
 	
 	@Override
-	public void run() {
+	public synchronized void run() {
 		
 		// The first time running this, need to setup the block list if a reset:
-		if ( position == 0 ) {
+		if ( position == 0 && !setupComplete ) {
+			setupComplete = true;
+			
 			if ( runSetupCancelAutoResets() ) {
 				// If the reset should be canceled then just return, and that will 
 				// terminate the reset.  There is nothing else that needs to be done.
 				return;
 			}
+			
+			blockSetOwner = PrisonBlockSetScheduler.getInstance().acquireOwner( mine.getName() );
 		}
 		
 		List<MineTargetPrisonBlock> targetBlocks = mine.getMineTargetPrisonBlocks();
+		
+		if ( position >= targetBlocks.size() ) {
+			
+			// All blocks have been queued, and the shutdown will be submitted once
+			// they have been set.  If there were no blocks, then finish now:
+			if ( position == 0 ) {
+				runShutdown();
+			}
+			return;
+		}
+		
+		boolean firstPage = position == 0;
+		
+		if ( !firstPage && page++ % pagesPerReport == 0 ) {
+			
+			if ( PrisonMines.getInstance().getMineManager().isMineStats() ) {
+				
+				logStats();
+			}
+		}
+		
+		// Mines with players in them are given priority:
+		blockSetOwner.setPriority( mine.getPlayerCount() > 0 );
 
 		int pageEndPosition = position + getConfigAsyncResetPageSize();
 				
@@ -209,19 +256,30 @@ public class MinePagedResetAsyncTask
 			int size = tBlocks.size();
 			position += size;
 			
-			mine.getWorld().get().setBlocksSynchronously( tBlocks, resetType, getNanos() );
+			mine.getWorld().get().setBlocksSynchronously( tBlocks, resetType, getNanos(), 
+							blockSetOwner );
 			
 		}
 		
 		
-		// Keep resubmitting this task until it is completed:
+		// Keep resubmitting this task until it is completed.  The next page is 
+		// queued when this page's blocks have been set, so it never gets more than 
+		// one page ahead of the blocks that are waiting to be set. The first page
+		// does not wait so there is always a page ready:
 		if ( position < targetBlocks.size() ) {
-			submitTaskAsyncInternalNextPage();
+			
+			submitWhenBlocksSet( () -> submitTaskAsyncInternalNextPage() );
+			
+			if ( firstPage ) {
+				submitTaskAsyncInternalNextPage();
+			}
 		}
 		else {
 			
-			// Finished running the task and let it end:
-			runShutdown();
+			// Finished queuing the blocks. Wait for them to be set before 
+			// running the shutdown:
+			submitWhenBlocksSet( () -> 
+					PrisonTaskSubmitter.runTaskLaterAsync( () -> runShutdown(), 0 ) );
 		}
 		
 	}
@@ -272,7 +330,9 @@ public class MinePagedResetAsyncTask
 		return cancel;
 	}
 	
-	private void runShutdown() {
+	private synchronized void runShutdown() {
+		
+		PrisonBlockSetScheduler.getInstance().releaseOwner( blockSetOwner );
 
 		logStats();
 		
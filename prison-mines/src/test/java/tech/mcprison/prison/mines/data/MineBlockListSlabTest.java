@@ -0,0 +1,142 @@
+package tech.mcprison.prison.mines.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.internal.block.MineTargetPrisonBlock;
+import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
+
+public class MineBlockListSlabTest
+{
+
+	private Mine createMine( PrisonBlock... blocks ) {
+
+		// 40 x 60 x 40 is 96,000 blocks, which is more than one slab:
+		return MineTestFixtures.createMine( "test", MineTestFixtures.createWorld( "test" ), 
+									39.0, 59.0, 39.0, blocks );
+	}
+
+	private List<String> getLayout( Mine mine ) {
+		List<String> layout = new ArrayList<>();
+
+		for ( MineTargetPrisonBlock targetBlock : mine.getMineTargetPrisonBlocks() ) {
+			layout.add( targetBlock.getPrisonBlock().getBlockName() );
+		}
+
+		return layout;
+	}
+
+	@Test
+	public void testLevelsPerSlab() {
+
+		assertEquals( 21, MineBlockListSlab.getLevelsPerSlab( 1600 ) );
+		assertEquals( 1, MineBlockListSlab.getLevelsPerSlab( 100000 ) );
+		assertEquals( MineBlockListSlab.MINE_RESET__BLOCK_GEN_SLAB_MIN_BLOCKS,
+				MineBlockListSlab.getLevelsPerSlab( 1 ) );
+	}
+
+	@Test
+	public void testSameSeedSameLayout() {
+
+		PrisonBlock stone = new PrisonBlock( PrisonBlockType.minecraft, "stone", 60d, 0 );
+		PrisonBlock coal = new PrisonBlock( PrisonBlockType.minecraft, "coal_ore", 25d, 0 );
+		PrisonBlock iron = new PrisonBlock( PrisonBlockType.minecraft, "iron_ore", 10d, 0 );
+		iron.setConstraintExcludeTopLayers( 5 );
+
+		Mine mine = createMine( stone, coal, iron );
+
+		mine.generateBlockList( 1234L, 1 );
+		List<String> layoutSequential = getLayout( mine );
+		int stonePlaced = stone.getBlockPlacedCount();
+		int airCount = mine.getAirCount();
+
+		mine.generateBlockList( 1234L, 4 );
+		List<String> layoutParallel = getLayout( mine );
+
+		assertEquals( 40 * 60 * 40, layoutSequential.size() );
+		assertEquals( layoutSequential, layoutParallel );
+		assertEquals( stonePlaced, stone.getBlockPlacedCount() );
+		assertEquals( airCount, mine.getAirCount() );
+
+		// The exclude top layers constraint must be honored in every slab:
+		for ( int i = 0; i < 5 * 40 * 40; i++ ) {
+			assertFalse( "iron_ore".equals( layoutParallel.get( i ) ) );
+		}
+		assertEquals( 5 * 40 * 40, iron.getRangeBlockCountLowLimit() );
+
+		mine.generateBlockList( 4321L, 4 );
+		assertFalse( layoutSequential.equals( getLayout( mine ) ) );
+	}
+
+	/**
+	 * <p>A max constraint forces the slabs to be generated sequentially, so this
+	 * only checks that the constraints are honored.
+	 * </p>
+	 */
+	@Test
+	public void testConstraints() {
+
+		PrisonBlock stone = new PrisonBlock( PrisonBlockType.minecraft, "stone", 100d, 0 );
+		PrisonBlock gold = new PrisonBlock( PrisonBlockType.minecraft, "gold_ore", 0.01d, 0 );
+		gold.setConstraintMin( 500 );
+		PrisonBlock diamond = new PrisonBlock( PrisonBlockType.minecraft, "diamond_ore", 10d, 0 );
+		diamond.setConstraintMax( 25 );
+
+		Mine mine = createMine( stone, gold, diamond );
+		assertTrue( mine.hasConstraintMax() );
+
+		mine.generateBlockList( 99L, 4 );
+		List<String> layout = getLayout( mine );
+
+		assertTrue( gold.getBlockPlacedCount() >= 500 );
+		assertEquals( gold.getBlockPlacedCount(), count( layout, "gold_ore" ) );
+
+		assertEquals( 25, diamond.getBlockPlacedCount() );
+		assertEquals( 25, count( layout, "diamond_ore" ) );
+	}
+
+	/**
+	 * <p>Without a max constraint the slabs are generated in parallel, and the
+	 * min constraint is applied after the slabs are merged, so the results must 
+	 * be the same as a single thread.
+	 * </p>
+	 */
+	@Test
+	public void testParallelConstraintMin() {
+
+		PrisonBlock stone = new PrisonBlock( PrisonBlockType.minecraft, "stone", 100d, 0 );
+		PrisonBlock gold = new PrisonBlock( PrisonBlockType.minecraft, "gold_ore", 0.01d, 0 );
+		gold.setConstraintMin( 500 );
+
+		Mine mine = createMine( stone, gold );
+		assertFalse( mine.hasConstraintMax() );
+
+		mine.generateBlockList( 99L, 4 );
+		List<String> layoutParallel = getLayout( mine );
+		int goldPlaced = gold.getBlockPlacedCount();
+
+		assertTrue( goldPlaced >= 500 );
+		assertEquals( goldPlaced, count( layoutParallel, "gold_ore" ) );
+
+		mine.generateBlockList( 99L, 1 );
+		assertEquals( layoutParallel, getLayout( mine ) );
+		assertEquals( goldPlaced, gold.getBlockPlacedCount() );
+	}
+
+	private int count( List<String> layout, String blockName ) {
+		int results = 0;
+		for ( String name : layout ) {
+			if ( blockName.equals( name ) ) {
+				results++;
+			}
+		}
+		return results;
+	}
+}
@@ -0,0 +1,118 @@
+package tech.mcprison.prison.mines.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.internal.block.MineTargetBlockStore;
+import tech.mcprison.prison.internal.block.MineTargetPrisonBlock;
+import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
+
+public class MineDataConcurrencyTest
+{
+
+	private Mine createMine( PrisonBlock block ) {
+		return MineTestFixtures.createMine( "test", MineTestFixtures.createWorld( "test" ), 
+									19.0, 19.0, 19.0, block );
+	}
+
+	@Test
+	public void testClaimCounted() {
+
+		PrisonBlock stone = new PrisonBlock( PrisonBlockType.minecraft, "stone", 100d, 0 );
+
+		Mine mine = createMine( stone );
+		mine.generateBlockList( 1L, 1 );
+
+		MineTargetPrisonBlock targetBlock = mine.getMineTargetPrisonBlocks().get( 0 );
+		assertFalse( targetBlock.isCounted() );
+
+		assertTrue( mine.incrementBlockMiningCount( targetBlock ) );
+		assertTrue( targetBlock.isCounted() );
+		assertTrue( targetBlock.isAirBroke() );
+		assertTrue( targetBlock.isMined() );
+
+		assertFalse( mine.incrementBlockMiningCount( targetBlock ) );
+		assertEquals( 1, stone.getBlockCountTotal() );
+	}
+
+	/**
+	 * <p>Many threads try to count every block in the mine at the same time,
+	 * just like overlapping explosions and block break events.  Each block must
+	 * be counted exactly once.
+	 * </p>
+	 */
+	@Test
+	public void testConcurrentCounts() throws Exception {
+
+		PrisonBlock stone = new PrisonBlock( PrisonBlockType.minecraft, "stone", 100d, 0 );
+
+		Mine mine = createMine( stone );
+		mine.generateBlockList( 1L, 1 );
+
+		MineTargetBlockStore store = mine.getMineTargetPrisonBlocks();
+		int blocks = store.size();
+		assertEquals( 20 * 20 * 20, blocks );
+
+		int startingBreakCount = mine.getBlockBreakCount();
+
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool( threads );
+		CountDownLatch start = new CountDownLatch( 1 );
+
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+
+			for ( int t = 0; t < threads; t++ ) {
+				final int offset = t * blocks / threads;
+
+				results.add( executor.submit( () -> {
+					int counted = 0;
+
+					start.await();
+
+					// Each thread starts at a different block so they overlap:
+					for ( int i = 0; i < blocks; i++ ) {
+						MineTargetPrisonBlock targetBlock = store.get( (i + offset) % blocks );
+
+						if ( mine.incrementBlockMiningCount( targetBlock ) ) {
+							counted++;
+						}
+					}
+
+					return counted;
+				}));
+			}
+
+			start.countDown();
+
+			int totalCounted = 0;
+			for ( Future<Integer> result : results ) {
+				totalCounted += result.get( 60, TimeUnit.SECONDS );
+			}
+
+			assertEquals( blocks, totalCounted );
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals( blocks, mine.getBlockBreakCount() - startingBreakCount );
+		assertEquals( blocks, mine.getTotalBlocksMined() );
+
+		assertEquals( blocks, stone.getBlockCountTotal() );
+		assertEquals( blocks, stone.getBlockCountSession() );
+		assertEquals( blocks, stone.getBlockCountUnsaved() );
+	}
+}
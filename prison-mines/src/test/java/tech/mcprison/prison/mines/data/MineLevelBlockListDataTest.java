@@ -0,0 +1,95 @@
+package tech.mcprison.prison.mines.data;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
+import tech.mcprison.prison.mines.data.Mine.MineUnitTestUsage;
+
+public class MineLevelBlockListDataTest
+{
+
+	private Mine createMine( PrisonBlock... blocks ) {
+
+		Mine mine = new Mine( MineUnitTestUsage.TRUE, "test" );
+
+		for ( PrisonBlock block : blocks ) {
+			mine.getPrisonBlocks().add( block );
+		}
+
+		return mine;
+	}
+
+	@Test
+	public void testWeightedSelection() {
+
+		PrisonBlock stone = new PrisonBlock( PrisonBlockType.minecraft, "stone", 50d, 0 );
+		PrisonBlock coal = new PrisonBlock( PrisonBlockType.minecraft, "coal_ore", 25d, 0 );
+		PrisonBlock iron = new PrisonBlock( PrisonBlockType.minecraft, "iron_ore", 15d, 0 );
+
+		// The remaining 10 percent will be AIR:
+		Mine mine = createMine( stone, coal, iron );
+
+		MineLevelBlockListData levelData = new MineLevelBlockListData( 1, 1, mine, new SplittableRandom( 42 ), 0 );
+
+		int samples = 200000;
+		int stoneCount = 0;
+		int coalCount = 0;
+		int ironCount = 0;
+		int airCount = 0;
+
+		for ( int i = 0; i < samples; i++ ) {
+			PrisonBlock selected = levelData.randomlySelectPrisonBlock();
+
+			if ( selected == stone ) {
+				stoneCount++;
+			}
+			else if ( selected == coal ) {
+				coalCount++;
+			}
+			else if ( selected == iron ) {
+				ironCount++;
+			}
+			else if ( selected.isAir() ) {
+				airCount++;
+			}
+		}
+
+		assertEquals( 0.50d, stoneCount / (double) samples, 0.01d );
+		assertEquals( 0.25d, coalCount / (double) samples, 0.01d );
+		assertEquals( 0.15d, ironCount / (double) samples, 0.01d );
+		assertEquals( 0.10d, airCount / (double) samples, 0.01d );
+	}
+
+	@Test
+	public void testConstraintMax() {
+
+		PrisonBlock stone = new PrisonBlock( PrisonBlockType.minecraft, "stone", 50d, 0 );
+		PrisonBlock gold = new PrisonBlock( PrisonBlockType.minecraft, "gold_ore", 50d, 0 );
+		gold.setConstraintMax( 5 );
+
+		Mine mine = createMine( stone, gold );
+
+		MineLevelBlockListData levelData = new MineLevelBlockListData( 1, 1, mine, new SplittableRandom( 7 ), 0 );
+
+		int goldCount = 0;
+
+		for ( int i = 0; i < 1000; i++ ) {
+			PrisonBlock selected = levelData.randomlySelectPrisonBlock();
+
+			// Same as what MineReset does when a block is placed:
+			selected.incrementResetBlockCount();
+
+			if ( selected == gold ) {
+				goldCount++;
+			}
+		}
+
+		assertEquals( 5, goldCount );
+		assertEquals( 995, stone.getBlockPlacedCount() );
+	}
+}
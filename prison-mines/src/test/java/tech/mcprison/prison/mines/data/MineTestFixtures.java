@@ -0,0 +1,59 @@
+package tech.mcprison.prison.mines.data;
+
+import java.lang.reflect.Proxy;
+
+import tech.mcprison.prison.internal.World;
+import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.mines.data.Mine.MineUnitTestUsage;
+import tech.mcprison.prison.util.Bounds;
+import tech.mcprison.prison.util.Location;
+
+/**
+ * <p>The mines that are used by the unit tests, which do not need a server.
+ * </p>
+ *
+ */
+public class MineTestFixtures
+{
+
+	/**
+	 * <p>A world where only the name is needed.  All other functions return null.
+	 * </p>
+	 *
+	 * @param name
+	 * @return
+	 */
+	public static World createWorld( String name ) {
+		return (World) Proxy.newProxyInstance( World.class.getClassLoader(),
+				new Class<?>[] { World.class },
+				(proxy, method, args) -> "getName".equals( method.getName() ) ? name : null );
+	}
+
+	/**
+	 * <p>A mine from 0, 0, 0 to the given max location, with the given blocks.
+	 * </p>
+	 *
+	 * @param name
+	 * @param world
+	 * @param maxX
+	 * @param maxY
+	 * @param maxZ
+	 * @param blocks
+	 * @return
+	 */
+	public static Mine createMine( String name, World world,
+				double maxX, double maxY, double maxZ, PrisonBlock... blocks ) {
+
+		Mine mine = new Mine( MineUnitTestUsage.TRUE, name );
+
+		Bounds bounds = new Bounds( new Location( world, 0.0, 0.0, 0.0 ),
+									new Location( world, maxX, maxY, maxZ ) );
+		mine.setBounds( bounds, false );
+
+		for ( PrisonBlock block : blocks ) {
+			mine.getPrisonBlocks().add( block );
+		}
+
+		return mine;
+	}
+}
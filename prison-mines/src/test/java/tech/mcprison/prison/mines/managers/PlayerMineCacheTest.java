@@ -0,0 +1,136 @@
+package tech.mcprison.prison.mines.managers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import tech.mcprison.prison.internal.World;
+import tech.mcprison.prison.mines.data.Mine;
+import tech.mcprison.prison.mines.data.MineTestFixtures;
+import tech.mcprison.prison.util.Bounds;
+import tech.mcprison.prison.util.Location;
+
+public class PlayerMineCacheTest
+{
+
+	private World createWorld( String name ) {
+		return MineTestFixtures.createWorld( name );
+	}
+	
+	private Mine createMine( String name, World world ) {
+		return MineTestFixtures.createMine( name, world, 10.0, 10.0, 10.0 );
+	}
+	
+	@Test
+	public void testGetAndInvalidate() {
+		
+		World world = createWorld( "test" );
+		Mine mineA = createMine( "a", world );
+		Mine mineB = createMine( "b", world );
+		
+		PlayerMineCache cache = new PlayerMineCache( 100 );
+		
+		// Same low bits, different high bits, so these must be two entries:
+		UUID player1 = new UUID( 1L, 42L );
+		UUID player2 = new UUID( 2L, 42L );
+		
+		cache.put( player1, mineA );
+		cache.put( player2, mineB );
+		
+		assertSame( mineA, cache.get( player1 ) );
+		assertSame( mineB, cache.get( player2 ) );
+		
+		// Changed worlds:
+		assertSame( mineA, cache.get( player1, new Location( world, 5.0, 5.0, 5.0 ) ) );
+		assertNull( cache.get( player1, new Location( createWorld( "other" ), 5.0, 5.0, 5.0 ) ) );
+		assertNull( cache.get( player1 ) );
+		
+		// Not in a mine any more:
+		cache.put( player2, null );
+		assertNull( cache.get( player2 ) );
+		
+		// The mine's bounds changed:
+		cache.put( player1, mineA );
+		mineA.setBounds( new Bounds( new Location( world, 20.0, 0.0, 0.0 ), 
+									 new Location( world, 30.0, 10.0, 10.0 ) ), false );
+		assertNull( cache.get( player1 ) );
+		
+		cache.put( player1, mineA );
+		cache.put( player2, mineA );
+		cache.invalidateMine( mineA );
+		assertEquals( 0, cache.size() );
+		
+		cache.put( player1, mineB );
+		cache.invalidate( player1 );
+		assertNull( cache.get( player1 ) );
+	}
+	
+	@Test
+	public void testBoundedAndConcurrent() throws InterruptedException {
+		
+		World world = createWorld( "test" );
+		Mine mine = createMine( "a", world );
+		
+		PlayerMineCache cache = new PlayerMineCache( 100 );
+		
+		List<Thread> threads = new ArrayList<>();
+		for ( int t = 0; t < 4; t++ ) {
+			Thread thread = new Thread( () -> {
+				for ( int i = 0; i < 5000; i++ ) {
+					UUID uuid = UUID.randomUUID();
+					cache.put( uuid, mine );
+					cache.get( uuid );
+					
+					if ( i % 3 == 0 ) {
+						cache.invalidate( uuid );
+					}
+				}
+			});
+			threads.add( thread );
+			thread.start();
+		}
+		for ( Thread thread : threads ) {
+			thread.join();
+		}
+		
+		// Each thread can only add one more before the next eviction:
+		assertTrue( cache.size() <= 100 + threads.size() );
+	}
+	
+	@Test
+	public void testEvictLeastRecentlyUsed() {
+		
+		World world = createWorld( "test" );
+		Mine mine = createMine( "a", world );
+		
+		PlayerMineCache cache = new PlayerMineCache( 20 );
+		
+		List<UUID> players = new ArrayList<>();
+		for ( int i = 0; i < 20; i++ ) {
+			UUID uuid = new UUID( 0L, i );
+			players.add( uuid );
+			cache.put( uuid, mine );
+		}
+		
+		// The first two players are still mining, so they must not be evicted:
+		cache.get( players.get( 0 ) );
+		cache.get( players.get( 1 ) );
+		
+		// Full, so the two entries that were used the longest time ago are dropped:
+		cache.put( new UUID( 1L, 0L ), mine );
+		
+		assertEquals( 19, cache.size() );
+		assertSame( mine, cache.get( players.get( 0 ) ) );
+		assertSame( mine, cache.get( players.get( 1 ) ) );
+		assertNull( cache.get( players.get( 2 ) ) );
+		assertNull( cache.get( players.get( 3 ) ) );
+		assertSame( mine, cache.get( players.get( 4 ) ) );
+	}
+}
@@ -3,9 +3,7 @@ package tech.mcprison.prison.ranks.data;
 import java.io.File;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.TreeMap;
 import java.util.UUID;
 
 import tech.mcprison.prison.Prison;
@@ -15,6 +13,7 @@ import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.ranks.PrisonRanks;
 import tech.mcprison.prison.ranks.tasks.TopNPlayerUpdateAsyncTask;
+import tech.mcprison.prison.util.RankedTreeMap;
 
 /**
  * <p>This is singleton that manages the topNPlayers.
@@ -25,6 +24,14 @@ import tech.mcprison.prison.ranks.tasks.TopNPlayerUpdateAsyncTask;
  * worth trying to bypass a full reload.
  * </p>
  * 
+ * <p>The topN and the archived players are kept in a RankedTreeMap, which is
+ * keyed on the player's file name, and is ordered by the TopNPlayersData 
+ * comparator.  When a player's rank score changes, only that player is moved
+ * to their new position, so there is no need to resort all of the players.  
+ * The topNList and the archivedList are only used for the save file.
+ * All access to the ranked collections are synchronized on this object.
+ * </p>
+ * 
  * @author Blue
  *
  */
@@ -48,10 +55,10 @@ public class TopNPlayers
 	public transient File saveFile = null;
 	
 	private ArrayList<TopNPlayersData> topNList;
-	private transient TreeMap<String, TopNPlayersData> topNMap;
+	private transient RankedTreeMap<String, TopNPlayersData> topNRanked;
 	
 	private ArrayList<TopNPlayersData> archivedList;
-	private transient TreeMap<String, TopNPlayersData> archivedMap;
+	private transient RankedTreeMap<String, TopNPlayersData> archivedRanked;
 	
 	private transient boolean calculatedRankScores = false;
 	
@@ -70,11 +77,13 @@ public class TopNPlayers
 	private TopNPlayers() {
 		super();
 		
+		TopNPlayersData comparator = new TopNPlayersData();
+		
 		this.topNList = new ArrayList<>();
-		this.topNMap = new TreeMap<>();
+		this.topNRanked = new RankedTreeMap<>( comparator );
 		
 		this.archivedList = new ArrayList<>();
-		this.archivedMap = new TreeMap<>();
+		this.archivedRanked = new RankedTreeMap<>( comparator );
 		
 		this.dirty = false;
 		
@@ -192,9 +201,7 @@ public class TopNPlayers
 			
 			// Ranks is not loaded, so reset to empties:
 			setTopNList( new ArrayList<>() );
-			setTopNMap( new TreeMap<>() );
 			setArchivedList( new ArrayList<>() );
-			setArchivedMap( new TreeMap<>() );
 			
 			return;
 		}
@@ -204,7 +211,7 @@ public class TopNPlayers
 		JsonFileIO jfio = new JsonFileIO();
 		
 		TopNPlayers temp = (TopNPlayers) jfio.readJsonFile( getSaveFile(), this );
-		temp.sortTopN();
+		temp.rankSaveLists();
 		
 		// The following is disabled because this is just a performance test.
 		
@@ -215,9 +222,7 @@ public class TopNPlayers
 //			
 //			// Load from file was successful!
 //			setTopNList( temp.getTopNList() );
-//			setTopNMap( temp.getTopNMap() );
 //			setArchivedList( temp.getArchivedList() );
-//			setArchivedMap( temp.getArchivedMap() );
 //
 //			// Since loading from a file, some players may now need to be archived:
 //			checkArchives();
@@ -236,9 +241,6 @@ public class TopNPlayers
 //			// when adding the player data.
 //		}
 //		
-//		// Sort:
-//		sortTopN();
-		
 		long end = System.nanoTime();
 		
 		setStatsLoadDataNanoSec( end - start );
@@ -267,26 +269,23 @@ public class TopNPlayers
 			
 			long start = System.nanoTime();
 
-			getTopNList().clear();
-			getTopNMap().clear();
-			
-			getArchivedList().clear();
-			getArchivedMap().clear();
-			
-			
-			// load from file was not successful, probably because there is no file.
-			// So create a new collection of players from the PlayerManager:
-			List<RankPlayer> players = PrisonRanks.getInstance().getPlayerManager().getPlayers();
-			
-			for (RankPlayer rankPlayer : players) {
+			synchronized ( this ) {
+				
+				getTopNRanked().clear();
+				getArchivedRanked().clear();
 				
-				addPlayerData( rankPlayer );
+				
+				// load from file was not successful, probably because there is no file.
+				// So create a new collection of players from the PlayerManager:
+				List<RankPlayer> players = PrisonRanks.getInstance().getPlayerManager().getPlayers();
+				
+				for (RankPlayer rankPlayer : players) {
+					
+					addPlayerData( rankPlayer );
+				}
+				
+				this.dirty = true;
 			}
-			
-			this.dirty = true;
-			
-			// Sort:
-			sortTopN();
 
 			long end = System.nanoTime();
 			
@@ -303,7 +302,14 @@ public class TopNPlayers
 
 		long start = System.nanoTime();
 		
-		jfio.saveJsonFile( getSaveFile(), this );
+		synchronized ( this ) {
+			
+			// The save lists are only a snapshot of the ranked collections:
+			this.topNList = getTopNRanked().values();
+			this.archivedList = getArchivedRanked().values();
+			
+			jfio.saveJsonFile( getSaveFile(), this );
+		}
 
 		long end = System.nanoTime();
 		
@@ -311,14 +317,14 @@ public class TopNPlayers
 	}
 
 	@SuppressWarnings("unused")
-	private void checkArchives() {
+	private synchronized void checkArchives() {
 		
 		ArrayList<TopNPlayersData> temp = new ArrayList<>();
 		
 		long archiveDate = System.currentTimeMillis() - archiveCutoffDaysMS;
 		
 		// Locate the entries that need to be archived:
-		for ( TopNPlayersData topN : topNList ) {
+		for ( TopNPlayersData topN : getTopNRanked().values() ) {
 			if ( topN.getLastSeen() < archiveDate ) {
 				temp.add(topN);
 			}
@@ -327,15 +333,13 @@ public class TopNPlayers
 		// Now move them to the archived state:
 		for (TopNPlayersData topN : temp) {
 			
-			// remove from list and map:
-			getTopNList().remove(topN);
-			getTopNMap().remove( topN.getKey() );
+			// remove from the topN:
+			getTopNRanked().remove( topN.getKey() );
 			
 			// Change the status:
 			topN.setPlayerState( PlayerState.archived );
 			
-			getArchivedList().add(topN);
-			getArchivedMap().put( topN.getKey(), topN );
+			getArchivedRanked().put( topN.getKey(), topN );
 		}
 		
 		if ( temp.size() > 0 ) {
@@ -351,29 +355,29 @@ public class TopNPlayers
 	 * collection, so if they are, then this is treated more like an update.
 	 * </p>
 	 * 
+	 * <p>The player is placed in their sorted position, which is O(log n), so 
+	 * the collections never need to be resorted. Since the player is found by
+	 * their key, the topN's rank score may have already been updated before 
+	 * this is called.
+	 * </p>
+	 * 
 	 * @param topN
 	 */
-	private void addPlayerData( TopNPlayersData topN, PlayerState activePlayerState ) {
+	private synchronized void addPlayerData( TopNPlayersData topN, PlayerState activePlayerState ) {
 		
 		long archiveDate = System.currentTimeMillis() - archiveCutoffDaysMS;
 		
 		// First remove the player from all collections since it will be added back.
 		// Since the last seen date may have changed, it may be added to a different
 		// collection, hence why it needs to be first removed.
-		if ( getTopNMap().containsKey( topN.getKey() ) ) {
+		if ( getTopNRanked().remove( topN.getKey() ) != null ) {
 			
-			TopNPlayersData temp = getTopNMap().remove( topN.getKey() );
-			getTopNList().remove( temp );
-
 			setDirty( true );
 		}
 		
-		// Remove the player from both the archive map and list:
-		if ( getArchivedMap().containsKey( topN.getKey() ) ) {
+		// Remove the player from the archive:
+		if ( getArchivedRanked().remove( topN.getKey() ) != null ) {
 			
-			TopNPlayersData temp = getArchivedMap().remove( topN.getKey() );
-			getArchivedList().remove( temp );
-
 			setDirty( true );
 		}
 		
@@ -382,8 +386,7 @@ public class TopNPlayers
 		if ( topN.getLastSeen() < archiveDate ) {
 			topN.setPlayerState( PlayerState.archived );
 			
-			getArchivedList().add(topN);
-			getArchivedMap().put( topN.getKey(), topN );
+			getArchivedRanked().put( topN.getKey(), topN );
 
 			setDirty( true );
 		}
@@ -391,8 +394,7 @@ public class TopNPlayers
 			
 			topN.setPlayerState( activePlayerState );
 			
-			getTopNList().add(topN);
-			getTopNMap().put( topN.getKey(), topN );
+			getTopNRanked().put( topN.getKey(), topN );
 
 			setDirty( true );
 		}
@@ -411,8 +413,8 @@ public class TopNPlayers
 		
 		if ( !calculatedRankScores ) {
 			
-			calculateAllRankScores( getTopNList() );
-			calculateAllRankScores( getArchivedList() );
+			calculateAllRankScores( getTopNRanked() );
+			calculateAllRankScores( getArchivedRanked() );
 			
 			calculatedRankScores = true;
 		}
@@ -421,88 +423,75 @@ public class TopNPlayers
 		List<Player> onlinePlayer = Prison.get().getPlatform().getOnlinePlayers();
 		
 		
+		synchronized ( this ) {
 		
-		// Set all topNList entries to offline:
-		for ( TopNPlayersData topN : topNList ) {
-			if ( topN.getPlayerState() == PlayerState.online ) {
+			// Set all topNList entries to offline.  The player state is not used for 
+			// the ranking, so this will not change their rank positions:
+			for ( TopNPlayersData topN : getTopNRanked().values() ) {
+				if ( topN.getPlayerState() == PlayerState.online ) {
 				
-				topN.setPlayerState( PlayerState.offline );
+					topN.setPlayerState( PlayerState.offline );
+				}
 			}
-		}
 		
-		// Apply online only to online players:
-		for (Player player : onlinePlayer) {
+			// Apply online only to online players.  Each online player is moved to 
+			// their new rank position as they are updated, so there is no resort:
+			for (Player player : onlinePlayer) {
 			
-			RankPlayer rPlayer = PrisonRanks.getInstance().getPlayerManager().getPlayer(player);
+				RankPlayer rPlayer = PrisonRanks.getInstance().getPlayerManager().getPlayer(player);
 			
-			// Recalculate rankScore:
-			rPlayer.calculateRankScore();
+				// Recalculate rankScore:
+				rPlayer.calculateRankScore();
 
-			TopNPlayersData topN = null;
+				TopNPlayersData topN = null;
 			
-			String key = player.getPlayerFileName();
-			if ( getTopNMap().containsKey(key) ) {
-				topN = getTopNMap().get(key);
+				String key = player.getPlayerFileName();
+				if ( getTopNRanked().containsKey(key) ) {
+					topN = getTopNRanked().get(key);
 				
-				// Set the RankPlayer object if it has not been set already:
-				if ( topN.getrPlayer() == null ) {
-					topN.setrPlayer( rPlayer );
-				}
+					// Set the RankPlayer object if it has not been set already:
+					if ( topN.getrPlayer() == null ) {
+						topN.setrPlayer( rPlayer );
+					}
 
-				topN.updateRankPlayer( rPlayer );
-			}
-			if ( getArchivedMap().containsKey(key) ) {
-				// The player was archived.  Remove them from the archive and add them back
-				// to the topN:
-				topN = getArchivedMap().get(key);
-				
-				// Set the RankPlayer object if it has not been set already:
-				if ( topN.getrPlayer() == null ) {
-					topN.setrPlayer( rPlayer );
+					topN.updateRankPlayer( rPlayer );
 				}
+				if ( getArchivedRanked().containsKey(key) ) {
+					// The player was archived.  Remove them from the archive and add them back
+					// to the topN:
+					topN = getArchivedRanked().get(key);
+				
+					// Set the RankPlayer object if it has not been set already:
+					if ( topN.getrPlayer() == null ) {
+						topN.setrPlayer( rPlayer );
+					}
 
-				topN.updateRankPlayer( rPlayer );
+					topN.updateRankPlayer( rPlayer );
 				
-			}
-			else {
-				// Player is online, but yet they are not in the topN:
-				topN = new TopNPlayersData( rPlayer );
-			}
+				}
+				else {
+					// Player is online, but yet they are not in the topN:
+					topN = new TopNPlayersData( rPlayer );
+				}
 			
-			// Set last seen date:
-			topN.setLastSeen( System.currentTimeMillis() );
+				// Set last seen date:
+				topN.setLastSeen( System.currentTimeMillis() );
 			
-			addPlayerData( topN, PlayerState.online );
+				addPlayerData( topN, PlayerState.online );
 			
-			// Add player will always set the PlayerState to offline, so need to set it to
-			// online after addPlayerData() is called;
-//			topN.setPlayerState( PlayerState.online );
+				// Add player will always set the PlayerState to offline, so need to set it to
+				// online after addPlayerData() is called;
+	//			topN.setPlayerState( PlayerState.online );
 			
 			
-			setDirty( true );
-
-			long end = System.nanoTime();
+				setDirty( true );
 
-			setStatsRefreshDataNanoSec( end - start );
-		}
-		
-		ArrayList<TopNPlayersData> newTopNList = new ArrayList<>();
-		newTopNList.addAll( getTopNMap().values() );
-		
-		ArrayList<TopNPlayersData> newArchivedList = new ArrayList<>();
-		newArchivedList.addAll( getArchivedMap().values() );
-				
-		
-		TopNPlayersData comparator = new TopNPlayersData();
+				long end = System.nanoTime();
 
-		Collections.sort( newTopNList, comparator );
-		Collections.sort( newArchivedList, comparator );
-		
-		setTopNList(newTopNList);
-		setArchivedList(newArchivedList);
+				setStatsRefreshDataNanoSec( end - start );
+			}
 		
-//		// sort:
-//		sortTopN();
+		}
 		
 		// If there has been any changes since the last save, then 
 		// save it:
@@ -512,13 +501,13 @@ public class TopNPlayers
 		}
 	}
 	
-	private void calculateAllRankScores( ArrayList<TopNPlayersData> topNList ) {
+	private synchronized void calculateAllRankScores( RankedTreeMap<String, TopNPlayersData> ranked ) {
 
 		if ( PrisonRanks.getInstance() != null && 
 				PrisonRanks.getInstance().isEnabled() &&
 				PrisonRanks.getInstance().getPlayerManager() != null ) {
 			
-			for ( TopNPlayersData topN : topNList ) {
+			for ( TopNPlayersData topN : ranked.values() ) {
 				
 				RankPlayer rPlayer = topN.getrPlayer();
 				
@@ -533,6 +522,9 @@ public class TopNPlayers
 					
 					// This will not update lastSeen:
 					topN.updateRankPlayer( rPlayer );
+					
+					// Move the player to their new rank position:
+					ranked.put( topN.getKey(), topN );
 				}
 				
 			}
@@ -540,15 +532,14 @@ public class TopNPlayers
 	}
 
 	/**
-	 * <p>This sorts both the topNList and the archivedList.
+	 * <p>This loads the topNList and the archivedList, which were read from 
+	 * the save file, in to the ranked collections.
 	 * </p>
 	 */
-	private void sortTopN() {
-
-		TopNPlayersData comparator = new TopNPlayersData();
+	private synchronized void rankSaveLists() {
 
-		Collections.sort( getTopNList(), comparator );
-		Collections.sort( getArchivedList(), comparator );
+		setTopNList( topNList );
+		setArchivedList( archivedList );
 	}
 	
 	
@@ -576,19 +567,19 @@ public class TopNPlayers
 		
 	}
 	
-	private TopNPlayersData getTopNPlayer(RankPlayer rPlayer) {
+	private synchronized TopNPlayersData getTopNPlayer(RankPlayer rPlayer) {
 		
 		TopNPlayersData topN = null;
 		
 		String key = rPlayer.getPlayerFileName();
 		
-		if ( getTopNMap().containsKey( key ) ) {
+		if ( getTopNRanked().containsKey( key ) ) {
 			
-			topN = getTopNMap().get( key );
+			topN = getTopNRanked().get( key );
 		}
-		else if ( getArchivedMap().containsKey( key ) ) {
+		else if ( getArchivedRanked().containsKey( key ) ) {
 			
-			topN = getArchivedMap().get( key );
+			topN = getArchivedRanked().get( key );
 		}
 		else {
 			
@@ -601,11 +592,11 @@ public class TopNPlayers
 	/**
 	 * <p>This function will update, or add, a player's information within topN.  and when
 	 * The first thing this function does, is to calculate the rankScore for the RankPlayer.
-	 * It will then add the player to the topN.  When finished it will provide a 
-	 * simple sort of the topN results.  This will allow the player
+	 * It will then move the player to their new position within the topN, which
+	 * is O(log n).  This will allow the player
 	 * who just ranked up to reflect their changes in topN without having to 
-	 * wait until the whole topN set is refreshed.  The sorting used here will not update
-	 * any of the other player's balances or status, so this has a low-cost sorting.
+	 * wait until the whole topN set is refreshed.  This will not update
+	 * any of the other player's balances or status.
 	 * </p>
 	 * 
 	 * <p>If the Ranks module is not loaded, then this function will be ignored.
@@ -620,8 +611,6 @@ public class TopNPlayers
 				 PrisonRanks.getInstance().getPlayerManager() != null ) {
 			
 			addPlayerData( rPlayer);
-			
-			sortTopN();
 		}
 	}
 	
@@ -657,11 +646,28 @@ public class TopNPlayers
     	return msg;
     }
 	
-	public int getTopNSize() {
-		return getTopNList().size();
+	public synchronized int getTopNSize() {
+		return getTopNRanked().size();
+	}
+	public synchronized int getArchivedSize() {
+		return getArchivedRanked().size();
+	}
+	
+	/**
+	 * <p>Returns the player's position within the topN, where 0 is the top player.
+	 * If the player is not in the topN, such as if they have been archived, then 
+	 * this will return a -1.
+	 * </p>
+	 * 
+	 * @param rPlayer
+	 * @return
+	 */
+	public synchronized int getTopNRankPosition( RankPlayer rPlayer ) {
+		return getTopNRanked().getRank( rPlayer.getPlayerFileName() );
 	}
-	public int getArchivedSize() {
-		return getArchivedList().size();
+	
+	public synchronized int getTopNRankArchivedPosition( RankPlayer rPlayer ) {
+		return getArchivedRanked().getRank( rPlayer.getPlayerFileName() );
 	}
 	
 	public RankPlayer getTopNRankPlayer( int rankPosition ) {
@@ -693,14 +699,19 @@ public class TopNPlayers
 				PrisonRanks.getInstance().isEnabled() &&
 				PrisonRanks.getInstance().getPlayerManager() != null ) {
     		
-    		ArrayList<TopNPlayersData> tList = 
-    				archived ? 
-    						getArchivedList() :
-    							getTopNList();
+    		TopNPlayersData topN = null;
     		
-    		if ( rankPosition >= 0 && tList.size() > rankPosition ) {
+    		synchronized ( this ) {
+    			
+    			RankedTreeMap<String, TopNPlayersData> ranked = 
+    					archived ? 
+    							getArchivedRanked() :
+    								getTopNRanked();
     			
-    			TopNPlayersData topN = tList.get( rankPosition );
+    			topN = ranked.getByRank( rankPosition );
+    		}
+    		
+    		if ( topN != null ) {
     			
     			rPlayer = topN.getrPlayer();
     			
@@ -731,32 +742,44 @@ public class TopNPlayers
     }
 	
 	
-	public ArrayList<TopNPlayersData> getTopNList() {
-		return topNList;
+	/**
+	 * <p>Returns a sorted snapshot of the topN players.
+	 * </p>
+	 */
+	public synchronized ArrayList<TopNPlayersData> getTopNList() {
+		return getTopNRanked().values();
 	}
-	public void setTopNList(ArrayList<TopNPlayersData> topNList) {
-		this.topNList = topNList;
+	public synchronized void setTopNList(ArrayList<TopNPlayersData> topNList) {
+		this.topNList = topNList == null ? new ArrayList<>() : topNList;
+		
+		getTopNRanked().clear();
+		for ( TopNPlayersData topN : this.topNList ) {
+			getTopNRanked().put( topN.getKey(), topN );
+		}
 	}
 
-	public TreeMap<String, TopNPlayersData> getTopNMap() {
-		return topNMap;
-	}
-	public void setTopNMap(TreeMap<String, TopNPlayersData> topNMap) {
-		this.topNMap = topNMap;
+	public RankedTreeMap<String, TopNPlayersData> getTopNRanked() {
+		return topNRanked;
 	}
 
-	public ArrayList<TopNPlayersData> getArchivedList() {
-		return archivedList;
+	/**
+	 * <p>Returns a sorted snapshot of the archived players.
+	 * </p>
+	 */
+	public synchronized ArrayList<TopNPlayersData> getArchivedList() {
+		return getArchivedRanked().values();
 	}
-	public void setArchivedList(ArrayList<TopNPlayersData> archivedList) {
-		this.archivedList = archivedList;
+	public synchronized void setArchivedList(ArrayList<TopNPlayersData> archivedList) {
+		this.archivedList = archivedList == null ? new ArrayList<>() : archivedList;
+		
+		getArchivedRanked().clear();
+		for ( TopNPlayersData topN : this.archivedList ) {
+			getArchivedRanked().put( topN.getKey(), topN );
+		}
 	}
 
-	public TreeMap<String, TopNPlayersData> getArchivedMap() {
-		return archivedMap;
-	}
-	public void setArchivedMap(TreeMap<String, TopNPlayersData> archivedMap) {
-		this.archivedMap = archivedMap;
+	public RankedTreeMap<String, TopNPlayersData> getArchivedRanked() {
+		return archivedRanked;
 	}
 
 	public boolean isDirty() {
@@ -19,6 +19,7 @@
 package tech.mcprison.prison.spigot;
 
 import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Cancellable;
@@ -30,7 +31,9 @@ import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerArmorStandManipulateEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
@@ -42,19 +45,23 @@ import org.bukkit.plugin.EventExecutor;
 import org.bukkit.plugin.PluginManager;
 
 import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.cache.PlayerCache;
 import tech.mcprison.prison.internal.events.Cancelable;
 import tech.mcprison.prison.internal.events.player.PlayerPickUpItemEvent;
 import tech.mcprison.prison.internal.events.player.PlayerSuffocationEvent;
 import tech.mcprison.prison.internal.events.player.PrisonPlayerInteractEvent;
 import tech.mcprison.prison.internal.events.player.PrisonPlayerInteractEvent.Action;
 import tech.mcprison.prison.internal.events.world.PrisonWorldLoadEvent;
+import tech.mcprison.prison.mines.managers.PlayerMineCache;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.spigot.block.BlockBreakPriority;
 import tech.mcprison.prison.spigot.block.SpigotBlock;
 import tech.mcprison.prison.spigot.compat.Compatibility;
 import tech.mcprison.prison.spigot.compat.SpigotCompatibility;
+import tech.mcprison.prison.spigot.game.SpigotOfflinePlayer;
 import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.game.SpigotWorld;
+import tech.mcprison.prison.spigot.sellall.SellAllUtil;
 import tech.mcprison.prison.util.Location;
 import tech.mcprison.prison.util.Text;
 
@@ -130,6 +137,29 @@ public class SpigotListener implements Listener {
 //        Bukkit.getServer().getPluginManager().registerEvents(this, SpigotPrison.getInstance());
 //    }
 
+    /**
+     * <p>Prefetch the player's cache data while they are logging in.  This event
+     * runs on an async thread, so the player's file is read here and not on the 
+     * main thread when they start to mine.  New players do not have a name yet,
+     * and they have nothing to load, so they are loaded when they join.
+     * </p>
+     * 
+     * @param e
+     */
+    @EventHandler( priority = EventPriority.MONITOR )
+    public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent e) {
+    	
+    	if ( e.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED ) {
+    		
+    		OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer( e.getUniqueId() );
+    		
+    		if ( offlinePlayer != null && offlinePlayer.getName() != null ) {
+    			
+    			PlayerCache.getInstance().prefetchPlayer( new SpigotOfflinePlayer( offlinePlayer ) );
+    		}
+    	}
+    }
+
     @EventHandler 
     public void onPlayerJoin(PlayerJoinEvent e) {
         Prison.get().getEventBus().post(
@@ -142,6 +172,8 @@ public class SpigotListener implements Listener {
         Prison.get().getEventBus().post(
             new tech.mcprison.prison.internal.events.player.PlayerQuitEvent(
                 new SpigotPlayer(e.getPlayer())));
+        
+        SellAllUtil.invalidatePlayerMultiplierCache( e.getPlayer().getUniqueId() );
     }
 
     @EventHandler 
@@ -150,6 +182,18 @@ public class SpigotListener implements Listener {
             new tech.mcprison.prison.internal.events.player.PlayerKickEvent(
                 new SpigotPlayer(e.getPlayer()), e.getReason()));
     }
+    
+    /**
+     * <p>The player can no longer be in the mine they were last in, so
+     * drop it from the mine cache.
+     * </p>
+     * 
+     * @param e
+     */
+    @EventHandler 
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent e) {
+    	PlayerMineCache.getInstance().invalidate( e.getPlayer().getUniqueId() );
+    }
 
 	@EventHandler 
 	public void onPlayerSuffocation( EntityDamageEvent e ) {
@@ -145,6 +145,7 @@ import tech.mcprison.prison.spigot.util.ActionBarUtil;
 import tech.mcprison.prison.spigot.util.SpigotYamlFileIO;
 import tech.mcprison.prison.spigot.utils.tasks.PlayerAutoRankupTask;
 import tech.mcprison.prison.store.Storage;
+import tech.mcprison.prison.tasks.PrisonBlockSetScheduler;
 import tech.mcprison.prison.util.Bounds.Edges;
 import tech.mcprison.prison.util.Location;
 import tech.mcprison.prison.util.PrisonJarReporter;
@@ -937,6 +938,9 @@ public class SpigotPlatform
 		
 		// Reload excluded worlds list:
 		excludedWorlds = null;
+		
+		// Reload the mine reset tick budget:
+		PrisonBlockSetScheduler.getInstance().reloadConfig();
 	}
 	
 	@Override
@@ -62,6 +62,7 @@ import tech.mcprison.prison.sellall.commands.SellallCommands;
 import tech.mcprison.prison.spigot.autofeatures.AutoManagerFeatures;
 import tech.mcprison.prison.spigot.autofeatures.events.AutoManagerBlockBreakEvents;
 import tech.mcprison.prison.spigot.backpacks.BackpacksListeners;
+import tech.mcprison.prison.spigot.backpacks.BackpacksUtil;
 import tech.mcprison.prison.spigot.block.OnBlockBreakEventListener;
 import tech.mcprison.prison.spigot.bstats.PrisonBStats;
 import tech.mcprison.prison.spigot.commands.PrisonSpigotBackpackCommands;
@@ -97,6 +98,7 @@ import tech.mcprison.prison.spigot.tasks.PrisonInitialStartupTask;
 import tech.mcprison.prison.spigot.tasks.SpigotPrisonDelayedStartupTask;
 import tech.mcprison.prison.spigot.utils.PrisonUtilsMineBombs;
 import tech.mcprison.prison.spigot.utils.PrisonUtilsModule;
+import tech.mcprison.prison.tasks.PrisonBlockSetScheduler;
 import tech.mcprison.prison.util.Text;
 
 /**
@@ -453,6 +455,11 @@ public class SpigotPrison
     		this.scheduler.cancelAll();
     	}
     	
+    	PrisonBlockSetScheduler.getInstance().shutdown();
+    	
+    	// Save the backpacks that have changed, since their save timer was just cancelled:
+    	BackpacksUtil.shutdown();
+    	
     	Prison.get().getPlatform().unregisterAllCommands();
     	
     	Prison.get().deinit();
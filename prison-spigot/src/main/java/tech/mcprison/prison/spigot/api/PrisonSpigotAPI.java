@@ -21,6 +21,7 @@ import tech.mcprison.prison.mines.data.Mine;
 import tech.mcprison.prison.mines.data.PrisonSortableResults;
 import tech.mcprison.prison.mines.managers.MineManager;
 import tech.mcprison.prison.mines.managers.MineManager.MineSortOrder;
+import tech.mcprison.prison.mines.managers.PlayerMineCache;
 import tech.mcprison.prison.modules.Module;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.ranks.PrisonRanks;
@@ -361,20 +362,16 @@ public class PrisonSpigotAPI<PrisonItemStack> {
     			// Need to wrap in a Prison block so it can be used with the mines:
     			SpigotBlock spigotBlock = SpigotBlock.getSpigotBlock(block);
     			
-    			Long playerUUIDLSB = Long.valueOf( player.getUniqueId().getLeastSignificantBits() );
-
     			// Get the cached mine, if it exists:
-    			Mine mine = getPlayerCache().get( playerUUIDLSB );
+    			Mine mine = getPlayerCache().get( player.getUniqueId() );
     			
     			if ( mine == null || !mine.isInMineExact( spigotBlock.getLocation() ) ) {
     				// Look for the correct mine to use. 
     				// Set mine to null so if cannot find the right one it will return a null:
     				mine = findMineLocation( spigotBlock );
     				
-    				// Store the mine in the player cache if not null:
-    				if ( mine != null ) {
-    					getPlayerCache().put( playerUUIDLSB, mine );
-    				}
+    				// Store the mine in the player cache, or remove it if not in a mine:
+    				getPlayerCache().put( player.getUniqueId(), mine );
     			}
     			
     			results = mine;
@@ -450,8 +447,8 @@ public class PrisonSpigotAPI<PrisonItemStack> {
 		return results;
 	}
 
-	private TreeMap<Long, Mine> getPlayerCache() {
-		return getPrisonMineManager().getPlayerCache();
+	private PlayerMineCache getPlayerCache() {
+		return PlayerMineCache.getInstance();
 	}
 
 	public PrisonMines getPrisonMineManager() {
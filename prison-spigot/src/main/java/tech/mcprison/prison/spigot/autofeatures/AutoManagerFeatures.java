@@ -30,6 +30,7 @@ import com.vk2gpz.tokenenchant.api.TokenEnchantAPI;
 
 import tech.mcprison.prison.Prison;
 import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
+import tech.mcprison.prison.autofeatures.AutoFeaturesLoreCache;
 import tech.mcprison.prison.autofeatures.AutoFeaturesWrapper;
 import tech.mcprison.prison.autofeatures.BlockConverterOptionEventTrigger;
 import tech.mcprison.prison.cache.PlayerCache;
@@ -56,7 +57,6 @@ import tech.mcprison.prison.spigot.utils.tasks.PlayerAutoRankupTask;
 import tech.mcprison.prison.tasks.PrisonCommandTaskData;
 import tech.mcprison.prison.tasks.PrisonCommandTaskData.TaskMode;
 import tech.mcprison.prison.tasks.PrisonCommandTasks;
-import tech.mcprison.prison.util.Text;
 
 /**
  * <p>This class controls the data and the basic functions for auto features.
@@ -1834,41 +1834,10 @@ public abstract class AutoManagerFeatures
 			ItemMeta meta = itemInHand.getItemMeta();
 			
 			if ( meta != null && meta.hasLore()) { 
-				for (String lore : meta.getLore()) {
-					if (lore.startsWith( loreEnabler.name())) {
-
-						// Lore detected so set default to 100%:
-						results = 100.0;
-						
-						String value = lore.replace( loreEnabler.name(), "" ).trim();
-
-						if (value.length() > 0) {
-							
-							// Content has been found after the lore's name. If it is a number, then
-							// use that to set the lore's percentage.  If it fails at parsing then use 100%.
-
-							try {
-								results = Double.parseDouble( value );
-							}
-							catch (NumberFormatException e) {
-
-								// Error: Default to 100%
-								// Do not generate log messages since there will be 1000's...
-								results = 100.0;
-							}
-
-							// Clean up the parsed number.  Less than zero is zero (disabled).
-							if ( results < 0.0 ) {
-								results = 0.0;
-							}
-
-							// Cannot exceed 100%
-							if ( results > 100.0 ) {
-								results = 100.0;
-							}
-						}
-					}
-				}
+				
+				// The lore values are cached, since the same tool is used for many blocks:
+				results = AutoFeaturesLoreCache.getInstance()
+								.getLoreValue( meta.getLore(), loreEnabler.name(), false );
 			}
 		}
 
@@ -1881,49 +1850,9 @@ public abstract class AutoManagerFeatures
 		if ( itemInHand != null && !itemInHand.isAir() && loreValue != null && !loreValue.trim().isEmpty() ) {
 			List<String> lores = itemInHand.getLore();
 			
-			// Clean the loreValue we need to compare everything to.  It must have all color codes removed:
-			String loreValueCleaned = Text.stripColor( loreValue );
-			
-			for ( String lore : lores ) {
-				
-				// Remove the color codes so it can be cleanly compared with the loreValue:
-				String loreCleaned = Text.stripColor( lore );
-
-				if (loreCleaned.startsWith( loreValueCleaned )) {
-					
-					// Lore detected so set default to 100%:
-					results = 100.0;
-					
-					String value = loreCleaned.replace( loreValueCleaned, "" ).trim();
-					
-					if (value.length() > 0) {
-						
-						// Content has been found after the lore's name. If it is a number, then
-						// use that to set the lore's percentage.  If it fails at parsing then use 100%.
-						
-						try {
-							results = Double.parseDouble( value );
-						}
-						catch (NumberFormatException e) {
-							
-							// Error: Default to 100%
-							// Do not generate log messages since there will be 1000's...
-							results = 100.0;
-						}
-						
-						// Clean up the parsed number.  Less than zero is zero (disabled).
-						if ( results < 0.0 ) {
-							results = 0.0;
-						}
-						
-						// Cannot exceed 100%
-						if ( results > 100.0 ) {
-							results = 100.0;
-						}
-					}
-				}
-				
-			}
+			// The lore values are cached, since the same tool is used for many blocks.  The
+			// color codes are removed from the lore and the loreValue before they are compared:
+			results = AutoFeaturesLoreCache.getInstance().getLoreValue( lores, loreValue, true );
 		}
 
 		return results;
@@ -0,0 +1,501 @@
+package tech.mcprison.prison.spigot.backpacks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.output.Output;
+
+/**
+ * <p>This stores the backpacks data with one yml file for each player, within
+ * the directory <b>backpacks/players/</b>.  Each player's file is only loaded
+ * when that player's backpacks are used, and then it is kept in memory.
+ * </p>
+ *
+ * <p>The player's files use the same paths as the old single
+ * <b>backpacks/backpacksData.yml</b> file, such as
+ * <b>Inventories.&lt;uuid&gt;.Items.Size</b>, so the BackpacksUtil can
+ * use the same paths with the player's config.
+ * </p>
+ *
+ * <p>Changes are not saved right away. The player is marked as dirty, and a
+ * timer will serialize the dirty players on the main thread, then the files
+ * are written asynchronously.  Each file is written to a temp file and then
+ * moved in to place, so a crash while saving will not leave a partial file.
+ * </p>
+ *
+ * <p>If the old backpacksData.yml file exists, then it will be split in to
+ * the player's files the first time the store is used, and then it will be
+ * renamed to backpacksData.yml.migrated so it will not be migrated again.
+ * </p>
+ *
+ */
+public class BackpacksDataStore {
+
+    public static final String INVENTORIES = "Inventories";
+    public static final String FILE_SUFFIX = ".yml";
+    public static final String TEMP_SUFFIX = ".tmp";
+    public static final String MIGRATED_SUFFIX = ".migrated";
+
+    public static final long SAVE_INTERVAL_SECONDS_DEFAULT = 15;
+
+    private final File playersDirectory;
+    private final File legacyFile;
+
+    private final Map<String, FileConfiguration> players;
+    private final Set<String> dirtyPlayers;
+
+    // The serialized players that are waiting to be written:
+    private final Map<String, String> pendingWrites;
+
+    // The lower case player name, to the player's uuid:
+    private final Map<String, String> playerNames;
+
+    // The player's uuid, to their backpacks without the items.  This is
+    // what the admin GUIs use, so they do not have to read all of the files:
+    private final Map<String, ConfigurationSection> playerSummaries;
+    private volatile boolean playerIndexLoaded = false;
+
+    private final Object writeLock = new Object();
+
+    private int saveTaskId = -1;
+
+    public BackpacksDataStore(File backpacksDirectory) {
+        super();
+
+        this.playersDirectory = new File(backpacksDirectory, "players");
+        this.legacyFile = new File(backpacksDirectory, "backpacksData.yml");
+
+        this.players = new ConcurrentHashMap<>();
+        this.dirtyPlayers = ConcurrentHashMap.newKeySet();
+        this.pendingWrites = new ConcurrentHashMap<>();
+        this.playerNames = new ConcurrentHashMap<>();
+        this.playerSummaries = new ConcurrentHashMap<>();
+
+        if (!playersDirectory.exists()) {
+            playersDirectory.mkdirs();
+        }
+
+        migrateLegacyFile();
+    }
+
+    /**
+     * <p>Starts the timer that saves the dirty players.  The players are
+     * serialized on the main thread, since the ItemStacks are bukkit objects,
+     * and then the files are written asynchronously.
+     * </p>
+     *
+     * @param intervalSeconds
+     */
+    public void startSaveTask(long intervalSeconds) {
+        if (saveTaskId == -1) {
+            long ticks = Math.max(1, intervalSeconds) * 20;
+
+            saveTaskId = Prison.get().getPlatform().getScheduler().runTaskTimer(() -> {
+
+                // This includes the players that were unloaded since the last save:
+                snapshotDirtyPlayers();
+
+                if (!pendingWrites.isEmpty()) {
+                    Prison.get().getPlatform().getScheduler().runTaskLaterAsync(this::writePending, 0);
+                }
+
+            }, ticks, ticks);
+
+            // Build the index of the players that are not in memory off of the main thread:
+            Prison.get().getPlatform().getScheduler().runTaskLaterAsync(this::loadPlayerIndex, 0);
+        }
+    }
+
+    /**
+     * <p>Stops the save timer and saves all of the dirty players before
+     * returning.  This is called when prison is disabled.
+     * </p>
+     */
+    public void shutdown() {
+        if (saveTaskId != -1) {
+            Prison.get().getPlatform().getScheduler().cancelTask(saveTaskId);
+            saveTaskId = -1;
+        }
+
+        flush();
+    }
+
+    /**
+     * <p>Saves all of the dirty players on the current thread.
+     * </p>
+     */
+    public void flush() {
+        snapshotDirtyPlayers();
+        writePending();
+    }
+
+    /**
+     * <p>Returns the player's backpack data, which will be loaded from the
+     * player's file if it is not already in memory.  If the player does not
+     * have a file, then a new empty config is returned, which will only be
+     * saved if it is changed.
+     * </p>
+     *
+     * @param playerUuid
+     * @return
+     */
+    public FileConfiguration getPlayerData(Object playerUuid) {
+        return players.computeIfAbsent(playerUuid.toString(), this::loadPlayerData);
+    }
+
+    /**
+     * <p>Marks the player's data as changed, so it will be saved by the
+     * next run of the save timer.
+     * </p>
+     *
+     * @param playerUuid
+     */
+    public void markDirty(Object playerUuid) {
+        String uuid = playerUuid.toString();
+
+        FileConfiguration playerData = players.get(uuid);
+        if (playerData != null) {
+            indexPlayer(uuid, playerData, true);
+        }
+
+        dirtyPlayers.add(uuid);
+    }
+
+    /**
+     * <p>Removes the player's data from memory, such as when the player
+     * logs off.  If the player has unsaved changes, they are serialized first
+     * and will be saved by the next save.
+     * </p>
+     *
+     * @param playerUuid
+     */
+    public void unloadPlayer(Object playerUuid) {
+        String uuid = playerUuid.toString();
+
+        if (dirtyPlayers.remove(uuid)) {
+            snapshotPlayer(uuid);
+        }
+        players.remove(uuid);
+    }
+
+    /**
+     * <p>Returns the player's uuid for the player's name, if that player
+     * has backpack data.  The names are only loaded from the player's files
+     * the first time they are needed.
+     * </p>
+     *
+     * @param playerName
+     * @return The uuid, or null if the player was not found.
+     */
+    public String getPlayerUuid(String playerName) {
+        if (playerName == null) {
+            return null;
+        }
+        if (!playerIndexLoaded) {
+            loadPlayerIndex();
+        }
+
+        return playerNames.get(playerName.toLowerCase());
+    }
+
+    /**
+     * <p>Returns the uuids of all of the players that have backpack data.
+     * </p>
+     */
+    public List<String> getPlayerUuids() {
+        Set<String> results = getPlayerFileUuids();
+
+        // Include the new players that have not been saved yet.  The player could
+        // be unloaded while this is running:
+        for (Map.Entry<String, FileConfiguration> entry : players.entrySet()) {
+            FileConfiguration playerData = entry.getValue();
+
+            if (playerData != null && playerData.getConfigurationSection(INVENTORIES) != null) {
+                results.add(entry.getKey());
+            }
+        }
+
+        return new ArrayList<>(results);
+    }
+
+    /**
+     * <p>Returns the uuids of the players that have a file.  This does not read
+     * the players that are in memory, so it is safe to use off of the main thread.
+     * </p>
+     */
+    private Set<String> getPlayerFileUuids() {
+        Set<String> results = new LinkedHashSet<>();
+
+        File[] files = playersDirectory.listFiles((dir, name) -> name.endsWith(FILE_SUFFIX));
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                results.add(name.substring(0, name.length() - FILE_SUFFIX.length()));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * <p>This returns a config that contains all of the players, with the same
+     * layout as the old backpacksData.yml file, but without the backpack's
+     * items.  This is only intended for the admin GUIs.  It is built from the
+     * player index, which is loaded asynchronously when the save task is
+     * started, so this never reads the player's files.  The results must not
+     * be changed.
+     * </p>
+     *
+     * @return
+     */
+    public FileConfiguration getAllPlayersData() {
+        YamlConfiguration results = new YamlConfiguration();
+
+        for (Map.Entry<String, ConfigurationSection> entry : playerSummaries.entrySet()) {
+            copySection(entry.getValue(), results.createSection(INVENTORIES + "." + entry.getKey()));
+        }
+
+        return results;
+    }
+
+    private FileConfiguration loadPlayerData(String uuid) {
+        YamlConfiguration results = new YamlConfiguration();
+
+        // If the player was unloaded before it was saved, then the pending
+        // data is newer than their file:
+        String pending = pendingWrites.get(uuid);
+
+        try {
+            if (pending != null) {
+                results.loadFromString(pending);
+            }
+            else {
+                File file = getPlayerFile(uuid);
+                if (file.exists()) {
+                    results.load(file);
+                }
+            }
+        }
+        catch (IOException | InvalidConfigurationException e) {
+            Output.get().logError(String.format("BackpacksDataStore: Failure loading the backpacks for " +
+                    "player %s: %s", uuid, e.getMessage()));
+        }
+
+        indexPlayer(uuid, results, true);
+
+        return results;
+    }
+
+    private void snapshotDirtyPlayers() {
+        for (String uuid : new ArrayList<>(dirtyPlayers)) {
+            dirtyPlayers.remove(uuid);
+            snapshotPlayer(uuid);
+        }
+    }
+
+    private void snapshotPlayer(String uuid) {
+        FileConfiguration playerData = players.get(uuid);
+        if (playerData != null) {
+            indexPlayer(uuid, playerData, true);
+            pendingWrites.put(uuid, playerData.saveToString());
+        }
+    }
+
+    /**
+     * <p>Writes all of the pending players.  This is synchronized so that two
+     * saves cannot write the same player's file at the same time.
+     * </p>
+     */
+    private void writePending() {
+        synchronized (writeLock) {
+            for (String uuid : new ArrayList<>(pendingWrites.keySet())) {
+                String yaml = pendingWrites.get(uuid);
+                if (yaml == null) {
+                    continue;
+                }
+
+                try {
+                    writeFile(getPlayerFile(uuid), yaml);
+
+                    // Only remove it if a newer snapshot was not added while writing:
+                    pendingWrites.remove(uuid, yaml);
+                }
+                catch (IOException e) {
+                    Output.get().logError(String.format("BackpacksDataStore: Failure saving the backpacks for " +
+                            "player %s: %s", uuid, e.getMessage()));
+                }
+            }
+        }
+    }
+
+    private void writeFile(File file, String yaml) throws IOException {
+        File tempFile = new File(file.getParentFile(), file.getName() + TEMP_SUFFIX);
+
+        Files.write(tempFile.toPath(), yaml.getBytes(StandardCharsets.UTF_8));
+
+        try {
+            Files.move(tempFile.toPath(), file.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private File getPlayerFile(String uuid) {
+        return new File(playersDirectory, uuid + FILE_SUFFIX);
+    }
+
+    /**
+     * <p>Adds the player's name and the summary of their backpacks to the index.
+     * The data that is read from the player's files is older than the data in
+     * memory, so it must not replace it.
+     * </p>
+     *
+     * @param uuid
+     * @param playerData
+     * @param replace If false, then the player is only added if not already in the index.
+     */
+    private void indexPlayer(String uuid, FileConfiguration playerData, boolean replace) {
+        ConfigurationSection section = playerData.getConfigurationSection(INVENTORIES + "." + uuid);
+        if (section == null) {
+            if (replace) {
+                playerSummaries.remove(uuid);
+            }
+            return;
+        }
+
+        ConfigurationSection summary = new YamlConfiguration().createSection(INVENTORIES + "." + uuid);
+        for (String key : section.getKeys(false)) {
+            if (section.isConfigurationSection(key)) {
+                // Only the backpack's id is needed, and not the items:
+                summary.createSection(key);
+            }
+            else {
+                summary.set(key, section.get(key));
+            }
+        }
+
+        String name = section.getString("PlayerName");
+        if (replace) {
+            playerSummaries.put(uuid, summary);
+            if (name != null) {
+                playerNames.put(name.toLowerCase(), uuid);
+            }
+        }
+        else {
+            playerSummaries.putIfAbsent(uuid, summary);
+            if (name != null) {
+                playerNames.putIfAbsent(name.toLowerCase(), uuid);
+            }
+        }
+    }
+
+    /**
+     * <p>Reads the player's files that are not in memory to build the index.  This
+     * is only done once, and it is synchronized so the async load that is started
+     * with the save task, and a player lookup, will not both read the files.
+     * </p>
+     *
+     * <p>This only reads the player's files, and never the live configs of the
+     * players in memory, since this is usually ran off of the main thread.  The
+     * players in memory are indexed on the main thread when they are loaded and
+     * when they are changed.
+     * </p>
+     */
+    private synchronized void loadPlayerIndex() {
+        if (playerIndexLoaded) {
+            return;
+        }
+
+        try {
+            for (String uuid : getPlayerFileUuids()) {
+                if (!players.containsKey(uuid)) {
+                    YamlConfiguration playerData = new YamlConfiguration();
+                    try {
+                        playerData.load(getPlayerFile(uuid));
+                        indexPlayer(uuid, playerData, false);
+                    }
+                    catch (IOException | InvalidConfigurationException ignored) {}
+                }
+            }
+        }
+        finally {
+            // Even if it failed part way, do not try to load it again on the main thread:
+            playerIndexLoaded = true;
+        }
+    }
+
+    /**
+     * <p>Splits the old backpacksData.yml file in to the player's files.  The
+     * old file is renamed when done, so if this fails part way, then it will
+     * be tried again the next time.
+     * </p>
+     */
+    private void migrateLegacyFile() {
+        if (!legacyFile.exists()) {
+            return;
+        }
+
+        YamlConfiguration legacyData = YamlConfiguration.loadConfiguration(legacyFile);
+        ConfigurationSection inventories = legacyData.getConfigurationSection(INVENTORIES);
+
+        int count = 0;
+        try {
+            if (inventories != null) {
+                for (String uuid : inventories.getKeys(false)) {
+                    ConfigurationSection section = inventories.getConfigurationSection(uuid);
+                    // A player file that already exists is from an earlier migration that
+                    // failed part way, and may have newer data:
+                    if (section == null || getPlayerFile(uuid).exists()) {
+                        continue;
+                    }
+
+                    YamlConfiguration playerData = new YamlConfiguration();
+                    copySection(section, playerData.createSection(INVENTORIES + "." + uuid));
+
+                    writeFile(getPlayerFile(uuid), playerData.saveToString());
+                    indexPlayer(uuid, playerData, false);
+                    count++;
+                }
+            }
+
+            File migratedFile = new File(legacyFile.getParentFile(), legacyFile.getName() + MIGRATED_SUFFIX);
+            Files.move(legacyFile.toPath(), migratedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+            Output.get().logInfo("BackpacksDataStore: Migrated the backpacks of %d players from %s " +
+                    "to the player files in %s.", count, legacyFile.getName(), playersDirectory.getPath());
+        }
+        catch (IOException e) {
+            Output.get().logError(String.format("BackpacksDataStore: Failure migrating the backpacks from %s. " +
+                    "It will be tried again on the next restart: %s", legacyFile.getPath(), e.getMessage()));
+        }
+    }
+
+    private void copySection(ConfigurationSection from, ConfigurationSection to) {
+        for (String key : from.getKeys(false)) {
+            if (from.isConfigurationSection(key)) {
+                copySection(from.getConfigurationSection(key), to.createSection(key));
+            }
+            else {
+                to.set(key, from.get(key));
+            }
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.ItemStack;
 
 import tech.mcprison.prison.Prison;
@@ -27,6 +28,11 @@ public class BackpacksListeners implements Listener {
         defaultBackpackSetOnJoin(e);
     }
 
+    @EventHandler
+    public void onPlayerQuitBackpack(PlayerQuitEvent e){
+        BackpacksUtil.get().unloadPlayer(e.getPlayer());
+    }
+
     @EventHandler
     public void onBackpackCloseEvent(InventoryCloseEvent e){
         saveBackpackEdited(e);
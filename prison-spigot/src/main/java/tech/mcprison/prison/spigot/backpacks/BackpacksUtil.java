@@ -1,7 +1,6 @@
 package tech.mcprison.prison.spigot.backpacks;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -12,9 +11,7 @@ import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.Sound;
 import org.bukkit.configuration.Configuration;
-import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
@@ -39,8 +36,7 @@ public class BackpacksUtil
 
     private static BackpacksUtil instance;
     private Configuration backpacksConfig = SpigotPrison.getInstance().getBackpacksConfig();
-    private File backpacksFile = new File(SpigotPrison.getInstance().getDataFolder() + "/backpacks/backpacksData.yml");
-    private FileConfiguration backpacksDataConfig = YamlConfiguration.loadConfiguration(backpacksFile);
+    private BackpacksDataStore dataStore;
     public static List<String> openBackpacks = new ArrayList<>();
     public static List<String> backpackEdited = new ArrayList<>();
     private final Compatibility compat = SpigotCompatibility.getInstance();
@@ -58,10 +54,66 @@ public class BackpacksUtil
 
     /**
      * Get Backpacks DATA config.
+     *
+     * <p>The backpacks are stored in a file for each player, so this is built from
+     * the store's index of the players, and it does not include the backpack's items.
+     * It is only intended for the admin GUIs, and any changes made to it will not be saved.
+     * </p>
      * */
     public Configuration getBackpacksData(){
-        updateCachedBackpack();
-        return backpacksDataConfig;
+        return getDataStore().getAllPlayersData();
+    }
+
+    /**
+     * Get the store that loads and saves the backpacks of each player.
+     * */
+    public BackpacksDataStore getDataStore(){
+        if (dataStore == null){
+            synchronized (this){
+                if (dataStore == null){
+                    BackpacksDataStore store = new BackpacksDataStore(new File(SpigotPrison.getInstance().getDataFolder(), "backpacks"));
+
+                    long interval = BackpacksDataStore.SAVE_INTERVAL_SECONDS_DEFAULT;
+                    try {
+                        interval = Long.parseLong(backpacksConfig.getString("Options.BackPack_Save_Interval_Seconds"));
+                    } catch (NumberFormatException ignored){}
+
+                    store.startSaveTask(interval);
+                    dataStore = store;
+                }
+            }
+        }
+        return dataStore;
+    }
+
+    /**
+     * Save all of the changed backpacks, and stop the save timer.
+     * This is called when Prison is disabled.
+     * */
+    public static void shutdown(){
+        if (instance != null && instance.dataStore != null){
+            instance.dataStore.shutdown();
+        }
+    }
+
+    /**
+     * Remove the player's backpacks from memory when they log off. Any changes that have
+     * not been saved yet, will be saved by the next save.
+     *
+     * @param p - Player
+     * */
+    public void unloadPlayer(Player p){
+        if (dataStore != null){
+            dataStore.unloadPlayer(p.getUniqueId());
+        }
+    }
+
+    private FileConfiguration getData(Object playerUuid){
+        return getDataStore().getPlayerData(playerUuid);
+    }
+
+    private void markDirty(Object playerUuid){
+        getDataStore().markDirty(playerUuid);
     }
 
     /**
@@ -79,9 +131,12 @@ public class BackpacksUtil
         openBackpacks.remove(p.getName());
     }
 
+    /**
+     * The backpacks are now kept in memory for each player, and are saved by the
+     * BackpacksDataStore, so this will just save any changes that are pending.
+     * */
     public void updateCachedBackpack(){
-        backpacksFile = new File(SpigotPrison.getInstance().getDataFolder() + "/backpacks/backpacksData.yml");
-        backpacksDataConfig = YamlConfiguration.loadConfiguration(backpacksFile);
+        getDataStore().flush();
     }
 
     /**
@@ -697,54 +752,36 @@ public class BackpacksUtil
     }
 
     private int backpacksLimitGet(OfflinePlayer p) {
-        updateCachedBackpack();
-
         // If the value if null, for example from an older version of Prison, this will read the default value from the
         // backpacksconfig.yml and set it.
-        if (backpacksConfig.getString("Inventories." + p.getUniqueId() + ".Limit") == null){
+        if (getData(p.getUniqueId()).getString("Inventories." + p.getUniqueId() + ".Limit") == null){
             setBackpacksLimit(p, Integer.parseInt(backpacksConfig.getString("Options.Multiple-BackPacks-For-Player")));
         }
 
-        return backpacksConfig.getInt("Inventories." + p.getUniqueId() + ".Limit");
+        return getData(p.getUniqueId()).getInt("Inventories." + p.getUniqueId() + ".Limit");
     }
 
     private int backpacksLimitGet(Player p) {
-        updateCachedBackpack();
-
         // If the value if null, for example from an older version of Prison, this will read the default value from the
         // backpacksconfig.yml and set it.
-        if (backpacksDataConfig.getString("Inventories." + p.getUniqueId() + ".Limit") == null){
+        if (getData(p.getUniqueId()).getString("Inventories." + p.getUniqueId() + ".Limit") == null){
             setBackpacksLimit(p, Integer.parseInt(backpacksConfig.getString("Options.Multiple-BackPacks-For-Player")));
         }
 
-        return Integer.parseInt(backpacksDataConfig.getString("Inventories." + p.getUniqueId() + ".Limit"));
+        return Integer.parseInt(getData(p.getUniqueId()).getString("Inventories." + p.getUniqueId() + ".Limit"));
     }
 
     private boolean backpacksLimitSet(Player p, int limit) {
-        updateCachedBackpack();
+        getData(p.getUniqueId()).set("Inventories." + p.getUniqueId() + ".Limit", limit);
+        markDirty(p.getUniqueId());
 
-        try{
-            backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Limit", limit);
-            backpacksDataConfig.save(backpacksFile);
-        } catch (IOException ex){
-            return false;
-        }
-
-        updateCachedBackpack();
         return true;
     }
 
     private boolean backpacksLimitSet(OfflinePlayer p, int limit) {
-        updateCachedBackpack();
-
-        try {
-            backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Limit", limit);
-            backpacksDataConfig.save(backpacksFile);
-        } catch (IOException ex) {
-            return false;
-        }
+        getData(p.getUniqueId()).set("Inventories." + p.getUniqueId() + ".Limit", limit);
+        markDirty(p.getUniqueId());
 
-        updateCachedBackpack();
         return true;
     }
 
@@ -763,30 +800,18 @@ public class BackpacksUtil
     }
 
     private boolean checkOwnBackpack(Player p) {
-        updateCachedBackpack();
-
-        String playerName = backpacksDataConfig.getString("Inventories." + p.getUniqueId() + ".PlayerName");
+        String playerName = getData(p.getUniqueId()).getString("Inventories." + p.getUniqueId() + ".PlayerName");
         return playerName != null;
     }
 
     private boolean checkOwnBackpackMultiples(Player p){
-        updateCachedBackpack();
-
         return getNumberOwnedBackpacks(p) != 0;
     }
 
     private void setDefaultBackpackDataConfigMethod() {
-        if (backpacksConfig.getConfigurationSection("Inventories") == null) {
-            try {
-                backpacksFile = new File(SpigotPrison.getInstance().getDataFolder() + "/backpacks/backpacksData.yml");
-                backpacksDataConfig = YamlConfiguration.loadConfiguration(backpacksFile);
-                backpacksDataConfig.save(backpacksFile);
-            } catch (IOException ex) {
-                ex.printStackTrace();
-                return;
-            }
-        }
-        updateCachedBackpack();
+        // The players directory is created, and the old backpacksData.yml is migrated,
+        // when the data store is created, so this only needs to make sure it exists.
+        getDataStore();
     }
 
     private void giveBackpackToPlayerOnJoinItem(Player p) {
@@ -801,159 +826,71 @@ public class BackpacksUtil
     }
 
     private boolean resetBackpackMethod(Player p) {
-        updateCachedBackpack();
+        getData(p.getUniqueId()).set("Inventories." + p.getUniqueId() + ".Items", null);
+        markDirty(p.getUniqueId());
 
-        try {
-            try {
-                backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items", null);
-                backpacksDataConfig.save(backpacksFile);
-            } catch (NullPointerException ex){
-                return false;
-            }
-        } catch (IOException ex){
-            ex.printStackTrace();
-            return false;
-        }
-
-        updateCachedBackpack();
         return true;
     }
 
     private boolean resetBackpackMethod(Player p, String id) {
-        updateCachedBackpack();
-
-        try {
-            try {
-                backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items-" + id, null);
-                backpacksDataConfig.save(backpacksFile);
-            } catch (NullPointerException ex){
-                return false;
-            }
-        } catch (IOException ex){
-            ex.printStackTrace();
-            return false;
-        }
+        getData(p.getUniqueId()).set("Inventories." + p.getUniqueId() + ".Items-" + id, null);
+        markDirty(p.getUniqueId());
 
-        updateCachedBackpack();
         return true;
     }
 
     private boolean resetBackpackMethod(OfflinePlayer p) {
-        updateCachedBackpack();
+        getData(p.getUniqueId()).set("Inventories." + p.getUniqueId() + ".Items", null);
+        markDirty(p.getUniqueId());
 
-        try {
-            try {
-                backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items", null);
-                backpacksDataConfig.save(backpacksFile);
-            } catch (NullPointerException ex){
-                return false;
-            }
-        } catch (IOException ex){
-            ex.printStackTrace();
-            return false;
-        }
-
-        updateCachedBackpack();
         return true;
     }
 
     private boolean resetBackpackMethod(OfflinePlayer p, String id) {
-        updateCachedBackpack();
-
-        try {
-            try {
-                backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items-" + id, null);
-                backpacksDataConfig.save(backpacksFile);
-            } catch (NullPointerException ex){
-                return false;
-            }
-        } catch (IOException ex){
-            ex.printStackTrace();
-            return false;
-        }
+        getData(p.getUniqueId()).set("Inventories." + p.getUniqueId() + ".Items-" + id, null);
+        markDirty(p.getUniqueId());
 
-        updateCachedBackpack();
         return true;
     }
 
     private void backpackResize(Player p, int size) {
-        updateCachedBackpack();
-
         // Must be multiple of 9.
         if ((size % 9 != 0 || size > 54) && size != 0){
             return;
         }
 
-        updateCachedBackpack();
-
-        backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items.Size", size);
-
-        try {
-            backpacksDataConfig.save(backpacksFile);
-        } catch (IOException ex){
-            ex.printStackTrace();
-        }
-        updateCachedBackpack();
+        getData(p.getUniqueId()).set("Inventories." + p.getUniqueId() + ".Items.Size", size);
+        markDirty(p.getUniqueId());
     }
 
     private void backpackResize(OfflinePlayer p, int size) {
-        updateCachedBackpack();
-
         // Must be multiple of 9.
         if ((size % 9 != 0 || size > 54) && size != 0){
             return;
         }
 
-        updateCachedBackpack();
-
-        backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items.Size", size);
-
-        try {
-            backpacksDataConfig.save(backpacksFile);
-        } catch (IOException ex){
-            ex.printStackTrace();
-        }
-        updateCachedBackpack();
+        getData(p.getUniqueId()).set("Inventories." + p.getUniqueId() + ".Items.Size", size);
+        markDirty(p.getUniqueId());
     }
 
     private void backpackResize(Player p, int size, String id) {
-        updateCachedBackpack();
-
         // Must be multiple of 9.
         if (size % 9 != 0 || size > 54){
             return;
         }
 
-        updateCachedBackpack();
-
-        backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items-" + id + ".Size", size);
-
-        try {
-            backpacksDataConfig.save(backpacksFile);
-        } catch (IOException ex){
-            ex.printStackTrace();
-        }
-        updateCachedBackpack();
+        getData(p.getUniqueId()).set("Inventories." + p.getUniqueId() + ".Items-" + id + ".Size", size);
+        markDirty(p.getUniqueId());
     }
 
     private void backpackResize(OfflinePlayer p, int size, String id) {
-        updateCachedBackpack();
-
         // Must be multiple of 9.
         if (size % 9 != 0 || size > 54){
             return;
         }
 
-        updateCachedBackpack();
-
-        backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items-" + id + ".Size", size);
-
-        try {
-            backpacksDataConfig.save(backpacksFile);
-        } catch (IOException ex){
-            ex.printStackTrace();
-        }
-        updateCachedBackpack();
+        getData(p.getUniqueId()).set("Inventories." + p.getUniqueId() + ".Items-" + id + ".Size", size);
+        markDirty(p.getUniqueId());
     }
 
 //    private int getSize(Player p) {
@@ -981,7 +918,7 @@ public class BackpacksUtil
     	int backpackSize = backpackDefaultSize;
     	
     	try {
-    		String size = backpacksDataConfig.getString("Inventories." + playerUuid + ".Items" + backpackId + ".Size");
+    		String size = getData(playerUuid).getString("Inventories." + playerUuid + ".Items" + backpackId + ".Size");
     		
     		backpackSize = Integer.parseInt( size );
     	} catch (NumberFormatException ignored){}
@@ -999,8 +936,6 @@ public class BackpacksUtil
 //    	String backpackId = id == null ? 
 //    			"" : "-" + id;
     	
-        updateCachedBackpack();
-
         int backPackSize = getBackpackSize( p.getUniqueId(), id );
         
 //        int backPackSize = backpackDefaultSize;
@@ -1093,14 +1028,12 @@ public class BackpacksUtil
     	String backpackId = id == null ? 
     			"" : "-" + id;
     	
-    	updateCachedBackpack();
-    	
     	int size = getBackpackSize( playerUuid, id);
     	
     	// Get the Items config section
     	Set<String> slots;
     	try {
-    		slots = backpacksDataConfig.getConfigurationSection(
+    		slots = getData(playerUuid).getConfigurationSection(
     				"Inventories." + playerUuid + ".Items" + backpackId).getKeys(false);
     	} catch (NullPointerException ex){
     		return contents;
@@ -1108,7 +1041,7 @@ public class BackpacksUtil
     	
     	if (slots.size() != 0) {
     		for (String slot : slots) {
-    			ItemStack finalItem = backpacksDataConfig.getItemStack(
+    			ItemStack finalItem = getData(playerUuid).getItemStack(
     					"Inventories." + playerUuid + ".Items" + backpackId + "." + slot + ".ITEMSTACK");
     			if (finalItem != null) {
     				int slotNumber = Integer.parseInt(slot);
@@ -1127,8 +1060,6 @@ public class BackpacksUtil
     	String backpackId = id == null ? 
     			"" : "-" + id;
     	
-    	updateCachedBackpack();
-    	
     	int size = getBackpackSize(p, id);
     	
     	Inventory inv = Bukkit.createInventory(p, size, SpigotPrison.format("&3" + p.getName() + " -> Backpack" + backpackId));
@@ -1136,14 +1067,14 @@ public class BackpacksUtil
     	// Get the Items config section
     	Set<String> slots;
     	try {
-    		slots = backpacksDataConfig.getConfigurationSection(
+    		slots = getData(p.getUniqueId()).getConfigurationSection(
     				"Inventories." + p.getUniqueId() + ".Items" + backpackId).getKeys(false);
     	} catch (NullPointerException ex){
     		return inv;
     	}
     	if (slots.size() != 0) {
     		for (String slot : slots) {
-    			ItemStack finalItem = backpacksDataConfig.getItemStack(
+    			ItemStack finalItem = getData(p.getUniqueId()).getItemStack(
     					"Inventories." + p.getUniqueId() + ".Items" + backpackId + "." + slot + ".ITEMSTACK");
     			if (finalItem != null) {
     				int slotNumber = Integer.parseInt(slot);
@@ -1180,13 +1111,13 @@ public class BackpacksUtil
         // Get the Items config section
         Set<String> slots;
         try {
-            slots = backpacksDataConfig.getConfigurationSection("Inventories." + p.getUniqueId() + ".Items").getKeys(false);
+            slots = getData(p.getUniqueId()).getConfigurationSection("Inventories." + p.getUniqueId() + ".Items").getKeys(false);
         } catch (NullPointerException ex){
             return inv;
         }
         if (slots.size() != 0) {
             for (String slot : slots) {
-                ItemStack finalItem = backpacksDataConfig.getItemStack("Inventories." + p.getUniqueId() + ".Items." + slot + ".ITEMSTACK");
+                ItemStack finalItem = getData(p.getUniqueId()).getItemStack("Inventories." + p.getUniqueId() + ".Items." + slot + ".ITEMSTACK");
                 if (finalItem != null) {
                     try {
                         inv.setItem(Integer.parseInt(slot), finalItem);
@@ -1259,8 +1190,6 @@ public class BackpacksUtil
     	String backpackId = id == null ? 
     			"" : "-" + id;
     	
-        updateCachedBackpack();
-
         // Set dimensions if null or error.
         boolean needToSetNewDimensions = checkDimensionError(p, id);
         boolean needToSetNewOwner = checkBackpackOwnerMissing(p);
@@ -1271,15 +1200,9 @@ public class BackpacksUtil
             int backpackSize = getBackpackSize(p, id);
             int slot = 0;
 
-            try {
-                backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items" + backpackId, null);
-                backpacksDataConfig.save(backpacksFile);
-            } catch (IOException ex){
-                ex.printStackTrace();
-                return;
-            }
+            FileConfiguration backpacksDataConfig = getData(p.getUniqueId());
 
-            updateCachedBackpack();
+            backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items" + backpackId, null);
 
             backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items" + backpackId + ".Size", backpackSize);
 
@@ -1293,25 +1216,13 @@ public class BackpacksUtil
                     slot++;
                 }
             }
-            if (slot != 0){
-                try {
-                    backpacksDataConfig.save(backpacksFile);
-                } catch (IOException ex){
-                    ex.printStackTrace();
-                }
-            }
         } else {
             // If it's null just delete the whole stored inventory.
             oldDataVersionUpdater(p, id, needToSetNewDimensions, needToSetNewOwner, needToSetNewOwnerID);
-            try {
-                backpacksDataConfig.set("Inventories." + p.getUniqueId().toString() + ".Items" + backpackId, null);
-                backpacksDataConfig.save(backpacksFile);
-            } catch (IOException ex){
-                ex.printStackTrace();
-            }
+            getData(p.getUniqueId()).set("Inventories." + p.getUniqueId().toString() + ".Items" + backpackId, null);
         }
 
-        updateCachedBackpack();
+        markDirty(p.getUniqueId());
     }
 
 //    private void oldDataVersionUpdater(Player p, boolean needToSetNewDimensions, boolean needToSetNewOwner, boolean needToSetNewOwnerID) {
@@ -1330,6 +1241,7 @@ public class BackpacksUtil
     private void oldDataVersionUpdater(Player p, String id, boolean needToSetNewDimensions, boolean needToSetNewOwner, boolean needToSetNewOwnerID) {
     	String backpackId = id == null ? 
     			"" : "-" + id;
+    	FileConfiguration backpacksDataConfig = getData(p.getUniqueId());
     	
     	if (needToSetNewDimensions){
             backpacksDataConfig.set("Inventories." + p.getUniqueId() + ".Items" + backpackId + ".Size", 
@@ -1435,12 +1347,11 @@ public class BackpacksUtil
 
         // Items
         //
-        updateCachedBackpack();
 
         // Items can be -> Items- or just Items in the config, the default and old backpacks will have Items only, newer will be like
         // Items-1 or anyway an ID, I'm just getting the ID with this which's what I need.
         try {
-            for (String key : backpacksDataConfig.getConfigurationSection("Inventories." + p.getUniqueId()).getKeys(false)) {
+            for (String key : getData(p.getUniqueId()).getConfigurationSection("Inventories." + p.getUniqueId()).getKeys(false)) {
                 if (!key.equalsIgnoreCase("Items") && !key.equalsIgnoreCase("Limit") && !key.equalsIgnoreCase("PlayerName") && !key.equalsIgnoreCase("UniqueID")) {
                     backpacksIDs.add(key.substring(6));
                 } else {
@@ -1457,12 +1368,10 @@ public class BackpacksUtil
     private int getNumberOfBackpacksOwnedByPlayer(Player p) {
         int backpacksNumber = 0;
 
-        updateCachedBackpack();
-
         // Items can be -> Items- or just Items in the config, the default and old backpacks will have Items only, newer will be like
         // Items-1 or anyway an ID, I'm just getting the ID with this which's what I need.
         try {
-            for (String string : backpacksDataConfig.getConfigurationSection("Inventories." + p.getUniqueId()).getKeys(false)) {
+            for (String string : getData(p.getUniqueId()).getConfigurationSection("Inventories." + p.getUniqueId()).getKeys(false)) {
                 if (!string.equalsIgnoreCase("PlayerName") && !string.equalsIgnoreCase("Limit") && !string.equalsIgnoreCase("UniqueID")) {
                     backpacksNumber++;
                 }
@@ -1495,7 +1404,7 @@ public class BackpacksUtil
     	String backpackId = id == null ? 
     			"" : "-" + id;
         try{
-        	String size = backpacksDataConfig.getString("Inventories." + p.getUniqueId() + ".Items" + backpackId + ".Size");
+        	String size = getData(p.getUniqueId()).getString("Inventories." + p.getUniqueId() + ".Items" + backpackId + ".Size");
         	
             if ( size == null){
                 return true;
@@ -1508,7 +1417,7 @@ public class BackpacksUtil
     }
 
     private boolean checkBackpackOwnerMissing(Player p) {
-        return backpacksDataConfig.getString("Inventories." + p.getUniqueId() + ".PlayerName") == null;
+        return getData(p.getUniqueId()).getString("Inventories." + p.getUniqueId() + ".PlayerName") == null;
     }
 
 //    private boolean checkBackpackOwnerMissing(Player p, String id) {
@@ -1516,7 +1425,7 @@ public class BackpacksUtil
 //    }
 
     private boolean checkBackpackOwnerIDMissing(Player p) {
-        return backpacksDataConfig.getString("Inventories." + p.getUniqueId() + ".UniqueID") == null;
+        return getData(p.getUniqueId()).getString("Inventories." + p.getUniqueId() + ".UniqueID") == null;
     }
 
 //    private boolean checkBackpackOwnerIDMissing(Player p, String id) {
@@ -1540,51 +1449,22 @@ public class BackpacksUtil
     // what the hell? two functions with different parms but the damn exact same code????
 //    private OfflinePlayer getOfflinePlayer(String name, String id) {
     private OfflinePlayer getOfflinePlayer(String name) {
-        if (name != null) {
-            updateCachedBackpack();
-            ConfigurationSection inventories = backpacksDataConfig.getConfigurationSection("Inventories");
-            if (inventories != null) {
-                for (String uniqueID : inventories.getKeys(false)) {
-                	String playerName = inventories.getString(uniqueID + ".PlayerName");
-                	String uuid = inventories.getString(uniqueID + ".UniqueID");
-                    if (playerName != null && uuid != null){
-                        if (playerName.equalsIgnoreCase(name)){
-                            return Bukkit.getOfflinePlayer(UUID.fromString(uuid));
-                        }
-                    }
-                }
-            }
+        String uuid = getDataStore().getPlayerUuid(name);
+        if (uuid != null) {
+            return Bukkit.getOfflinePlayer(UUID.fromString(uuid));
         }
         return null;
     }
 
     private Player getOnlinePlayer(String name) {
-        if (name != null) {
-            updateCachedBackpack();
-            if (backpacksDataConfig.getConfigurationSection("Inventories") != null) {
-                for (String uniqueID : backpacksDataConfig.getConfigurationSection("Inventories").getKeys(false)) {
-                    if (backpacksDataConfig.getString("Inventories." + uniqueID + ".PlayerName").equalsIgnoreCase(name) && backpacksDataConfig.getString("Inventories." + uniqueID + ".UniqueID") != null) {
-                        return Bukkit.getPlayer(UUID.fromString(backpacksDataConfig.getString("Inventories." + uniqueID + ".UniqueID")));
-                    }
-                }
-            }
+        String uuid = getDataStore().getPlayerUuid(name);
+        if (uuid != null) {
+            return Bukkit.getPlayer(UUID.fromString(uuid));
         }
         return null;
     }
 
     private Player getOnlinePlayer(String name, String id) {
-        if (name != null) {
-            updateCachedBackpack();
-            if (backpacksDataConfig.getConfigurationSection("Inventories") != null) {
-                for (String uniqueID : backpacksDataConfig.getConfigurationSection("Inventories").getKeys(false)) {
-                    if (backpacksDataConfig.getString("Inventories." + uniqueID + ".PlayerName") != null && backpacksDataConfig.getString("Inventories." + uniqueID + ".UniqueID") != null){
-                        if (backpacksDataConfig.getString("Inventories." + uniqueID + ".PlayerName").equalsIgnoreCase(name)){
-                            return Bukkit.getPlayer(UUID.fromString(backpacksDataConfig.getString("Inventories." + uniqueID + ".UniqueID")));
-                        }
-                    }
-                }
-            }
-        }
-        return null;
+        return getOnlinePlayer(name);
     }
 }
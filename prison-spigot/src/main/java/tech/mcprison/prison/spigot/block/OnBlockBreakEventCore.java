@@ -19,6 +19,7 @@ import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig;
 import tech.mcprison.prison.autofeatures.AutoFeaturesFileConfig.AutoFeatures;
 import tech.mcprison.prison.autofeatures.AutoFeaturesWrapper;
 import tech.mcprison.prison.cache.PlayerCache;
+import tech.mcprison.prison.internal.block.MineTargetBlockStore;
 import tech.mcprison.prison.internal.block.MineTargetPrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlockStatusData;
@@ -34,6 +35,7 @@ import tech.mcprison.prison.spigot.compat.Compatibility;
 import tech.mcprison.prison.spigot.compat.SpigotCompatibility;
 import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.utils.BlockUtils;
+import tech.mcprison.prison.util.Location;
 import tech.mcprison.prison.util.Text;
 
 public abstract class OnBlockBreakEventCore
@@ -591,8 +593,20 @@ public abstract class OnBlockBreakEventCore
 			// of the blocks could be marked as being mined but then never processed.
 			if ( results ) {
 				
+				// The mine's target blocks are checked first, so the blocks that have already 
+				// been mined do not have to be converted to SpigotBlocks:
+				MineTargetBlockStore targetBlocks = mine.getMineTargetPrisonBlocks();
+				Location hitLocation = sBlockHit == null ? null : sBlockHit.getLocation();
+				
 				for ( Block bukkitBlock : pmEvent.getUnprocessedRawBlocks() ) 
 				{
+					if ( targetBlocks.isMined( bukkitBlock.getX(), bukkitBlock.getY(), bukkitBlock.getZ() ) &&
+							!isSameBlockLocation( hitLocation, bukkitBlock ) ) {
+						
+						alreadyMined++;
+						continue;
+					}
+					
 					SpigotBlock sBlockMined = SpigotBlock.getSpigotBlock( bukkitBlock );
 					
 					// Thanks to CrazyEnchant, there is no telling which block was actually hit, so 
@@ -2195,6 +2209,13 @@ public abstract class OnBlockBreakEventCore
 //		this.teExplosionTriggerEnabled = teExplosionTriggerEnabled;
 //	}
 
+	private boolean isSameBlockLocation( Location location, Block bukkitBlock ) {
+		return location != null && 
+				location.getBlockX() == bukkitBlock.getX() &&
+				location.getBlockY() == bukkitBlock.getY() &&
+				location.getBlockZ() == bukkitBlock.getZ();
+	}
+	
 	public Random getRandom() {
 		return random;
 	}
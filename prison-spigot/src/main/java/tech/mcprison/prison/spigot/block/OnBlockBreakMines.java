@@ -20,6 +20,7 @@ import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
 import tech.mcprison.prison.internal.block.PrisonBlockStatusData;
 import tech.mcprison.prison.mines.PrisonMines;
 import tech.mcprison.prison.mines.data.Mine;
+import tech.mcprison.prison.mines.managers.PlayerMineCache;
 import tech.mcprison.prison.modules.Module;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.spigot.SpigotUtil;
@@ -190,10 +191,8 @@ public class OnBlockBreakMines
 	
 	public Mine findMine( UUID playerUUID, SpigotBlock sBlock, List<Block> altBlocksSource, PrisonMinesBlockBreakEvent pmEvent )
 	{
-		Long playerUUIDLSB = Long.valueOf( playerUUID.getLeastSignificantBits() );
-
 		// Get the cached mine, if it exists:
-		Mine mine = getPlayerCache().get( playerUUIDLSB );
+		Mine mine = getPlayerCache().get( playerUUID );
 		
 		if ( mine == null || sBlock != null && !mine.isInMineExact( sBlock.getLocation() ) )
 		{
@@ -228,11 +227,9 @@ public class OnBlockBreakMines
 				}
 			}
 
-			// Store the mine in the player cache if not null:
-			if ( mine != null )
-			{
-				getPlayerCache().put( playerUUIDLSB, mine );
-			}
+			// Store the mine in the player cache, or remove it if the player
+			// is no longer in a mine:
+			getPlayerCache().put( playerUUID, mine );
 		}
 
 		return mine;
@@ -671,10 +668,8 @@ public class OnBlockBreakMines
 	}
 	
 
-	private TreeMap<Long, Mine> getPlayerCache() {
-		return getPrisonMineManager() == null ? 
-				new TreeMap<Long, Mine>() :
-				getPrisonMineManager().getPlayerCache();
+	private PlayerMineCache getPlayerCache() {
+		return PlayerMineCache.getInstance();
 	}
 
 	private PrisonMines getPrisonMineManager() {
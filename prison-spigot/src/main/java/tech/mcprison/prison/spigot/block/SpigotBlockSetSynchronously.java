@@ -3,21 +3,34 @@ package tech.mcprison.prison.spigot.block;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.bukkit.scheduler.BukkitRunnable;
-
 import tech.mcprison.prison.internal.PrisonStatsElapsedTimeNanos;
 import tech.mcprison.prison.internal.block.MineResetType;
 import tech.mcprison.prison.internal.block.MineTargetPrisonBlock;
 import tech.mcprison.prison.internal.block.PrisonBlock;
 import tech.mcprison.prison.output.Output;
-import tech.mcprison.prison.spigot.SpigotPrison;
 import tech.mcprison.prison.spigot.game.SpigotWorld;
+import tech.mcprison.prison.tasks.PrisonBlockSetJob;
+import tech.mcprison.prison.tasks.PrisonBlockSetOwner;
+import tech.mcprison.prison.tasks.PrisonBlockSetScheduler;
 import tech.mcprison.prison.util.Location;
 
 public class SpigotBlockSetSynchronously {
 
+	/**
+	 * <p>The blocks are no longer set in their own BukkitRunnable.  They are queued
+	 * with the PrisonBlockSetScheduler which will set them within the tick budget
+	 * that is shared with all other mines.  A slice may be spread over more than
+	 * one tick if the budget runs out.
+	 * </p>
+	 *
+	 * @param tBlocks
+	 * @param resetType
+	 * @param nanos
+	 * @param world
+	 * @param owner
+	 */
 	public void setBlocksSynchronously( List<MineTargetPrisonBlock> tBlocks, MineResetType resetType, 
-			PrisonStatsElapsedTimeNanos nanos, SpigotWorld world ) {
+			PrisonStatsElapsedTimeNanos nanos, SpigotWorld world, PrisonBlockSetOwner owner ) {
 	
 		List<MineTargetPrisonBlock> tBlocksCloned = new ArrayList<>();
 		for ( MineTargetPrisonBlock mtpb : tBlocks ) {
@@ -25,17 +38,31 @@ public class SpigotBlockSetSynchronously {
 			tBlocksCloned.add( mtpb );
 		}
 		
-		new BukkitRunnable() {
+		PrisonBlockSetScheduler.getInstance().submit( owner, new PrisonBlockSetJob() {
+
+			private int position = 0;
+
 			@Override
-			public void run() {
+			public int getRemainingBlocks() {
+				return tBlocksCloned.size() - position;
+			}
+
+			@Override
+			public boolean runJob( long deadlineNanos ) {
+
+				if ( position >= tBlocksCloned.size() ) {
+					return true;
+				}
 				
 				long start = System.nanoTime();
 				
 				MineTargetPrisonBlock current = null;
 				try
 				{
-					for ( MineTargetPrisonBlock tBlock : tBlocksCloned )
+					// Always set at least one block so the job makes progress:
+					do
 					{
+						MineTargetPrisonBlock tBlock = tBlocksCloned.get( position++ );
 						current = tBlock;
 						
 						if ( tBlock != null && tBlock.getLocation() != null ) {
@@ -54,8 +81,12 @@ public class SpigotBlockSetSynchronously {
 						}
 						
 					}
+					while ( position < tBlocksCloned.size() && System.nanoTime() < deadlineNanos );
 				}
 				catch ( Exception e ) {
+
+					// Same as before, the remainder of the slice is skipped:
+					position = tBlocksCloned.size();
 					
 					if ( current != null ) {
 						
@@ -83,8 +114,9 @@ public class SpigotBlockSetSynchronously {
 					nanos.addNanos( elapsedNanos );
 				}
 				
+				return position >= tBlocksCloned.size();
 			}
-		}.runTaskLater( SpigotPrison.getInstance(), 0 );
+		});
 		
 	}
 
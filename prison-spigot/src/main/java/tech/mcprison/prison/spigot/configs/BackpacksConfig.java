@@ -82,6 +82,7 @@ public class BackpacksConfig extends SpigotConfigComponents{
         dataConfig("Options.BackPack_Close_Sound", "BLOCK_CHEST_CLOSE");
         dataConfig("Options.Multiple-BackPacks-For-Player-Enabled", false);
         dataConfig("Options.Multiple-BackPacks-For-Player", "2");
+        dataConfig("Options.BackPack_Save_Interval_Seconds", "15");
     }
 
     public FileConfiguration getFileBackpacksConfig(){
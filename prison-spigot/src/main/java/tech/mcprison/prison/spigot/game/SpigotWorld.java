@@ -38,6 +38,7 @@ import tech.mcprison.prison.spigot.block.SpigotBlockSetAsynchronously;
 import tech.mcprison.prison.spigot.block.SpigotBlockSetSynchronously;
 import tech.mcprison.prison.spigot.block.SpigotItemStack;
 import tech.mcprison.prison.spigot.compat.SpigotCompatibility;
+import tech.mcprison.prison.tasks.PrisonBlockSetOwner;
 import tech.mcprison.prison.util.Location;
 
 /**
@@ -146,18 +147,19 @@ public class SpigotWorld implements World {
 	 * </p>
 	 * 
 	 * <p>The MineTargetPrisonBlock List should be a fairly short list of blocks that
-	 * will be updated in one synchronous slice.
+	 * will be updated in one synchronous slice.  The slice is queued with the 
+	 * PrisonBlockSetScheduler under the given owner.
 	 * </p>
 	 * 
 	 */
 	@Override
 	public void setBlocksSynchronously( List<MineTargetPrisonBlock> tBlocks, MineResetType resetType, 
-			PrisonStatsElapsedTimeNanos nanos ) {
+			PrisonStatsElapsedTimeNanos nanos, PrisonBlockSetOwner owner ) {
 		
 		if ( setBlockSync == null ) {
 			setBlockSync = new SpigotBlockSetSynchronously();
 		}
-		setBlockSync.setBlocksSynchronously(tBlocks, resetType, nanos, this );
+		setBlockSync.setBlocksSynchronously(tBlocks, resetType, nanos, this, owner );
 		
 	}
 
@@ -13,6 +13,7 @@ import org.bukkit.plugin.RegisteredServiceProvider;
 
 import net.luckperms.api.LuckPerms;
 import net.luckperms.api.context.DefaultContextKeys;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
 import net.luckperms.api.model.data.DataMutateResult;
 import net.luckperms.api.model.user.User;
 import net.luckperms.api.model.user.UserManager;
@@ -24,6 +25,8 @@ import net.luckperms.api.node.types.WeightNode;
 import net.luckperms.api.query.QueryOptions;
 import tech.mcprison.prison.internal.Player;
 import tech.mcprison.prison.placeholders.PlaceholdersUtil;
+import tech.mcprison.prison.spigot.SpigotPrison;
+import tech.mcprison.prison.spigot.sellall.SellAllUtil;
 
 /**
  * <p>This wrapper provides support for LuckPerms v5.x.  Both v5.x and legacy 
@@ -53,6 +56,11 @@ public class LuckPerms5Wrapper
 		
 //		LuckPerms api = provider.getProvider();
 		api = provider.getProvider();
+		
+		// When a player's permissions are recalculated, their cached sellall 
+		// multiplier may no longer be correct:
+		api.getEventBus().subscribe( SpigotPrison.getInstance(), UserDataRecalculateEvent.class, 
+				event -> SellAllUtil.invalidatePlayerMultiplierCache( event.getUser().getUniqueId() ) );
 	}
 	
     protected void addPermission(Player holder, String permission) {
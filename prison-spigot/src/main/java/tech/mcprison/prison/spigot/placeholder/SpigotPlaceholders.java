@@ -16,10 +16,12 @@ import tech.mcprison.prison.mines.managers.MineManager;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.placeholders.PlaceHolderKey;
 import tech.mcprison.prison.placeholders.PlaceholderIdentifier;
+import tech.mcprison.prison.placeholders.PlaceholderKeyIndex;
 import tech.mcprison.prison.placeholders.PlaceholderManager.PlaceholderFlags;
 import tech.mcprison.prison.placeholders.PlaceholderManager.PrisonPlaceHolders;
 import tech.mcprison.prison.placeholders.PlaceholderManagerUtils;
 import tech.mcprison.prison.placeholders.PlaceholderStatsData;
+import tech.mcprison.prison.placeholders.PlaceholderValueCache;
 import tech.mcprison.prison.placeholders.Placeholders;
 import tech.mcprison.prison.placeholders.PlaceholdersStats;
 import tech.mcprison.prison.ranks.PrisonRanks;
@@ -35,6 +37,8 @@ public class SpigotPlaceholders
 	private PlayerManager pm = null;
 	private RankManager rm = null;
 	
+	private volatile PlaceholderKeyIndex placeholderKeyIndex = null;
+	
 
 	// NOTE: These patterns are from: 
 	// https://github.com/PlaceholderAPI/PlaceholderAPI/blob/master/src/main/java/me/clip/placeholderapi/PlaceholderAPI.java
@@ -227,7 +231,7 @@ public class SpigotPlaceholders
      */
     @Override
     public String placeholderTranslate( UUID playerUuid, String playerName, String placeholderText ) {
-    	PlaceholderIdentifier identifier = new PlaceholderIdentifier( placeholderText );
+    	PlaceholderIdentifier identifier = getPlaceholderKeyIndex().createIdentifier( placeholderText );
     	identifier.setPlayer(playerUuid, playerName);
     	
     	return processPlaceholderIdentifier( identifier );
@@ -260,15 +264,32 @@ public class SpigotPlaceholders
     	// skip processing...
     	if ( !stats.isFailedMatch() ) {
     		
-    		if ( identifier.getPlaceholderKey() == null ) {
+    		PlaceholderValueCache valueCache = PlaceholderValueCache.getInstance();
+    		
+    		// If the placeholderKey is known, then the results may have already been cached:
+    		String cachedText = valueCache.getCachedText( identifier );
+    		
+    		if ( cachedText != null ) {
+    			
+    			identifier.setText( cachedText );
+    			identifier.setFoundAMatch( true );
     			
-    			// Lookup the correct placeholderKey:
-    			results = processPlaceholderSearchForPlaceholderKey( identifier );
+    			results = cachedText;
     		}
     		else {
     			
-    			// Use the existing placeholderKey:
-    			results = processPlaceholderHavePlaceholderKey( identifier );
+    			if ( identifier.getPlaceholderKey() == null ) {
+    				
+    				// Lookup the correct placeholderKey:
+    				results = processPlaceholderSearchForPlaceholderKey( identifier );
+    			}
+    			else {
+    				
+    				// Use the existing placeholderKey:
+    				results = processPlaceholderHavePlaceholderKey( identifier );
+    			}
+    			
+    			valueCache.putCachedText( identifier, results );
     		}
     		
     	}
@@ -283,60 +304,51 @@ public class SpigotPlaceholders
     	return results == null ? "" : results;
     }
     
+    /**
+     * <p>Finds the placeholderKey with the PlaceholderKeyIndex, instead of searching
+     * all of the mine, player, and rank placeholder keys.  Then the placeholder is 
+     * translated the same as if the placeholderKey was already known.
+     * </p>
+     * 
+     * @param identifier
+     * @return
+     */
     private String processPlaceholderSearchForPlaceholderKey( PlaceholderIdentifier identifier ) {
-//		String results = text;
-
-		
-    	if ( mm != null ) {
+    	
+    	PlaceHolderKey placeHolderKey = getPlaceholderKeyIndex().find( identifier );
+    	
+    	if ( placeHolderKey != null ) {
     		
-    		List<PlaceHolderKey> placeholderKeys = mm.getTranslatedPlaceHolderKeys();
+    		processPlaceholderHavePlaceholderKey( identifier );
+    	}
+    	
+    	return identifier.getText();
+    }
+    
+    /**
+     * <p>Returns the index of all of the placeholder keys.  If the mines, ranks, or 
+     * ladders have changed, then the managers will have generated new lists of
+     * placeholder keys, so the index will be rebuilt.
+     * </p>
+     * 
+     * @return
+     */
+    private PlaceholderKeyIndex getPlaceholderKeyIndex() {
+    	
+    	List<PlaceHolderKey> mineKeys = mm == null ? null : mm.getTranslatedPlaceHolderKeys();
+    	List<PlaceHolderKey> playerKeys = pm == null ? null : pm.getTranslatedPlaceHolderKeys();
+    	List<PlaceHolderKey> rankKeys = rm == null ? null : rm.getTranslatedPlaceHolderKeys();
+    	
+    	PlaceholderKeyIndex index = placeholderKeyIndex;
+    	
+    	if ( index == null || !index.isCurrent( mineKeys, playerKeys, rankKeys ) ) {
     		
-    		for ( PlaceHolderKey placeHolderKey : placeholderKeys ) {
-    			
-    			if ( identifier.checkPlaceholderKey( placeHolderKey ) ) {
-    				mm.getTranslateMinesPlaceholder( identifier );
-    				break;
-    			}
-    			
-    		}
+    		index = new PlaceholderKeyIndex( mineKeys, playerKeys, rankKeys );
+    		placeholderKeyIndex = index;
     	}
     	
-		
-		if ( !identifier.isFoundAMatch() ) {
-			
-			if ( pm != null ) {
-				
-				List<PlaceHolderKey> placeholderKeys = pm.getTranslatedPlaceHolderKeys();
-				
-				for ( PlaceHolderKey placeHolderKey : placeholderKeys ) {
-	    			
-	    			if ( identifier.checkPlaceholderKey( placeHolderKey ) ) {
-	    				pm.getTranslatePlayerPlaceHolder( identifier );
-						break;
-					}
-	    				    			
-	    		}
-			}
-			
-			
-			if ( !identifier.isFoundAMatch() && rm != null ) {
-
-				List<PlaceHolderKey> placeholderKeys = rm.getTranslatedPlaceHolderKeys();
-	    		
-	    		for ( PlaceHolderKey placeHolderKey : placeholderKeys ) {
-	    			
-	    			if ( identifier.checkPlaceholderKey( placeHolderKey ) ) {
-	    				rm.getTranslateRanksPlaceHolder( identifier );
-						break;
-					}
-	    			
-	    		}
-			}
-		}
-		
-
-		return identifier.getText();
-	}
+    	return index;
+    }
     
     private String processPlaceholderHavePlaceholderKey( PlaceholderIdentifier identifier ) {
     	
@@ -454,7 +466,7 @@ public class SpigotPlaceholders
 		while (matcher.find()) {
 			final String placeholderText = matcher.group(1);
 
-			PlaceholderIdentifier identifier = new PlaceholderIdentifier( placeholderText );
+			PlaceholderIdentifier identifier = getPlaceholderKeyIndex().createIdentifier( placeholderText );
 			identifier.setPlayer(playerUuid, playerName);
 			
 			String replacementText = processPlaceholderIdentifier(identifier);
@@ -630,7 +642,13 @@ public class SpigotPlaceholders
 		
 		PlaceholderManagerUtils.getInstance().reloadPlaceholderBarConfig();
 		
+		// Reload the cache TTLs, which also clears the cached placeholder values:
+		PlaceholderValueCache.getInstance().loadConfigTtls();
+		
 		initializePlaceholderManagers();
+		
+		// The placeholder keys will be regenerated, so the index must be rebuilt:
+		placeholderKeyIndex = null;
     	
     	if ( PrisonRanks.getInstance() != null && PrisonRanks.getInstance().isEnabled() ) {
     		PlayerManager pm = PrisonRanks.getInstance().getPlayerManager();
@@ -0,0 +1,185 @@
+package tech.mcprison.prison.spigot.sellall;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import com.cryptomorin.xseries.XMaterial;
+
+import tech.mcprison.prison.internal.block.PrisonBlock;
+import tech.mcprison.prison.internal.block.PrisonBlock.PrisonBlockType;
+import tech.mcprison.prison.spigot.SpigotUtil;
+
+/**
+ * <p>This is an immutable snapshot of the sellall items and their prices.
+ * The plain minecraft items are indexed by their XMaterial ordinal, so
+ * pricing an ItemStack that does not have a custom display name is just an
+ * array lookup, without building any search strings.  The items that
+ * have a display name are still found by their block name search key.
+ * </p>
+ *
+ * <p>Since the prices are copied when the table is built, the SellAllUtil
+ * must build a new table whenever the sellall items are changed.
+ * </p>
+ *
+ */
+public class SellAllPriceTable
+{
+	private final Entry[] entries;
+
+	private final Map<String, Entry> namedEntries;
+
+	private final boolean empty;
+
+	/**
+	 * <p>A sellall item with its sale price and if lore is allowed, at the
+	 * time when the table was built.
+	 * </p>
+	 */
+	public static class Entry {
+		private final PrisonBlock prisonBlock;
+		private final double salePrice;
+		private final boolean loreAllowed;
+
+		private Entry( PrisonBlock prisonBlock ) {
+			this.prisonBlock = prisonBlock;
+			this.salePrice = prisonBlock.getSalePrice();
+			this.loreAllowed = prisonBlock.isLoreAllowed();
+		}
+
+		public PrisonBlock getPrisonBlock() {
+			return prisonBlock;
+		}
+		public double getSalePrice() {
+			return salePrice;
+		}
+		public boolean isLoreAllowed() {
+			return loreAllowed;
+		}
+	}
+
+	public SellAllPriceTable( Map<String, PrisonBlock> sellAllItems ) {
+		super();
+
+		this.entries = new Entry[ XMaterial.values().length ];
+		this.namedEntries = new HashMap<>();
+
+		for ( PrisonBlock pBlock : sellAllItems.values() ) {
+
+			// Items without a price cannot be sold:
+			if ( pBlock.getSalePrice() == null ) {
+				continue;
+			}
+
+			Entry entry = new Entry( pBlock );
+
+			XMaterial xMat = null;
+			if ( pBlock.getDisplayName() == null &&
+					pBlock.getBlockType() == PrisonBlockType.minecraft ) {
+
+				Optional<XMaterial> xMatOptional = XMaterial.matchXMaterial( pBlock.getBlockName() );
+				xMat = xMatOptional.orElse( null );
+			}
+
+			if ( xMat != null ) {
+				entries[ xMat.ordinal() ] = entry;
+			}
+			else {
+				namedEntries.put( pBlock.getBlockNameSearch(), entry );
+			}
+		}
+
+		this.empty = sellAllItems.isEmpty();
+	}
+
+	public boolean isEmpty() {
+		return empty;
+	}
+
+	/**
+	 * <p>Returns the sellall entry for the bukkit ItemStack, or null if it
+	 * cannot be sold.  This will not check the lore, but if the item has an
+	 * ItemMeta, then the ItemMeta can be passed so it will not have to be
+	 * cloned again.
+	 * </p>
+	 *
+	 * @param xMat
+	 * @param meta The item's meta, or null if the item does not have any.
+	 * @return
+	 */
+	public Entry getEntry( XMaterial xMat, ItemMeta meta ) {
+		Entry results = null;
+
+		if ( xMat != null ) {
+
+			if ( meta != null && meta.hasDisplayName() ) {
+
+				// Custom names are rare, so use the same search key that is used by the
+				// PrisonBlock for the sellall items:
+				PrisonBlock pBlock = SpigotUtil.getPrisonBlock( xMat, meta.getDisplayName() );
+				results = namedEntries.get( pBlock.getBlockNameSearch() );
+			}
+			else {
+				results = entries[ xMat.ordinal() ];
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Returns the sellall entry for the PrisonBlock, or null if it
+	 * cannot be sold.
+	 * </p>
+	 *
+	 * @param pBlock
+	 * @return
+	 */
+	public Entry getEntry( PrisonBlock pBlock ) {
+		Entry results = null;
+
+		if ( pBlock != null ) {
+
+			if ( pBlock.getDisplayName() == null &&
+					pBlock.getBlockType() == PrisonBlockType.minecraft ) {
+
+				XMaterial xMat = XMaterial.matchXMaterial( pBlock.getBlockName() ).orElse( null );
+				if ( xMat != null ) {
+					results = entries[ xMat.ordinal() ];
+				}
+			}
+
+			if ( results == null ) {
+				results = namedEntries.get( pBlock.getBlockNameSearch() );
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * <p>Returns the XMaterial for the bukkit ItemStack, or null if it is
+	 * air or is not supported.
+	 * </p>
+	 *
+	 * @param iStack
+	 * @return
+	 */
+	public static XMaterial getXMaterial( ItemStack iStack ) {
+		XMaterial results = null;
+
+		if ( iStack != null && iStack.getAmount() > 0 ) {
+			try {
+				results = XMaterial.matchXMaterial( iStack );
+			}
+			catch ( Exception e ) {
+				// Not supported, so it cannot be sold
+			}
+		}
+
+		return results == XMaterial.AIR ? null : results;
+	}
+}
@@ -5,9 +5,12 @@ import java.io.IOException;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Sound;
@@ -16,6 +19,7 @@ import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 
 import com.cryptomorin.xseries.XMaterial;
 import com.cryptomorin.xseries.XSound;
@@ -40,7 +44,6 @@ import tech.mcprison.prison.spigot.game.SpigotCommandSender;
 import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.gui.sellall.SellAllAdminGUI;
 import tech.mcprison.prison.spigot.gui.sellall.SellAllPlayerGUI;
-import tech.mcprison.prison.spigot.inventory.SpigotPlayerInventory;
 import tech.mcprison.prison.util.Text;
 
 /**
@@ -57,9 +60,15 @@ public class SellAllUtil
     public Configuration sellAllConfig;
     
     private HashMap<String, PrisonBlock> sellAllItems;
+    private volatile SellAllPriceTable sellAllPriceTable;
 //    private HashMap<XMaterial, Double> sellAllBlocks;
     
     private HashMap<String, Double> sellAllPrestigeMultipliers;
+    
+    public static final long PLAYER_MULTIPLIER_CACHE_SECONDS = 30;
+    
+    private final ConcurrentHashMap<UUID, PlayerMultiplierCacheEntry> playerMultiplierCache = new ConcurrentHashMap<>();
+    private long playerMultiplierCacheMs;
     private HashMap<Player, Double> autoSellEarningsNotificationWaiting = new HashMap<>();
     private ArrayList<XMaterial> sellAllItemTriggers;
     
@@ -147,6 +156,7 @@ public class SellAllUtil
         sellAllSignTag = Text.translateAmpColorCodes(sellAllConfig.getString("Options.SellAll_Sign_Visible_Tag") );
 //        sellAllBlocks = initSellAllBlocks();
         sellAllItems = initSellAllItems();
+        sellAllPriceTable = null;
         
         sellAllPrestigeMultipliers = initPrestigeMultipliers();
         sellAllItemTriggers = initSellAllItemTrigger();
@@ -176,6 +186,10 @@ public class SellAllUtil
         isSellAllGUIPermissionEnabled = getBooleanValue("Options.GUI_Permission_Enabled");
         isSellAllPlayerGUIPermissionEnabled = getBooleanValue("Options.Player_GUI_Permission_Enabled");
         isSellAllMultiplierEnabled = getBooleanValue("Options.Multiplier_Enabled");
+        playerMultiplierCacheMs = 1000 * getLongValue("Options.Multiplier_Cache_Seconds", PLAYER_MULTIPLIER_CACHE_SECONDS);
+        
+        // The config may have changed the multipliers, so all cached values are invalid:
+        invalidatePlayerMultipliers();
         isSellAllPermissionMultiplierOnlyHigherEnabled = getBooleanValue("Options.Multiplier_Permission_Only_Higher");
         isSellAllSignEnabled = getBooleanValue("Options.SellAll_Sign_Enabled");
         isSellAllSignNotifyEnabled = getBooleanValue("Options.SellAll_Sign_Notify");
@@ -186,6 +200,21 @@ public class SellAllUtil
         isSellAllIgnoreCustomNames = getBooleanValue("Options.SellAll_ignoreCustomNames", false);
     }
     
+    private long getLongValue( String configName, long defaultValue ) {
+    	long results = defaultValue;
+    	
+    	String value = sellAllConfig.getString(configName);
+    	if ( value != null ) {
+    		try {
+    			results = Long.parseLong(value.trim());
+    		} catch (NumberFormatException e) {
+    			// Not a number, so ignore and let the default value stand
+    		}
+    	}
+    	
+    	return results;
+    }
+    
     private boolean getBooleanValue( String configName ) {
     	return getBooleanValue(configName, false);
     }
@@ -321,6 +350,24 @@ public class SellAllUtil
 		return sellAllItems;
 	}
 
+    /**
+     * <p>Returns the price table for the current sellall items. The table is
+     * rebuilt the next time it is used after any of the items are changed.
+     * </p>
+     * 
+     * @return
+     */
+    public SellAllPriceTable getSellAllPriceTable() {
+    	SellAllPriceTable results = sellAllPriceTable;
+    	
+    	if ( results == null ) {
+    		results = new SellAllPriceTable( sellAllItems );
+    		sellAllPriceTable = results;
+    	}
+    	
+    	return results;
+    }
+
 	/**
      * Return SellAll Prestige Multiplier HashMap read before from config on init.
      *
@@ -393,9 +440,43 @@ public class SellAllUtil
 //        return xMaterialIntegerHashMap;
 //    }
 
+    /**
+     * <p>A player's cached sellall multiplier.  The entry is no longer valid 
+     * when it expires, or if the player's ranks have changed since it was 
+     * calculated.
+     * </p>
+     */
+    private static class PlayerMultiplierCacheEntry {
+    	private final double multiplier;
+    	private final RankPlayer rPlayer;
+    	private final int rankChangeCount;
+    	private final long expires;
+    	
+    	private PlayerMultiplierCacheEntry( double multiplier, RankPlayer rPlayer, long expires ) {
+    		this.multiplier = multiplier;
+    		this.rPlayer = rPlayer;
+    		this.rankChangeCount = rPlayer == null ? 0 : rPlayer.getRankChangeCount();
+    		this.expires = expires;
+    	}
+    	
+    	private boolean isValid( long now ) {
+    		return now < expires && 
+    				(rPlayer == null || rPlayer.getRankChangeCount() == rankChangeCount);
+    	}
+    }
+    
     /**
      * Get SellAll Player Multiplier.
      *
+     * <p>The results are cached per player, since autosell will call this on 
+     * every block break.  The cached value is dropped when the player's ranks 
+     * change, which includes prestiges, when the sellall config is reloaded, 
+     * when the player's permissions are recalculated (if supported by the 
+     * permission plugin), and when the player logs out.  Since not all 
+     * permission plugins report changes, the cached value also expires after 
+     * Options.Multiplier_Cache_Seconds.  A value of 0 disables the cache.
+     * </p>
+     *
      * @param p - Player.
      *
      * @return double.
@@ -406,15 +487,76 @@ public class SellAllUtil
             return 1d;
         }
 
-//        long tPoint1 = System.nanoTime();
+        long now = System.currentTimeMillis();
+        
+        PlayerMultiplierCacheEntry cached = playerMultiplierCache.get( p.getUniqueId() );
+        if ( cached != null && cached.isValid( now ) ) {
+        	return cached.multiplier;
+        }
         
         SpigotPlayer sPlayer = new SpigotPlayer(p);
-
-        double multiplier = 0d;
         
+        RankPlayer rPlayer = null;
         if ( PrisonRanks.getInstance() != null && PrisonRanks.getInstance().isEnabled() ) {
         	
-        	RankPlayer rPlayer = sPlayer.getRankPlayer();
+        	rPlayer = sPlayer.getRankPlayer();
+        }
+        
+        double multiplier = calculatePlayerMultiplier( sPlayer, rPlayer );
+        
+        if ( playerMultiplierCacheMs > 0 ) {
+        	
+        	playerMultiplierCache.put( p.getUniqueId(), 
+        			new PlayerMultiplierCacheEntry( multiplier, rPlayer, now + playerMultiplierCacheMs ) );
+        }
+        
+        return multiplier;
+    }
+    
+    /**
+     * <p>Drops the player's cached sellall multiplier, so it will be 
+     * recalculated the next time it is used.
+     * </p>
+     * 
+     * @param playerUuid
+     */
+    public void invalidatePlayerMultiplier( UUID playerUuid ) {
+    	if ( playerUuid != null ) {
+    		playerMultiplierCache.remove( playerUuid );
+    	}
+    }
+    
+    /**
+     * <p>Drops all of the cached sellall multipliers.  This is used when the
+     * sellall config is reloaded, which includes when the rank multipliers are
+     * added, edited, or removed.
+     * </p>
+     */
+    public void invalidatePlayerMultipliers() {
+    	playerMultiplierCache.clear();
+    }
+    
+    /**
+     * <p>This can be used from listeners, since this will not create the
+     * SellAllUtil instance if it has not been used yet.
+     * </p>
+     * 
+     * @param playerUuid
+     */
+    public static void invalidatePlayerMultiplierCache( UUID playerUuid ) {
+    	SellAllUtil sellAll = instance;
+    	if ( sellAll != null ) {
+    		sellAll.invalidatePlayerMultiplier( playerUuid );
+    	}
+    }
+    
+    private double calculatePlayerMultiplier( SpigotPlayer sPlayer, RankPlayer rPlayer ) {
+
+//        long tPoint1 = System.nanoTime();
+        
+        double multiplier = 0d;
+        
+        if ( rPlayer != null ) {
         	
         	Set<RankLadder> keys = rPlayer.getLadderRanks().keySet();
         	for (RankLadder ladderKey : keys) {
@@ -679,9 +821,7 @@ public class SellAllUtil
     	
     	double multiplier = getPlayerMultiplier(sPlayer.getWrapper());
 
-    	SpigotPlayerInventory spInventory = sPlayer.getSpigotPlayerInventory();
-
-    	List<SellAllData> soldItems = valueOfInventoryItems( spInventory, multiplier );
+    	List<SellAllData> soldItems = sellInventory( sPlayer.getWrapper().getInventory(), multiplier, false );
     	for (SellAllData soldItem : soldItems) {
 			value += soldItem.getTransactionAmount();
 		}
@@ -693,9 +833,7 @@ public class SellAllUtil
     	
     	double multiplier = getPlayerMultiplier(sPlayer.getWrapper());
     	
-    	SpigotPlayerInventory spInventory = sPlayer.getSpigotPlayerInventory();
-    	
-    	List<SellAllData> soldItems = valueOfInventoryItems( spInventory, multiplier );
+    	List<SellAllData> soldItems = sellInventory( sPlayer.getWrapper().getInventory(), multiplier, false );
     	
     	String report = SellAllData.itemsSoldReport(soldItems, sPlayer, multiplier);
     	
@@ -706,9 +844,7 @@ public class SellAllUtil
     	
     	double multiplier = getPlayerMultiplier(sPlayer.getWrapper());
     	
-    	SpigotPlayerInventory spInventory = sPlayer.getSpigotPlayerInventory();
-    	
-    	List<SellAllData> soldItems = valueOfInventoryItems( spInventory, multiplier );
+    	List<SellAllData> soldItems = sellInventory( sPlayer.getWrapper().getInventory(), multiplier, false );
     	
     	return soldItems;
     }
@@ -768,11 +904,7 @@ public class SellAllUtil
     	
     	double multiplier = getPlayerMultiplier(p);
     	
-    	SpigotPlayer sPlayer = new SpigotPlayer( p );
-    	
-    	SpigotPlayerInventory spInventory = sPlayer.getSpigotPlayerInventory();
-
-    	return sellInventoryItems( spInventory, multiplier );
+    	return sellInventory( p.getInventory(), multiplier, true );
 	}
 
     /**
@@ -828,53 +960,81 @@ public class SellAllUtil
     }
     
     
-    private List<SellAllData> sellInventoryItems( tech.mcprison.prison.internal.inventory.Inventory inventory, 
-    					double multiplier ) {
+    /**
+     * <p>This prices a whole bukkit inventory, such as a player's inventory or a 
+     * backpack, in one pass.  Each ItemStack is priced by the SellAllPriceTable 
+     * using its XMaterial, so the items without a custom name do not need any
+     * string operations, or a conversion to a SpigotItemStack.  The sold items
+     * are combined to one SellAllData per item type.
+     * </p>
+     * 
+     * <p>If <b>removeSold</b> is true, then the sold items are removed from the 
+     * inventory, otherwise this only returns their value.  This does not pay the
+     * player anything.
+     * </p>
+     * 
+     * @param inventory
+     * @param multiplier
+     * @param removeSold
+     * @return
+     */
+    public List<SellAllData> sellInventory( org.bukkit.inventory.Inventory inventory, 
+    					double multiplier, boolean removeSold ) {
     	List<SellAllData> soldItems = new ArrayList<>();
-
-    	if ( inventory != null ) {
+    	
+    	SellAllPriceTable priceTable = getSellAllPriceTable();
+    	
+    	if ( inventory != null && !priceTable.isEmpty() ) {
     		
-    		List<tech.mcprison.prison.internal.ItemStack> removable = new ArrayList<>();
+    		IdentityHashMap<SellAllPriceTable.Entry, SellAllData> receipts = new IdentityHashMap<>();
     		
-    		// Go through all of the player's inventory and identify what can be sold.
-    		// 1. if it can be sold, then create a SellAllData "receipt"
-    		// 2. Add sad to the soldItems List
-    		// 3. Add the ItemStack to the removable List to be removed later
-    		for ( tech.mcprison.prison.internal.ItemStack inv : inventory.getItems() ) {
+    		ItemStack[] contents = inventory.getContents();
+    		
+    		for ( int i = 0; i < contents.length; i++ ) {
+    			ItemStack iStack = contents[i];
     			
-    			SellAllData sad = sellItemStack( (SpigotItemStack)inv, multiplier );
-    				
-    			if ( sad != null ) {
-    				
-    				sad.setItemsSold( true );
-    				
-    				soldItems.add(sad);
-    				
-    				removable.add(inv);
+    			XMaterial xMat = SellAllPriceTable.getXMaterial( iStack );
+    			if ( xMat == null ) {
+    				continue;
     			}
-    		}
-    		
-    		// We've identified all that could be sold, now remove them from the player's inventory
-    		for (tech.mcprison.prison.internal.ItemStack itemStack : removable) {
-    			inventory.removeItem( itemStack );
-    		}
-    	}
-    	
-		return soldItems;
-    }
-    
-    private List<SellAllData> valueOfInventoryItems( 
-    		tech.mcprison.prison.internal.inventory.Inventory inventory, double multiplier ) {
-    	List<SellAllData> soldItems = new ArrayList<>();
-    	
-    	if ( inventory != null ) {
-    		
-    		for ( tech.mcprison.prison.internal.ItemStack inv : inventory.getItems() ) {
     			
-    			SellAllData sad = sellItemStack( (SpigotItemStack)inv, multiplier );
+    			ItemMeta meta = iStack.hasItemMeta() ? iStack.getItemMeta() : null;
     			
-    			if ( sad != null ) {
-    				soldItems.add(sad);
+    			SellAllPriceTable.Entry entry = priceTable.getEntry( xMat, meta );
+    			if ( entry == null ) {
+    				continue;
+    			}
+    			
+    			if ( !entry.isLoreAllowed() && meta != null && meta.hasLore() && !meta.getLore().isEmpty() ) {
+    				if ( Output.get().isDebug() ) {
+    					String msg = String.format(
+    							"Sellall: Cannot sell item '%s' (qty %s) because it has lore which is not allowed. ",
+    							xMat.name(), 
+    							Integer.toString( iStack.getAmount() )
+    							);
+    					Output.get().logInfo( msg );
+    				}
+    				continue;
+    			}
+    			
+    			int quantity = iStack.getAmount();
+    			double amount = quantity * entry.getSalePrice() * multiplier;
+    			
+    			SellAllData sad = receipts.get( entry );
+    			if ( sad == null ) {
+    				sad = new SellAllData( entry.getPrisonBlock(), quantity, amount );
+    				sad.setItemsSold( removeSold );
+    				
+    				receipts.put( entry, sad );
+    				soldItems.add( sad );
+    			}
+    			else {
+    				sad.setQuantity( sad.getQuantity() + quantity );
+    				sad.setTransactionAmount( sad.getTransactionAmount() + amount );
+    			}
+    			
+    			if ( removeSold ) {
+    				inventory.setItem( i, null );
     			}
     		}
     	}
@@ -904,7 +1064,7 @@ public class SellAllUtil
     		// displayName if that is set on the itemStack.
     		PrisonBlock pBlockInv = iStack.getMaterial();
     		
-    		PrisonBlock pBlockSellAll = sellAllItems.get( pBlockInv.getBlockNameSearch() );
+    		SellAllPriceTable.Entry pBlockSellAll = getSellAllPriceTable().getEntry( pBlockInv );
     		
     		if ( pBlockSellAll != null ) {
     			
@@ -922,7 +1082,7 @@ public class SellAllUtil
     			else {
     				
     				double amount = iStack.getAmount() * pBlockSellAll.getSalePrice() * multiplier;
-    				soldItem = new SellAllData( pBlockSellAll, iStack.getAmount(), amount );
+    				soldItem = new SellAllData( pBlockSellAll.getPrisonBlock(), iStack.getAmount(), amount );
     			}
     		}
     	}
@@ -1442,6 +1602,7 @@ public class SellAllUtil
 
             pBlockKey.setSalePrice( value );
             sellAllItems.put( pBlockKey.getBlockNameSearch(), pBlockKey );
+            sellAllPriceTable = null;
 
         } catch (IOException e) {
             e.printStackTrace();
@@ -1757,6 +1918,7 @@ public class SellAllUtil
         }
         
         pBlock.setSalePrice( value );
+        sellAllPriceTable = null;
 
         try {
             File sellAllFile = new File(SpigotPrison.getInstance().getDataFolder() + "/SellAllConfig.yml");
@@ -1819,6 +1981,7 @@ public class SellAllUtil
     	}
     	
     	pBlock.setLoreAllowed( value );
+    	sellAllPriceTable = null;
     	
     	try {
     		File sellAllFile = new File(SpigotPrison.getInstance().getDataFolder() + "/SellAllConfig.yml");
@@ -1910,6 +2073,7 @@ public class SellAllUtil
         }
         
         sellAllItems.remove( key );
+        sellAllPriceTable = null;
 //        sellAllBlocks.remove(xMaterial);
         return true;
     }
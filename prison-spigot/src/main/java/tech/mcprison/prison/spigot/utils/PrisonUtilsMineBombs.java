@@ -362,6 +362,7 @@ public class PrisonUtilsMineBombs
 				switch ( shape )
 				{
 					case cube:
+					case cubeHollow:
 						{
 							int lenght = 1 + (bomb.getRadius() * 2);
 							messageShape = String.format( 
@@ -369,9 +370,30 @@ public class PrisonUtilsMineBombs
 									bomb.getExplosionShape(), 
 									lenght, lenght, lenght,
 									bomb.getRadius() );
+							
+							if ( shape == ExplosionShape.cubeHollow ) {
+								messageShape += String.format( "   &3RadiusInner: &7%d", 
+										bomb.getRadiusInner() );
+							}
 							break;
 						}
 					
+					case cylinder:
+					case cylinderHollow:
+					{
+						int height = bomb.getHeight() <= 0 ? 
+										1 + (bomb.getRadius() * 2) : bomb.getHeight();
+						messageShape = String.format( 
+								"      &3Shape: &7%s   &3Radius: &7%d.5   &3Height: &7%d", 
+								bomb.getExplosionShape(), bomb.getRadius(), height );
+						
+						if ( shape == ExplosionShape.cylinderHollow ) {
+							messageShape += String.format( "   &3RadiusInner: &7%d.5", 
+									bomb.getRadiusInner() );
+						}
+						break;
+					}
+					
 					case sphereHollow:
 					case ring_x:
 					case ring_y:
@@ -2,10 +2,12 @@ package tech.mcprison.prison.spigot.utils;
 
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Effect;
@@ -21,17 +23,21 @@ import com.cryptomorin.xseries.XSound;
 import com.cryptomorin.xseries.particles.ParticleDisplay;
 
 import tech.mcprison.prison.Prison;
+import tech.mcprison.prison.bombs.ExplosionShapeOffsets;
 import tech.mcprison.prison.bombs.MineBombData;
 import tech.mcprison.prison.bombs.MineBombEffectsData;
 import tech.mcprison.prison.bombs.MineBombEffectsData.EffectState;
 import tech.mcprison.prison.bombs.MineBombs;
-import tech.mcprison.prison.bombs.MineBombs.ExplosionOrientation;
-import tech.mcprison.prison.bombs.MineBombs.ExplosionShape;
+import tech.mcprison.prison.internal.block.MineTargetBlockStore;
+import tech.mcprison.prison.mines.PrisonMines;
+import tech.mcprison.prison.mines.data.Mine;
 import tech.mcprison.prison.output.Output;
 import tech.mcprison.prison.spigot.SpigotPrison;
 import tech.mcprison.prison.spigot.api.ExplosiveBlockBreakEvent;
+import tech.mcprison.prison.spigot.api.PrisonSpigotAPI;
 import tech.mcprison.prison.spigot.block.SpigotBlock;
 import tech.mcprison.prison.spigot.block.SpigotItemStack;
+import tech.mcprison.prison.spigot.compat.SpigotCompatibility;
 import tech.mcprison.prison.spigot.game.SpigotPlayer;
 import tech.mcprison.prison.spigot.game.SpigotWorld;
 import tech.mcprison.prison.spigot.spiget.BluesSpigetSemVerComparator;
@@ -332,110 +338,73 @@ public class PrisonUtilsMineBombsTasks
 			private List<org.bukkit.block.Block> calculatBlocksForExplosion( MineBombData bomb, Location location,
 					MineBombs mBombs )
 			{
-				List<org.bukkit.block.Block> blocks = new ArrayList<>();
+				// Get all the block offsets that are included in the explosion.  The offsets 
+				// are cached for each shape and radius, so they are not calculated for each explosion:
+				ExplosionShapeOffsets shapeOffsets = mBombs.getExplosionShapeOffsets( bomb );
 				
-				// Calculate all the locations that are included in the explosion:
-				List<Location> blockLocations = null;
-
-				
-				ExplosionShape shape = ExplosionShape.fromString( bomb.getExplosionShape() );
-				
-				switch ( shape )
-				{
-					case cube:
-						{
-							blockLocations = mBombs.calculateCube( location, 
-									bomb.getRadius() );
-							break;
-						}
-					
-					case ring_x:
-					{
-						blockLocations = mBombs.calculateSphere( location, 
-								bomb.getRadius(), true, bomb.getRadiusInner(),
-								ExplosionOrientation.x_axis );
-						break;
-					}
-					case ring_y:
-					{
-						blockLocations = mBombs.calculateSphere( location, 
-								bomb.getRadius(), true, bomb.getRadiusInner(),
-								ExplosionOrientation.y_axis );
-						break;
-					}
-					case ring_z:
-					{
-						blockLocations = mBombs.calculateSphere( location, 
-								bomb.getRadius(), true, bomb.getRadiusInner(),
-								ExplosionOrientation.z_axis );
-						break;
-					}
-
-					
-					case disk_x:
-						{
-							blockLocations = mBombs.calculateSphere( location, 
-									bomb.getRadius(), false, 0,
-									ExplosionOrientation.x_axis );
-							break;
-						}
-					case disk_y:
-						{
-							blockLocations = mBombs.calculateSphere( location, 
-									bomb.getRadius(), false, 0,
-									ExplosionOrientation.y_axis );
-							break;
-						}
-					case disk_z:
-						{
-							blockLocations = mBombs.calculateSphere( location, 
-									bomb.getRadius(), false, 0,
-									ExplosionOrientation.z_axis );
-							break;
-						}
-						
-						
-					
-					case sphereHollow:
-					{
-						blockLocations = mBombs.calculateSphere( location, 
-								bomb.getRadius(), true, bomb.getRadiusInner() );
-						break;
-					}
-					
-					case sphere:
-					default:
-					{
-						blockLocations = mBombs.calculateSphere( location, 
-								bomb.getRadius(), false );
-						break;
-					}
-				}
-
+				List<org.bukkit.block.Block> blocks = new ArrayList<>( shapeOffsets.size() );
 				
 				SpigotWorld world = (SpigotWorld) location.getWorld();
-
+				org.bukkit.World bWorld = world.getWrapper();
+				
+				// If the bomb is in a mine, then the blocks that have already been mined are 
+				// skipped, without having to get them from the world:
+				MineTargetBlockStore targetBlocks = getMineTargetBlocks( location );
 				
-				// Honor the percent chance for including the block:
+				// Honor the percent chance for including the block.  One random number 
+				// generator is used for the whole explosion:
 				double removalChance = bomb.getRemovalChance();
-				Random random = new Random();
+				boolean checkRemovalChance = removalChance < 100.0d;
+				Random random = ThreadLocalRandom.current();
 				
+				// The blocks are read through their chunks, which are only looked up once
+				// for each chunk, instead of once for each block:
+				Map<Long, org.bukkit.Chunk> chunks = new HashMap<>();
 				
-				// Convert to spigot blocks:
-				for ( Location bLocation : blockLocations ) {
-					double chance = random.nextDouble() * 100.0d;
+				// The blocks outside of the world's height must be skipped, since the 
+				// chunk's getBlock() will throw an exception for them:
+				int minY = SpigotCompatibility.getInstance().getMinY();
+				int maxY = Math.min( SpigotCompatibility.getInstance().getMaxY(), 
+										bWorld.getMaxHeight() - 1 );
+				
+				// Only the bukkit blocks are needed, so no SpigotBlocks are created:
+				shapeOffsets.forEach( location, minY, maxY, (x, y, z) -> {
 					
-					if ( chance <= removalChance ) {
+					if ( (!checkRemovalChance || random.nextDouble() * 100.0d <= removalChance) && 
+							(targetBlocks == null || !targetBlocks.isMined( x, y, z )) ) {
+						
+						int chunkX = x >> 4;
+						int chunkZ = z >> 4;
+						long chunkKey = ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
 						
-						SpigotBlock sBlock = (SpigotBlock) world.getBlockAt( bLocation );
-						if ( !sBlock.isEmpty() ) {
+						org.bukkit.Chunk chunk = chunks.computeIfAbsent( chunkKey, 
+										key -> bWorld.getChunkAt( chunkX, chunkZ ) );
+						
+						org.bukkit.block.Block bBlock = chunk.getBlock( x & 0xF, y, z & 0xF );
+						if ( !bBlock.isEmpty() ) {
 							
-							blocks.add( sBlock.getWrapper() );
+							blocks.add( bBlock );
 						}
 					}
-				}
+				});
 				return blocks;
 			}
+			
+			private MineTargetBlockStore getMineTargetBlocks( Location location ) {
+				MineTargetBlockStore results = null;
+				
+				PrisonMines prisonMines = new PrisonSpigotAPI().getPrisonMineManager();
+				
+				if ( prisonMines != null ) {
+					Mine mine = prisonMines.findMineLocation( location );
+					
+					if ( mine != null ) {
+						results = mine.getMineTargetPrisonBlocks();
+					}
+				}
+				
+				return results;
+			}
 		}.runTaskLater( SpigotPrison.getInstance(), bomb.getFuseDelayTicks() );
 		
 		//.runTaskTimer( SpigotPrison.getInstance(), 10, 10);